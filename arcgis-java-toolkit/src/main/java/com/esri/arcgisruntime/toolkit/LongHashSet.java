@@ -0,0 +1,148 @@
+/*
+ * Copyright 2022 Esri
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.esri.arcgisruntime.toolkit;
+
+/**
+ * A set of primitive long values, such as object IDs, that avoids boxing each value.
+ *
+ * <p>
+ * Values are stored in a single array using open addressing with linear probing. The set only grows, which is all
+ * that is needed to compare the elements of trace results.
+ *
+ * @since 200.1.0
+ */
+final class LongHashSet {
+
+  // marks an empty slot. The value itself is tracked separately
+  private static final long EMPTY = 0;
+  private static final int MIN_CAPACITY = 16;
+
+  private long[] slots;
+  private int mask;
+  private int size = 0;
+  private boolean containsEmpty = false;
+
+  /**
+   * Creates a LongHashSet that can hold the provided number of values without growing.
+   *
+   * @param expectedSize the expected number of values
+   * @since 200.1.0
+   */
+  LongHashSet(int expectedSize) {
+    // keep the load factor at or below 0.5
+    var capacity = Integer.highestOneBit(Math.max(MIN_CAPACITY, expectedSize * 2 - 1)) << 1;
+    slots = new long[capacity];
+    mask = capacity - 1;
+  }
+
+  /**
+   * Adds a value to the set.
+   *
+   * @param value the value
+   * @return true if the value was added, false if it was already in the set
+   * @since 200.1.0
+   */
+  boolean add(long value) {
+    if (value == EMPTY) {
+      if (containsEmpty) {
+        return false;
+      }
+      containsEmpty = true;
+      size++;
+      return true;
+    }
+    var index = hash(value) & mask;
+    while (slots[index] != EMPTY) {
+      if (slots[index] == value) {
+        return false;
+      }
+      index = (index + 1) & mask;
+    }
+    slots[index] = value;
+    size++;
+    if (size * 2 > slots.length) {
+      grow();
+    }
+    return true;
+  }
+
+  /**
+   * Returns whether the set contains a value.
+   *
+   * @param value the value
+   * @return true if the set contains the value, false otherwise
+   * @since 200.1.0
+   */
+  boolean contains(long value) {
+    if (value == EMPTY) {
+      return containsEmpty;
+    }
+    var index = hash(value) & mask;
+    long slot;
+    while ((slot = slots[index]) != EMPTY) {
+      if (slot == value) {
+        return true;
+      }
+      index = (index + 1) & mask;
+    }
+    return false;
+  }
+
+  /**
+   * Returns the number of values in the set.
+   *
+   * @return the number of values
+   * @since 200.1.0
+   */
+  int size() {
+    return size;
+  }
+
+  /**
+   * Doubles the capacity of the set and reinserts the values.
+   *
+   * @since 200.1.0
+   */
+  private void grow() {
+    var oldSlots = slots;
+    slots = new long[oldSlots.length * 2];
+    mask = slots.length - 1;
+    for (long value : oldSlots) {
+      if (value != EMPTY) {
+        var index = hash(value) & mask;
+        while (slots[index] != EMPTY) {
+          index = (index + 1) & mask;
+        }
+        slots[index] = value;
+      }
+    }
+  }
+
+  /**
+   * Spreads the bits of a value so that sequential values, such as object IDs, do not cluster.
+   *
+   * @param value the value
+   * @return the hash
+   * @since 200.1.0
+   */
+  private static int hash(long value) {
+    value ^= value >>> 33;
+    value *= 0xff51afd7ed558ccdL;
+    value ^= value >>> 33;
+    return (int) value;
+  }
+}
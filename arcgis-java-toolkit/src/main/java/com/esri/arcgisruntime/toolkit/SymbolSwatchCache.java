@@ -0,0 +1,332 @@
+/*
+ * Copyright 2022 Esri
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.esri.arcgisruntime.toolkit;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import com.esri.arcgisruntime.concurrent.ListenableFuture;
+import com.esri.arcgisruntime.symbology.Symbol;
+import javafx.scene.image.Image;
+import javafx.scene.paint.Color;
+
+/**
+ * A least recently used cache of the swatches of symbols, shared by the toolkit controls that display them.
+ *
+ * <p>
+ * Swatches are keyed by the JSON of the symbol, the requested width and height, the screen scale and the background
+ * color, so that controls displaying equal symbols at the same size share a single swatch even if the symbols are
+ * different instances. Concurrent requests for a swatch that is still being created share the same request. The
+ * cache is bounded by the number of bytes of the pixels of its swatches, and evicts the least recently used swatches
+ * when it is above the budget.
+ *
+ * @since 200.1.0
+ */
+public final class SymbolSwatchCache {
+
+  /**
+   * The default maximum number of bytes of the pixels of the cached swatches.
+   *
+   * @since 200.1.0
+   */
+  public static final long DEFAULT_MAX_BYTES = 16L * 1024 * 1024;
+
+  private static final LinkedHashMap<Key, Image> swatches = new LinkedHashMap<>(16, 0.75f, true);
+  private static final Map<Key, CompletableFuture<Image>> pendingSwatches = new HashMap<>();
+  private static long maxBytes = DEFAULT_MAX_BYTES;
+  private static long sizeBytes = 0;
+
+  /**
+   * Prevents instantiation, as this class only has static methods.
+   *
+   * @since 200.1.0
+   */
+  private SymbolSwatchCache() {
+  }
+
+  /**
+   * Returns the swatch of a symbol at the size of the symbol, creating it with
+   * {@link Symbol#createSwatchAsync(Color, float)} if it is not cached.
+   *
+   * <p>
+   * The returned future completes on the JavaFX application thread, unless the swatch is cached, in which case it is
+   * already complete. Cancelling the returned future does not cancel the creation of the swatch for other requests.
+   *
+   * @param symbol the symbol
+   * @param background the background color of the swatch
+   * @param screenScale the scale of the screen the swatch is displayed on
+   * @return a future that completes with the swatch
+   * @throws NullPointerException if symbol or background is null
+   * @since 200.1.0
+   */
+  public static CompletableFuture<Image> getSwatchAsync(Symbol symbol, Color background, float screenScale) {
+    Objects.requireNonNull(symbol, "Symbol cannot be null");
+    Objects.requireNonNull(background, "Background cannot be null");
+    return getSwatchAsync(symbol, 0, 0, screenScale, background,
+      () -> symbol.createSwatchAsync(background, screenScale));
+  }
+
+  /**
+   * Returns the swatch of a symbol at the provided size, creating it with
+   * {@link Symbol#createSwatchAsync(int, int, float, Color)} if it is not cached.
+   *
+   * <p>
+   * The returned future completes on the JavaFX application thread, unless the swatch is cached, in which case it is
+   * already complete. Cancelling the returned future does not cancel the creation of the swatch for other requests.
+   *
+   * @param symbol the symbol
+   * @param width the width of the swatch
+   * @param height the height of the swatch
+   * @param screenScale the scale of the screen the swatch is displayed on
+   * @param background the background color of the swatch
+   * @return a future that completes with the swatch
+   * @throws NullPointerException if symbol or background is null
+   * @since 200.1.0
+   */
+  public static CompletableFuture<Image> getSwatchAsync(
+    Symbol symbol, int width, int height, float screenScale, Color background) {
+    Objects.requireNonNull(symbol, "Symbol cannot be null");
+    Objects.requireNonNull(background, "Background cannot be null");
+    return getSwatchAsync(symbol, width, height, screenScale, background,
+      () -> symbol.createSwatchAsync(width, height, screenScale, background));
+  }
+
+  /**
+   * Returns the maximum number of bytes of the pixels of the cached swatches.
+   *
+   * @return the maximum number of bytes
+   * @since 200.1.0
+   */
+  public static synchronized long getMaxBytes() {
+    return maxBytes;
+  }
+
+  /**
+   * Sets the maximum number of bytes of the pixels of the cached swatches, evicting the least recently used swatches
+   * if the cache is above the new maximum. The default is {@link #DEFAULT_MAX_BYTES}.
+   *
+   * @param maxBytes the maximum number of bytes. 0 disables caching, although concurrent requests for the same swatch
+   * continue to share a single request
+   * @throws IllegalArgumentException if maxBytes is negative
+   * @since 200.1.0
+   */
+  public static synchronized void setMaxBytes(long maxBytes) {
+    if (maxBytes < 0) {
+      throw new IllegalArgumentException("Max bytes cannot be negative");
+    }
+    SymbolSwatchCache.maxBytes = maxBytes;
+    evict();
+  }
+
+  /**
+   * Returns the number of bytes of the pixels of the cached swatches.
+   *
+   * @return the number of bytes
+   * @since 200.1.0
+   */
+  public static synchronized long getSizeBytes() {
+    return sizeBytes;
+  }
+
+  /**
+   * Removes all cached swatches. Swatches that are being created are cached when they are complete.
+   *
+   * @since 200.1.0
+   */
+  public static synchronized void clear() {
+    swatches.clear();
+    sizeBytes = 0;
+  }
+
+  /**
+   * Returns the cached swatch for the provided key, or joins or starts the request that creates it.
+   *
+   * @param symbol the symbol
+   * @param width the width of the swatch. 0 for the size of the symbol
+   * @param height the height of the swatch. 0 for the size of the symbol
+   * @param screenScale the scale of the screen
+   * @param background the background color of the swatch
+   * @param createSwatch creates the swatch if it is neither cached nor being created
+   * @return a future that completes with the swatch
+   * @since 200.1.0
+   */
+  private static CompletableFuture<Image> getSwatchAsync(
+    Symbol symbol, int width, int height, float screenScale, Color background,
+    Supplier<ListenableFuture<Image>> createSwatch) {
+    Key key;
+    try {
+      key = new Key(symbol.toJson(), width, height, screenScale, background);
+    } catch (RuntimeException e) {
+      // symbols that cannot be serialized are not cached
+      return toCompletableFuture(createSwatch.get());
+    }
+
+    CompletableFuture<Image> pendingSwatch;
+    synchronized (SymbolSwatchCache.class) {
+      var swatch = swatches.get(key);
+      if (swatch != null) {
+        return CompletableFuture.completedFuture(swatch);
+      }
+      pendingSwatch = pendingSwatches.get(key);
+      if (pendingSwatch != null) {
+        return pendingSwatch.copy();
+      }
+      pendingSwatch = new CompletableFuture<>();
+      pendingSwatches.put(key, pendingSwatch);
+    }
+
+    // the swatch is created outside the lock, as the request may complete immediately
+    var completableFuture = pendingSwatch;
+    try {
+      var listenableFuture = createSwatch.get();
+      listenableFuture.addDoneListener(() -> {
+        try {
+          var swatch = listenableFuture.get();
+          put(key, swatch);
+          completableFuture.complete(swatch);
+        } catch (Throwable e) {
+          completableFuture.completeExceptionally(e);
+        } finally {
+          // the swatch is cached before the request is removed, so later calls find one or the other
+          remove(key);
+        }
+      });
+    } catch (Throwable e) {
+      remove(key);
+      completableFuture.completeExceptionally(e);
+    }
+    return completableFuture.copy();
+  }
+
+  /**
+   * Caches a swatch that has been created, evicting the least recently used swatches if the cache is full.
+   *
+   * @param key the key of the swatch
+   * @param swatch the swatch
+   * @since 200.1.0
+   */
+  private static synchronized void put(Key key, Image swatch) {
+    var bytes = getBytes(swatch);
+    if (bytes <= maxBytes) {
+      var previousSwatch = swatches.put(key, swatch);
+      if (previousSwatch != null) {
+        sizeBytes -= getBytes(previousSwatch);
+      }
+      sizeBytes += bytes;
+      evict();
+    }
+  }
+
+  /**
+   * Removes the request for a swatch once it has completed, whether or not the swatch could be created.
+   *
+   * @param key the key of the swatch
+   * @since 200.1.0
+   */
+  private static synchronized void remove(Key key) {
+    pendingSwatches.remove(key);
+  }
+
+  /**
+   * Evicts the least recently used swatches until the cache is within its budget.
+   *
+   * @since 200.1.0
+   */
+  private static void evict() {
+    var iterator = swatches.values().iterator();
+    while (sizeBytes > maxBytes && iterator.hasNext()) {
+      sizeBytes -= getBytes(iterator.next());
+      iterator.remove();
+    }
+  }
+
+  /**
+   * Returns the number of bytes of the pixels of a swatch, assuming 4 bytes per pixel.
+   *
+   * @param swatch the swatch
+   * @return the number of bytes
+   * @since 200.1.0
+   */
+  private static long getBytes(Image swatch) {
+    return (long) Math.ceil(swatch.getWidth()) * (long) Math.ceil(swatch.getHeight()) * 4;
+  }
+
+  /**
+   * Converts a ListenableFuture to a CompletableFuture.
+   *
+   * @param listenableFuture the ListenableFuture
+   * @return the CompletableFuture
+   * @since 200.1.0
+   */
+  private static CompletableFuture<Image> toCompletableFuture(ListenableFuture<Image> listenableFuture) {
+    var completableFuture = new CompletableFuture<Image>();
+    listenableFuture.addDoneListener(() -> {
+      try {
+        completableFuture.complete(listenableFuture.get());
+      } catch (Throwable e) {
+        completableFuture.completeExceptionally(e);
+      }
+    });
+    return completableFuture;
+  }
+
+  /**
+   * The key of a swatch.
+   *
+   * @since 200.1.0
+   */
+  private static final class Key {
+
+    private final String symbolJson;
+    private final int width;
+    private final int height;
+    private final float screenScale;
+    private final Color background;
+    private final int hashCode;
+
+    private Key(String symbolJson, int width, int height, float screenScale, Color background) {
+      this.symbolJson = symbolJson;
+      this.width = width;
+      this.height = height;
+      this.screenScale = screenScale;
+      this.background = background;
+      this.hashCode = Objects.hash(symbolJson, width, height, screenScale, background);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      var key = (Key) o;
+      return width == key.width && height == key.height && Float.compare(screenScale, key.screenScale) == 0 &&
+        symbolJson.equals(key.symbolJson) && background.equals(key.background);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+}
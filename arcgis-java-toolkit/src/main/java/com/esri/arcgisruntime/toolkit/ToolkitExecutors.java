@@ -0,0 +1,245 @@
+/*
+ * Copyright 2022 Esri
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.esri.arcgisruntime.toolkit;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javafx.application.Platform;
+
+/**
+ * The executors used by the toolkit controls to run asynchronous work and the continuations of asynchronous
+ * operations.
+ *
+ * <p>
+ * Work that must not block the JavaFX application thread, such as reading files, runs on the executor returned by
+ * {@link #getExecutor()}. By default, this executor runs each task on a new virtual thread when running on Java 21 or
+ * later, and otherwise on a pool of daemon threads that is dedicated to the toolkit, so that toolkit work does not
+ * compete with the application for the threads of {@link java.util.concurrent.ForkJoinPool#commonPool()}. An
+ * application can provide its own executor with {@link #setExecutor(Executor)}, which applies to work started
+ * afterwards.
+ *
+ * <p>
+ * Continuations that update controls or their properties run on the executor returned by {@link #getFxExecutor()},
+ * which always runs tasks on the JavaFX application thread.
+ *
+ * @since 200.1.0
+ */
+public final class ToolkitExecutors {
+
+  private static final Executor FX_EXECUTOR = runnable -> {
+    if (Platform.isFxApplicationThread()) {
+      runnable.run();
+    } else {
+      Platform.runLater(runnable);
+    }
+  };
+
+  private static volatile Executor executor = null;
+  // the default executor, created when it is first required
+  private static ExecutorService defaultExecutor = null;
+  // the scheduler for delayed tasks, created when it is first required
+  private static ScheduledThreadPoolExecutor scheduler = null;
+
+  /**
+   * Prevents instantiation, as this class only has static methods.
+   *
+   * @since 200.1.0
+   */
+  private ToolkitExecutors() {
+  }
+
+  /**
+   * Returns the executor that the toolkit controls run background work on.
+   *
+   * @return the executor provided with {@link #setExecutor(Executor)}, or the default executor if none was provided
+   * @since 200.1.0
+   */
+  public static Executor getExecutor() {
+    var currentExecutor = executor;
+    return currentExecutor != null ? currentExecutor : getDefaultExecutor();
+  }
+
+  /**
+   * Sets the executor that the toolkit controls run background work on. The executor is not shut down by the toolkit.
+   * Work already started continues on the previous executor.
+   *
+   * @param executor the executor to use. Null to use the default executor, which uses virtual threads when running
+   * on Java 21 or later
+   * @since 200.1.0
+   */
+  public static void setExecutor(Executor executor) {
+    ToolkitExecutors.executor = executor;
+  }
+
+  /**
+   * Returns an executor that runs tasks on the JavaFX application thread. Tasks submitted from the JavaFX application
+   * thread are run immediately, and tasks submitted from any other thread are run later with
+   * {@link Platform#runLater(Runnable)}.
+   *
+   * @return the JavaFX application thread executor
+   * @since 200.1.0
+   */
+  public static Executor getFxExecutor() {
+    return FX_EXECUTOR;
+  }
+
+  /**
+   * Creates an executor that runs its tasks one at a time, in the order they were submitted, on the executor returned
+   * by {@link #getExecutor()}. This allows state to be confined to a sequence of tasks without dedicating a thread to
+   * it.
+   *
+   * @return the serial executor
+   * @since 200.1.0
+   */
+  static Executor newSerialExecutor() {
+    return new SerialExecutor();
+  }
+
+  /**
+   * Runs a task on the executor returned by {@link #getExecutor()} after a delay. Unlike
+   * {@link java.util.concurrent.CompletableFuture#delayedExecutor(long, TimeUnit, Executor)}, the task can be
+   * cancelled, which removes it from the scheduler immediately so that it no longer references any state it captured.
+   *
+   * @param task the task
+   * @param delay the delay
+   * @param unit the unit of the delay
+   * @return a future that cancels the task if it has not started
+   * @since 200.1.0
+   */
+  static ScheduledFuture<?> schedule(Runnable task, long delay, TimeUnit unit) {
+    return getScheduler().schedule(() -> getExecutor().execute(task), delay, unit);
+  }
+
+  /**
+   * Returns the scheduler for delayed tasks, creating it if required. The scheduler only hands tasks over to the
+   * executor, so a single daemon thread is enough.
+   *
+   * @return the scheduler
+   * @since 200.1.0
+   */
+  private static synchronized ScheduledThreadPoolExecutor getScheduler() {
+    if (scheduler == null) {
+      scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+        var thread = new Thread(runnable, "arcgis-toolkit-scheduler");
+        thread.setDaemon(true);
+        return thread;
+      });
+      scheduler.setRemoveOnCancelPolicy(true);
+    }
+    return scheduler;
+  }
+
+  /**
+   * Returns the default executor, creating it if required.
+   *
+   * @return the default executor
+   * @since 200.1.0
+   */
+  private static synchronized Executor getDefaultExecutor() {
+    if (defaultExecutor == null) {
+      defaultExecutor = createDefaultExecutor();
+    }
+    return defaultExecutor;
+  }
+
+  /**
+   * Creates an executor that runs each task on a new virtual thread if virtual threads are available, and otherwise
+   * runs tasks on a cached pool of daemon threads.
+   *
+   * @return the executor
+   * @since 200.1.0
+   */
+  private static ExecutorService createDefaultExecutor() {
+    try {
+      // virtual threads are looked up reflectively, as the toolkit is compiled for earlier versions of Java
+      var method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+      return (ExecutorService) method.invoke(null);
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      // virtual threads are not available, or are a preview feature that is not enabled
+      var threadCount = new AtomicInteger();
+      return Executors.newCachedThreadPool(runnable -> {
+        var thread = new Thread(runnable, "arcgis-toolkit-" + threadCount.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+      });
+    }
+  }
+
+  /**
+   * An executor that runs its tasks one at a time on the executor returned by {@link #getExecutor()}.
+   *
+   * @since 200.1.0
+   */
+  private static final class SerialExecutor implements Executor {
+
+    private final Deque<Runnable> tasks = new ArrayDeque<>();
+    private boolean isRunning = false;
+
+    @Override
+    public void execute(Runnable task) {
+      synchronized (this) {
+        tasks.add(task);
+        if (isRunning) {
+          return;
+        }
+        isRunning = true;
+      }
+      try {
+        getExecutor().execute(this::runTasks);
+      } catch (RuntimeException e) {
+        // the executor rejected the task, so the queued tasks are run by the next call instead
+        synchronized (this) {
+          tasks.remove(task);
+          isRunning = false;
+        }
+        throw e;
+      }
+    }
+
+    /**
+     * Runs the queued tasks until there are none left.
+     *
+     * @since 200.1.0
+     */
+    private void runTasks() {
+      while (true) {
+        Runnable task;
+        synchronized (this) {
+          task = tasks.poll();
+          if (task == null) {
+            isRunning = false;
+            return;
+          }
+        }
+        try {
+          task.run();
+        } catch (RuntimeException e) {
+          // a failed task does not prevent later tasks from running
+          Thread.currentThread().getUncaughtExceptionHandler().uncaughtException(Thread.currentThread(), e);
+        }
+      }
+    }
+  }
+}
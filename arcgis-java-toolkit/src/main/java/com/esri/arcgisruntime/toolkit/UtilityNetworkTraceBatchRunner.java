@@ -0,0 +1,649 @@
+/*
+ * Copyright 2022 Esri
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.esri.arcgisruntime.toolkit;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import com.esri.arcgisruntime.utilitynetworks.UtilityElement;
+import com.esri.arcgisruntime.utilitynetworks.UtilityNamedTraceConfiguration;
+import com.esri.arcgisruntime.utilitynetworks.UtilityNetwork;
+
+/**
+ * Runs a trace from each of a large number of starting points, such as an isolation trace from every valve in a
+ * service area, and writes a summary of each trace to a results file.
+ *
+ * <p>
+ * Traces are run with a {@link UtilityNetworkTraceEngine}. Starting points are only taken from the provided stream
+ * when a trace can be started, so that at most {@link #getMaxConcurrentTraces()} traces are in progress and the stream
+ * is never read ahead. The features of the element results are not fetched, and each result is discarded once its
+ * summary has been written. A trace that does not complete within {@link #getTraceTimeout()} is cancelled and its
+ * summary is written as failed, with the timeout as its error, so that a single stalled trace does not hold up the run.
+ *
+ * <p>
+ * The results file is a JSON Lines file with one JSON object per trace, written as each trace completes. Each object
+ * has the key of the starting point, the status of the trace, the number of elements in total and per network source
+ * and asset group, the function results, the number of warnings, the duration of the trace and any error message.
+ *
+ * <p>
+ * Every {@link #getCheckpointInterval()} traces, the results file is flushed to disk and its length is recorded in a
+ * checkpoint file next to it, with the same name and a .checkpoint extension. When a run is started with a results
+ * file that has a checkpoint, anything written after the checkpoint is discarded and the starting points whose
+ * summaries are in the file are skipped, so an interrupted run resumes where it stopped. Traces that completed after
+ * the last checkpoint are run again. To start over, delete the results file.
+ *
+ * @since 200.1.0
+ */
+public final class UtilityNetworkTraceBatchRunner {
+
+  private static final int DEFAULT_MAX_CONCURRENT_TRACES = 4;
+  private static final int DEFAULT_CHECKPOINT_INTERVAL = 100;
+  private static final long DEFAULT_TRACE_TIMEOUT = 300_000;
+  private static final long PROGRESS_INTERVAL_NANOS = 1_000_000_000L;
+  private static final String CHECKPOINT_EXTENSION = ".checkpoint";
+  private static final Pattern STARTING_POINT_PATTERN = Pattern.compile("^\\{\"startingPoint\":\"([^\"]*)\"");
+
+  private final UtilityNetworkTraceEngine traceEngine;
+  private final UtilityNetwork utilityNetwork;
+  private final UtilityNamedTraceConfiguration traceConfiguration;
+  private volatile int maxConcurrentTraces = DEFAULT_MAX_CONCURRENT_TRACES;
+  private volatile int checkpointInterval = DEFAULT_CHECKPOINT_INTERVAL;
+  private volatile long traceTimeout = DEFAULT_TRACE_TIMEOUT;
+
+  /**
+   * Creates a UtilityNetworkTraceBatchRunner.
+   *
+   * @param traceEngine the engine to run the traces with
+   * @param utilityNetwork the utility network to trace, which must be loaded
+   * @param traceConfiguration the named trace configuration to use for every trace
+   * @throws NullPointerException if traceEngine, utilityNetwork or traceConfiguration is null
+   * @since 200.1.0
+   */
+  public UtilityNetworkTraceBatchRunner(UtilityNetworkTraceEngine traceEngine, UtilityNetwork utilityNetwork,
+                                        UtilityNamedTraceConfiguration traceConfiguration) {
+    this.traceEngine = Objects.requireNonNull(traceEngine, "Trace engine cannot be null");
+    this.utilityNetwork = Objects.requireNonNull(utilityNetwork, "Utility network cannot be null");
+    this.traceConfiguration = Objects.requireNonNull(traceConfiguration, "Trace configuration cannot be null");
+  }
+
+  /**
+   * Returns the maximum number of traces that are in progress at the same time.
+   *
+   * @return the maximum number of concurrent traces
+   * @since 200.1.0
+   */
+  public int getMaxConcurrentTraces() {
+    return maxConcurrentTraces;
+  }
+
+  /**
+   * Sets the maximum number of traces that are in progress at the same time. The default value is 4. Changes apply to
+   * runs started afterwards.
+   *
+   * @param maxConcurrentTraces the maximum number of concurrent traces
+   * @throws IllegalArgumentException if maxConcurrentTraces is less than 1
+   * @since 200.1.0
+   */
+  public void setMaxConcurrentTraces(int maxConcurrentTraces) {
+    if (maxConcurrentTraces < 1) {
+      throw new IllegalArgumentException("Max concurrent traces must be at least 1");
+    }
+    this.maxConcurrentTraces = maxConcurrentTraces;
+  }
+
+  /**
+   * Returns the number of completed traces between checkpoints.
+   *
+   * @return the checkpoint interval
+   * @since 200.1.0
+   */
+  public int getCheckpointInterval() {
+    return checkpointInterval;
+  }
+
+  /**
+   * Sets the number of completed traces between checkpoints. A lower interval means fewer traces are run again when an
+   * interrupted run resumes, at the cost of more frequent writes to disk. The default value is 100. Changes apply to
+   * runs started afterwards.
+   *
+   * @param checkpointInterval the checkpoint interval
+   * @throws IllegalArgumentException if checkpointInterval is less than 1
+   * @since 200.1.0
+   */
+  public void setCheckpointInterval(int checkpointInterval) {
+    if (checkpointInterval < 1) {
+      throw new IllegalArgumentException("Checkpoint interval must be at least 1");
+    }
+    this.checkpointInterval = checkpointInterval;
+  }
+
+  /**
+   * Returns the time in milliseconds each trace must complete within.
+   *
+   * @return the trace timeout in milliseconds. 0 if there is no timeout
+   * @since 200.1.0
+   */
+  public long getTraceTimeout() {
+    return traceTimeout;
+  }
+
+  /**
+   * Sets the time in milliseconds each trace must complete within. A trace that times out is cancelled and its summary
+   * is written as failed. The default value is 300000, which is 5 minutes. Changes apply to runs started afterwards.
+   *
+   * @param traceTimeout the trace timeout in milliseconds. 0 for no timeout
+   * @throws IllegalArgumentException if traceTimeout is negative
+   * @since 200.1.0
+   */
+  public void setTraceTimeout(long traceTimeout) {
+    if (traceTimeout < 0) {
+      throw new IllegalArgumentException("Trace timeout cannot be negative");
+    }
+    this.traceTimeout = traceTimeout;
+  }
+
+  /**
+   * Runs a trace from each of the provided starting points and writes the summary of each trace to the results file,
+   * resuming from the checkpoint of the results file if it has one.
+   *
+   * <p>
+   * The run is coordinated by tasks that run one at a time on the {@link ToolkitExecutors#getExecutor() toolkit
+   * executor}, which is also where the stream is read and the progress callback is called. The run can be stopped by
+   * cancelling the returned future, in which case the traces in progress are cancelled and a checkpoint is written, so
+   * that the run can be resumed later.
+   *
+   * @param startingPoints the starting points, each of which is traced on its own
+   * @param resultsFile the JSON Lines file to write the summaries to
+   * @param onProgress called with the progress of the run about once a second, and once the run has finished. Can be
+   * null
+   * @return a completable future that completes with the final progress of the run, or completes exceptionally if the
+   * results file cannot be read or written
+   * @throws NullPointerException if startingPoints or resultsFile is null
+   * @since 200.1.0
+   */
+  public CompletableFuture<Progress> runAsync(
+    Stream<UtilityElement> startingPoints, Path resultsFile, Consumer<Progress> onProgress) {
+    Objects.requireNonNull(startingPoints, "Starting points cannot be null");
+    Objects.requireNonNull(resultsFile, "Results file cannot be null");
+    var run = new Run(startingPoints.iterator(), resultsFile, onProgress != null ? onProgress : progress -> {});
+    run.start();
+    return run.future;
+  }
+
+  /**
+   * Returns the checkpoint file of a results file.
+   *
+   * @param resultsFile the results file
+   * @return the checkpoint file
+   * @since 200.1.0
+   */
+  private static Path getCheckpointFile(Path resultsFile) {
+    return resultsFile.resolveSibling(resultsFile.getFileName() + CHECKPOINT_EXTENSION);
+  }
+
+  /**
+   * The progress of a batch run.
+   *
+   * @since 200.1.0
+   */
+  public static final class Progress {
+
+    private final long completedCount;
+    private final long failedCount;
+    private final long skippedCount;
+    private final int tracesInProgress;
+    private final double tracesPerSecond;
+    private final double averageTracesPerSecond;
+
+    /**
+     * Creates a Progress.
+     *
+     * @param completedCount the number of traces that completed without an error in this run
+     * @param failedCount the number of traces that completed with an error in this run
+     * @param skippedCount the number of starting points skipped as they were traced by an earlier run
+     * @param tracesInProgress the number of traces in progress
+     * @param tracesPerSecond the recent throughput
+     * @param averageTracesPerSecond the throughput since the run started
+     * @since 200.1.0
+     */
+    private Progress(long completedCount, long failedCount, long skippedCount, int tracesInProgress,
+                     double tracesPerSecond, double averageTracesPerSecond) {
+      this.completedCount = completedCount;
+      this.failedCount = failedCount;
+      this.skippedCount = skippedCount;
+      this.tracesInProgress = tracesInProgress;
+      this.tracesPerSecond = tracesPerSecond;
+      this.averageTracesPerSecond = averageTracesPerSecond;
+    }
+
+    /**
+     * Returns the number of traces that completed without an error in this run.
+     *
+     * @return the number of completed traces
+     * @since 200.1.0
+     */
+    public long getCompletedCount() {
+      return completedCount;
+    }
+
+    /**
+     * Returns the number of traces that completed with an error in this run. Their summaries are written with the
+     * error message, so they are not traced again when the run resumes.
+     *
+     * @return the number of failed traces
+     * @since 200.1.0
+     */
+    public long getFailedCount() {
+      return failedCount;
+    }
+
+    /**
+     * Returns the number of starting points skipped as their summaries were already in the results file.
+     *
+     * @return the number of skipped starting points
+     * @since 200.1.0
+     */
+    public long getSkippedCount() {
+      return skippedCount;
+    }
+
+    /**
+     * Returns the number of traces in progress.
+     *
+     * @return the number of traces in progress
+     * @since 200.1.0
+     */
+    public int getTracesInProgress() {
+      return tracesInProgress;
+    }
+
+    /**
+     * Returns the number of traces completed per second since the previous progress report.
+     *
+     * @return the recent throughput in traces per second
+     * @since 200.1.0
+     */
+    public double getTracesPerSecond() {
+      return tracesPerSecond;
+    }
+
+    /**
+     * Returns the number of traces completed per second since the run started.
+     *
+     * @return the average throughput in traces per second
+     * @since 200.1.0
+     */
+    public double getAverageTracesPerSecond() {
+      return averageTracesPerSecond;
+    }
+  }
+
+  /**
+   * A single run of the batch runner. All of its state is only accessed by tasks run on its coordinator, which runs
+   * them one at a time on the toolkit executor.
+   *
+   * @since 200.1.0
+   */
+  private final class Run {
+
+    private final Iterator<UtilityElement> startingPoints;
+    private final Path resultsFile;
+    private final Path checkpointFile;
+    private final Consumer<Progress> onProgress;
+    private final int maxConcurrentTraces = getMaxConcurrentTraces();
+    private final int checkpointInterval = getCheckpointInterval();
+    private final long traceTimeout = getTraceTimeout();
+    private final CompletableFuture<Progress> future = new CompletableFuture<>();
+    private final Executor coordinator = ToolkitExecutors.newSerialExecutor();
+    private final Set<CompletableFuture<UtilityNetworkTraceOperationResult>> tracesInProgress = new HashSet<>();
+    private Set<String> tracedKeys = new HashSet<>();
+    private FileChannel channel;
+    private Writer writer;
+    private boolean isStopped = false;
+    private long completedCount = 0;
+    private long failedCount = 0;
+    private long skippedCount = 0;
+    private int tracesSinceCheckpoint = 0;
+    private long startTime;
+    private long lastProgressTime;
+    private long lastProgressTraceCount = 0;
+
+    /**
+     * Creates a Run.
+     *
+     * @param startingPoints the starting points to trace
+     * @param resultsFile the file to write the summaries to
+     * @param onProgress called with the progress of the run
+     * @since 200.1.0
+     */
+    private Run(Iterator<UtilityElement> startingPoints, Path resultsFile, Consumer<Progress> onProgress) {
+      this.startingPoints = startingPoints;
+      this.resultsFile = resultsFile;
+      this.checkpointFile = getCheckpointFile(resultsFile);
+      this.onProgress = onProgress;
+    }
+
+    /**
+     * Opens the results file and starts the first traces on the coordinator.
+     *
+     * @since 200.1.0
+     */
+    private void start() {
+      // stop the run when the future is cancelled
+      future.whenComplete((progress, exception) -> {
+        if (future.isCancelled()) {
+          coordinator.execute(() -> stop(null));
+        }
+      });
+      coordinator.execute(() -> {
+        try {
+          openResultsFile();
+          startTime = System.nanoTime();
+          lastProgressTime = startTime;
+          startTraces();
+        } catch (Exception e) {
+          stop(e);
+        }
+      });
+    }
+
+    /**
+     * Opens the results file for appending, discarding anything written after its checkpoint and reading the keys of
+     * the starting points already traced.
+     *
+     * @throws IOException if the results file cannot be read or opened
+     * @since 200.1.0
+     */
+    private void openResultsFile() throws IOException {
+      long checkpointedLength = 0;
+      if (Files.exists(checkpointFile) && Files.exists(resultsFile)) {
+        checkpointedLength = Long.parseLong(Files.readString(checkpointFile, StandardCharsets.UTF_8).trim());
+        if (checkpointedLength > Files.size(resultsFile)) {
+          throw new IOException("The results file " + resultsFile + " is shorter than its checkpoint");
+        }
+      }
+      channel = FileChannel.open(resultsFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+      channel.truncate(checkpointedLength);
+      channel.position(checkpointedLength);
+      if (checkpointedLength > 0) {
+        readTracedKeys();
+      }
+      writer = Channels.newWriter(channel, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads the keys of the starting points whose summaries are in the results file.
+     *
+     * @throws IOException if the results file cannot be read
+     * @since 200.1.0
+     */
+    private void readTracedKeys() throws IOException {
+      try (BufferedReader reader = Files.newBufferedReader(resultsFile, StandardCharsets.UTF_8)) {
+        String line;
+        while ((line = reader.readLine()) != null) {
+          var matcher = STARTING_POINT_PATTERN.matcher(line);
+          if (matcher.find()) {
+            tracedKeys.add(matcher.group(1));
+          }
+        }
+      }
+    }
+
+    /**
+     * Starts traces for the next starting points until the maximum number of concurrent traces is reached. Completes
+     * the run once there are no starting points left and no traces in progress.
+     *
+     * @since 200.1.0
+     */
+    private void startTraces() {
+      while (!isStopped && tracesInProgress.size() < maxConcurrentTraces && startingPoints.hasNext()) {
+        var startingPoint = startingPoints.next();
+        var key = UtilityNetworkTraceEngine.createStartingPointKey(startingPoint);
+        if (tracedKeys.contains(key)) {
+          skippedCount++;
+          continue;
+        }
+        var startTime = System.nanoTime();
+        var traceFuture = traceEngine.traceAsync(
+          utilityNetwork, traceConfiguration, List.of(startingPoint), key, null, false, traceTimeout);
+        tracesInProgress.add(traceFuture);
+        traceFuture.whenComplete((result, exception) -> coordinator.execute(() -> {
+          tracesInProgress.remove(traceFuture);
+          if (!isStopped) {
+            onTraceCompleted(key, result, exception, System.nanoTime() - startTime);
+          }
+        }));
+      }
+      if (!isStopped && tracesInProgress.isEmpty() && !startingPoints.hasNext()) {
+        stop(null);
+      }
+    }
+
+    /**
+     * Writes the summary of a completed trace, writes a checkpoint if required and starts the next traces. A trace
+     * that timed out completes with a result whose exception is the timeout, so it is written as failed.
+     *
+     * @param key the key of the starting point
+     * @param result the result of the trace. Null if the trace completed exceptionally
+     * @param exception the exception the trace completed with. Null if the trace completed normally
+     * @param durationNanos the duration of the trace
+     * @since 200.1.0
+     */
+    private void onTraceCompleted(
+      String key, UtilityNetworkTraceOperationResult result, Throwable exception, long durationNanos) {
+      try {
+        var cause = exception instanceof CompletionException && exception.getCause() != null ?
+          exception.getCause() : exception;
+        var error = cause != null ? cause : (result != null ? result.getException() : null);
+        writeSummary(key, result, error, durationNanos);
+        if (error == null) {
+          completedCount++;
+        } else {
+          failedCount++;
+        }
+        if (++tracesSinceCheckpoint >= checkpointInterval) {
+          writeCheckpoint();
+        }
+        var now = System.nanoTime();
+        if (now - lastProgressTime >= PROGRESS_INTERVAL_NANOS) {
+          onProgress.accept(createProgress(now));
+        }
+        startTraces();
+      } catch (Exception e) {
+        stop(e);
+      }
+    }
+
+    /**
+     * Writes a line with the summary of a trace to the results file.
+     *
+     * @param key the key of the starting point
+     * @param result the result of the trace. Can be null
+     * @param error the error the trace completed with. Can be null
+     * @param durationNanos the duration of the trace
+     * @throws IOException if the line cannot be written
+     * @since 200.1.0
+     */
+    private void writeSummary(String key, UtilityNetworkTraceOperationResult result, Throwable error,
+                              long durationNanos) throws IOException {
+      // the starting point is written first, so that it can be read without parsing the line when resuming
+      writer.write("{\"startingPoint\":");
+      UtilityNetworkTraceResultWriter.writeJsonString(writer, key);
+      writer.write(",\"status\":");
+      writer.write(error == null ? "\"completed\"" : "\"failed\"");
+      if (result != null) {
+        var summary = result.getSummary();
+        writer.write(",\"elementCount\":");
+        writer.write(Integer.toString(summary.getElementCount()));
+        writer.write(",\"networkSources\":{");
+        for (int i = 0; i < summary.getNetworkSourceCount(); i++) {
+          writeCount(i > 0, summary.getNetworkSource(i).getName(), summary.getNetworkSourceElementCount(i));
+        }
+        writer.write("},\"assetGroups\":{");
+        for (int i = 0; i < summary.getAssetGroupCount(); i++) {
+          var networkSourceName = summary.getNetworkSource(summary.getAssetGroupNetworkSourceIndex(i)).getName();
+          writeCount(i > 0, networkSourceName + "/" + summary.getAssetGroup(i).getName(),
+            summary.getAssetGroupElementCount(i));
+        }
+        writer.write("},\"functionResults\":[");
+        var functionResults = result.getFunctionResultValues();
+        for (int i = 0; i < functionResults.size(); i++) {
+          var functionResult = functionResults.get(i);
+          writer.write(i > 0 ? ",{\"networkAttribute\":" : "{\"networkAttribute\":");
+          if (functionResult.getNetworkAttributeName() != null) {
+            UtilityNetworkTraceResultWriter.writeJsonString(writer, functionResult.getNetworkAttributeName());
+          } else {
+            writer.write("null");
+          }
+          writer.write(",\"functionType\":");
+          UtilityNetworkTraceResultWriter.writeJsonString(writer, String.valueOf(functionResult.getFunctionType()));
+          writer.write(",\"result\":");
+          if (functionResult.getResult() instanceof Number) {
+            UtilityNetworkTraceResultWriter.writeNumber(writer, (Number) functionResult.getResult());
+          } else if (functionResult.getResult() != null) {
+            UtilityNetworkTraceResultWriter.writeJsonString(writer, String.valueOf(functionResult.getResult()));
+          } else {
+            writer.write("null");
+          }
+          writer.write('}');
+        }
+        writer.write("],\"warningCount\":");
+        writer.write(Integer.toString(result.getWarnings().size()));
+      }
+      writer.write(",\"durationMillis\":");
+      writer.write(Long.toString(durationNanos / 1_000_000));
+      if (error != null) {
+        writer.write(",\"error\":");
+        UtilityNetworkTraceResultWriter.writeJsonString(writer, String.valueOf(error.getMessage()));
+      }
+      writer.write("}\n");
+    }
+
+    /**
+     * Writes a name and count as a member of a JSON object.
+     *
+     * @param isSeparated true if a separator is required before the member
+     * @param name the name
+     * @param count the count
+     * @throws IOException if the member cannot be written
+     * @since 200.1.0
+     */
+    private void writeCount(boolean isSeparated, String name, int count) throws IOException {
+      if (isSeparated) {
+        writer.write(',');
+      }
+      UtilityNetworkTraceResultWriter.writeJsonString(writer, name);
+      writer.write(':');
+      writer.write(Integer.toString(count));
+    }
+
+    /**
+     * Flushes the results file to disk and records its length in the checkpoint file. The checkpoint file is replaced
+     * atomically where supported, so that it is never left partially written.
+     *
+     * @throws IOException if the checkpoint cannot be written
+     * @since 200.1.0
+     */
+    private void writeCheckpoint() throws IOException {
+      writer.flush();
+      channel.force(false);
+      var temporaryFile = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+      Files.writeString(temporaryFile, Long.toString(channel.position()), StandardCharsets.UTF_8);
+      try {
+        Files.move(temporaryFile, checkpointFile, StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(temporaryFile, checkpointFile, StandardCopyOption.REPLACE_EXISTING);
+      }
+      tracesSinceCheckpoint = 0;
+    }
+
+    /**
+     * Creates a progress report and starts a new throughput interval.
+     *
+     * @param now the current time from {@link System#nanoTime()}
+     * @return the progress
+     * @since 200.1.0
+     */
+    private Progress createProgress(long now) {
+      var traceCount = completedCount + failedCount;
+      var intervalSeconds = (now - lastProgressTime) / 1e9;
+      var runSeconds = (now - startTime) / 1e9;
+      var progress = new Progress(completedCount, failedCount, skippedCount, tracesInProgress.size(),
+        intervalSeconds > 0 ? (traceCount - lastProgressTraceCount) / intervalSeconds : 0,
+        runSeconds > 0 ? traceCount / runSeconds : 0);
+      lastProgressTime = now;
+      lastProgressTraceCount = traceCount;
+      return progress;
+    }
+
+    /**
+     * Stops the run, cancelling any traces in progress, writing a final checkpoint and completing the future.
+     *
+     * @param exception the exception that stopped the run. Null if the run finished or was cancelled
+     * @since 200.1.0
+     */
+    private void stop(Exception exception) {
+      if (isStopped) {
+        return;
+      }
+      isStopped = true;
+      tracesInProgress.forEach(traceFuture -> traceFuture.cancel(true));
+      tracesInProgress.clear();
+      tracedKeys = Set.of();
+      Exception closeException = null;
+      if (channel != null) {
+        try {
+          try {
+            writeCheckpoint();
+          } finally {
+            channel.close();
+          }
+        } catch (IOException e) {
+          closeException = e;
+        }
+      }
+      var progress = createProgress(System.nanoTime());
+      onProgress.accept(progress);
+      if (exception != null || closeException != null) {
+        future.completeExceptionally(exception != null ? exception : closeException);
+      } else if (!future.isDone()) {
+        future.complete(progress);
+      }
+    }
+  }
+}
@@ -0,0 +1,686 @@
+/*
+ * Copyright 2022 Esri
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.esri.arcgisruntime.toolkit;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+
+import com.esri.arcgisruntime.concurrent.ListenableFuture;
+import com.esri.arcgisruntime.data.ArcGISFeature;
+import com.esri.arcgisruntime.geometry.GeometryEngine;
+import com.esri.arcgisruntime.geometry.Point;
+import com.esri.arcgisruntime.geometry.Polyline;
+import com.esri.arcgisruntime.utilitynetworks.UtilityElement;
+import com.esri.arcgisruntime.utilitynetworks.UtilityElementTraceResult;
+import com.esri.arcgisruntime.utilitynetworks.UtilityFunctionTraceResult;
+import com.esri.arcgisruntime.utilitynetworks.UtilityGeometryTraceResult;
+import com.esri.arcgisruntime.utilitynetworks.UtilityNamedTraceConfiguration;
+import com.esri.arcgisruntime.utilitynetworks.UtilityNetwork;
+import com.esri.arcgisruntime.utilitynetworks.UtilityNetworkSource;
+import com.esri.arcgisruntime.utilitynetworks.UtilityTerminal;
+import com.esri.arcgisruntime.utilitynetworks.UtilityTraceParameters;
+import com.esri.arcgisruntime.utilitynetworks.UtilityTraceResult;
+
+/**
+ * Runs utility network traces without a user interface, so that the trace logic of a {@link UtilityNetworkTraceTool}
+ * can also be used in batch jobs and services.
+ *
+ * <p>
+ * The engine creates starting point elements from features, runs traces, classifies the results of each trace into
+ * element, geometry and function results and fetches the features of the element results in batches. Results are
+ * returned as {@link UtilityNetworkTraceOperationResult}s, whose summary is available from
+ * {@link UtilityNetworkTraceOperationResult#getSummary()}. No MapView is required and the JavaFX application thread
+ * does not need to be running. The data of recent traces is cached, so that identical traces are answered without any
+ * requests.
+ *
+ * <p>
+ * Asynchronous methods return completable futures, and cancelling a returned future cancels the requests it is
+ * waiting on. Callbacks are called on the thread that completes the underlying requests.
+ *
+ * @since 200.1.0
+ */
+public final class UtilityNetworkTraceEngine {
+
+  private static final int DEFAULT_MAX_CACHED_TRACE_RESULTS = 10;
+  private static final int DEFAULT_FEATURE_FETCH_BATCH_SIZE = 1000;
+
+  // data of recently run traces, so that identical traces can be answered without any requests
+  private final UtilityNetworkTraceResultCache traceResultCache =
+    new UtilityNetworkTraceResultCache(DEFAULT_MAX_CACHED_TRACE_RESULTS);
+  private int maxCachedTraceResults = DEFAULT_MAX_CACHED_TRACE_RESULTS;
+  private volatile int featureFetchBatchSize = DEFAULT_FEATURE_FETCH_BATCH_SIZE;
+
+  /**
+   * Creates a UtilityNetworkTraceEngine.
+   *
+   * @since 200.1.0
+   */
+  public UtilityNetworkTraceEngine() {
+  }
+
+  /**
+   * Returns the maximum number of traces whose data is cached.
+   *
+   * @return the maximum number of cached traces
+   * @since 200.1.0
+   */
+  public synchronized int getMaxCachedTraceResults() {
+    return maxCachedTraceResults;
+  }
+
+  /**
+   * Sets the maximum number of traces whose data is cached. 0 disables caching. The least recently used traces are
+   * discarded when the cache is full. The default value is 10.
+   *
+   * @param maxCachedTraceResults the maximum number of cached traces
+   * @throws IllegalArgumentException if maxCachedTraceResults is negative
+   * @since 200.1.0
+   */
+  public synchronized void setMaxCachedTraceResults(int maxCachedTraceResults) {
+    if (maxCachedTraceResults < 0) {
+      throw new IllegalArgumentException("Max cached trace results cannot be negative");
+    }
+    this.maxCachedTraceResults = maxCachedTraceResults;
+    traceResultCache.setMaxEntries(maxCachedTraceResults);
+  }
+
+  /**
+   * Discards the cached data of previous traces, so that the next trace is run against the utility network again.
+   * This should be called after the utility network has been edited, as the cached data may no longer reflect it.
+   *
+   * @since 200.1.0
+   */
+  public synchronized void clearTraceResultCache() {
+    traceResultCache.clear();
+  }
+
+  /**
+   * Discards the cached data of the trace that produced a result. This is called when the result is evicted from a
+   * trace history, as the cache would otherwise keep the raw results and features the history released.
+   *
+   * @param result the result
+   * @since 200.1.0
+   */
+  synchronized void discardCachedTrace(UtilityNetworkTraceOperationResult result) {
+    if (result.getCacheKey() != null) {
+      traceResultCache.remove(result.getCacheKey());
+    }
+  }
+
+  /**
+   * Returns the maximum number of elements whose features are fetched in a single request.
+   *
+   * @return the feature fetch batch size
+   * @since 200.1.0
+   */
+  public int getFeatureFetchBatchSize() {
+    return featureFetchBatchSize;
+  }
+
+  /**
+   * Sets the maximum number of elements whose features are fetched in a single request. The default value is 1000.
+   *
+   * @param featureFetchBatchSize the feature fetch batch size
+   * @throws IllegalArgumentException if featureFetchBatchSize is less than 1
+   * @since 200.1.0
+   */
+  public void setFeatureFetchBatchSize(int featureFetchBatchSize) {
+    if (featureFetchBatchSize < 1) {
+      throw new IllegalArgumentException("Feature fetch batch size must be at least 1");
+    }
+    this.featureFetchBatchSize = featureFetchBatchSize;
+  }
+
+  /**
+   * Creates the utility element to use as a starting point for a feature. For an edge feature, the fraction along the
+   * edge is set from the provided location. For a junction feature with more than one terminal, the first terminal is
+   * used.
+   *
+   * @param utilityNetwork the utility network the feature belongs to
+   * @param feature the feature
+   * @param startingPointLocation the location of the starting point on the feature. Can be null
+   * @return the utility element. Null if the feature is not part of the utility network
+   * @throws NullPointerException if utilityNetwork or feature is null
+   * @since 200.1.0
+   */
+  public UtilityElement createStartingPointElement(
+    UtilityNetwork utilityNetwork, ArcGISFeature feature, Point startingPointLocation) {
+    Objects.requireNonNull(utilityNetwork, "Utility network cannot be null");
+    Objects.requireNonNull(feature, "Feature cannot be null");
+    UtilityElement utilityElement;
+    try {
+      utilityElement = utilityNetwork.createElement(feature);
+    } catch (Exception e) {
+      // if a feature does not belong to the utility network it is ignored
+      return null;
+    }
+    if (utilityElement == null) {
+      return null;
+    }
+
+    var geometry = feature.getGeometry();
+    if (utilityElement.getNetworkSource().getSourceType() ==
+      UtilityNetworkSource.Type.EDGE && geometry instanceof Polyline) {
+      // compute how far the location is along the edge feature
+      if (startingPointLocation != null) {
+        double fractionAlongEdge =
+          GeometryEngine.fractionAlong(getEdgePolyline(feature, startingPointLocation), startingPointLocation, -1);
+        if (!Double.isNaN(fractionAlongEdge)) {
+          // set the fraction along edge
+          utilityElement.setFractionAlongEdge(fractionAlongEdge);
+        }
+      }
+    } else if (utilityElement.getNetworkSource().getSourceType() ==
+      UtilityNetworkSource.Type.JUNCTION &&
+      utilityElement.getAssetType().getTerminalConfiguration() != null) {
+      // configure junction utility elements
+      List<UtilityTerminal> terminals = utilityElement.getAssetType().getTerminalConfiguration().getTerminals();
+      if (terminals.size() > 1) {
+        utilityElement.setTerminal(terminals.get(0));
+      }
+    }
+    return utilityElement;
+  }
+
+  /**
+   * Creates a key identifying a starting point by the network source, global ID and terminal of its utility element.
+   *
+   * @param utilityElement the utility element of the starting point
+   * @return the key
+   * @since 200.1.0
+   */
+  static String createStartingPointKey(UtilityElement utilityElement) {
+    var terminal = utilityElement.getTerminal();
+    return utilityElement.getNetworkSource().getSourceId() + ":" + utilityElement.getGlobalId() + ":" +
+      (terminal != null ? terminal.getTerminalId() : "");
+  }
+
+  /**
+   * Returns the geometry of an edge feature without z values, in the spatial reference of the provided location.
+   *
+   * @param feature the edge feature, whose geometry is a polyline
+   * @param startingPointLocation the location of a starting point on the feature. Can be null
+   * @return the polyline
+   * @since 200.1.0
+   */
+  static Polyline getEdgePolyline(ArcGISFeature feature, Point startingPointLocation) {
+    Polyline polyline = (Polyline) feature.getGeometry();
+    if (polyline.hasZ()) {
+      // get the geometry of the feature as a polyline, and remove the z component
+      polyline = (Polyline) GeometryEngine.removeZ(polyline);
+    }
+    if (startingPointLocation != null &&
+      startingPointLocation.getSpatialReference() != polyline.getSpatialReference()) {
+      polyline = (Polyline) GeometryEngine.project(polyline, startingPointLocation.getSpatialReference());
+    }
+    return polyline;
+  }
+
+  /**
+   * Runs a trace with the provided trace configuration and starting points, and fetches the features of any element
+   * results in batches of at most {@link #getFeatureFetchBatchSize()} elements. If an identical trace is cached, the
+   * result is built from the cached data instead.
+   *
+   * <p>
+   * If the trace or the feature fetch fails, the exception is set to the result and the future still completes with
+   * the result. The future only completes exceptionally if it is cancelled.
+   *
+   * @param utilityNetwork the utility network to trace
+   * @param traceConfiguration the named trace configuration to use
+   * @param startingPoints the utility elements to use as starting points
+   * @param name the name to give the result
+   * @param onFetchProgress called with the result and the fraction of its element features fetched so far, after the
+   * features of each batch have been added to the result. Can be null
+   * @return a completable future that completes with the result of the trace
+   * @throws NullPointerException if utilityNetwork, traceConfiguration or startingPoints is null
+   * @since 200.1.0
+   */
+  public CompletableFuture<UtilityNetworkTraceOperationResult> traceAsync(
+    UtilityNetwork utilityNetwork, UtilityNamedTraceConfiguration traceConfiguration,
+    List<UtilityElement> startingPoints, String name,
+    BiConsumer<UtilityNetworkTraceOperationResult, Double> onFetchProgress) {
+    return traceAsync(utilityNetwork, traceConfiguration, startingPoints, name, onFetchProgress, true, 0);
+  }
+
+  /**
+   * Runs a trace with the provided trace configuration and starting points, optionally fetching the features of any
+   * element results. Traces whose features are not fetched are neither answered from nor added to the cache, as the
+   * cached data includes the features.
+   *
+   * <p>
+   * If the trace and fetch do not complete within the timeout, the requests in progress are cancelled and a
+   * {@link TimeoutException} is set to the result, which keeps any features fetched so far.
+   *
+   * @param utilityNetwork the utility network to trace
+   * @param traceConfiguration the named trace configuration to use
+   * @param startingPoints the utility elements to use as starting points
+   * @param name the name to give the result
+   * @param onFetchProgress called with the result and the fraction of its element features fetched so far. Can be null
+   * @param isFetchingFeatures true to fetch the features of the element results, false to only classify the results
+   * @param timeoutMillis the time in milliseconds the trace and fetch must complete within. 0 for no timeout
+   * @return a completable future that completes with the result of the trace
+   * @throws NullPointerException if utilityNetwork, traceConfiguration or startingPoints is null
+   * @since 200.1.0
+   */
+  CompletableFuture<UtilityNetworkTraceOperationResult> traceAsync(
+    UtilityNetwork utilityNetwork, UtilityNamedTraceConfiguration traceConfiguration,
+    List<UtilityElement> startingPoints, String name,
+    BiConsumer<UtilityNetworkTraceOperationResult, Double> onFetchProgress, boolean isFetchingFeatures,
+    long timeoutMillis) {
+    Objects.requireNonNull(utilityNetwork, "Utility network cannot be null");
+    Objects.requireNonNull(traceConfiguration, "Trace configuration cannot be null");
+    Objects.requireNonNull(startingPoints, "Starting points cannot be null");
+    CompletableFuture<UtilityNetworkTraceOperationResult> resultFuture = new CompletableFuture<>();
+
+    UtilityTraceParameters utilityTraceParameters;
+    try {
+      // create utility trace parameters from the trace configuration and starting points
+      utilityTraceParameters = new UtilityTraceParameters(traceConfiguration, startingPoints);
+    } catch (Exception e) {
+      // if the parameters cannot be created, return a result containing the error
+      var result = new UtilityNetworkTraceOperationResult(null);
+      result.setName(name);
+      result.setUtilityNetwork(utilityNetwork);
+      result.setNamedTraceConfiguration(traceConfiguration);
+      result.setException(e);
+      resultFuture.complete(result);
+      return resultFuture;
+    }
+
+    // instantiate the utility network trace operation result that results data will be added to
+    var result = new UtilityNetworkTraceOperationResult(utilityTraceParameters);
+    result.setName(name);
+    result.setUtilityNetwork(utilityNetwork);
+    result.setNamedTraceConfiguration(traceConfiguration);
+    var metrics = result.getMetrics();
+    metrics.setStartingPointCount(startingPoints.size());
+
+    // if an identical trace has already been run, build the result from the cached data without any requests
+    var cacheKey = UtilityNetworkTraceResultCache.createKey(utilityNetwork, traceConfiguration, startingPoints);
+    result.setCacheKey(cacheKey);
+    UtilityNetworkTraceResultCache.Entry cachedTrace = null;
+    if (isFetchingFeatures) {
+      synchronized (this) {
+        cachedTrace = traceResultCache.get(cacheKey);
+      }
+    }
+    if (cachedTrace != null) {
+      var traceEvent = UtilityNetworkTracePhase.beginPhase(UtilityNetworkTraceMetrics.Phase.TRACE, name);
+      addTraceResultsToResult(result, cachedTrace.getRawResults());
+      var elementCount = result.getElementResults().size();
+      metrics.setElementCount(elementCount);
+      metrics.endPhase(traceEvent, elementCount, 0);
+      var fetchEvent = UtilityNetworkTracePhase.beginPhase(UtilityNetworkTraceMetrics.Phase.FETCH_FEATURES, name);
+      result.addFeatures(cachedTrace.getFeatures());
+      metrics.endPhase(fetchEvent, elementCount, cachedTrace.getFeatures().size());
+      resultFuture.complete(result);
+      return resultFuture;
+    }
+
+    // a timeout cancels the trace or feature fetch in progress, which then completes the result with the error
+    var pendingRequests = new PendingRequests();
+    var isTimedOut = new AtomicBoolean(false);
+    var timeout = timeoutMillis > 0 ? ToolkitExecutors.schedule(() -> {
+      if (!resultFuture.isDone()) {
+        isTimedOut.set(true);
+        pendingRequests.cancel();
+      }
+    }, timeoutMillis, TimeUnit.MILLISECONDS) : null;
+    resultFuture.whenComplete((r, exception) -> {
+      // cancelling the returned future cancels the trace or feature fetch in progress
+      if (resultFuture.isCancelled()) {
+        pendingRequests.cancel();
+      }
+      // the timeout task references the result, so it is removed as soon as the result completes
+      if (timeout != null) {
+        timeout.cancel(false);
+      }
+    });
+
+    // run the trace and get the results
+    var traceEvent = UtilityNetworkTracePhase.beginPhase(UtilityNetworkTraceMetrics.Phase.TRACE, name);
+    toCompletableFuture(utilityNetwork.traceAsync(utilityTraceParameters), pendingRequests)
+      .whenComplete((utilityTraceResults, traceException) -> {
+        if (traceException instanceof CancellationException && isTimedOut.get()) {
+          metrics.endPhase(traceEvent, 0, 0);
+          result.setException(createTimeoutException(timeoutMillis));
+          resultFuture.complete(result);
+          return;
+        } else if (traceException instanceof CancellationException) {
+          resultFuture.completeExceptionally(traceException);
+          return;
+        } else if (traceException != null) {
+          // if trace fails due to another reason, set the error to the result and complete
+          metrics.endPhase(traceEvent, 0, 0);
+          result.setException(toException(traceException));
+          resultFuture.complete(result);
+          return;
+        }
+        var elementsToFetch = addTraceResultsToResult(result, utilityTraceResults);
+        var elementCount = result.getElementResults().size();
+        metrics.setElementCount(elementCount);
+        metrics.endPhase(traceEvent, elementCount, 0);
+
+        if (!isFetchingFeatures) {
+          resultFuture.complete(result);
+          return;
+        }
+        if (elementsToFetch.isEmpty()) {
+          // if there were no utility element results, the result is complete
+          synchronized (this) {
+            traceResultCache.put(cacheKey, utilityTraceResults, List.of());
+          }
+          resultFuture.complete(result);
+          return;
+        }
+
+        // fetch the features in batches, adding the features of each batch to the result as soon as it arrives
+        var fetchedFeatureCount = new AtomicInteger();
+        BiConsumer<List<ArcGISFeature>, Double> onBatchFetched = (batchFeatures, fractionFetched) -> {
+          result.addFeatures(batchFeatures);
+          fetchedFeatureCount.addAndGet(batchFeatures.size());
+          if (onFetchProgress != null) {
+            onFetchProgress.accept(result, fractionFetched);
+          }
+        };
+        var fetchEvent =
+          UtilityNetworkTracePhase.beginPhase(UtilityNetworkTraceMetrics.Phase.FETCH_FEATURES, name);
+        fetchFeaturesInBatchesAsync(utilityNetwork, elementsToFetch, pendingRequests, onBatchFetched)
+          .whenComplete((features, exception) -> {
+            if (!(exception instanceof CancellationException) || isTimedOut.get()) {
+              // the time spent selecting each batch as it arrives is included, and is also recorded on its own
+              metrics.endPhase(fetchEvent, elementsToFetch.size(), fetchedFeatureCount.get());
+            }
+            if (exception instanceof CancellationException && isTimedOut.get()) {
+              // keep the features fetched before the timeout
+              result.setException(createTimeoutException(timeoutMillis));
+              resultFuture.complete(result);
+            } else if (exception == null) {
+              synchronized (this) {
+                traceResultCache.put(cacheKey, utilityTraceResults, features);
+              }
+              resultFuture.complete(result);
+            } else if (exception instanceof CancellationException) {
+              // unselect any batches that were already selected
+              result.selectResultFeatures(false);
+              resultFuture.completeExceptionally(exception);
+            } else {
+              // if fetch fails due to another reason, set the error to the result and complete
+              result.setException(toException(exception));
+              resultFuture.complete(result);
+            }
+          });
+      });
+    return resultFuture;
+  }
+
+  /**
+   * Fetches the features for the provided utility elements in batches of at most {@link #getFeatureFetchBatchSize()}
+   * elements, where each batch only contains elements from a single network source. Batches are fetched one after
+   * another so that features can be processed progressively.
+   *
+   * @param utilityNetwork the utility network the elements belong to
+   * @param elements the elements to fetch features for
+   * @param onBatchFetched called with the features of each batch as it arrives, and the fraction of elements fetched
+   * so far. Can be null
+   * @return a completable future that completes with all fetched features
+   * @throws NullPointerException if utilityNetwork or elements is null
+   * @since 200.1.0
+   */
+  public CompletableFuture<List<ArcGISFeature>> fetchFeaturesAsync(
+    UtilityNetwork utilityNetwork, List<UtilityElement> elements,
+    BiConsumer<List<ArcGISFeature>, Double> onBatchFetched) {
+    Objects.requireNonNull(utilityNetwork, "Utility network cannot be null");
+    Objects.requireNonNull(elements, "Elements cannot be null");
+    var pendingRequests = new PendingRequests();
+    var featuresFuture = fetchFeaturesInBatchesAsync(utilityNetwork, elements, pendingRequests,
+      onBatchFetched != null ? onBatchFetched : (batchFeatures, fractionFetched) -> {});
+    featuresFuture.whenComplete((features, exception) -> {
+      if (featuresFuture.isCancelled()) {
+        pendingRequests.cancel();
+      }
+    });
+    return featuresFuture;
+  }
+
+  /**
+   * Fetches the features for the provided utility elements in batches, tracking each request so that it can be
+   * cancelled.
+   *
+   * @param utilityNetwork the utility network the elements belong to
+   * @param elements the elements to fetch features for
+   * @param pendingRequests the requests of the operation the fetch is part of, so that they can be cancelled
+   * @param onBatchFetched called with the features of each batch as it arrives, and the fraction of elements fetched
+   * so far
+   * @return a completable future that completes with all fetched features
+   * @since 200.1.0
+   */
+  private CompletableFuture<List<ArcGISFeature>> fetchFeaturesInBatchesAsync(
+    UtilityNetwork utilityNetwork, List<UtilityElement> elements, PendingRequests pendingRequests,
+    BiConsumer<List<ArcGISFeature>, Double> onBatchFetched) {
+    // split the elements into batches by network source
+    var batchSize = featureFetchBatchSize;
+    List<List<UtilityElement>> batches = new ArrayList<>();
+    elements.stream()
+      .collect(Collectors.groupingBy(element -> element.getNetworkSource().getSourceId(), LinkedHashMap::new,
+        Collectors.toList()))
+      .values()
+      .forEach(sourceElements -> {
+        for (int i = 0; i < sourceElements.size(); i += batchSize) {
+          batches.add(sourceElements.subList(i, Math.min(i + batchSize, sourceElements.size())));
+        }
+      });
+
+    List<ArcGISFeature> features = new ArrayList<>();
+    // chain the batches so each is only requested once the previous batch has arrived
+    CompletableFuture<Void> fetchFuture = CompletableFuture.completedFuture(null);
+    var elementsFetched = 0;
+    for (var batch : batches) {
+      elementsFetched += batch.size();
+      var fractionFetched = (double) elementsFetched / elements.size();
+      fetchFuture = fetchFuture
+        .thenCompose(v -> toCompletableFuture(utilityNetwork.fetchFeaturesForElementsAsync(batch), pendingRequests))
+        .thenAccept(batchFeatures -> {
+          features.addAll(batchFeatures);
+          onBatchFetched.accept(batchFeatures, fractionFetched);
+        });
+    }
+
+    CompletableFuture<List<ArcGISFeature>> featuresFuture = new CompletableFuture<>();
+    fetchFuture.whenComplete((v, exception) -> {
+      if (exception == null) {
+        featuresFuture.complete(features);
+      } else {
+        // complete with the original exception rather than the completion exception wrapping it
+        featuresFuture.completeExceptionally(
+          exception instanceof CompletionException && exception.getCause() != null ? exception.getCause() : exception);
+      }
+    });
+    return featuresFuture;
+  }
+
+  /**
+   * Adds the provided results of a trace to a result, classifying them into element, geometry and function results.
+   * Geometry results are added as graphics.
+   *
+   * @param result the result to add to
+   * @param utilityTraceResults the results returned by the trace
+   * @return the utility elements of any element results, for which features should be fetched
+   * @since 200.1.0
+   */
+  private static List<UtilityElement> addTraceResultsToResult(
+    UtilityNetworkTraceOperationResult result, List<UtilityTraceResult> utilityTraceResults) {
+    // set the raw results to the current result
+    result.getRawResults().addAll(utilityTraceResults);
+
+    List<UtilityElement> elements = new ArrayList<>();
+
+    // loop through the results
+    for (var utilityTraceResult : utilityTraceResults) {
+
+      // if there are any warnings, add to the in progress result
+      if (!utilityTraceResult.getWarnings().isEmpty()) {
+        result.getWarnings().addAll(utilityTraceResult.getWarnings());
+      }
+
+      if (utilityTraceResult instanceof UtilityElementTraceResult) {
+        // handle utility element results
+        var utilityElementTraceResult = (UtilityElementTraceResult) utilityTraceResult;
+        // add the element trace results to the current result
+        result.getElementResults().addAll(utilityElementTraceResult.getElements());
+        elements.addAll(utilityElementTraceResult.getElements());
+      } else if (utilityTraceResult instanceof UtilityGeometryTraceResult) {
+        // handle geometry results and add graphics to the graphics overlay, which are symbolized by the renderer of the
+        // results graphics overlay
+        var geometryTraceResult = (UtilityGeometryTraceResult) utilityTraceResult;
+
+        var multipoint = geometryTraceResult.getMultipoint();
+        if (multipoint != null) {
+          result.addGeometryResult(multipoint);
+        }
+
+        var polyline = geometryTraceResult.getPolyline();
+        if (polyline != null) {
+          result.addGeometryResult(polyline);
+        }
+
+        var polygon = geometryTraceResult.getPolygon();
+        if (polygon != null) {
+          result.addGeometryResult(polygon);
+        }
+      } else if (utilityTraceResult instanceof UtilityFunctionTraceResult) {
+        // handle function results
+        var functionTraceResult = (UtilityFunctionTraceResult) utilityTraceResult;
+        result.addFunctionResults(functionTraceResult.getFunctionOutputs());
+      }
+    }
+    return elements;
+  }
+
+  /**
+   * Converts the provided listenable future into a completable future. The listenable future is tracked by the
+   * provided pending requests until it is done, so that it can be cancelled.
+   *
+   * @param listenableFuture the listenable future to convert
+   * @param pendingRequests the pending requests to track the listenable future in
+   * @param <T> the type of the result
+   * @return a completable future that completes with the result of the listenable future
+   * @since 200.1.0
+   */
+  private static <T> CompletableFuture<T> toCompletableFuture(
+    ListenableFuture<T> listenableFuture, PendingRequests pendingRequests) {
+    CompletableFuture<T> completableFuture = new CompletableFuture<>();
+    pendingRequests.add(listenableFuture);
+    listenableFuture.addDoneListener(() -> {
+      pendingRequests.remove(listenableFuture);
+      try {
+        completableFuture.complete(listenableFuture.get());
+      } catch (Exception e) {
+        completableFuture.completeExceptionally(e);
+      }
+    });
+    return completableFuture;
+  }
+
+  /**
+   * Creates the exception set to the result of a trace that did not complete within its timeout.
+   *
+   * @param timeoutMillis the timeout in milliseconds
+   * @return the exception
+   * @since 200.1.0
+   */
+  private static TimeoutException createTimeoutException(long timeoutMillis) {
+    return new TimeoutException("The trace did not complete within " + timeoutMillis + " ms.");
+  }
+
+  /**
+   * Returns the provided throwable as an exception, wrapping it if required.
+   *
+   * @param throwable the throwable
+   * @return the exception
+   * @since 200.1.0
+   */
+  private static Exception toException(Throwable throwable) {
+    return throwable instanceof Exception ? (Exception) throwable : new Exception(throwable);
+  }
+
+  /**
+   * The requests of an asynchronous operation of the engine that are still in progress, so that they can be cancelled
+   * when the future returned for the operation is cancelled. Requests made after the operation is cancelled are
+   * cancelled straight away.
+   *
+   * @since 200.1.0
+   */
+  private static final class PendingRequests {
+
+    private final List<ListenableFuture<?>> futures = new ArrayList<>();
+    private boolean isCancelled = false;
+
+    /**
+     * Tracks a request, cancelling it if the operation has been cancelled.
+     *
+     * @param future the listenable future of the request
+     * @since 200.1.0
+     */
+    private void add(ListenableFuture<?> future) {
+      synchronized (this) {
+        if (!isCancelled) {
+          futures.add(future);
+          return;
+        }
+      }
+      future.cancel(true);
+    }
+
+    /**
+     * Stops tracking a request that is done.
+     *
+     * @param future the listenable future of the request
+     * @since 200.1.0
+     */
+    private synchronized void remove(ListenableFuture<?> future) {
+      futures.remove(future);
+    }
+
+    /**
+     * Cancels the tracked requests and any requests made afterwards.
+     *
+     * @since 200.1.0
+     */
+    private void cancel() {
+      List<ListenableFuture<?>> futuresToCancel;
+      synchronized (this) {
+        isCancelled = true;
+        // copy the list as cancelling a future removes it from the list via its done listener
+        futuresToCancel = new ArrayList<>(futures);
+        futures.clear();
+      }
+      futuresToCancel.forEach(future -> future.cancel(true));
+    }
+  }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2022 Esri
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.esri.arcgisruntime.toolkit;
+
+import com.esri.arcgisruntime.utilitynetworks.UtilityTraceFunctionOutput;
+import com.esri.arcgisruntime.utilitynetworks.UtilityTraceFunctionType;
+
+/**
+ * A model for the value of a function result of a trace run by a {@link UtilityNetworkTraceTool}.
+ *
+ * <p>
+ * Unlike a {@link UtilityTraceFunctionOutput}, a UtilityNetworkTraceFunctionResult does not depend on the trace that
+ * produced it, so it is also available for results restored from a saved session.
+ *
+ * @since 200.1.0
+ */
+public final class UtilityNetworkTraceFunctionResult {
+
+  private final String networkAttributeName;
+  private final UtilityTraceFunctionType functionType;
+  private final Object result;
+
+  /**
+   * Creates a UtilityNetworkTraceFunctionResult.
+   *
+   * @param networkAttributeName the name of the network attribute the function was applied to
+   * @param functionType the type of the function
+   * @param result the result of the function
+   * @since 200.1.0
+   */
+  UtilityNetworkTraceFunctionResult(String networkAttributeName, UtilityTraceFunctionType functionType, Object result) {
+    this.networkAttributeName = networkAttributeName;
+    this.functionType = functionType;
+    this.result = result;
+  }
+
+  /**
+   * Creates a UtilityNetworkTraceFunctionResult from the output of a trace function.
+   *
+   * @param functionOutput the output of the trace function
+   * @since 200.1.0
+   */
+  UtilityNetworkTraceFunctionResult(UtilityTraceFunctionOutput functionOutput) {
+    var function = functionOutput.getFunction();
+    this.networkAttributeName =
+      function.getNetworkAttribute() != null ? function.getNetworkAttribute().getName() : null;
+    this.functionType = function.getFunctionType();
+    this.result = functionOutput.getResult();
+  }
+
+  /**
+   * Returns the name of the network attribute the function was applied to.
+   *
+   * @return the name of the network attribute. Null if the function has no network attribute
+   * @since 200.1.0
+   */
+  public String getNetworkAttributeName() {
+    return networkAttributeName;
+  }
+
+  /**
+   * Returns the type of the function.
+   *
+   * @return the function type
+   * @since 200.1.0
+   */
+  public UtilityTraceFunctionType getFunctionType() {
+    return functionType;
+  }
+
+  /**
+   * Returns the result of the function. For results restored from a saved session, numeric results are restored as
+   * Doubles and all other results as Strings.
+   *
+   * @return the result. Null if the function has no result
+   * @since 200.1.0
+   */
+  public Object getResult() {
+    return result;
+  }
+}
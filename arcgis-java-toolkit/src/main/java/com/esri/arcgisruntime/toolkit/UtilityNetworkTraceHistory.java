@@ -0,0 +1,264 @@
+/*
+ * Copyright 2022 Esri
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.esri.arcgisruntime.toolkit;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the trace results of a {@link UtilityNetworkTraceTool} within a memory budget.
+ *
+ * <p>
+ * Results are ordered by when they were last viewed. When the estimated memory usage of the results is above the
+ * budget, the least recently viewed results are evicted: their features and raw results are released and their
+ * geometry results are spilled to a temporary file, leaving the element results, extent and summary. Viewing an
+ * evicted result restores its geometry results, and its features are then fetched again. Each eviction is reported,
+ * so that any other copies of the released data, such as the trace engine's result cache, can be released too.
+ *
+ * <p>
+ * Spill files are deleted as soon as their result is viewed or removed, and the spill directory is deleted when the
+ * history is cleared. Spill directories that still exist when the JVM exits are deleted by a single shutdown hook,
+ * rather than registering each file to be deleted on exit, which would keep every path for the life of the JVM.
+ *
+ * @since 200.1.0
+ */
+final class UtilityNetworkTraceHistory {
+
+  // the spill directories of all histories, deleted by the shutdown hook if they still exist when the JVM exits
+  private static final Set<Path> spillDirectories = ConcurrentHashMap.newKeySet();
+  private static volatile boolean isShutdownHookAdded = false;
+
+  // ordered from least to most recently viewed
+  private final LinkedHashSet<UtilityNetworkTraceOperationResult> results = new LinkedHashSet<>();
+  private final Consumer<UtilityNetworkTraceOperationResult> onEvicted;
+  private long memoryBudget;
+  private Path spillDirectory;
+
+  /**
+   * Creates a UtilityNetworkTraceHistory.
+   *
+   * @param memoryBudget the memory budget in bytes. 0 for no budget
+   * @param onEvicted called with each result after it is evicted
+   * @since 200.1.0
+   */
+  UtilityNetworkTraceHistory(long memoryBudget, Consumer<UtilityNetworkTraceOperationResult> onEvicted) {
+    this.onEvicted = onEvicted;
+    setMemoryBudget(memoryBudget);
+  }
+
+  /**
+   * Sets the memory budget. Call {@link #enforceBudget(UtilityNetworkTraceOperationResult)} to apply a lower budget.
+   *
+   * @param memoryBudget the memory budget in bytes. 0 for no budget
+   * @throws IllegalArgumentException if memoryBudget is negative
+   * @since 200.1.0
+   */
+  void setMemoryBudget(long memoryBudget) {
+    if (memoryBudget < 0) {
+      throw new IllegalArgumentException("Memory budget cannot be negative");
+    }
+    this.memoryBudget = memoryBudget;
+  }
+
+  /**
+   * Adds a result as the most recently viewed result.
+   *
+   * @param result the result
+   * @since 200.1.0
+   */
+  void add(UtilityNetworkTraceOperationResult result) {
+    results.remove(result);
+    results.add(result);
+  }
+
+  /**
+   * Removes a result, deleting its spilled geometry results if it is evicted.
+   *
+   * @param result the result
+   * @since 200.1.0
+   */
+  void remove(UtilityNetworkTraceOperationResult result) {
+    if (results.remove(result)) {
+      result.deleteSpilledGeometries();
+    }
+  }
+
+  /**
+   * Removes all results, deleting their spilled geometry results, and deletes the spill directory.
+   *
+   * @since 200.1.0
+   */
+  void clear() {
+    results.forEach(UtilityNetworkTraceOperationResult::deleteSpilledGeometries);
+    results.clear();
+    if (spillDirectory != null) {
+      spillDirectories.remove(spillDirectory);
+      deleteSpillDirectory(spillDirectory);
+      spillDirectory = null;
+    }
+  }
+
+  /**
+   * Marks a result as the most recently viewed result, and restores its geometry results if it is evicted. The
+   * features of a restored result remain pending until they are fetched.
+   *
+   * @param result the result
+   * @since 200.1.0
+   */
+  void markViewed(UtilityNetworkTraceOperationResult result) {
+    if (!results.contains(result)) {
+      return;
+    }
+    add(result);
+    try {
+      result.rehydrate();
+    } catch (IOException e) {
+      displayLoggerWarning("Could not restore the geometry results of the trace result " + result.getName() + ".\n" +
+        e.getMessage());
+    }
+  }
+
+  /**
+   * Evicts the least recently viewed results until the estimated memory usage of the results is within the budget.
+   * The most recently viewed or added result is never evicted.
+   *
+   * @param protectedResult another result that is not evicted, such as the result being viewed. Can be null
+   * @since 200.1.0
+   */
+  void enforceBudget(UtilityNetworkTraceOperationResult protectedResult) {
+    if (memoryBudget == 0) {
+      return;
+    }
+    long memoryUsage = 0;
+    for (UtilityNetworkTraceOperationResult result : results) {
+      memoryUsage += result.getEstimatedMemoryUsage();
+    }
+    var evictableCount = results.size() - 1;
+    for (UtilityNetworkTraceOperationResult result : results) {
+      if (memoryUsage <= memoryBudget || evictableCount-- == 0) {
+        break;
+      }
+      if (result == protectedResult || result.isEvicted()) {
+        continue;
+      }
+      var memoryUsageBefore = result.getEstimatedMemoryUsage();
+      Path spillFile = null;
+      try {
+        spillFile = Files.createTempFile(getSpillDirectory(), "trace-result", ".bin");
+        result.evict(spillFile);
+        memoryUsage -= memoryUsageBefore - result.getEstimatedMemoryUsage();
+        onEvicted.accept(result);
+      } catch (IOException e) {
+        displayLoggerWarning("Could not evict the trace result " + result.getName() + " from the trace history.\n" +
+          e.getMessage());
+        deleteSpillFile(spillFile);
+      }
+    }
+  }
+
+  /**
+   * Returns the directory geometry results are spilled to, creating it if required.
+   *
+   * @return the directory
+   * @throws IOException if the directory cannot be created
+   * @since 200.1.0
+   */
+  private Path getSpillDirectory() throws IOException {
+    if (spillDirectory == null || !Files.isDirectory(spillDirectory)) {
+      if (spillDirectory != null) {
+        spillDirectories.remove(spillDirectory);
+      }
+      addShutdownHook();
+      spillDirectory = Files.createTempDirectory("utility-network-trace-history");
+      spillDirectories.add(spillDirectory);
+    }
+    return spillDirectory;
+  }
+
+  /**
+   * Adds the shutdown hook that deletes the spill directories that still exist when the JVM exits, if it has not been
+   * added yet.
+   *
+   * @since 200.1.0
+   */
+  private static void addShutdownHook() {
+    if (isShutdownHookAdded) {
+      return;
+    }
+    synchronized (spillDirectories) {
+      if (!isShutdownHookAdded) {
+        Runtime.getRuntime().addShutdownHook(new Thread(() ->
+          spillDirectories.forEach(UtilityNetworkTraceHistory::deleteSpillDirectory),
+          "arcgis-toolkit-trace-history-cleanup"));
+        isShutdownHookAdded = true;
+      }
+    }
+  }
+
+  /**
+   * Deletes a spill directory and any spill files left in it.
+   *
+   * @param directory the spill directory
+   * @since 200.1.0
+   */
+  private static void deleteSpillDirectory(Path directory) {
+    try {
+      List<Path> spillFiles;
+      try (var files = Files.list(directory)) {
+        spillFiles = files.collect(Collectors.toList());
+      }
+      spillFiles.forEach(UtilityNetworkTraceHistory::deleteSpillFile);
+      Files.deleteIfExists(directory);
+    } catch (IOException e) {
+      // the directory is a temporary directory, so it is left to be cleaned up
+    }
+  }
+
+  /**
+   * Deletes a spill file that is not used.
+   *
+   * @param spillFile the spill file. Can be null
+   * @since 200.1.0
+   */
+  private static void deleteSpillFile(Path spillFile) {
+    if (spillFile != null) {
+      try {
+        Files.deleteIfExists(spillFile);
+      } catch (IOException e) {
+        // the file is in a temporary directory, so it is left to be cleaned up
+      }
+    }
+  }
+
+  /**
+   * Display provided message as a Logger warning.
+   *
+   * @param message the message to display
+   * @since 200.1.0
+   */
+  private void displayLoggerWarning(String message) {
+    Logger.getLogger(UtilityNetworkTraceHistory.class.getName()).warning(message);
+  }
+}
@@ -0,0 +1,344 @@
+/*
+ * Copyright 2022 Esri
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.esri.arcgisruntime.toolkit;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.logging.Logger;
+
+import com.esri.arcgisruntime.concurrent.ListenableFuture;
+import com.esri.arcgisruntime.data.Feature;
+import com.esri.arcgisruntime.data.FeatureQueryResult;
+import com.esri.arcgisruntime.data.QueryParameters;
+import com.esri.arcgisruntime.layers.FeatureLayer;
+
+/**
+ * The definition expressions applied to feature layers by trace results displayed with
+ * {@link UtilityNetworkTraceTool.ResultDisplayMode#FILTER_LAYERS}.
+ *
+ * <p>
+ * Several results can filter the same layer at once, in which case the layer displays the features of any of them.
+ * The definition expression a layer has when it goes from unfiltered to filtered is combined with the filters, and
+ * restored once no results filter the layer. Each utility network trace tool has its own layer filter, which only
+ * references layers while they are filtered. Filters are only applied and removed on the JavaFX application thread.
+ *
+ * <p>
+ * The definition expression of a layer is limited to {@link #MAX_EXPRESSION_LENGTH} characters. If the filters of a
+ * layer would exceed it, such as for a result with many scattered object IDs, the original definition expression of
+ * the layer is kept and the features of every result on the layer are selected instead, until no results filter it.
+ *
+ * @since 200.1.0
+ */
+final class UtilityNetworkTraceLayerFilter {
+
+  // the maximum length of the definition expression of a layer, as long expressions are slow to evaluate and some data
+  // sources limit the length of a query
+  static final int MAX_EXPRESSION_LENGTH = 32 * 1024;
+  // the maximum number of object IDs in a single IN clause, as some data sources limit the length of the list
+  private static final int MAX_OBJECT_IDS_PER_CLAUSE = 1000;
+  // runs of consecutive object IDs at least this long are expressed as a range rather than listed
+  private static final int MIN_OBJECT_ID_RANGE_LENGTH = 3;
+
+  // the layers currently filtered by at least one result
+  private final Map<FeatureLayer, FilteredLayer> filteredLayers = new IdentityHashMap<>();
+
+  /**
+   * Creates a UtilityNetworkTraceLayerFilter.
+   *
+   * @since 200.1.0
+   */
+  UtilityNetworkTraceLayerFilter() {
+  }
+
+  /**
+   * Filters a feature layer to the features with the provided object IDs, in addition to the features of any other
+   * results filtering the layer. If the definition expression of the layer would be too long, the features are
+   * selected instead.
+   *
+   * @param featureLayer the feature layer to filter
+   * @param owner the result applying the filter
+   * @param objectIdField the name of the object ID field of the layer
+   * @param objectIds the object IDs of the features of the result, in any order and possibly with duplicates
+   * @since 200.1.0
+   */
+  void apply(FeatureLayer featureLayer, Object owner, String objectIdField, long[] objectIds) {
+    if (objectIds.length == 0) {
+      return;
+    }
+    var filteredLayer = filteredLayers.get(featureLayer);
+    if (filteredLayer == null) {
+      // the expression is recorded whenever the layer becomes filtered, so changes made while it was unfiltered are
+      // kept when it is restored
+      filteredLayer = new FilteredLayer(featureLayer.getDefinitionExpression());
+      filteredLayers.put(featureLayer, filteredLayer);
+    }
+    var filter = new Filter(objectIds);
+    filter.expression = filteredLayer.isSelecting ? null : createObjectIdExpression(objectIdField, objectIds);
+    filteredLayer.filters.put(owner, filter);
+    update(featureLayer, filteredLayer);
+  }
+
+  /**
+   * Removes the filters applied by a result from all feature layers, restoring the original definition expression of
+   * layers that are no longer filtered by any result.
+   *
+   * @param owner the result that applied the filters
+   * @since 200.1.0
+   */
+  void removeAll(Object owner) {
+    for (var entry : new ArrayList<>(filteredLayers.entrySet())) {
+      var filter = entry.getValue().filters.remove(owner);
+      if (filter != null) {
+        unselect(entry.getKey(), filter);
+        update(entry.getKey(), entry.getValue());
+      }
+    }
+  }
+
+  /**
+   * Creates an expression that matches the features with the provided object IDs. Runs of consecutive object IDs are
+   * matched with a range, and the remaining object IDs are listed in IN clauses of at most 1000 object IDs each.
+   *
+   * @param objectIdField the name of the object ID field
+   * @param objectIds the object IDs, in any order and possibly with duplicates
+   * @return the expression. Null if there are no object IDs
+   * @since 200.1.0
+   */
+  static String createObjectIdExpression(String objectIdField, long[] objectIds) {
+    if (objectIds.length == 0) {
+      return null;
+    }
+    var sortedObjectIds = objectIds.clone();
+    Arrays.sort(sortedObjectIds);
+    List<String> clauses = new ArrayList<>();
+    var listedObjectIds = new StringBuilder();
+    var listedCount = 0;
+    var i = 0;
+    while (i < sortedObjectIds.length) {
+      // find the end of the run of consecutive object IDs starting at i, skipping duplicates
+      var end = i;
+      var runLength = 1;
+      while (end + 1 < sortedObjectIds.length && sortedObjectIds[end + 1] - sortedObjectIds[end] <= 1) {
+        if (sortedObjectIds[end + 1] != sortedObjectIds[end]) {
+          runLength++;
+        }
+        end++;
+      }
+      if (runLength >= MIN_OBJECT_ID_RANGE_LENGTH) {
+        clauses.add(objectIdField + " BETWEEN " + sortedObjectIds[i] + " AND " + sortedObjectIds[end]);
+      } else {
+        for (var j = i; j <= end; j++) {
+          if (j > i && sortedObjectIds[j] == sortedObjectIds[j - 1]) {
+            continue;
+          }
+          if (listedCount == MAX_OBJECT_IDS_PER_CLAUSE) {
+            clauses.add(objectIdField + " IN (" + listedObjectIds + ")");
+            listedObjectIds.setLength(0);
+            listedCount = 0;
+          }
+          if (listedCount > 0) {
+            listedObjectIds.append(',');
+          }
+          listedObjectIds.append(sortedObjectIds[j]);
+          listedCount++;
+        }
+      }
+      i = end + 1;
+    }
+    if (listedCount > 0) {
+      clauses.add(objectIdField + " IN (" + listedObjectIds + ")");
+    }
+    return String.join(" OR ", clauses);
+  }
+
+  /**
+   * Creates the definition expression of a layer filtered to the features matching any of the provided expressions.
+   *
+   * @param originalExpression the definition expression of the layer before it was filtered. Can be null
+   * @param expressions the expressions of the results filtering the layer
+   * @return the definition expression
+   * @since 200.1.0
+   */
+  static String createDefinitionExpression(String originalExpression, Collection<String> expressions) {
+    var combinedExpression = new StringBuilder();
+    for (var expression : expressions) {
+      if (combinedExpression.length() > 0) {
+        combinedExpression.append(" OR ");
+      }
+      combinedExpression.append('(').append(expression).append(')');
+    }
+    if (originalExpression != null && !originalExpression.isBlank()) {
+      return "(" + originalExpression + ") AND (" + combinedExpression + ")";
+    }
+    return combinedExpression.toString();
+  }
+
+  /**
+   * Applies the combined filters to a layer, or restores its original definition expression if it is no longer
+   * filtered. If the combined filters would exceed the maximum expression length, the layer switches to selecting the
+   * features of its results.
+   *
+   * @param featureLayer the filtered layer
+   * @param filteredLayer the filters of the layer
+   * @since 200.1.0
+   */
+  private void update(FeatureLayer featureLayer, FilteredLayer filteredLayer) {
+    var originalExpression = filteredLayer.originalExpression;
+    if (filteredLayer.filters.isEmpty()) {
+      filteredLayers.remove(featureLayer);
+      featureLayer.setDefinitionExpression(originalExpression);
+      return;
+    }
+    if (!filteredLayer.isSelecting) {
+      List<String> expressions = new ArrayList<>();
+      filteredLayer.filters.values().forEach(filter -> expressions.add(filter.expression));
+      var definitionExpression = createDefinitionExpression(originalExpression, expressions);
+      if (definitionExpression.length() <= MAX_EXPRESSION_LENGTH) {
+        featureLayer.setDefinitionExpression(definitionExpression);
+        return;
+      }
+      displayLoggerWarning("The features of the trace results on the layer " + featureLayer.getName() + " are " +
+        "selected rather than filtered, as the definition expression would be " + definitionExpression.length() +
+        " characters long, which is more than the maximum of " + MAX_EXPRESSION_LENGTH + ".");
+      filteredLayer.isSelecting = true;
+      featureLayer.setDefinitionExpression(originalExpression);
+    }
+    // a layer that is selecting the features of its results does so until no results filter it
+    filteredLayer.filters.values().forEach(filter -> {
+      filter.expression = null;
+      if (filter.selectFuture == null) {
+        select(featureLayer, filter);
+      }
+    });
+  }
+
+  /**
+   * Selects the features of a filter on a layer.
+   *
+   * @param featureLayer the layer
+   * @param filter the filter
+   * @since 200.1.0
+   */
+  private void select(FeatureLayer featureLayer, Filter filter) {
+    var queryParameters = new QueryParameters();
+    for (var objectId : filter.objectIds) {
+      queryParameters.getObjectIds().add(objectId);
+    }
+    var selectFuture = featureLayer.selectFeaturesAsync(queryParameters, FeatureLayer.SelectionMode.ADD);
+    filter.selectFuture = selectFuture;
+    selectFuture.addDoneListener(() -> {
+      try {
+        List<Feature> selectedFeatures = new ArrayList<>();
+        selectFuture.get().forEach(selectedFeatures::add);
+        if (filter.isRemoved) {
+          // the filter was removed while the features were being selected
+          featureLayer.unselectFeatures(selectedFeatures);
+        } else {
+          filter.selectedFeatures = selectedFeatures;
+        }
+      } catch (CancellationException e) {
+        // the filter was removed before the features were selected
+      } catch (Exception e) {
+        displayLoggerWarning("Could not select the features of a trace result on the layer " + featureLayer.getName() +
+          ".\n" + e.getMessage());
+      }
+    });
+  }
+
+  /**
+   * Unselects the features selected for a removed filter, or cancels their selection if it is in progress.
+   *
+   * @param featureLayer the layer
+   * @param filter the removed filter
+   * @since 200.1.0
+   */
+  private void unselect(FeatureLayer featureLayer, Filter filter) {
+    filter.isRemoved = true;
+    if (filter.selectFuture != null && !filter.selectFuture.isDone()) {
+      filter.selectFuture.cancel(true);
+    } else if (!filter.selectedFeatures.isEmpty()) {
+      featureLayer.unselectFeatures(filter.selectedFeatures);
+      filter.selectedFeatures = List.of();
+    }
+  }
+
+  /**
+   * Display provided message as a Logger warning.
+   *
+   * @param message the message to display
+   * @since 200.1.0
+   */
+  private static void displayLoggerWarning(String message) {
+    Logger.getLogger(UtilityNetworkTraceLayerFilter.class.getName()).warning(message);
+  }
+
+  /**
+   * The filters of a layer filtered by at least one result.
+   *
+   * @since 200.1.0
+   */
+  private static final class FilteredLayer {
+
+    private final String originalExpression;
+    // the filter of each result on the layer, keyed by the result
+    private final Map<Object, Filter> filters = new LinkedHashMap<>();
+    // true once the combined filters have exceeded the maximum expression length, so the features are selected
+    private boolean isSelecting = false;
+
+    /**
+     * Creates a FilteredLayer.
+     *
+     * @param originalExpression the definition expression of the layer before it was filtered
+     * @since 200.1.0
+     */
+    private FilteredLayer(String originalExpression) {
+      this.originalExpression = originalExpression;
+    }
+  }
+
+  /**
+   * The filter of a result on a layer, which is either an expression or a selection of its features.
+   *
+   * @since 200.1.0
+   */
+  private static final class Filter {
+
+    private final long[] objectIds;
+    // the expression matching the features. Null once the layer selects the features instead
+    private String expression;
+    // the selection of the features, once the layer selects the features instead of filtering them
+    private ListenableFuture<FeatureQueryResult> selectFuture;
+    private List<Feature> selectedFeatures = List.of();
+    private boolean isRemoved = false;
+
+    /**
+     * Creates a Filter.
+     *
+     * @param objectIds the object IDs of the features of the result
+     * @since 200.1.0
+     */
+    private Filter(long[] objectIds) {
+      this.objectIds = objectIds;
+    }
+  }
+}
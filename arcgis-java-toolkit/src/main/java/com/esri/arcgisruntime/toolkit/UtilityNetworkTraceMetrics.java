@@ -0,0 +1,346 @@
+/*
+ * Copyright 2022 Esri
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.esri.arcgisruntime.toolkit;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.ReadOnlyIntegerWrapper;
+import javafx.beans.property.ReadOnlyMapProperty;
+import javafx.beans.property.ReadOnlyMapWrapper;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableMap;
+
+/**
+ * The time spent in each phase of a trace, along with the number of starting points, elements and features involved.
+ * The metrics of a trace are updated as its phases complete, so that they can be observed while features are still
+ * being fetched or selected.
+ *
+ * <p>
+ * The metrics can be recorded and read on any thread, so they are also available for traces run by a
+ * {@link UtilityNetworkTraceEngine} in a batch job or service without the JavaFX toolkit. The getters return the
+ * current values. The properties are updated on the JavaFX application thread, so that they can be bound to controls,
+ * and are only updated while the JavaFX toolkit is running.
+ *
+ * <p>
+ * When the {@code jdk.jfr} module is available, each phase is also recorded as a JDK Flight Recorder event named
+ * {@code com.esri.arcgisruntime.toolkit.UtilityNetworkTracePhase}, with the phase, the name of the trace, and the
+ * element and feature counts, so that traces can be profiled in recordings of an application. The trace and fetch
+ * features phases measure requests made to the utility network service, while the other phases measure work done by the
+ * application.
+ *
+ * @since 200.1.0
+ */
+public final class UtilityNetworkTraceMetrics {
+
+  /**
+   * The phases of a trace.
+   *
+   * @since 200.1.0
+   */
+  public enum Phase {
+    /**
+     * Identifying the features at the locations the starting points were added at.
+     *
+     * @since 200.1.0
+     */
+    IDENTIFY,
+    /**
+     * Creating the utility elements of the starting points from the identified features.
+     *
+     * @since 200.1.0
+     */
+    CREATE_ELEMENT,
+    /**
+     * Running the trace and classifying its results.
+     *
+     * @since 200.1.0
+     */
+    TRACE,
+    /**
+     * Fetching the features of the element results.
+     *
+     * @since 200.1.0
+     */
+    FETCH_FEATURES,
+    /**
+     * Selecting the features of the element results on their feature layers.
+     *
+     * @since 200.1.0
+     */
+    SELECT_FEATURES,
+    /**
+     * Building the view that displays the result.
+     *
+     * @since 200.1.0
+     */
+    BUILD_VIEW
+  }
+
+  // the recorded metrics, which are updated on the threads the phases end on
+  private final Map<Phase, Duration> recordedPhaseDurations = new EnumMap<>(Phase.class);
+  private final AtomicInteger recordedStartingPointCount = new AtomicInteger();
+  private final AtomicInteger recordedElementCount = new AtomicInteger();
+  private final AtomicInteger recordedFeatureCount = new AtomicInteger();
+  // true while the recorded metrics are waiting to be published to the properties on the JavaFX application thread
+  private final AtomicBoolean isPublishPending = new AtomicBoolean(false);
+
+  // the properties, which are only updated on the JavaFX application thread
+  private final ReadOnlyMapWrapper<Phase, Duration> phaseDurations =
+    new ReadOnlyMapWrapper<>(FXCollections.observableMap(new EnumMap<>(Phase.class)));
+  private final ReadOnlyIntegerWrapper startingPointCount = new ReadOnlyIntegerWrapper(0);
+  private final ReadOnlyIntegerWrapper elementCount = new ReadOnlyIntegerWrapper(0);
+  private final ReadOnlyIntegerWrapper featureCount = new ReadOnlyIntegerWrapper(0);
+
+  /**
+   * Creates a UtilityNetworkTraceMetrics.
+   *
+   * @since 200.1.0
+   */
+  UtilityNetworkTraceMetrics() {
+  }
+
+  /**
+   * The time spent in each phase of the trace. Phases that have not run are not included. Phases that run more than
+   * once, such as the selection of features as each batch arrives, are the total of each run. Only updated while the
+   * JavaFX toolkit is running.
+   *
+   * @return the phase durations read-only map property
+   * @since 200.1.0
+   */
+  public ReadOnlyMapProperty<Phase, Duration> phaseDurationsProperty() {
+    return phaseDurations.getReadOnlyProperty();
+  }
+
+  /**
+   * Gets the time spent in each phase of the trace, as published to the JavaFX application thread. Use
+   * {@link #getRecordedPhaseDurations()} to get the current durations on any thread.
+   *
+   * @return read-only map of the phase durations
+   * @since 200.1.0
+   */
+  public ObservableMap<Phase, Duration> getPhaseDurations() {
+    return phaseDurationsProperty().get();
+  }
+
+  /**
+   * Gets a snapshot of the time spent in each phase of the trace so far. Can be called on any thread.
+   *
+   * @return an unmodifiable map of the phase durations in phase order, without the phases that have not run
+   * @since 200.1.0
+   */
+  public Map<Phase, Duration> getRecordedPhaseDurations() {
+    synchronized (recordedPhaseDurations) {
+      return Collections.unmodifiableMap(new EnumMap<>(recordedPhaseDurations));
+    }
+  }
+
+  /**
+   * Gets the time spent in a phase of the trace.
+   *
+   * @param phase the phase
+   * @return the duration. Zero if the phase has not run
+   * @throws NullPointerException if phase is null
+   * @since 200.1.0
+   */
+  public Duration getPhaseDuration(Phase phase) {
+    Objects.requireNonNull(phase, "Phase cannot be null");
+    synchronized (recordedPhaseDurations) {
+      return recordedPhaseDurations.getOrDefault(phase, Duration.ZERO);
+    }
+  }
+
+  /**
+   * Gets the total time spent in all phases of the trace.
+   *
+   * @return the total duration
+   * @since 200.1.0
+   */
+  public Duration getTotalDuration() {
+    var totalDuration = Duration.ZERO;
+    synchronized (recordedPhaseDurations) {
+      for (var duration : recordedPhaseDurations.values()) {
+        totalDuration = totalDuration.plus(duration);
+      }
+    }
+    return totalDuration;
+  }
+
+  /**
+   * The number of starting points of the trace.
+   *
+   * @return the starting point count read-only property
+   * @since 200.1.0
+   */
+  public ReadOnlyIntegerProperty startingPointCountProperty() {
+    return startingPointCount.getReadOnlyProperty();
+  }
+
+  /**
+   * Gets the number of starting points of the trace.
+   *
+   * @return the number of starting points
+   * @since 200.1.0
+   */
+  public int getStartingPointCount() {
+    return recordedStartingPointCount.get();
+  }
+
+  /**
+   * The number of element results of the trace.
+   *
+   * @return the element count read-only property
+   * @since 200.1.0
+   */
+  public ReadOnlyIntegerProperty elementCountProperty() {
+    return elementCount.getReadOnlyProperty();
+  }
+
+  /**
+   * Gets the number of element results of the trace.
+   *
+   * @return the number of elements
+   * @since 200.1.0
+   */
+  public int getElementCount() {
+    return recordedElementCount.get();
+  }
+
+  /**
+   * The number of features fetched for the element results of the trace.
+   *
+   * @return the feature count read-only property
+   * @since 200.1.0
+   */
+  public ReadOnlyIntegerProperty featureCountProperty() {
+    return featureCount.getReadOnlyProperty();
+  }
+
+  /**
+   * Gets the number of features fetched for the element results of the trace.
+   *
+   * @return the number of features
+   * @since 200.1.0
+   */
+  public int getFeatureCount() {
+    return recordedFeatureCount.get();
+  }
+
+  /**
+   * Ends the provided phase, committing its flight recorder event and adding its duration to the phase.
+   *
+   * @param phase the phase started when the phase started
+   * @param phaseElementCount the number of elements handled by the phase
+   * @param phaseFeatureCount the number of features handled by the phase
+   * @since 200.1.0
+   */
+  void endPhase(UtilityNetworkTracePhase phase, int phaseElementCount, int phaseFeatureCount) {
+    addPhaseDuration(phase.getTracePhase(), phase.endPhase(phaseElementCount, phaseFeatureCount));
+  }
+
+  /**
+   * Adds time spent in a phase.
+   *
+   * @param phase the phase
+   * @param durationNanos the time spent in nanoseconds
+   * @since 200.1.0
+   */
+  void addPhaseDuration(Phase phase, long durationNanos) {
+    synchronized (recordedPhaseDurations) {
+      recordedPhaseDurations.merge(phase, Duration.ofNanos(durationNanos), Duration::plus);
+    }
+    publish();
+  }
+
+  /**
+   * Sets the number of starting points of the trace.
+   *
+   * @param startingPointCount the number of starting points
+   * @since 200.1.0
+   */
+  void setStartingPointCount(int startingPointCount) {
+    recordedStartingPointCount.set(startingPointCount);
+    publish();
+  }
+
+  /**
+   * Sets the number of element results of the trace.
+   *
+   * @param elementCount the number of elements
+   * @since 200.1.0
+   */
+  void setElementCount(int elementCount) {
+    recordedElementCount.set(elementCount);
+    publish();
+  }
+
+  /**
+   * Sets the number of features fetched for the element results of the trace.
+   *
+   * @param featureCount the number of features
+   * @since 200.1.0
+   */
+  void setFeatureCount(int featureCount) {
+    recordedFeatureCount.set(featureCount);
+    publish();
+  }
+
+  /**
+   * Publishes the recorded metrics to the properties by posting an update to the JavaFX application thread, unless one
+   * is already pending, so that a trace adding many batches of features posts few updates. Nothing is posted if the
+   * JavaFX toolkit is not running, as the properties cannot be observed. The update is always posted rather than run
+   * immediately, as checking for the JavaFX application thread would load the JavaFX toolkit when it is not running.
+   *
+   * @since 200.1.0
+   */
+  private void publish() {
+    if (isPublishPending.compareAndSet(false, true)) {
+      try {
+        Platform.runLater(() -> {
+          isPublishPending.set(false);
+          updateProperties();
+        });
+      } catch (IllegalStateException e) {
+        // the JavaFX toolkit is not running
+        isPublishPending.set(false);
+      }
+    }
+  }
+
+  /**
+   * Updates the properties with the recorded metrics. Must be called on the JavaFX application thread.
+   *
+   * @since 200.1.0
+   */
+  private void updateProperties() {
+    getRecordedPhaseDurations().forEach((phase, duration) -> {
+      if (!duration.equals(phaseDurations.get(phase))) {
+        phaseDurations.put(phase, duration);
+      }
+    });
+    startingPointCount.set(recordedStartingPointCount.get());
+    elementCount.set(recordedElementCount.get());
+    featureCount.set(recordedFeatureCount.get());
+  }
+}
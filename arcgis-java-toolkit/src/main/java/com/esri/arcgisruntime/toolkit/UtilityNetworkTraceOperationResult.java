@@ -16,32 +16,52 @@
 
 package com.esri.arcgisruntime.toolkit;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 import com.esri.arcgisruntime.ArcGISRuntimeException;
 import com.esri.arcgisruntime.data.ArcGISFeature;
+import com.esri.arcgisruntime.data.ArcGISFeatureTable;
 import com.esri.arcgisruntime.data.Feature;
+import com.esri.arcgisruntime.data.FeatureTable;
 import com.esri.arcgisruntime.geometry.Envelope;
+import com.esri.arcgisruntime.geometry.Geometry;
 import com.esri.arcgisruntime.geometry.GeometryEngine;
+import com.esri.arcgisruntime.geometry.GeometryType;
+import com.esri.arcgisruntime.geometry.Multipart;
+import com.esri.arcgisruntime.geometry.Multipoint;
+import com.esri.arcgisruntime.geometry.Point;
 import com.esri.arcgisruntime.layers.FeatureLayer;
-import com.esri.arcgisruntime.layers.Layer;
+import com.esri.arcgisruntime.mapping.view.Graphic;
 import com.esri.arcgisruntime.mapping.view.GraphicsOverlay;
 import com.esri.arcgisruntime.symbology.ColorUtil;
 import com.esri.arcgisruntime.symbology.SimpleFillSymbol;
 import com.esri.arcgisruntime.symbology.SimpleLineSymbol;
 import com.esri.arcgisruntime.symbology.SimpleMarkerSymbol;
+import com.esri.arcgisruntime.symbology.UniqueValueRenderer;
 import com.esri.arcgisruntime.utilitynetworks.UtilityAssetGroup;
 import com.esri.arcgisruntime.utilitynetworks.UtilityElement;
+import com.esri.arcgisruntime.utilitynetworks.UtilityNamedTraceConfiguration;
+import com.esri.arcgisruntime.utilitynetworks.UtilityNetwork;
 import com.esri.arcgisruntime.utilitynetworks.UtilityTraceFunctionOutput;
 import com.esri.arcgisruntime.utilitynetworks.UtilityTraceParameters;
 import com.esri.arcgisruntime.utilitynetworks.UtilityTraceResult;
 import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleObjectProperty;
-import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.scene.paint.Color;
 
 /**
@@ -51,19 +71,74 @@ import javafx.scene.paint.Color;
  */
 public class UtilityNetworkTraceOperationResult {
 
+  private static final String GEOMETRY_TYPE_ATTRIBUTE = "geometryType";
+  // rough heap usage of the objects held by a result, used to keep the trace history within its memory budget
+  private static final long ESTIMATED_ELEMENT_SIZE = 200;
+  private static final long ESTIMATED_FEATURE_SIZE = 500;
+  private static final long ESTIMATED_ATTRIBUTE_SIZE = 80;
+  private static final long ESTIMATED_GRAPHIC_SIZE = 300;
+  private static final long ESTIMATED_VERTEX_SIZE = 24;
+
   private final SimpleObjectProperty<Color> visualizationColorProperty = new SimpleObjectProperty<>(Color.BLUE);
   private final SimpleBooleanProperty isSelectedProperty = new SimpleBooleanProperty(false);
 
   private Exception exception = null;
   private final GraphicsOverlay resultsGraphicsOverlay = new GraphicsOverlay();
+  // the symbols used by the renderer of the results graphics overlay
+  private SimpleMarkerSymbol pointSymbol =
+    new SimpleMarkerSymbol(SimpleMarkerSymbol.Style.CIRCLE, Color.rgb(0, 0, 255, 0.5), 20);
+  private SimpleLineSymbol lineSymbol =
+    new SimpleLineSymbol(SimpleLineSymbol.Style.DOT, Color.rgb(0, 0, 255, 0.5), 5);
+  private SimpleFillSymbol fillSymbol = new SimpleFillSymbol(SimpleFillSymbol.Style.FORWARD_DIAGONAL,
+    Color.rgb(0, 0, 255, 0.5), new SimpleLineSymbol(SimpleLineSymbol.Style.SOLID, Color.rgb(0, 0, 255, 0.5), 2));
   private final List<ArcGISFeature> features = new ArrayList<>();
+  // the features grouped by the feature layer they are selected on, kept up to date as features are added
+  private final Map<FeatureLayer, List<Feature>> featuresByLayer = new LinkedHashMap<>();
+  private int indexedFeatureCount = 0;
+  // the extent of the features, kept up to date as features are added
+  private Envelope featuresExtent = null;
+  private int featuresExtentCount = 0;
+  // the combined extent of the features and graphics, invalidated when either changes
+  private Envelope extent = null;
+  private boolean isExtentValid = false;
   private final List<String> warnings = new ArrayList<>();
   private final List<UtilityElement> elementResults = new ArrayList<>();
+  // the object IDs of element results that were recreated without them, such as the elements of restored results
+  private final Map<UtilityElement, Long> elementObjectIds = new IdentityHashMap<>();
   private final List<UtilityTraceFunctionOutput> functionResults = new ArrayList<>();
+  private final List<UtilityNetworkTraceFunctionResult> functionResultValues = new ArrayList<>();
   private final List<UtilityTraceResult> rawResults = new ArrayList<>();
   private final UtilityTraceParameters traceParameters;
-  private Map<UtilityAssetGroup, List<UtilityElement>> elementResultsByAssetGroup = new HashMap<>();
+  // the element results organised by asset group and the summary of the element results, computed when first
+  // requested and again if element results are added
+  private Map<UtilityAssetGroup, List<UtilityElement>> elementResultsByAssetGroup = null;
+  private int groupedElementCount = 0;
+  private UtilityNetworkTraceResultSummary summary = null;
+  private int summarizedElementCount = 0;
   private String name = "";
+  private UtilityNetwork utilityNetwork = null;
+  private UtilityNamedTraceConfiguration namedTraceConfiguration = null;
+  // the fingerprint the trace engine caches the data of the trace under
+  private UtilityNetworkTraceResultCache.Key cacheKey = null;
+  // set for results that show the differences between two other results
+  private UtilityNetworkTraceResultDiff diff = null;
+  // the time spent in each phase of the trace, updated as the phases complete
+  private final UtilityNetworkTraceMetrics metrics = new UtilityNetworkTraceMetrics();
+  // true while the features of the element results are still to be fetched, such as for results restored from a
+  // saved session or evicted from the trace history, along with the extent to use until they are fetched
+  private boolean areFeaturesPending = false;
+  private Envelope savedExtent = null;
+  // while the result is evicted from the trace history, its geometry results are spilled to a file
+  private boolean isEvicted = false;
+  private Path spilledGeometriesFile = null;
+  // the estimated heap usage of the features, kept up to date as features are added
+  private long featuresMemoryUsage = 0;
+  private int featuresMemoryUsageCount = 0;
+  // how the element results are displayed on their feature layers when the result is selected
+  private UtilityNetworkTraceTool.ResultDisplayMode displayMode =
+    UtilityNetworkTraceTool.ResultDisplayMode.SELECT_FEATURES;
+  // the layer filter of the tool displaying the result, which filters layers in the FILTER_LAYERS display mode
+  private UtilityNetworkTraceLayerFilter layerFilter = null;
 
   /**
    * Creates a UtilityNetworkTraceOperationResult.
@@ -73,6 +148,9 @@ public class UtilityNetworkTraceOperationResult {
    */
   protected UtilityNetworkTraceOperationResult(UtilityTraceParameters traceParameters) {
     this.traceParameters = traceParameters;
+    updateRenderer();
+    // invalidate the extent when graphics are added or removed
+    resultsGraphicsOverlay.getGraphics().addListener((ListChangeListener<Graphic>) c -> isExtentValid = false);
     // add a listener to update the visualization color
     visualizationColorProperty.addListener(((observable, oldValue, newValue) -> updateVisualizationColor(newValue)));
     // add a listener to select or unselect features
@@ -172,7 +250,9 @@ public class UtilityNetworkTraceOperationResult {
   }
 
   /**
-   * Returns the list of features associated with the result.
+   * Returns the list of features associated with the result. The features are only available once they have been
+   * fetched, which for results restored from a saved session or evicted from the trace history of a
+   * {@link UtilityNetworkTraceTool} happens when the result is next viewed.
    *
    * @return the list of features
    * @since 100.15.0
@@ -202,12 +282,48 @@ public class UtilityNetworkTraceOperationResult {
   }
 
   /**
-   * Returns a map of the utility elements organised by UtilityAssetGroup.
+   * Returns the object ID of the feature an element result identifies. Use this rather than
+   * {@link UtilityElement#getObjectId()}, as the elements of a result restored with
+   * {@link UtilityNetworkTraceTool#loadTraceResultsAsync(java.nio.file.Path)} are recreated from their global IDs and
+   * do not know their object IDs.
+   *
+   * @param element the element result
+   * @return the object ID
+   * @since 200.1.0
+   */
+  public long getElementObjectId(UtilityElement element) {
+    var objectId = elementObjectIds.get(element);
+    return objectId != null ? objectId : element.getObjectId();
+  }
+
+  /**
+   * Sets the object ID of an element result that was recreated without it. The object ID is only kept if it differs
+   * from the element's own object ID.
+   *
+   * @param element the element result
+   * @param objectId the object ID
+   * @since 200.1.0
+   */
+  void setElementObjectId(UtilityElement element, long objectId) {
+    if (element.getObjectId() != objectId) {
+      elementObjectIds.put(element, objectId);
+    }
+  }
+
+  /**
+   * Returns a map of the utility elements organised by UtilityAssetGroup. Unless a map has been set, the map is
+   * computed from the element results when first requested. {@link #getSummary()} is cheaper if only the number of
+   * elements of each asset group is required.
    *
    * @return a map of utility elements organised by asset group
    * @since 100.15.0
    */
   public Map<UtilityAssetGroup, List<UtilityElement>> getElementResultsByAssetGroup() {
+    if (elementResultsByAssetGroup == null || groupedElementCount != elementResults.size()) {
+      elementResultsByAssetGroup =
+        elementResults.stream().collect(Collectors.groupingBy(UtilityElement::getAssetGroup));
+      groupedElementCount = elementResults.size();
+    }
     return elementResultsByAssetGroup;
   }
 
@@ -219,6 +335,22 @@ public class UtilityNetworkTraceOperationResult {
    */
   public void setElementResultsByAssetGroup(Map<UtilityAssetGroup, List<UtilityElement>> elementResultsByAssetGroup) {
     this.elementResultsByAssetGroup = elementResultsByAssetGroup;
+    groupedElementCount = elementResults.size();
+  }
+
+  /**
+   * Returns a summary of the element results, with the number of elements of each network source, asset group and
+   * asset type. The summary is computed when first requested, and again if element results have been added.
+   *
+   * @return the summary of the element results
+   * @since 200.1.0
+   */
+  public UtilityNetworkTraceResultSummary getSummary() {
+    if (summary == null || summarizedElementCount != elementResults.size()) {
+      summary = UtilityNetworkTraceResultSummary.create(elementResults);
+      summarizedElementCount = elementResults.size();
+    }
+    return summary;
   }
 
   /**
@@ -231,9 +363,33 @@ public class UtilityNetworkTraceOperationResult {
     return functionResults;
   }
 
+  /**
+   * Returns the values of the function results associated with the trace. Unlike {@link #getFunctionResults()}, the
+   * values are also available for results restored from a saved session.
+   *
+   * @return the list of function result values
+   * @since 200.1.0
+   */
+  public List<UtilityNetworkTraceFunctionResult> getFunctionResultValues() {
+    return functionResultValues;
+  }
+
+  /**
+   * Adds the function outputs of a trace to the function results, along with their values.
+   *
+   * @param functionOutputs the function outputs to add
+   * @since 200.1.0
+   */
+  void addFunctionResults(List<UtilityTraceFunctionOutput> functionOutputs) {
+    functionResults.addAll(functionOutputs);
+    functionOutputs.forEach(
+      functionOutput -> functionResultValues.add(new UtilityNetworkTraceFunctionResult(functionOutput)));
+  }
+
   /**
    * Returns the list of raw results, UtilityTraceResult, generated by a trace that form the basis for the
-   * UtilityNetworkTraceOperationResult.
+   * UtilityNetworkTraceOperationResult. The raw results are not available for results restored from a saved session,
+   * and are released when a result is evicted from the trace history of a {@link UtilityNetworkTraceTool}.
    *
    * @return the list of results
    * @since 100.15.0
@@ -273,64 +429,598 @@ public class UtilityNetworkTraceOperationResult {
   }
 
   /**
-   * Selects or unselects features on feature layers relating to the provided trace result.
+   * Returns the utility network the trace was run on.
+   *
+   * @return the utility network. Null if it is not known
+   * @since 200.1.0
+   */
+  UtilityNetwork getUtilityNetwork() {
+    return utilityNetwork;
+  }
+
+  /**
+   * Sets the utility network the trace was run on.
+   *
+   * @param utilityNetwork the utility network
+   * @since 200.1.0
+   */
+  void setUtilityNetwork(UtilityNetwork utilityNetwork) {
+    this.utilityNetwork = utilityNetwork;
+  }
+
+  /**
+   * Returns the named trace configuration used to run the trace.
+   *
+   * @return the named trace configuration. Null if it is not known
+   * @since 200.1.0
+   */
+  UtilityNamedTraceConfiguration getNamedTraceConfiguration() {
+    return namedTraceConfiguration;
+  }
+
+  /**
+   * Sets the named trace configuration used to run the trace.
+   *
+   * @param namedTraceConfiguration the named trace configuration
+   * @since 200.1.0
+   */
+  void setNamedTraceConfiguration(UtilityNamedTraceConfiguration namedTraceConfiguration) {
+    this.namedTraceConfiguration = namedTraceConfiguration;
+  }
+
+  /**
+   * Returns the fingerprint the trace engine caches the data of the trace under.
+   *
+   * @return the fingerprint. Null if the result was not created by a trace engine
+   * @since 200.1.0
+   */
+  UtilityNetworkTraceResultCache.Key getCacheKey() {
+    return cacheKey;
+  }
+
+  /**
+   * Sets the fingerprint the trace engine caches the data of the trace under.
+   *
+   * @param cacheKey the fingerprint
+   * @since 200.1.0
+   */
+  void setCacheKey(UtilityNetworkTraceResultCache.Key cacheKey) {
+    this.cacheKey = cacheKey;
+  }
+
+  /**
+   * Returns the differences between two trace results, if this result was created to show them with
+   * {@link UtilityNetworkTraceTool#diffTraceResults(UtilityNetworkTraceOperationResult,
+   * UtilityNetworkTraceOperationResult)}.
+   *
+   * @return the differences. Null if this result is the result of a trace
+   * @since 200.1.0
+   */
+  public UtilityNetworkTraceResultDiff getDiff() {
+    return diff;
+  }
+
+  /**
+   * Sets the differences between two trace results shown by this result.
+   *
+   * @param diff the differences
+   * @since 200.1.0
+   */
+  void setDiff(UtilityNetworkTraceResultDiff diff) {
+    this.diff = diff;
+  }
+
+  /**
+   * Returns the metrics of the trace, which record the time spent in each of its phases and are updated as the phases
+   * complete.
+   *
+   * @return the metrics
+   * @since 200.1.0
+   */
+  public UtilityNetworkTraceMetrics getMetrics() {
+    return metrics;
+  }
+
+  /**
+   * Returns how the element results are displayed on their feature layers when the result is selected.
+   *
+   * @return the display mode
+   * @since 200.1.0
+   */
+  public UtilityNetworkTraceTool.ResultDisplayMode getDisplayMode() {
+    return displayMode;
+  }
+
+  /**
+   * Sets how the element results are displayed on their feature layers when the result is selected. If the result is
+   * selected, the element results are displayed again with the new mode.
+   *
+   * @param displayMode the display mode
+   * @since 200.1.0
+   */
+  void setDisplayMode(UtilityNetworkTraceTool.ResultDisplayMode displayMode) {
+    if (this.displayMode == displayMode) {
+      return;
+    }
+    var isSelected = isSelected();
+    if (isSelected) {
+      selectResultFeatures(false);
+    }
+    this.displayMode = displayMode;
+    if (isSelected) {
+      selectResultFeatures(true);
+    }
+  }
+
+  /**
+   * Sets the layer filter used to filter the feature layers of the element results when the display mode is
+   * {@link UtilityNetworkTraceTool.ResultDisplayMode#FILTER_LAYERS}. Set by the tool displaying the result before the
+   * display mode is set.
+   *
+   * @param layerFilter the layer filter
+   * @since 200.1.0
+   */
+  void setLayerFilter(UtilityNetworkTraceLayerFilter layerFilter) {
+    this.layerFilter = layerFilter;
+  }
+
+  /**
+   * Returns whether the features of the element results are still to be fetched from the utility network.
+   *
+   * @return true if the features are pending, false otherwise
+   * @since 200.1.0
+   */
+  boolean areFeaturesPending() {
+    return areFeaturesPending;
+  }
+
+  /**
+   * Sets whether the features of the element results are still to be fetched from the utility network. While they
+   * are pending, the provided extent is returned by {@link #getExtent()}.
+   *
+   * @param areFeaturesPending true if the features are pending, false otherwise
+   * @param extent the extent of the result including the pending features. Can be null
+   * @since 200.1.0
+   */
+  void setFeaturesPending(boolean areFeaturesPending, Envelope extent) {
+    this.areFeaturesPending = areFeaturesPending;
+    savedExtent = areFeaturesPending ? extent : null;
+  }
+
+  /**
+   * Returns whether the result is evicted from the trace history.
+   *
+   * @return true if the result is evicted, false otherwise
+   * @since 200.1.0
+   */
+  boolean isEvicted() {
+    return isEvicted;
+  }
+
+  /**
+   * Reduces the result to its element results, extent and summary to keep the trace history within its memory budget.
+   * The geometry results are spilled to the provided file and their graphics removed, the features are released
+   * and marked as pending, and the raw results are released. The selection state is kept, so the features are
+   * selected again once they are fetched. Features added while the result is evicted are ignored.
+   *
+   * @param spillFile the file to spill the geometry results to, which is deleted if there are no geometry results
+   * @throws IOException if the geometry results cannot be written, in which case the result is left unchanged
+   * @since 200.1.0
+   */
+  void evict(Path spillFile) throws IOException {
+    if (isEvicted) {
+      return;
+    }
+    var currentExtent = getExtent();
+    var graphics = resultsGraphicsOverlay.getGraphics();
+    if (!graphics.isEmpty()) {
+      try (var output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(spillFile)))) {
+        var geometries = getGeometryResultsJson();
+        output.writeInt(geometries.size());
+        for (String geometry : geometries) {
+          UtilityNetworkTraceSessionFile.writeString(output, geometry);
+        }
+      }
+      spilledGeometriesFile = spillFile;
+    } else {
+      // there are no geometry results to spill
+      Files.deleteIfExists(spillFile);
+    }
+
+    if (isSelected()) {
+      // unselect the features on their layers without changing the selection state of the result
+      updateFeaturesIndex();
+      featuresByLayer.forEach((featureLayer, layerFeatures) -> selectFeatures(featureLayer, layerFeatures, false));
+    }
+    features.clear();
+    featuresByLayer.clear();
+    indexedFeatureCount = 0;
+    featuresExtent = null;
+    featuresExtentCount = 0;
+    featuresMemoryUsage = 0;
+    featuresMemoryUsageCount = 0;
+    rawResults.clear();
+    graphics.clear();
+
+    isEvicted = true;
+    // results that filter their layers do not use features, so they are not fetched again
+    areFeaturesPending = displayMode == UtilityNetworkTraceTool.ResultDisplayMode.SELECT_FEATURES &&
+      !elementResults.isEmpty();
+    savedExtent = currentExtent;
+  }
+
+  /**
+   * Restores the geometry results of a result evicted from the trace history from the file they were spilled to, and
+   * deletes the file. The features remain pending until they are fetched.
+   *
+   * @throws IOException if the geometry results cannot be read, in which case they are lost
+   * @since 200.1.0
+   */
+  void rehydrate() throws IOException {
+    if (!isEvicted) {
+      return;
+    }
+    isEvicted = false;
+    if (!areFeaturesPending) {
+      savedExtent = null;
+    }
+    var file = spilledGeometriesFile;
+    spilledGeometriesFile = null;
+    if (file != null) {
+      try {
+        for (String geometry : readSpilledGeometries(file)) {
+          addGeometryResult(Geometry.fromJson(geometry));
+        }
+      } finally {
+        Files.deleteIfExists(file);
+      }
+    }
+  }
+
+  /**
+   * Deletes the file the geometry results are spilled to, if any. Used when an evicted result is discarded.
+   *
+   * @since 200.1.0
+   */
+  void deleteSpilledGeometries() {
+    if (spilledGeometriesFile != null) {
+      try {
+        Files.deleteIfExists(spilledGeometriesFile);
+      } catch (IOException e) {
+        // the file is in a temporary directory, so it is left to be cleaned up
+      }
+      spilledGeometriesFile = null;
+    }
+  }
+
+  /**
+   * Returns the geometries of the geometry results as JSON. For a result evicted from the trace history, the
+   * geometries are read from the file they are spilled to.
+   *
+   * @return the geometries as JSON
+   * @throws IOException if the spilled geometries cannot be read
+   * @since 200.1.0
+   */
+  List<String> getGeometryResultsJson() throws IOException {
+    if (spilledGeometriesFile != null) {
+      return readSpilledGeometries(spilledGeometriesFile);
+    }
+    List<String> geometries = new ArrayList<>();
+    for (Graphic graphic : resultsGraphicsOverlay.getGraphics()) {
+      if (graphic.getGeometry() != null) {
+        geometries.add(graphic.getGeometry().toJson());
+      }
+    }
+    return geometries;
+  }
+
+  /**
+   * Reads the geometries spilled to a file.
+   *
+   * @param file the file
+   * @return the geometries as JSON
+   * @throws IOException if the file cannot be read
+   * @since 200.1.0
+   */
+  private static List<String> readSpilledGeometries(Path file) throws IOException {
+    try (var input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+      var geometryCount = input.readInt();
+      List<String> geometries = new ArrayList<>(geometryCount);
+      for (int i = 0; i < geometryCount; i++) {
+        geometries.add(UtilityNetworkTraceSessionFile.readString(input));
+      }
+      return geometries;
+    }
+  }
+
+  /**
+   * Returns an estimate of the heap memory used by the features, graphics and element results of the result.
+   *
+   * @return the estimated memory usage in bytes
+   * @since 200.1.0
+   */
+  long getEstimatedMemoryUsage() {
+    if (featuresMemoryUsageCount != features.size()) {
+      // the features list has been modified directly, so recalculate the estimate
+      featuresMemoryUsage = estimateFeaturesMemoryUsage(features);
+      featuresMemoryUsageCount = features.size();
+    }
+    var memoryUsage = featuresMemoryUsage + elementResults.size() * ESTIMATED_ELEMENT_SIZE;
+    for (Graphic graphic : resultsGraphicsOverlay.getGraphics()) {
+      memoryUsage += ESTIMATED_GRAPHIC_SIZE + countVertices(graphic.getGeometry()) * ESTIMATED_VERTEX_SIZE;
+    }
+    return memoryUsage;
+  }
+
+  /**
+   * Returns an estimate of the heap memory used by the provided features.
+   *
+   * @param featuresToEstimate the features
+   * @return the estimated memory usage in bytes
+   * @since 200.1.0
+   */
+  private static long estimateFeaturesMemoryUsage(List<ArcGISFeature> featuresToEstimate) {
+    long memoryUsage = 0;
+    // the number of attributes is looked up once per table
+    Map<FeatureTable, Integer> fieldCounts = new HashMap<>();
+    for (ArcGISFeature feature : featuresToEstimate) {
+      var featureTable = feature.getFeatureTable();
+      var fieldCount = featureTable != null ?
+        fieldCounts.computeIfAbsent(featureTable, table -> table.getFields().size()) : 0;
+      memoryUsage += ESTIMATED_FEATURE_SIZE + fieldCount * ESTIMATED_ATTRIBUTE_SIZE +
+        countVertices(feature.getGeometry()) * ESTIMATED_VERTEX_SIZE;
+    }
+    return memoryUsage;
+  }
+
+  /**
+   * Returns the number of vertices of a geometry.
+   *
+   * @param geometry the geometry. Can be null
+   * @return the number of vertices
+   * @since 200.1.0
+   */
+  private static long countVertices(Geometry geometry) {
+    if (geometry instanceof Point) {
+      return 1;
+    } else if (geometry instanceof Multipoint) {
+      return ((Multipoint) geometry).getPoints().size();
+    } else if (geometry instanceof Multipart) {
+      long vertexCount = 0;
+      for (var part : ((Multipart) geometry).getParts()) {
+        vertexCount += part.getPointCount();
+      }
+      return vertexCount;
+    }
+    return 0;
+  }
+
+  /**
+   * Selects or unselects features on feature layers relating to the provided trace result. If the display mode of the
+   * result is {@link UtilityNetworkTraceTool.ResultDisplayMode#FILTER_LAYERS}, the feature layers of the element
+   * results are filtered to the element results, or have their filters removed, instead.
    *
    * @param isSelectFeatures true if the features should be selected, false to unselect
    * @since 100.15.0
    */
   public void selectResultFeatures(boolean isSelectFeatures) {
-    // group features by layer
-    Map<Layer, List<ArcGISFeature>> groups = features.stream()
-      .filter(feature -> feature.getFeatureTable() != null)
-      .filter(feature -> feature.getFeatureTable().getLayer() != null)
-      .collect(Collectors.groupingBy(feature -> feature.getFeatureTable().getLayer()));
+    if (isSelectedProperty.get() != isSelectFeatures) {
+      // the isSelected listener calls back into this method to apply the selection
+      isSelectedProperty.set(isSelectFeatures);
+      return;
+    }
+    if (displayMode == UtilityNetworkTraceTool.ResultDisplayMode.FILTER_LAYERS) {
+      filterLayers(isSelectFeatures);
+      return;
+    }
+    updateFeaturesIndex();
+    var selectEvent = isSelectFeatures ?
+      UtilityNetworkTracePhase.beginPhase(UtilityNetworkTraceMetrics.Phase.SELECT_FEATURES, name) : null;
+    featuresByLayer.forEach((featureLayer, layerFeatures) ->
+      selectFeatures(featureLayer, layerFeatures, isSelectFeatures));
+    if (selectEvent != null) {
+      metrics.endPhase(selectEvent, 0, indexedFeatureCount);
+    }
+  }
 
-    if (isSelectFeatures) {
-      isSelectedProperty.set(true);
-      for (Map.Entry<Layer, List<ArcGISFeature>> group : groups.entrySet()) {
-        if (group.getKey() instanceof FeatureLayer) {
-          ((FeatureLayer) group.getKey()).selectFeatures(FXCollections.observableArrayList(group.getValue()));
-        }
+  /**
+   * Filters the feature layers of the element results to the element results, with a definition expression matching
+   * the object IDs of the elements of each layer, or removes the filters.
+   *
+   * @param isFilterLayers true to filter the layers, false to remove the filters
+   * @since 200.1.0
+   */
+  private void filterLayers(boolean isFilterLayers) {
+    if (layerFilter == null) {
+      return;
+    }
+    if (!isFilterLayers) {
+      layerFilter.removeAll(this);
+      return;
+    }
+    var selectEvent =
+      UtilityNetworkTracePhase.beginPhase(UtilityNetworkTraceMetrics.Phase.SELECT_FEATURES, name);
+    // group the object IDs of the elements by the feature table of their network source
+    Map<ArcGISFeatureTable, List<UtilityElement>> elementsByTable = new LinkedHashMap<>();
+    for (UtilityElement element : elementResults) {
+      var featureTable = element.getNetworkSource().getFeatureTable();
+      if (featureTable != null) {
+        elementsByTable.computeIfAbsent(featureTable, table -> new ArrayList<>()).add(element);
       }
-    } else {
-      isSelectedProperty.set(false);
-      for (Map.Entry<Layer, List<ArcGISFeature>> group : groups.entrySet()) {
-        if (group.getKey() instanceof FeatureLayer) {
-          ((FeatureLayer) group.getKey()).unselectFeatures(FXCollections.observableArrayList(group.getValue()));
+    }
+    elementsByTable.forEach((featureTable, tableElements) -> {
+      if (featureTable.getLayer() instanceof FeatureLayer) {
+        var objectIds = new long[tableElements.size()];
+        for (int i = 0; i < objectIds.length; i++) {
+          objectIds[i] = getElementObjectId(tableElements.get(i));
         }
+        layerFilter.apply((FeatureLayer) featureTable.getLayer(), this, featureTable.getObjectIdField(), objectIds);
+      }
+    });
+    metrics.endPhase(selectEvent, elementResults.size(), 0);
+  }
+
+  /**
+   * Rebuilds the per-layer index of the features if the features list has been modified directly.
+   *
+   * @since 200.1.0
+   */
+  private void updateFeaturesIndex() {
+    if (indexedFeatureCount != features.size()) {
+      featuresByLayer.clear();
+      indexedFeatureCount = 0;
+      indexFeatures(features);
+    }
+  }
+
+  /**
+   * Adds features fetched for the element results of the trace. If the result is selected, the added features are
+   * selected on their feature layers. Features are ignored while the result is evicted from the trace history.
+   *
+   * @param featuresToAdd the features to add
+   * @since 200.1.0
+   */
+  void addFeatures(List<ArcGISFeature> featuresToAdd) {
+    if (isEvicted) {
+      // the result was evicted from the trace history while its features were being fetched
+      return;
+    }
+    if (featuresMemoryUsageCount == features.size()) {
+      featuresMemoryUsage += estimateFeaturesMemoryUsage(featuresToAdd);
+      featuresMemoryUsageCount += featuresToAdd.size();
+    }
+    if (featuresExtentCount == features.size()) {
+      // extend the features extent by the added features only
+      featuresExtent = combineExtents(featuresExtent, getFeaturesExtent(featuresToAdd));
+      featuresExtentCount += featuresToAdd.size();
+      isExtentValid = false;
+    }
+    features.addAll(featuresToAdd);
+    metrics.setFeatureCount(features.size());
+    var addedFeaturesByLayer = indexFeatures(featuresToAdd);
+    if (isSelected() && displayMode == UtilityNetworkTraceTool.ResultDisplayMode.SELECT_FEATURES) {
+      var selectEvent =
+        UtilityNetworkTracePhase.beginPhase(UtilityNetworkTraceMetrics.Phase.SELECT_FEATURES, name);
+      addedFeaturesByLayer.forEach((featureLayer, layerFeatures) -> selectFeatures(featureLayer, layerFeatures, true));
+      metrics.endPhase(selectEvent, 0, featuresToAdd.size());
+    }
+  }
+
+  /**
+   * Adds the provided features to the per-layer index. Features that are not in a feature layer are not indexed.
+   *
+   * @param featuresToIndex the features to index
+   * @return the indexed features grouped by feature layer
+   * @since 200.1.0
+   */
+  private Map<FeatureLayer, List<Feature>> indexFeatures(List<ArcGISFeature> featuresToIndex) {
+    Map<FeatureLayer, List<Feature>> indexedFeaturesByLayer = new LinkedHashMap<>();
+    for (ArcGISFeature feature : featuresToIndex) {
+      var featureTable = feature.getFeatureTable();
+      if (featureTable != null && featureTable.getLayer() instanceof FeatureLayer) {
+        var featureLayer = (FeatureLayer) featureTable.getLayer();
+        featuresByLayer.computeIfAbsent(featureLayer, layer -> new ArrayList<>()).add(feature);
+        indexedFeaturesByLayer.computeIfAbsent(featureLayer, layer -> new ArrayList<>()).add(feature);
       }
     }
+    indexedFeatureCount += featuresToIndex.size();
+    return indexedFeaturesByLayer;
+  }
+
+  /**
+   * Selects or unselects the provided features on a feature layer.
+   *
+   * @param featureLayer the feature layer to select or unselect on
+   * @param layerFeatures the features of the layer
+   * @param isSelectFeatures true if the features should be selected, false to unselect
+   * @since 200.1.0
+   */
+  private void selectFeatures(FeatureLayer featureLayer, List<Feature> layerFeatures, boolean isSelectFeatures) {
+    if (isSelectFeatures) {
+      featureLayer.selectFeatures(layerFeatures);
+    } else {
+      featureLayer.unselectFeatures(layerFeatures);
+    }
   }
 
   /**
    * Returns the extent of the graphics and/or features associated with the trace result.
    *
+   * <p>
+   * The extent is maintained as features and graphics are added, so repeated calls do not recalculate it. If the list
+   * returned by {@link #getFeatures()} is modified directly, the extent of the features is recalculated. While the
+   * features of a result restored from a saved session or evicted from the trace history have not been fetched, the
+   * saved extent is returned.
+   *
    * @return an Envelope of the extent
    * @since 100.15.0
    */
   public Envelope getExtent() {
-    Envelope graphicsExtent = null;
-    Envelope featuresExtent = null;
-
-    if (!resultsGraphicsOverlay.getGraphics().isEmpty()) {
-      // if there are graphics, get the extent of the graphics overlay
-      graphicsExtent = resultsGraphicsOverlay.getExtent();
+    if (savedExtent != null) {
+      return savedExtent;
     }
-    if (!features.isEmpty()) {
-      try {
-        // if there are features, combine their geometries
-        featuresExtent = GeometryEngine.combineExtents(features.stream().map(Feature::getGeometry).collect(Collectors.toList()));
-      } catch (IllegalArgumentException | ArcGISRuntimeException ex) {
-        // if geometries cannot be combined leave extent as null
+    if (featuresExtentCount != features.size()) {
+      // the features list has been modified directly, so recalculate the features extent
+      featuresExtent = getFeaturesExtent(features);
+      featuresExtentCount = features.size();
+      isExtentValid = false;
+    }
+    if (!isExtentValid) {
+      Envelope graphicsExtent = null;
+      if (!resultsGraphicsOverlay.getGraphics().isEmpty()) {
+        // if there are graphics, get the extent of the graphics overlay
+        graphicsExtent = resultsGraphicsOverlay.getExtent();
       }
+      // if there are features and graphics, combine their extents
+      extent = combineExtents(graphicsExtent, featuresExtent);
+      isExtentValid = true;
+    }
+    return extent;
+  }
+
+  /**
+   * Returns the combined extent of the geometries of the provided features.
+   *
+   * @param featuresToCombine the features
+   * @return the extent. Null if there are no features with geometries or the geometries cannot be combined
+   * @since 200.1.0
+   */
+  private static Envelope getFeaturesExtent(List<ArcGISFeature> featuresToCombine) {
+    List<Geometry> geometries = featuresToCombine.stream()
+      .map(Feature::getGeometry)
+      .filter(Objects::nonNull)
+      .collect(Collectors.toList());
+    if (geometries.isEmpty()) {
+      return null;
+    }
+    try {
+      return GeometryEngine.combineExtents(geometries);
+    } catch (IllegalArgumentException | ArcGISRuntimeException ex) {
+      // if geometries cannot be combined leave extent as null
+      return null;
     }
+  }
 
-    if (featuresExtent != null && graphicsExtent != null) {
-      // if there are features and graphics, combine their extents
-      return GeometryEngine.combineExtents(graphicsExtent, featuresExtent);
-    } else if (featuresExtent != null) {
-      return featuresExtent;
-    } else return graphicsExtent;
+  /**
+   * Combines two extents, either of which may be null.
+   *
+   * @param extent1 the first extent
+   * @param extent2 the second extent
+   * @return the combined extent. Null if both extents are null
+   * @since 200.1.0
+   */
+  private static Envelope combineExtents(Envelope extent1, Envelope extent2) {
+    if (extent1 == null) {
+      return extent2;
+    } else if (extent2 == null) {
+      return extent1;
+    }
+    try {
+      return GeometryEngine.combineExtents(extent1, extent2);
+    } catch (IllegalArgumentException | ArcGISRuntimeException ex) {
+      // if the extents cannot be combined, keep the first extent
+      return extent1;
+    }
   }
 
   /**
@@ -340,7 +1030,8 @@ public class UtilityNetworkTraceOperationResult {
    * @since 100.15.0
    */
   public boolean hasResults() {
-    return !resultsGraphicsOverlay.getGraphics().isEmpty() || !elementResults.isEmpty() || !functionResults.isEmpty();
+    return !resultsGraphicsOverlay.getGraphics().isEmpty() || !elementResults.isEmpty() ||
+      !functionResults.isEmpty() || !functionResultValues.isEmpty();
   }
 
   /**
@@ -354,28 +1045,67 @@ public class UtilityNetworkTraceOperationResult {
   }
 
   /**
-   * Updates the symbology of all graphics associated with the trace result to the provided color.
+   * Sets the symbols used to display the geometry results of the trace. Copies of the symbols are used, so that
+   * changing the visualization color of the result does not affect the provided symbols or other results.
+   *
+   * @param pointSymbol the symbol for multipoint results
+   * @param lineSymbol the symbol for polyline results
+   * @param fillSymbol the symbol for polygon results
+   * @since 200.1.0
+   */
+  void setResultSymbols(SimpleMarkerSymbol pointSymbol, SimpleLineSymbol lineSymbol, SimpleFillSymbol fillSymbol) {
+    this.pointSymbol = new SimpleMarkerSymbol(pointSymbol.getStyle(), pointSymbol.getColor(), pointSymbol.getSize());
+    this.lineSymbol = new SimpleLineSymbol(lineSymbol.getStyle(), lineSymbol.getColor(), lineSymbol.getWidth());
+    var outline = fillSymbol.getOutline() instanceof SimpleLineSymbol ? (SimpleLineSymbol) fillSymbol.getOutline() : null;
+    this.fillSymbol = new SimpleFillSymbol(fillSymbol.getStyle(), fillSymbol.getColor(), outline != null ?
+      new SimpleLineSymbol(outline.getStyle(), outline.getColor(), outline.getWidth()) : fillSymbol.getOutline());
+    updateRenderer();
+  }
+
+  /**
+   * Adds a graphic for a geometry result of the trace. The graphic has no symbol of its own, and is displayed by the
+   * renderer of the results graphics overlay based on its geometry type.
+   *
+   * @param geometry the geometry of the result
+   * @since 200.1.0
+   */
+  void addGeometryResult(Geometry geometry) {
+    resultsGraphicsOverlay.getGraphics().add(
+      new Graphic(geometry, Map.of(GEOMETRY_TYPE_ATTRIBUTE, geometry.getGeometryType().name())));
+  }
+
+  /**
+   * Updates the symbology of the trace result to the provided color. Only the renderer of the results graphics overlay
+   * is replaced, so the cost does not depend on the number of graphics.
    *
    * @param color the new color
    * @since 100.15.0
    */
   private void updateVisualizationColor(Color color) {
-    resultsGraphicsOverlay.getGraphics().forEach(graphic -> {
-      var symbol = graphic.getSymbol();
-      if (symbol instanceof SimpleMarkerSymbol) {
-        var marker = (SimpleMarkerSymbol) symbol;
-        marker.setColor(color);
-      } else if (symbol instanceof SimpleLineSymbol) {
-        var marker = (SimpleLineSymbol) symbol;
-        marker.setColor(color);
-      } else if (symbol instanceof SimpleFillSymbol) {
-        var fillMarker = (SimpleFillSymbol) symbol;
-        fillMarker.setColor(color);
-        if (fillMarker.getOutline() instanceof SimpleLineSymbol) {
-          var outline = (SimpleLineSymbol) fillMarker.getOutline();
-          outline.setColor(color);
-        }
-      }
-    });
+    pointSymbol.setColor(color);
+    lineSymbol.setColor(color);
+    fillSymbol.setColor(color);
+    if (fillSymbol.getOutline() instanceof SimpleLineSymbol) {
+      ((SimpleLineSymbol) fillSymbol.getOutline()).setColor(color);
+    }
+    updateRenderer();
+  }
+
+  /**
+   * Sets a renderer to the results graphics overlay that symbolizes each graphic by its geometry type.
+   *
+   * @since 200.1.0
+   */
+  private void updateRenderer() {
+    var renderer = new UniqueValueRenderer();
+    renderer.getFieldNames().add(GEOMETRY_TYPE_ATTRIBUTE);
+    renderer.getUniqueValues().addAll(List.of(
+      new UniqueValueRenderer.UniqueValue(
+        "", GeometryType.MULTIPOINT.name(), pointSymbol, List.of(GeometryType.MULTIPOINT.name())),
+      new UniqueValueRenderer.UniqueValue(
+        "", GeometryType.POLYLINE.name(), lineSymbol, List.of(GeometryType.POLYLINE.name())),
+      new UniqueValueRenderer.UniqueValue(
+        "", GeometryType.POLYGON.name(), fillSymbol, List.of(GeometryType.POLYGON.name()))));
+    resultsGraphicsOverlay.setRenderer(renderer);
   }
 }
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2022 Esri
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.esri.arcgisruntime.toolkit;
+
+/**
+ * The timing of a phase of the trace workflow, such as the trace request or the fetch of the features of the element
+ * results.
+ *
+ * <p>
+ * A phase is started with {@link #beginPhase(UtilityNetworkTraceMetrics.Phase, String)} when it starts, which may be
+ * on a different thread to the one it ends on, and ended with {@link #endPhase(int, int)}. When the {@code jdk.jfr}
+ * module is available, each phase is also recorded as a {@link UtilityNetworkTracePhaseEvent}. The module is an
+ * optional dependency, so the event class is never loaded when it is not available.
+ *
+ * @since 200.1.0
+ */
+final class UtilityNetworkTracePhase {
+
+  private static final boolean IS_FLIGHT_RECORDER_AVAILABLE = isFlightRecorderAvailable();
+
+  private final UtilityNetworkTraceMetrics.Phase tracePhase;
+  private final long startNanos;
+  private final UtilityNetworkTracePhaseEvent event;
+
+  /**
+   * Creates a UtilityNetworkTracePhase.
+   *
+   * @param tracePhase the phase
+   * @param event the flight recorder event of the phase. Null if flight recorder is not available
+   * @since 200.1.0
+   */
+  private UtilityNetworkTracePhase(UtilityNetworkTraceMetrics.Phase tracePhase, UtilityNetworkTracePhaseEvent event) {
+    this.tracePhase = tracePhase;
+    this.event = event;
+    this.startNanos = System.nanoTime();
+  }
+
+  /**
+   * Starts a phase.
+   *
+   * @param phase the phase
+   * @param traceName the name of the trace result. Can be null
+   * @return the started phase
+   * @since 200.1.0
+   */
+  static UtilityNetworkTracePhase beginPhase(UtilityNetworkTraceMetrics.Phase phase, String traceName) {
+    var event = IS_FLIGHT_RECORDER_AVAILABLE ? UtilityNetworkTracePhaseEvent.beginPhase(phase.name(), traceName) : null;
+    return new UtilityNetworkTracePhase(phase, event);
+  }
+
+  /**
+   * Ends the phase, committing its flight recorder event if there is one.
+   *
+   * @param elementCount the number of elements handled by the phase
+   * @param featureCount the number of features handled by the phase
+   * @return the duration of the phase in nanoseconds
+   * @since 200.1.0
+   */
+  long endPhase(int elementCount, int featureCount) {
+    var durationNanos = System.nanoTime() - startNanos;
+    if (event != null) {
+      event.endPhase(elementCount, featureCount);
+    }
+    return durationNanos;
+  }
+
+  /**
+   * Returns the phase.
+   *
+   * @return the phase
+   * @since 200.1.0
+   */
+  UtilityNetworkTraceMetrics.Phase getTracePhase() {
+    return tracePhase;
+  }
+
+  /**
+   * Checks whether the {@code jdk.jfr} module is in the runtime and readable by this module. It is always readable
+   * when the toolkit is on the class path, and is readable when the toolkit is a named module only if the
+   * {@code jdk.jfr} module was resolved.
+   *
+   * @return true if flight recorder events can be created, otherwise false
+   * @since 200.1.0
+   */
+  private static boolean isFlightRecorderAvailable() {
+    return ModuleLayer.boot().findModule("jdk.jfr")
+      .map(UtilityNetworkTracePhase.class.getModule()::canRead)
+      .orElse(false);
+  }
+}
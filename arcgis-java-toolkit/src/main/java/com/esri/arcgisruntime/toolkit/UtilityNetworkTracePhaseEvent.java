@@ -0,0 +1,90 @@
+/*
+ * Copyright 2022 Esri
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.esri.arcgisruntime.toolkit;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A JDK Flight Recorder event recording a phase of the trace workflow, such as the trace request or the fetch of the
+ * features of the element results.
+ *
+ * <p>
+ * Events are only created by {@link UtilityNetworkTracePhase} when the {@code jdk.jfr} module is available, as this
+ * class cannot be loaded without it. An event is only written if it is enabled in the recording.
+ *
+ * @since 200.1.0
+ */
+@Name("com.esri.arcgisruntime.toolkit.UtilityNetworkTracePhase")
+@Label("Utility Network Trace Phase")
+@Category({"ArcGIS Maps SDK", "Utility Network Trace"})
+@Description("A phase of the utility network trace workflow")
+@StackTrace(false)
+final class UtilityNetworkTracePhaseEvent extends Event {
+
+  @Label("Phase")
+  @Description("The phase of the trace workflow")
+  String phase;
+
+  @Label("Trace Name")
+  @Description("The name of the trace result, if the phase is part of a trace")
+  String traceName;
+
+  @Label("Element Count")
+  @Description("The number of utility elements handled by the phase")
+  int elementCount;
+
+  @Label("Feature Count")
+  @Description("The number of features handled by the phase")
+  int featureCount;
+
+  /**
+   * Starts an event for a phase.
+   *
+   * @param phase the name of the phase
+   * @param traceName the name of the trace result. Can be null
+   * @return the event
+   * @since 200.1.0
+   */
+  static UtilityNetworkTracePhaseEvent beginPhase(String phase, String traceName) {
+    var event = new UtilityNetworkTracePhaseEvent();
+    event.phase = phase;
+    event.traceName = traceName;
+    event.begin();
+    return event;
+  }
+
+  /**
+   * Ends the phase and commits the event if it is enabled.
+   *
+   * @param elementCount the number of elements handled by the phase
+   * @param featureCount the number of features handled by the phase
+   * @since 200.1.0
+   */
+  void endPhase(int elementCount, int featureCount) {
+    end();
+    if (shouldCommit()) {
+      this.elementCount = elementCount;
+      this.featureCount = featureCount;
+      commit();
+    }
+  }
+}
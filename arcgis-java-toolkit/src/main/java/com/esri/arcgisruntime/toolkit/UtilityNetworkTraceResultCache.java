@@ -0,0 +1,244 @@
+/*
+ * Copyright 2022 Esri
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.esri.arcgisruntime.toolkit;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import com.esri.arcgisruntime.data.ArcGISFeature;
+import com.esri.arcgisruntime.utilitynetworks.UtilityElement;
+import com.esri.arcgisruntime.utilitynetworks.UtilityNamedTraceConfiguration;
+import com.esri.arcgisruntime.utilitynetworks.UtilityNetwork;
+import com.esri.arcgisruntime.utilitynetworks.UtilityTraceResult;
+
+/**
+ * A bounded, least recently used cache of the data returned by traces run by a {@link UtilityNetworkTraceEngine}.
+ *
+ * <p>
+ * Entries are keyed by a fingerprint of the trace: the utility network, the named trace configuration and the set of
+ * starting points, where each starting point is identified by its network source, global ID, terminal and fraction
+ * along edge. The order of the starting points does not affect the fingerprint.
+ *
+ * @since 200.1.0
+ */
+final class UtilityNetworkTraceResultCache {
+
+  private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+      return size() > maxEntries;
+    }
+  };
+  private int maxEntries;
+
+  /**
+   * Creates a UtilityNetworkTraceResultCache.
+   *
+   * @param maxEntries the maximum number of traces to cache. 0 disables caching
+   * @since 200.1.0
+   */
+  UtilityNetworkTraceResultCache(int maxEntries) {
+    setMaxEntries(maxEntries);
+  }
+
+  /**
+   * Sets the maximum number of traces to cache, evicting the least recently used entries if the cache is above the
+   * new maximum.
+   *
+   * @param maxEntries the maximum number of traces to cache. 0 disables caching
+   * @throws IllegalArgumentException if maxEntries is negative
+   * @since 200.1.0
+   */
+  void setMaxEntries(int maxEntries) {
+    if (maxEntries < 0) {
+      throw new IllegalArgumentException("Max entries cannot be negative");
+    }
+    this.maxEntries = maxEntries;
+    var iterator = entries.keySet().iterator();
+    while (entries.size() > maxEntries && iterator.hasNext()) {
+      iterator.next();
+      iterator.remove();
+    }
+  }
+
+  /**
+   * Creates the fingerprint for a trace. The fingerprint captures the state of the starting points at the time it is
+   * created, so later changes to a starting point's terminal or fraction along edge do not affect it.
+   *
+   * @param utilityNetwork the utility network the trace is run on
+   * @param traceConfiguration the named trace configuration used for the trace
+   * @param startingPoints the utility elements used as starting points
+   * @return the fingerprint
+   * @since 200.1.0
+   */
+  static Key createKey(
+    UtilityNetwork utilityNetwork, UtilityNamedTraceConfiguration traceConfiguration,
+    List<UtilityElement> startingPoints) {
+    Set<String> startingPointKeys = new HashSet<>();
+    startingPoints.forEach(element -> startingPointKeys.add(createElementKey(element)));
+    return new Key(utilityNetwork, traceConfiguration, startingPointKeys);
+  }
+
+  /**
+   * Returns the cached data for the provided fingerprint and marks it as most recently used.
+   *
+   * @param key the fingerprint of the trace
+   * @return the cached data. Null if the trace is not cached
+   * @since 200.1.0
+   */
+  Entry get(Key key) {
+    return entries.get(key);
+  }
+
+  /**
+   * Caches the data for the provided fingerprint, evicting the least recently used entry if the cache is full.
+   *
+   * @param key the fingerprint of the trace
+   * @param rawResults the results returned by the trace
+   * @param features the features fetched for the element results of the trace
+   * @since 200.1.0
+   */
+  void put(Key key, List<UtilityTraceResult> rawResults, List<ArcGISFeature> features) {
+    if (maxEntries > 0) {
+      entries.put(key, new Entry(List.copyOf(rawResults), List.copyOf(features)));
+    }
+  }
+
+  /**
+   * Removes the cached data for the provided fingerprint.
+   *
+   * @param key the fingerprint of the trace
+   * @since 200.1.0
+   */
+  void remove(Key key) {
+    entries.remove(key);
+  }
+
+  /**
+   * Removes all cached data.
+   *
+   * @since 200.1.0
+   */
+  void clear() {
+    entries.clear();
+  }
+
+  /**
+   * Returns the number of cached traces.
+   *
+   * @return the number of cached traces
+   * @since 200.1.0
+   */
+  int size() {
+    return entries.size();
+  }
+
+  /**
+   * Creates a key identifying a utility element by its network source, global ID, terminal and fraction along edge.
+   *
+   * @param element the utility element
+   * @return the key
+   * @since 200.1.0
+   */
+  private static String createElementKey(UtilityElement element) {
+    var terminal = element.getTerminal();
+    return element.getNetworkSource().getSourceId() + ":" + element.getGlobalId() + ":" +
+      (terminal != null ? terminal.getTerminalId() : "") + ":" + element.getFractionAlongEdge();
+  }
+
+  /**
+   * The fingerprint of a trace.
+   *
+   * @since 200.1.0
+   */
+  static final class Key {
+
+    private final UtilityNetwork utilityNetwork;
+    private final UtilityNamedTraceConfiguration traceConfiguration;
+    private final Set<String> startingPointKeys;
+    private final int hashCode;
+
+    private Key(UtilityNetwork utilityNetwork, UtilityNamedTraceConfiguration traceConfiguration,
+                Set<String> startingPointKeys) {
+      this.utilityNetwork = utilityNetwork;
+      this.traceConfiguration = traceConfiguration;
+      this.startingPointKeys = startingPointKeys;
+      this.hashCode = Objects.hash(
+        System.identityHashCode(utilityNetwork), System.identityHashCode(traceConfiguration), startingPointKeys);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      var key = (Key) o;
+      // utility networks and trace configurations are compared by instance, as the cache is cleared whenever they
+      // are reloaded
+      return utilityNetwork == key.utilityNetwork && traceConfiguration == key.traceConfiguration &&
+        startingPointKeys.equals(key.startingPointKeys);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+
+  /**
+   * The cached data of a trace.
+   *
+   * @since 200.1.0
+   */
+  static final class Entry {
+
+    private final List<UtilityTraceResult> rawResults;
+    private final List<ArcGISFeature> features;
+
+    private Entry(List<UtilityTraceResult> rawResults, List<ArcGISFeature> features) {
+      this.rawResults = rawResults;
+      this.features = features;
+    }
+
+    /**
+     * Returns the results returned by the trace.
+     *
+     * @return the results
+     * @since 200.1.0
+     */
+    List<UtilityTraceResult> getRawResults() {
+      return rawResults;
+    }
+
+    /**
+     * Returns the features fetched for the element results of the trace.
+     *
+     * @return the features
+     * @since 200.1.0
+     */
+    List<ArcGISFeature> getFeatures() {
+      return features;
+    }
+  }
+}
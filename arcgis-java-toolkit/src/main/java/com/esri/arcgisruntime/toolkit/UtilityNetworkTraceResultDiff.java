@@ -0,0 +1,531 @@
+/*
+ * Copyright 2022 Esri
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.esri.arcgisruntime.toolkit;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+import com.esri.arcgisruntime.data.ArcGISFeature;
+import com.esri.arcgisruntime.data.ArcGISFeatureTable;
+import com.esri.arcgisruntime.utilitynetworks.UtilityElement;
+import com.esri.arcgisruntime.utilitynetworks.UtilityNetworkSource;
+
+/**
+ * The differences between the element results of two trace results, such as the results of an isolation trace before
+ * and after a device is switched.
+ *
+ * <p>
+ * Elements are compared by the object IDs of their features within each network source. The object IDs of each
+ * network source are held in sets of primitive longs rather than sets of elements, so that results with hundreds of
+ * thousands of elements are compared in milliseconds. Elements that share an object ID, such as the terminals of a
+ * device, are treated as a single element.
+ *
+ * @since 200.1.0
+ */
+public final class UtilityNetworkTraceResultDiff {
+
+  private final List<NetworkSourceDiff> networkSourceDiffs;
+  private final List<UtilityElement> addedElements;
+  private final List<UtilityElement> removedElements;
+  private final long addedCount;
+  private final long removedCount;
+  private final long commonCount;
+
+  /**
+   * Creates a UtilityNetworkTraceResultDiff.
+   *
+   * @param networkSourceDiffs the differences for each network source
+   * @param addedElements the elements only in the after result
+   * @param removedElements the elements only in the before result
+   * @since 200.1.0
+   */
+  private UtilityNetworkTraceResultDiff(
+    List<NetworkSourceDiff> networkSourceDiffs, List<UtilityElement> addedElements,
+    List<UtilityElement> removedElements) {
+    this.networkSourceDiffs = Collections.unmodifiableList(networkSourceDiffs);
+    this.addedElements = addedElements;
+    this.removedElements = removedElements;
+    long added = 0;
+    long removed = 0;
+    long common = 0;
+    for (NetworkSourceDiff networkSourceDiff : networkSourceDiffs) {
+      added += networkSourceDiff.addedObjectIds.length;
+      removed += networkSourceDiff.removedObjectIds.length;
+      common += networkSourceDiff.commonObjectIds.length;
+    }
+    this.addedCount = added;
+    this.removedCount = removed;
+    this.commonCount = common;
+  }
+
+  /**
+   * Computes the differences between the element results of two trace results.
+   *
+   * @param before the result to compare from
+   * @param after the result to compare to
+   * @return the differences
+   * @throws NullPointerException if before or after is null
+   * @since 200.1.0
+   */
+  static UtilityNetworkTraceResultDiff compute(
+    UtilityNetworkTraceOperationResult before, UtilityNetworkTraceOperationResult after) {
+    Objects.requireNonNull(before, "Before result cannot be null");
+    Objects.requireNonNull(after, "After result cannot be null");
+    var comparison = compare(before.getElementResults(), before::getElementObjectId, after.getElementResults(),
+      after::getElementObjectId, element -> element.getNetworkSource().getSourceId());
+    List<NetworkSourceDiff> networkSourceDiffs = new ArrayList<>();
+    comparison.accumulators.values().forEach(accumulator -> networkSourceDiffs.add(new NetworkSourceDiff(
+      accumulator.firstElement.getNetworkSource(), accumulator.addedObjectIds.toArray(),
+      accumulator.removedObjectIds.toArray(), accumulator.commonObjectIds.toArray())));
+    return new UtilityNetworkTraceResultDiff(
+      networkSourceDiffs, comparison.addedElements, comparison.removedElements);
+  }
+
+  /**
+   * Compares two lists of elements by the object IDs of the elements within each source. This does not depend on
+   * utility elements, so that the comparison can be tested without a utility network.
+   *
+   * @param beforeElements the elements to compare from
+   * @param beforeObjectId returns the object ID of an element of the before elements
+   * @param afterElements the elements to compare to
+   * @param afterObjectId returns the object ID of an element of the after elements
+   * @param sourceKey returns the key of the source of an element, which scopes its object ID
+   * @param <E> the type of the elements
+   * @param <K> the type of the source keys
+   * @return the comparison
+   * @since 200.1.0
+   */
+  static <E, K> Comparison<E, K> compare(List<E> beforeElements, ToLongFunction<E> beforeObjectId,
+                                         List<E> afterElements, ToLongFunction<E> afterObjectId,
+                                         Function<E, K> sourceKey) {
+    // keyed by source, in the order the sources are first found
+    Map<K, SourceAccumulator<E>> accumulators = new LinkedHashMap<>();
+    for (E element : beforeElements) {
+      accumulators.computeIfAbsent(sourceKey.apply(element), key -> new SourceAccumulator<>(element))
+        .beforeObjectIds.add(beforeObjectId.applyAsLong(element));
+    }
+    for (E element : afterElements) {
+      accumulators.computeIfAbsent(sourceKey.apply(element), key -> new SourceAccumulator<>(element))
+        .afterObjectIds.add(afterObjectId.applyAsLong(element));
+    }
+
+    // added and common elements are listed in the order of the after result, and removed elements in the order of
+    // the before result. Each object ID is only listed once
+    List<E> addedElements = new ArrayList<>();
+    for (E element : afterElements) {
+      var accumulator = accumulators.get(sourceKey.apply(element));
+      var objectId = afterObjectId.applyAsLong(element);
+      if (accumulator.emittedAfterObjectIds.add(objectId)) {
+        if (accumulator.beforeObjectIds.contains(objectId)) {
+          accumulator.commonObjectIds.add(objectId);
+        } else {
+          accumulator.addedObjectIds.add(objectId);
+          addedElements.add(element);
+        }
+      }
+    }
+    List<E> removedElements = new ArrayList<>();
+    for (E element : beforeElements) {
+      var accumulator = accumulators.get(sourceKey.apply(element));
+      var objectId = beforeObjectId.applyAsLong(element);
+      if (!accumulator.afterObjectIds.contains(objectId) && accumulator.emittedBeforeObjectIds.add(objectId)) {
+        accumulator.removedObjectIds.add(objectId);
+        removedElements.add(element);
+      }
+    }
+    return new Comparison<>(accumulators, addedElements, removedElements);
+  }
+
+  /**
+   * Returns the differences for each network source found in either result.
+   *
+   * @return an unmodifiable list of the differences for each network source
+   * @since 200.1.0
+   */
+  public List<NetworkSourceDiff> getNetworkSourceDiffs() {
+    return networkSourceDiffs;
+  }
+
+  /**
+   * Returns the number of elements only in the after result.
+   *
+   * @return the number of added elements
+   * @since 200.1.0
+   */
+  public long getAddedCount() {
+    return addedCount;
+  }
+
+  /**
+   * Returns the number of elements only in the before result.
+   *
+   * @return the number of removed elements
+   * @since 200.1.0
+   */
+  public long getRemovedCount() {
+    return removedCount;
+  }
+
+  /**
+   * Returns the number of elements in both results.
+   *
+   * @return the number of common elements
+   * @since 200.1.0
+   */
+  public long getCommonCount() {
+    return commonCount;
+  }
+
+  /**
+   * Returns the elements only in the after result.
+   *
+   * @return the added elements
+   * @since 200.1.0
+   */
+  List<UtilityElement> getAddedElements() {
+    return addedElements;
+  }
+
+  /**
+   * Returns the elements only in the before result.
+   *
+   * @return the removed elements
+   * @since 200.1.0
+   */
+  List<UtilityElement> getRemovedElements() {
+    return removedElements;
+  }
+
+  /**
+   * Returns whether a feature is one of the added or removed elements.
+   *
+   * @param feature the feature
+   * @return true if the feature is added or removed, false otherwise
+   * @since 200.1.0
+   */
+  boolean isChanged(ArcGISFeature feature) {
+    var featureTable = feature.getFeatureTable();
+    if (!(featureTable instanceof ArcGISFeatureTable)) {
+      return false;
+    }
+    var objectId = feature.getAttributes().get(((ArcGISFeatureTable) featureTable).getObjectIdField());
+    if (!(objectId instanceof Number)) {
+      return false;
+    }
+    for (NetworkSourceDiff networkSourceDiff : networkSourceDiffs) {
+      if (networkSourceDiff.networkSource.getFeatureTable() == featureTable) {
+        var id = ((Number) objectId).longValue();
+        return networkSourceDiff.getChangedObjectIds().contains(id);
+      }
+    }
+    return false;
+  }
+
+  /**
+   * The differences between the element results of two trace results for a single network source.
+   *
+   * @since 200.1.0
+   */
+  public static final class NetworkSourceDiff {
+
+    private final UtilityNetworkSource networkSource;
+    private final long[] addedObjectIds;
+    private final long[] removedObjectIds;
+    private final long[] commonObjectIds;
+    // the added and removed object IDs, created when features are first matched
+    private LongHashSet changedObjectIds;
+
+    /**
+     * Creates a NetworkSourceDiff.
+     *
+     * @param networkSource the network source
+     * @param addedObjectIds the object IDs only in the after result
+     * @param removedObjectIds the object IDs only in the before result
+     * @param commonObjectIds the object IDs in both results
+     * @since 200.1.0
+     */
+    private NetworkSourceDiff(
+      UtilityNetworkSource networkSource, long[] addedObjectIds, long[] removedObjectIds, long[] commonObjectIds) {
+      this.networkSource = networkSource;
+      this.addedObjectIds = addedObjectIds;
+      this.removedObjectIds = removedObjectIds;
+      this.commonObjectIds = commonObjectIds;
+    }
+
+    /**
+     * Returns the name of the network source.
+     *
+     * @return the name of the network source
+     * @since 200.1.0
+     */
+    public String getNetworkSourceName() {
+      return networkSource.getName();
+    }
+
+    /**
+     * Returns the ID of the network source.
+     *
+     * @return the ID of the network source
+     * @since 200.1.0
+     */
+    public int getNetworkSourceId() {
+      return networkSource.getSourceId();
+    }
+
+    /**
+     * Returns the object IDs only in the after result, in the order of the after result.
+     *
+     * @return a copy of the added object IDs
+     * @since 200.1.0
+     */
+    public long[] getAddedObjectIds() {
+      return addedObjectIds.clone();
+    }
+
+    /**
+     * Returns the object IDs only in the before result, in the order of the before result.
+     *
+     * @return a copy of the removed object IDs
+     * @since 200.1.0
+     */
+    public long[] getRemovedObjectIds() {
+      return removedObjectIds.clone();
+    }
+
+    /**
+     * Returns the object IDs in both results, in the order of the after result.
+     *
+     * @return a copy of the common object IDs
+     * @since 200.1.0
+     */
+    public long[] getCommonObjectIds() {
+      return commonObjectIds.clone();
+    }
+
+    /**
+     * Returns the number of object IDs only in the after result.
+     *
+     * @return the number of added object IDs
+     * @since 200.1.0
+     */
+    public int getAddedCount() {
+      return addedObjectIds.length;
+    }
+
+    /**
+     * Returns the number of object IDs only in the before result.
+     *
+     * @return the number of removed object IDs
+     * @since 200.1.0
+     */
+    public int getRemovedCount() {
+      return removedObjectIds.length;
+    }
+
+    /**
+     * Returns the number of object IDs in both results.
+     *
+     * @return the number of common object IDs
+     * @since 200.1.0
+     */
+    public int getCommonCount() {
+      return commonObjectIds.length;
+    }
+
+    /**
+     * Returns the added and removed object IDs as a set, creating it if required.
+     *
+     * @return the changed object IDs
+     * @since 200.1.0
+     */
+    private LongHashSet getChangedObjectIds() {
+      if (changedObjectIds == null) {
+        changedObjectIds = new LongHashSet(addedObjectIds.length + removedObjectIds.length);
+        for (long objectId : addedObjectIds) {
+          changedObjectIds.add(objectId);
+        }
+        for (long objectId : removedObjectIds) {
+          changedObjectIds.add(objectId);
+        }
+      }
+      return changedObjectIds;
+    }
+  }
+
+  /**
+   * The result of comparing two lists of elements, with the object IDs of each source and the elements only in one of
+   * the lists.
+   *
+   * @param <E> the type of the elements
+   * @param <K> the type of the source keys
+   * @since 200.1.0
+   */
+  static final class Comparison<E, K> {
+
+    private final Map<K, SourceAccumulator<E>> accumulators;
+    private final List<E> addedElements;
+    private final List<E> removedElements;
+
+    /**
+     * Creates a Comparison.
+     *
+     * @param accumulators the object IDs of each source, in the order the sources were first found
+     * @param addedElements the elements only in the after list
+     * @param removedElements the elements only in the before list
+     * @since 200.1.0
+     */
+    private Comparison(
+      Map<K, SourceAccumulator<E>> accumulators, List<E> addedElements, List<E> removedElements) {
+      this.accumulators = accumulators;
+      this.addedElements = addedElements;
+      this.removedElements = removedElements;
+    }
+
+    /**
+     * Returns the keys of the sources found in either list, in the order they were first found.
+     *
+     * @return the source keys
+     * @since 200.1.0
+     */
+    List<K> getSourceKeys() {
+      return new ArrayList<>(accumulators.keySet());
+    }
+
+    /**
+     * Returns the object IDs of a source only in the after list, in the order of the after list.
+     *
+     * @param sourceKey the source key
+     * @return the added object IDs
+     * @since 200.1.0
+     */
+    long[] getAddedObjectIds(K sourceKey) {
+      return accumulators.get(sourceKey).addedObjectIds.toArray();
+    }
+
+    /**
+     * Returns the object IDs of a source only in the before list, in the order of the before list.
+     *
+     * @param sourceKey the source key
+     * @return the removed object IDs
+     * @since 200.1.0
+     */
+    long[] getRemovedObjectIds(K sourceKey) {
+      return accumulators.get(sourceKey).removedObjectIds.toArray();
+    }
+
+    /**
+     * Returns the object IDs of a source in both lists, in the order of the after list.
+     *
+     * @param sourceKey the source key
+     * @return the common object IDs
+     * @since 200.1.0
+     */
+    long[] getCommonObjectIds(K sourceKey) {
+      return accumulators.get(sourceKey).commonObjectIds.toArray();
+    }
+
+    /**
+     * Returns the elements only in the after list, one for each added object ID.
+     *
+     * @return the added elements
+     * @since 200.1.0
+     */
+    List<E> getAddedElements() {
+      return addedElements;
+    }
+
+    /**
+     * Returns the elements only in the before list, one for each removed object ID.
+     *
+     * @return the removed elements
+     * @since 200.1.0
+     */
+    List<E> getRemovedElements() {
+      return removedElements;
+    }
+  }
+
+  /**
+   * The object IDs of a single source collected while the differences are computed.
+   *
+   * @param <E> the type of the elements
+   * @since 200.1.0
+   */
+  private static final class SourceAccumulator<E> {
+
+    // the first element found in the source, which identifies the source
+    private final E firstElement;
+    private final LongHashSet beforeObjectIds = new LongHashSet(0);
+    private final LongHashSet afterObjectIds = new LongHashSet(0);
+    private final LongHashSet emittedBeforeObjectIds = new LongHashSet(0);
+    private final LongHashSet emittedAfterObjectIds = new LongHashSet(0);
+    private final LongList addedObjectIds = new LongList();
+    private final LongList removedObjectIds = new LongList();
+    private final LongList commonObjectIds = new LongList();
+
+    /**
+     * Creates a SourceAccumulator.
+     *
+     * @param firstElement the first element found in the source
+     * @since 200.1.0
+     */
+    private SourceAccumulator(E firstElement) {
+      this.firstElement = firstElement;
+    }
+  }
+
+  /**
+   * A growable list of primitive long values.
+   *
+   * @since 200.1.0
+   */
+  private static final class LongList {
+
+    private long[] values = new long[16];
+    private int size = 0;
+
+    /**
+     * Adds a value to the end of the list.
+     *
+     * @param value the value
+     * @since 200.1.0
+     */
+    private void add(long value) {
+      if (size == values.length) {
+        values = Arrays.copyOf(values, size * 2);
+      }
+      values[size++] = value;
+    }
+
+    /**
+     * Returns the values of the list.
+     *
+     * @return an array of the values
+     * @since 200.1.0
+     */
+    private long[] toArray() {
+      return Arrays.copyOf(values, size);
+    }
+  }
+}
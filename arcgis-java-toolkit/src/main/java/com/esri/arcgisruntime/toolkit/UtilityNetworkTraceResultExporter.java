@@ -0,0 +1,409 @@
+/*
+ * Copyright 2022 Esri
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.esri.arcgisruntime.toolkit;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+import com.esri.arcgisruntime.data.ArcGISFeature;
+import com.esri.arcgisruntime.data.ArcGISFeatureTable;
+import com.esri.arcgisruntime.geometry.Geometry;
+import com.esri.arcgisruntime.geometry.GeometryEngine;
+import com.esri.arcgisruntime.geometry.Multipoint;
+import com.esri.arcgisruntime.geometry.Point;
+import com.esri.arcgisruntime.geometry.Polygon;
+import com.esri.arcgisruntime.geometry.Polyline;
+import com.esri.arcgisruntime.geometry.SpatialReferences;
+import com.esri.arcgisruntime.toolkit.UtilityNetworkTraceResultWriter.Column;
+import com.esri.arcgisruntime.toolkit.UtilityNetworkTraceResultWriter.ColumnType;
+import com.esri.arcgisruntime.toolkit.UtilityNetworkTraceResultWriter.ExportGeometry;
+import com.esri.arcgisruntime.utilitynetworks.UtilityElement;
+import com.esri.arcgisruntime.utilitynetworks.UtilityNetworkSource;
+
+/**
+ * Exports the results of a trace run by a {@link UtilityNetworkTraceTool} to a file.
+ *
+ * <p>
+ * Each element result, geometry result and function result of the trace is written as a row. Element rows have the
+ * geometry and attributes of the feature fetched for the element, if any. Geometries are projected to WGS 84. The
+ * features of a result restored from a saved session or evicted from the trace history are only fetched once the
+ * result is viewed, so until then its element rows have no geometry or attributes.
+ *
+ * <p>
+ * Rows are written one at a time through a buffered file channel, so the memory used by an export does not grow with
+ * the number of results. Exporting can take some time for large traces and can be done on a background thread, as
+ * long as the result is not modified while it is exported.
+ *
+ * @since 200.1.0
+ */
+public final class UtilityNetworkTraceResultExporter {
+
+  private static final String RECORD_TYPE_ELEMENT = "element";
+  private static final String RECORD_TYPE_GEOMETRY = "geometry";
+  private static final String RECORD_TYPE_FUNCTION = "function";
+
+  private static final List<Column> COLUMNS = List.of(
+    new Column("recordType", ColumnType.STRING),
+    new Column("networkSource", ColumnType.STRING),
+    new Column("assetGroup", ColumnType.STRING),
+    new Column("assetType", ColumnType.STRING),
+    new Column("globalId", ColumnType.STRING),
+    new Column("objectId", ColumnType.LONG),
+    new Column("terminal", ColumnType.STRING),
+    new Column("fractionAlongEdge", ColumnType.DOUBLE),
+    new Column("networkAttribute", ColumnType.STRING),
+    new Column("functionType", ColumnType.STRING),
+    new Column("functionResult", ColumnType.STRING),
+    new Column("attributes", ColumnType.JSON));
+
+  /**
+   * The format of an export file.
+   *
+   * @since 200.1.0
+   */
+  public enum Format {
+    /**
+     * A GeoJSON feature collection.
+     *
+     * @since 200.1.0
+     */
+    GEOJSON,
+    /**
+     * A CSV file with a header row, where the geometry is written as WKT in the last column.
+     *
+     * @since 200.1.0
+     */
+    CSV,
+    /**
+     * A FlatGeobuf file without a spatial index.
+     *
+     * @since 200.1.0
+     */
+    FLATGEOBUF
+  }
+
+  private UtilityNetworkTraceResultExporter() {
+  }
+
+  /**
+   * Exports the results of a trace to a file, replacing the file if it already exists.
+   *
+   * @param result the trace result to export
+   * @param file the file to write to
+   * @param format the format of the file
+   * @throws IOException if the file cannot be written
+   * @throws NullPointerException if result, file or format is null
+   * @since 200.1.0
+   */
+  public static void export(UtilityNetworkTraceOperationResult result, Path file, Format format) throws IOException {
+    Objects.requireNonNull(result, "result cannot be null");
+    Objects.requireNonNull(file, "file cannot be null");
+    Objects.requireNonNull(format, "format cannot be null");
+
+    // the features are matched to the element results by global ID, which is the only index the export builds
+    Map<UUID, ArcGISFeature> featuresByGlobalId = new HashMap<>();
+    for (ArcGISFeature feature : result.getFeatures()) {
+      var globalId = getGlobalId(feature);
+      if (globalId != null) {
+        featuresByGlobalId.put(globalId, feature);
+      }
+    }
+    var elements = result.getElementResults();
+    // the geometries of a result evicted from the trace history are read from the file they are spilled to
+    var geometries = result.getGeometryResultsJson();
+    var functionResults = result.getFunctionResultValues();
+
+    try (var channel = FileChannel.open(
+      file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+         var writer = createWriter(channel, format, result.getName(),
+           (long) elements.size() + geometries.size() + functionResults.size())) {
+      for (UtilityElement element : elements) {
+        var feature = featuresByGlobalId.get(element.getGlobalId());
+        writer.write(feature != null ? toExportGeometry(feature.getGeometry()) : null,
+          createElementValues(element, result.getElementObjectId(element), feature));
+      }
+      for (String geometry : geometries) {
+        var values = new Object[COLUMNS.size()];
+        values[0] = RECORD_TYPE_GEOMETRY;
+        writer.write(toExportGeometry(Geometry.fromJson(geometry)), values);
+      }
+      for (UtilityNetworkTraceFunctionResult functionResult : functionResults) {
+        writer.write(null, createFunctionValues(functionResult));
+      }
+    }
+  }
+
+  /**
+   * Creates the writer for a format.
+   *
+   * @param channel the channel to write to
+   * @param format the format of the file
+   * @param name the name of the dataset
+   * @param rowCount the number of rows that will be written
+   * @return the writer
+   * @throws IOException if the writer cannot write to the channel
+   * @since 200.1.0
+   */
+  private static UtilityNetworkTraceResultWriter createWriter(
+    FileChannel channel, Format format, String name, long rowCount) throws IOException {
+    switch (format) {
+      case GEOJSON:
+        return UtilityNetworkTraceResultWriter.createGeoJsonWriter(channel, COLUMNS);
+      case CSV:
+        return UtilityNetworkTraceResultWriter.createCsvWriter(channel, COLUMNS);
+      default:
+        return UtilityNetworkTraceResultWriter.createFlatGeobufWriter(
+          channel, COLUMNS, name != null ? name : "", rowCount);
+    }
+  }
+
+  /**
+   * Creates the values of the row for an element result.
+   *
+   * @param element the element
+   * @param objectId the object ID of the element
+   * @param feature the feature fetched for the element. Null if there is none
+   * @return the values
+   * @since 200.1.0
+   */
+  private static Object[] createElementValues(UtilityElement element, long objectId, ArcGISFeature feature) {
+    var values = new Object[COLUMNS.size()];
+    values[0] = RECORD_TYPE_ELEMENT;
+    values[1] = element.getNetworkSource().getName();
+    values[2] = element.getAssetGroup() != null ? element.getAssetGroup().getName() : null;
+    values[3] = element.getAssetType() != null ? element.getAssetType().getName() : null;
+    values[4] = element.getGlobalId().toString();
+    values[5] = objectId;
+    values[6] = element.getTerminal() != null ? element.getTerminal().getName() : null;
+    if (element.getNetworkSource().getSourceType() == UtilityNetworkSource.Type.EDGE) {
+      values[7] = element.getFractionAlongEdge();
+    }
+    values[11] = feature != null ? toJson(feature.getAttributes()) : null;
+    return values;
+  }
+
+  /**
+   * Creates the values of the row for a function result.
+   *
+   * @param functionResult the function result
+   * @return the values
+   * @since 200.1.0
+   */
+  private static Object[] createFunctionValues(UtilityNetworkTraceFunctionResult functionResult) {
+    var values = new Object[COLUMNS.size()];
+    values[0] = RECORD_TYPE_FUNCTION;
+    values[8] = functionResult.getNetworkAttributeName();
+    values[9] = functionResult.getFunctionType() != null ? functionResult.getFunctionType().toString() : null;
+    values[10] = functionResult.getResult() != null ? functionResult.getResult().toString() : null;
+    return values;
+  }
+
+  /**
+   * Returns the global ID of a feature.
+   *
+   * @param feature the feature
+   * @return the global ID. Null if the feature's table has no global ID field
+   * @since 200.1.0
+   */
+  private static UUID getGlobalId(ArcGISFeature feature) {
+    var globalIdField = ((ArcGISFeatureTable) feature.getFeatureTable()).getGlobalIdField();
+    if (globalIdField == null || globalIdField.isEmpty()) {
+      return null;
+    }
+    var value = feature.getAttributes().get(globalIdField);
+    return value instanceof UUID ? (UUID) value : null;
+  }
+
+  /**
+   * Converts a geometry to WGS 84 simple feature coordinates.
+   *
+   * @param geometry the geometry
+   * @return the converted geometry. Null if the geometry is null, empty or of an unsupported type
+   * @since 200.1.0
+   */
+  static ExportGeometry toExportGeometry(Geometry geometry) {
+    if (geometry == null || geometry.isEmpty()) {
+      return null;
+    }
+    if (geometry.getSpatialReference() != null &&
+      !SpatialReferences.getWgs84().equals(geometry.getSpatialReference())) {
+      geometry = GeometryEngine.project(geometry, SpatialReferences.getWgs84());
+    }
+    if (geometry instanceof Point) {
+      var point = (Point) geometry;
+      return new ExportGeometry(ExportGeometry.Type.POINT,
+        List.of(List.of(new double[]{point.getX(), point.getY()})));
+    } else if (geometry instanceof Multipoint) {
+      var points = ((Multipoint) geometry).getPoints();
+      var coordinates = new double[points.size() * 2];
+      var i = 0;
+      for (Point point : points) {
+        coordinates[i++] = point.getX();
+        coordinates[i++] = point.getY();
+      }
+      return new ExportGeometry(ExportGeometry.Type.MULTI_POINT, List.of(List.of(coordinates)));
+    } else if (geometry instanceof Polyline) {
+      List<double[]> lines = new ArrayList<>();
+      for (var part : ((Polyline) geometry).getParts()) {
+        var line = toCoordinates(part.getPoints(), false);
+        if (line != null) {
+          lines.add(line);
+        }
+      }
+      if (lines.isEmpty()) {
+        return null;
+      }
+      return new ExportGeometry(
+        lines.size() == 1 ? ExportGeometry.Type.LINE_STRING : ExportGeometry.Type.MULTI_LINE_STRING, List.of(lines));
+    } else if (geometry instanceof Polygon) {
+      // rings are grouped into polygons by orientation: a clockwise ring starts a new polygon, and counterclockwise
+      // rings are holes of the polygon before them. Each ring is then reversed, as RFC 7946 and the OGC simple
+      // feature specification use the opposite orientation, with counterclockwise exterior rings and clockwise holes
+      List<List<double[]>> polygons = new ArrayList<>();
+      for (var part : ((Polygon) geometry).getParts()) {
+        var ring = toCoordinates(part.getPoints(), true);
+        if (ring == null) {
+          continue;
+        }
+        if (getSignedArea(ring) <= 0 || polygons.isEmpty()) {
+          polygons.add(new ArrayList<>());
+        }
+        polygons.get(polygons.size() - 1).add(reverse(ring));
+      }
+      if (polygons.isEmpty()) {
+        return null;
+      }
+      return new ExportGeometry(
+        polygons.size() == 1 ? ExportGeometry.Type.POLYGON : ExportGeometry.Type.MULTI_POLYGON, polygons);
+    }
+    return null;
+  }
+
+  /**
+   * Converts points to a flat array of x and y values.
+   *
+   * @param points the points
+   * @param isClosed true to close the coordinates into a ring if the last point is not the first point
+   * @return the coordinates. Null if there are no points
+   * @since 200.1.0
+   */
+  private static double[] toCoordinates(Iterable<Point> points, boolean isClosed) {
+    List<Point> pointList = new ArrayList<>();
+    points.forEach(pointList::add);
+    if (pointList.isEmpty()) {
+      return null;
+    }
+    var first = pointList.get(0);
+    var last = pointList.get(pointList.size() - 1);
+    if (isClosed && (first.getX() != last.getX() || first.getY() != last.getY())) {
+      pointList.add(first);
+    }
+    var coordinates = new double[pointList.size() * 2];
+    for (int i = 0; i < pointList.size(); i++) {
+      coordinates[i * 2] = pointList.get(i).getX();
+      coordinates[i * 2 + 1] = pointList.get(i).getY();
+    }
+    return coordinates;
+  }
+
+  /**
+   * Returns the coordinates of a ring in reverse order.
+   *
+   * @param ring the coordinates of the ring
+   * @return the reversed coordinates
+   * @since 200.1.0
+   */
+  private static double[] reverse(double[] ring) {
+    var reversed = new double[ring.length];
+    for (int i = 0; i < ring.length; i += 2) {
+      reversed[ring.length - i - 2] = ring[i];
+      reversed[ring.length - i - 1] = ring[i + 1];
+    }
+    return reversed;
+  }
+
+  /**
+   * Returns the signed area of a closed ring, which is negative if the ring is clockwise.
+   *
+   * @param ring the coordinates of the ring
+   * @return the signed area
+   * @since 200.1.0
+   */
+  private static double getSignedArea(double[] ring) {
+    var area = 0.0;
+    for (int i = 0; i + 3 < ring.length; i += 2) {
+      area += ring[i] * ring[i + 3] - ring[i + 2] * ring[i + 1];
+    }
+    return area / 2;
+  }
+
+  /**
+   * Converts feature attributes to a JSON object. Dates are written as ISO 8601 instants, and binary values are
+   * written as null.
+   *
+   * @param attributes the attributes
+   * @return the JSON object
+   * @since 200.1.0
+   */
+  private static String toJson(Map<String, Object> attributes) {
+    var json = new StringWriter();
+    try {
+      json.append('{');
+      var isFirst = true;
+      for (Map.Entry<String, Object> attribute : attributes.entrySet()) {
+        if (!isFirst) {
+          json.append(',');
+        }
+        isFirst = false;
+        UtilityNetworkTraceResultWriter.writeJsonString(json, attribute.getKey());
+        json.append(':');
+        var value = attribute.getValue();
+        if (value instanceof Number) {
+          var number = (Number) value;
+          if ((value instanceof Double || value instanceof Float) && !Double.isFinite(number.doubleValue())) {
+            json.append("null");
+          } else {
+            json.append(number.toString());
+          }
+        } else if (value instanceof Boolean) {
+          json.append(value.toString());
+        } else if (value instanceof Calendar) {
+          UtilityNetworkTraceResultWriter.writeJsonString(json, ((Calendar) value).toInstant().toString());
+        } else if (value == null || value instanceof byte[]) {
+          json.append("null");
+        } else {
+          UtilityNetworkTraceResultWriter.writeJsonString(json, value.toString());
+        }
+      }
+      json.append('}');
+    } catch (IOException e) {
+      // a StringWriter does not throw
+      throw new IllegalStateException(e);
+    }
+    return json.toString();
+  }
+}
@@ -0,0 +1,380 @@
+/*
+ * Copyright 2022 Esri
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.esri.arcgisruntime.toolkit;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.esri.arcgisruntime.utilitynetworks.UtilityAssetGroup;
+import com.esri.arcgisruntime.utilitynetworks.UtilityAssetType;
+import com.esri.arcgisruntime.utilitynetworks.UtilityElement;
+import com.esri.arcgisruntime.utilitynetworks.UtilityNetworkSource;
+
+/**
+ * A summary of the element results of a trace, with the number of elements of each network source, asset group and
+ * asset type.
+ *
+ * <p>
+ * The summary is computed in a single pass over the elements and the counts are held in arrays of primitive ints.
+ * Network sources, asset groups and asset types are each identified by an index. Asset groups are ordered by their
+ * network source and asset types by their asset group, so the asset groups of a network source and the asset types
+ * of an asset group are contiguous. Asset groups and asset types are identified by their codes within their network
+ * source, so asset groups that share a name in different network sources are counted separately.
+ *
+ * @since 200.1.0
+ */
+public final class UtilityNetworkTraceResultSummary {
+
+  private static final UtilityNetworkTraceResultSummary EMPTY = new UtilityNetworkTraceResultSummary(
+    List.of(), new int[0], List.of(), new int[0], new int[0], List.of(), new int[0], new int[0], 0);
+
+  private final List<UtilityNetworkSource> networkSources;
+  private final int[] networkSourceCounts;
+  private final List<UtilityAssetGroup> assetGroups;
+  private final int[] assetGroupNetworkSourceIndexes;
+  private final int[] assetGroupCounts;
+  private final List<UtilityAssetType> assetTypes;
+  private final int[] assetTypeAssetGroupIndexes;
+  private final int[] assetTypeCounts;
+  private final int elementCount;
+
+  /**
+   * Creates a UtilityNetworkTraceResultSummary.
+   *
+   * @param networkSources the network sources
+   * @param networkSourceCounts the number of elements of each network source
+   * @param assetGroups the asset groups, ordered by network source
+   * @param assetGroupNetworkSourceIndexes the index of the network source of each asset group
+   * @param assetGroupCounts the number of elements of each asset group
+   * @param assetTypes the asset types, ordered by asset group
+   * @param assetTypeAssetGroupIndexes the index of the asset group of each asset type
+   * @param assetTypeCounts the number of elements of each asset type
+   * @param elementCount the number of elements
+   * @since 200.1.0
+   */
+  private UtilityNetworkTraceResultSummary(
+    List<UtilityNetworkSource> networkSources, int[] networkSourceCounts, List<UtilityAssetGroup> assetGroups,
+    int[] assetGroupNetworkSourceIndexes, int[] assetGroupCounts, List<UtilityAssetType> assetTypes,
+    int[] assetTypeAssetGroupIndexes, int[] assetTypeCounts, int elementCount) {
+    this.networkSources = networkSources;
+    this.networkSourceCounts = networkSourceCounts;
+    this.assetGroups = assetGroups;
+    this.assetGroupNetworkSourceIndexes = assetGroupNetworkSourceIndexes;
+    this.assetGroupCounts = assetGroupCounts;
+    this.assetTypes = assetTypes;
+    this.assetTypeAssetGroupIndexes = assetTypeAssetGroupIndexes;
+    this.assetTypeCounts = assetTypeCounts;
+    this.elementCount = elementCount;
+  }
+
+  /**
+   * Computes the summary of the provided elements.
+   *
+   * @param elements the elements
+   * @return the summary
+   * @since 200.1.0
+   */
+  static UtilityNetworkTraceResultSummary create(List<UtilityElement> elements) {
+    if (elements.isEmpty()) {
+      return EMPTY;
+    }
+    // network sources, asset groups and asset types in the order they are first found
+    List<UtilityNetworkSource> foundNetworkSources = new ArrayList<>();
+    List<UtilityAssetGroup> foundAssetGroups = new ArrayList<>();
+    List<UtilityAssetType> foundAssetTypes = new ArrayList<>();
+    var foundAssetGroupSources = new int[16];
+    var foundAssetTypeGroups = new int[16];
+    var foundAssetTypeCounts = new int[16];
+    // keyed by network source ID, by network source ID and asset group code, and by asset group index and asset type
+    // code
+    Map<Integer, Integer> networkSourceIndexes = new HashMap<>();
+    Map<Long, Integer> assetGroupIndexes = new HashMap<>();
+    Map<Long, Integer> assetTypeIndexes = new HashMap<>();
+
+    // consecutive elements are often of the same asset type, so the last asset type found is checked first
+    int lastSourceId = 0;
+    int lastAssetGroupCode = 0;
+    int lastAssetTypeCode = 0;
+    int lastAssetTypeIndex = -1;
+    for (UtilityElement element : elements) {
+      var networkSource = element.getNetworkSource();
+      var assetGroup = element.getAssetGroup();
+      var assetType = element.getAssetType();
+      var sourceId = networkSource.getSourceId();
+      var assetGroupCode = assetGroup.getCode();
+      var assetTypeCode = assetType.getCode();
+      if (lastAssetTypeIndex == -1 || sourceId != lastSourceId || assetGroupCode != lastAssetGroupCode ||
+        assetTypeCode != lastAssetTypeCode) {
+        int sourceIndex = networkSourceIndexes.computeIfAbsent(sourceId, id -> {
+          foundNetworkSources.add(networkSource);
+          return foundNetworkSources.size() - 1;
+        });
+        var assetGroupCountBefore = foundAssetGroups.size();
+        int assetGroupIndex = assetGroupIndexes.computeIfAbsent(createKey(sourceId, assetGroupCode), key -> {
+          foundAssetGroups.add(assetGroup);
+          return foundAssetGroups.size() - 1;
+        });
+        if (foundAssetGroups.size() > assetGroupCountBefore) {
+          foundAssetGroupSources = ensureCapacity(foundAssetGroupSources, assetGroupIndex + 1);
+          foundAssetGroupSources[assetGroupIndex] = sourceIndex;
+        }
+        var assetTypeCountBefore = foundAssetTypes.size();
+        int assetTypeIndex = assetTypeIndexes.computeIfAbsent(createKey(assetGroupIndex, assetTypeCode), key -> {
+          foundAssetTypes.add(assetType);
+          return foundAssetTypes.size() - 1;
+        });
+        if (foundAssetTypes.size() > assetTypeCountBefore) {
+          foundAssetTypeGroups = ensureCapacity(foundAssetTypeGroups, assetTypeIndex + 1);
+          foundAssetTypeCounts = ensureCapacity(foundAssetTypeCounts, assetTypeIndex + 1);
+          foundAssetTypeGroups[assetTypeIndex] = assetGroupIndex;
+        }
+        lastSourceId = sourceId;
+        lastAssetGroupCode = assetGroupCode;
+        lastAssetTypeCode = assetTypeCode;
+        lastAssetTypeIndex = assetTypeIndex;
+      }
+      foundAssetTypeCounts[lastAssetTypeIndex]++;
+    }
+
+    // order the asset groups by network source, and the asset types by asset group
+    var networkSourceCount = foundNetworkSources.size();
+    var assetGroupCount = foundAssetGroups.size();
+    var assetTypeCount = foundAssetTypes.size();
+    var assetGroupOrder = orderByKey(foundAssetGroupSources, assetGroupCount, networkSourceCount);
+    var assetGroupPositions = new int[assetGroupCount];
+    for (int position = 0; position < assetGroupCount; position++) {
+      assetGroupPositions[assetGroupOrder[position]] = position;
+    }
+    var assetTypeGroupPositions = new int[assetTypeCount];
+    for (int index = 0; index < assetTypeCount; index++) {
+      assetTypeGroupPositions[index] = assetGroupPositions[foundAssetTypeGroups[index]];
+    }
+    var assetTypeOrder = orderByKey(assetTypeGroupPositions, assetTypeCount, assetGroupCount);
+
+    List<UtilityAssetType> assetTypes = new ArrayList<>(assetTypeCount);
+    var assetTypeAssetGroupIndexes = new int[assetTypeCount];
+    var assetTypeCounts = new int[assetTypeCount];
+    var assetGroupCounts = new int[assetGroupCount];
+    for (int position = 0; position < assetTypeCount; position++) {
+      var index = assetTypeOrder[position];
+      assetTypes.add(foundAssetTypes.get(index));
+      assetTypeAssetGroupIndexes[position] = assetTypeGroupPositions[index];
+      assetTypeCounts[position] = foundAssetTypeCounts[index];
+      assetGroupCounts[assetTypeGroupPositions[index]] += foundAssetTypeCounts[index];
+    }
+    List<UtilityAssetGroup> assetGroups = new ArrayList<>(assetGroupCount);
+    var assetGroupNetworkSourceIndexes = new int[assetGroupCount];
+    var networkSourceCounts = new int[networkSourceCount];
+    for (int position = 0; position < assetGroupCount; position++) {
+      var index = assetGroupOrder[position];
+      assetGroups.add(foundAssetGroups.get(index));
+      assetGroupNetworkSourceIndexes[position] = foundAssetGroupSources[index];
+      networkSourceCounts[foundAssetGroupSources[index]] += assetGroupCounts[position];
+    }
+    return new UtilityNetworkTraceResultSummary(List.copyOf(foundNetworkSources), networkSourceCounts,
+      List.copyOf(assetGroups), assetGroupNetworkSourceIndexes, assetGroupCounts, List.copyOf(assetTypes),
+      assetTypeAssetGroupIndexes, assetTypeCounts, elements.size());
+  }
+
+  /**
+   * Returns the total number of elements.
+   *
+   * @return the number of elements
+   * @since 200.1.0
+   */
+  public int getElementCount() {
+    return elementCount;
+  }
+
+  /**
+   * Returns the number of network sources with elements.
+   *
+   * @return the number of network sources
+   * @since 200.1.0
+   */
+  public int getNetworkSourceCount() {
+    return networkSources.size();
+  }
+
+  /**
+   * Returns a network source.
+   *
+   * @param networkSourceIndex the index of the network source
+   * @return the network source
+   * @throws IndexOutOfBoundsException if the index is out of range
+   * @since 200.1.0
+   */
+  public UtilityNetworkSource getNetworkSource(int networkSourceIndex) {
+    return networkSources.get(networkSourceIndex);
+  }
+
+  /**
+   * Returns the number of elements of a network source.
+   *
+   * @param networkSourceIndex the index of the network source
+   * @return the number of elements
+   * @throws IndexOutOfBoundsException if the index is out of range
+   * @since 200.1.0
+   */
+  public int getNetworkSourceElementCount(int networkSourceIndex) {
+    return networkSourceCounts[networkSourceIndex];
+  }
+
+  /**
+   * Returns the number of asset groups with elements, across all network sources.
+   *
+   * @return the number of asset groups
+   * @since 200.1.0
+   */
+  public int getAssetGroupCount() {
+    return assetGroups.size();
+  }
+
+  /**
+   * Returns an asset group.
+   *
+   * @param assetGroupIndex the index of the asset group
+   * @return the asset group
+   * @throws IndexOutOfBoundsException if the index is out of range
+   * @since 200.1.0
+   */
+  public UtilityAssetGroup getAssetGroup(int assetGroupIndex) {
+    return assetGroups.get(assetGroupIndex);
+  }
+
+  /**
+   * Returns the index of the network source of an asset group.
+   *
+   * @param assetGroupIndex the index of the asset group
+   * @return the index of the network source
+   * @throws IndexOutOfBoundsException if the index is out of range
+   * @since 200.1.0
+   */
+  public int getAssetGroupNetworkSourceIndex(int assetGroupIndex) {
+    return assetGroupNetworkSourceIndexes[assetGroupIndex];
+  }
+
+  /**
+   * Returns the number of elements of an asset group.
+   *
+   * @param assetGroupIndex the index of the asset group
+   * @return the number of elements
+   * @throws IndexOutOfBoundsException if the index is out of range
+   * @since 200.1.0
+   */
+  public int getAssetGroupElementCount(int assetGroupIndex) {
+    return assetGroupCounts[assetGroupIndex];
+  }
+
+  /**
+   * Returns the number of asset types with elements, across all asset groups.
+   *
+   * @return the number of asset types
+   * @since 200.1.0
+   */
+  public int getAssetTypeCount() {
+    return assetTypes.size();
+  }
+
+  /**
+   * Returns an asset type.
+   *
+   * @param assetTypeIndex the index of the asset type
+   * @return the asset type
+   * @throws IndexOutOfBoundsException if the index is out of range
+   * @since 200.1.0
+   */
+  public UtilityAssetType getAssetType(int assetTypeIndex) {
+    return assetTypes.get(assetTypeIndex);
+  }
+
+  /**
+   * Returns the index of the asset group of an asset type.
+   *
+   * @param assetTypeIndex the index of the asset type
+   * @return the index of the asset group
+   * @throws IndexOutOfBoundsException if the index is out of range
+   * @since 200.1.0
+   */
+  public int getAssetTypeAssetGroupIndex(int assetTypeIndex) {
+    return assetTypeAssetGroupIndexes[assetTypeIndex];
+  }
+
+  /**
+   * Returns the number of elements of an asset type.
+   *
+   * @param assetTypeIndex the index of the asset type
+   * @return the number of elements
+   * @throws IndexOutOfBoundsException if the index is out of range
+   * @since 200.1.0
+   */
+  public int getAssetTypeElementCount(int assetTypeIndex) {
+    return assetTypeCounts[assetTypeIndex];
+  }
+
+  /**
+   * Combines two ints into a key.
+   *
+   * @param high the int for the high bits
+   * @param low the int for the low bits
+   * @return the key
+   * @since 200.1.0
+   */
+  private static long createKey(int high, int low) {
+    return ((long) high << 32) | (low & 0xFFFFFFFFL);
+  }
+
+  /**
+   * Returns the provided array, or a copy with double the capacity if it cannot hold the required number of values.
+   *
+   * @param array the array
+   * @param requiredCapacity the required number of values
+   * @return an array that can hold the required number of values
+   * @since 200.1.0
+   */
+  private static int[] ensureCapacity(int[] array, int requiredCapacity) {
+    return requiredCapacity <= array.length ? array :
+      Arrays.copyOf(array, Math.max(requiredCapacity, array.length * 2));
+  }
+
+  /**
+   * Returns the indexes of values ordered by their keys, keeping the order of values with the same key.
+   *
+   * @param keys the key of each value, from 0 to keyCount - 1
+   * @param count the number of values
+   * @param keyCount the number of keys
+   * @return the indexes of the values in order
+   * @since 200.1.0
+   */
+  private static int[] orderByKey(int[] keys, int count, int keyCount) {
+    var starts = new int[keyCount + 1];
+    for (int index = 0; index < count; index++) {
+      starts[keys[index] + 1]++;
+    }
+    for (int key = 0; key < keyCount; key++) {
+      starts[key + 1] += starts[key];
+    }
+    var order = new int[count];
+    for (int index = 0; index < count; index++) {
+      order[starts[keys[index]]++] = index;
+    }
+    return order;
+  }
+}
@@ -0,0 +1,1126 @@
+/*
+ * Copyright 2022 Esri
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.esri.arcgisruntime.toolkit;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Writes rows of a trace result export to a file channel, one row at a time, so that the whole document is never held
+ * in memory. Each row has an optional geometry in WGS84 and a value for each of the columns the writer was created
+ * with.
+ *
+ * @since 200.1.0
+ */
+abstract class UtilityNetworkTraceResultWriter implements Closeable {
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  final List<Column> columns;
+
+  /**
+   * Creates a UtilityNetworkTraceResultWriter.
+   *
+   * @param columns the columns of each row
+   * @since 200.1.0
+   */
+  private UtilityNetworkTraceResultWriter(List<Column> columns) {
+    this.columns = columns;
+  }
+
+  /**
+   * Creates a writer that writes a GeoJSON feature collection.
+   *
+   * @param channel the channel to write to
+   * @param columns the columns of each row
+   * @return the writer
+   * @throws IOException if the writer cannot write to the channel
+   * @since 200.1.0
+   */
+  static UtilityNetworkTraceResultWriter createGeoJsonWriter(FileChannel channel, List<Column> columns)
+    throws IOException {
+    return new GeoJsonWriter(channel, columns);
+  }
+
+  /**
+   * Creates a writer that writes a CSV file with a header row and the geometry as WKT in the last column.
+   *
+   * @param channel the channel to write to
+   * @param columns the columns of each row
+   * @return the writer
+   * @throws IOException if the writer cannot write to the channel
+   * @since 200.1.0
+   */
+  static UtilityNetworkTraceResultWriter createCsvWriter(FileChannel channel, List<Column> columns)
+    throws IOException {
+    return new CsvWriter(channel, columns);
+  }
+
+  /**
+   * Creates a writer that writes a FlatGeobuf file without a spatial index.
+   *
+   * @param channel the channel to write to
+   * @param columns the columns of each row
+   * @param name the name of the dataset
+   * @param rowCount the number of rows that will be written
+   * @return the writer
+   * @throws IOException if the writer cannot write to the channel
+   * @since 200.1.0
+   */
+  static UtilityNetworkTraceResultWriter createFlatGeobufWriter(
+    FileChannel channel, List<Column> columns, String name, long rowCount) throws IOException {
+    return new FlatGeobufWriter(channel, columns, name, rowCount);
+  }
+
+  /**
+   * Writes a row.
+   *
+   * @param geometry the geometry of the row. Null if the row has no geometry
+   * @param values the value of each column. A value can be null
+   * @throws IOException if the row cannot be written
+   * @since 200.1.0
+   */
+  abstract void write(ExportGeometry geometry, Object[] values) throws IOException;
+
+  /**
+   * The type of a column.
+   *
+   * @since 200.1.0
+   */
+  enum ColumnType {
+    STRING,
+    LONG,
+    DOUBLE,
+    // a string containing a JSON object, which is embedded as an object where the format allows
+    JSON
+  }
+
+  /**
+   * A column of the rows.
+   *
+   * @since 200.1.0
+   */
+  static final class Column {
+
+    private final String name;
+    private final ColumnType type;
+
+    Column(String name, ColumnType type) {
+      this.name = name;
+      this.type = type;
+    }
+  }
+
+  /**
+   * A geometry to export, in a form that maps directly to the simple feature geometry types.
+   *
+   * <p>
+   * The coordinates are stored as groups of parts, where each part is a flat array of x and y values. Points and lines
+   * have a single group, where each line is a part and all points are in one part. Polygons have a group per polygon,
+   * where the first part is the exterior ring and any further parts are holes. Rings are closed.
+   *
+   * @since 200.1.0
+   */
+  static final class ExportGeometry {
+
+    /**
+     * The geometry type, with its FlatGeobuf geometry type code.
+     *
+     * @since 200.1.0
+     */
+    enum Type {
+      POINT(1),
+      LINE_STRING(2),
+      POLYGON(3),
+      MULTI_POINT(4),
+      MULTI_LINE_STRING(5),
+      MULTI_POLYGON(6);
+
+      private final int code;
+
+      Type(int code) {
+        this.code = code;
+      }
+    }
+
+    private final Type type;
+    private final List<List<double[]>> groups;
+
+    ExportGeometry(Type type, List<List<double[]>> groups) {
+      this.type = type;
+      this.groups = groups;
+    }
+  }
+
+  /**
+   * Appends a number in a form valid in JSON. Integral numbers are written exactly, and non-finite numbers are written
+   * as null.
+   *
+   * @param writer the writer to append to
+   * @param value the number
+   * @throws IOException if the number cannot be written
+   * @since 200.1.0
+   */
+  static void writeNumber(Writer writer, Number value) throws IOException {
+    if (isIntegral(value)) {
+      writer.write(value.toString());
+    } else {
+      writeNumber(writer, value.doubleValue());
+    }
+  }
+
+  /**
+   * Returns whether a number is of an integral type.
+   *
+   * @param value the number
+   * @return true if the number is a Long, Integer, Short or Byte, false otherwise
+   * @since 200.1.0
+   */
+  private static boolean isIntegral(Number value) {
+    return value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte;
+  }
+
+  /**
+   * Appends a number in a form valid in JSON and WKT. Non-finite numbers are written as null.
+   *
+   * @param writer the writer to append to
+   * @param value the number
+   * @throws IOException if the number cannot be written
+   * @since 200.1.0
+   */
+  private static void writeNumber(Writer writer, double value) throws IOException {
+    if (!Double.isFinite(value)) {
+      writer.write("null");
+    } else if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+      writer.write(Long.toString((long) value));
+    } else {
+      writer.write(Double.toString(value));
+    }
+  }
+
+  /**
+   * Appends a string as a quoted JSON string.
+   *
+   * @param writer the writer to append to
+   * @param value the string
+   * @throws IOException if the string cannot be written
+   * @since 200.1.0
+   */
+  static void writeJsonString(Writer writer, String value) throws IOException {
+    writer.write('"');
+    for (int i = 0; i < value.length(); i++) {
+      var c = value.charAt(i);
+      switch (c) {
+        case '"':
+          writer.write("\\\"");
+          break;
+        case '\\':
+          writer.write("\\\\");
+          break;
+        case '\n':
+          writer.write("\\n");
+          break;
+        case '\r':
+          writer.write("\\r");
+          break;
+        case '\t':
+          writer.write("\\t");
+          break;
+        default:
+          if (c < 0x20) {
+            writer.write(String.format("\\u%04x", (int) c));
+          } else {
+            writer.write(c);
+          }
+      }
+    }
+    writer.write('"');
+  }
+
+  /**
+   * Writes a GeoJSON feature collection.
+   *
+   * @since 200.1.0
+   */
+  private static final class GeoJsonWriter extends UtilityNetworkTraceResultWriter {
+
+    private final Writer writer;
+    private boolean isFirstRow = true;
+
+    private GeoJsonWriter(FileChannel channel, List<Column> columns) throws IOException {
+      super(columns);
+      writer = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8), BUFFER_SIZE);
+      writer.write("{\"type\":\"FeatureCollection\",\"features\":[");
+    }
+
+    @Override
+    void write(ExportGeometry geometry, Object[] values) throws IOException {
+      if (!isFirstRow) {
+        writer.write(',');
+      }
+      isFirstRow = false;
+      writer.write("\n{\"type\":\"Feature\",\"geometry\":");
+      if (geometry == null) {
+        writer.write("null");
+      } else {
+        writeGeometry(geometry);
+      }
+      writer.write(",\"properties\":{");
+      for (int i = 0; i < columns.size(); i++) {
+        if (i > 0) {
+          writer.write(',');
+        }
+        var column = columns.get(i);
+        writeJsonString(writer, column.name);
+        writer.write(':');
+        var value = values[i];
+        if (value == null) {
+          writer.write("null");
+        } else if (column.type == ColumnType.JSON) {
+          writer.write(value.toString());
+        } else if (value instanceof Number) {
+          writeNumber(writer, (Number) value);
+        } else {
+          writeJsonString(writer, value.toString());
+        }
+      }
+      writer.write("}}");
+    }
+
+    /**
+     * Writes a GeoJSON geometry object.
+     *
+     * @param geometry the geometry
+     * @throws IOException if the geometry cannot be written
+     * @since 200.1.0
+     */
+    private void writeGeometry(ExportGeometry geometry) throws IOException {
+      var groups = geometry.groups;
+      switch (geometry.type) {
+        case POINT:
+          writer.write("{\"type\":\"Point\",\"coordinates\":");
+          writePositions(groups.get(0).get(0), false);
+          break;
+        case MULTI_POINT:
+          writer.write("{\"type\":\"MultiPoint\",\"coordinates\":");
+          writePositions(groups.get(0).get(0), true);
+          break;
+        case LINE_STRING:
+          writer.write("{\"type\":\"LineString\",\"coordinates\":");
+          writePositions(groups.get(0).get(0), true);
+          break;
+        case MULTI_LINE_STRING:
+          writer.write("{\"type\":\"MultiLineString\",\"coordinates\":");
+          writeParts(groups.get(0));
+          break;
+        case POLYGON:
+          writer.write("{\"type\":\"Polygon\",\"coordinates\":");
+          writeParts(groups.get(0));
+          break;
+        case MULTI_POLYGON:
+          writer.write("{\"type\":\"MultiPolygon\",\"coordinates\":[");
+          for (int i = 0; i < groups.size(); i++) {
+            if (i > 0) {
+              writer.write(',');
+            }
+            writeParts(groups.get(i));
+          }
+          writer.write(']');
+          break;
+        default:
+          break;
+      }
+      writer.write('}');
+    }
+
+    /**
+     * Writes an array of parts, where each part is an array of positions.
+     *
+     * @param parts the parts
+     * @throws IOException if the parts cannot be written
+     * @since 200.1.0
+     */
+    private void writeParts(List<double[]> parts) throws IOException {
+      writer.write('[');
+      for (int i = 0; i < parts.size(); i++) {
+        if (i > 0) {
+          writer.write(',');
+        }
+        writePositions(parts.get(i), true);
+      }
+      writer.write(']');
+    }
+
+    /**
+     * Writes the positions of a part.
+     *
+     * @param xy the x and y values of the part
+     * @param isArray true to write an array of positions, false to write the first position only
+     * @throws IOException if the positions cannot be written
+     * @since 200.1.0
+     */
+    private void writePositions(double[] xy, boolean isArray) throws IOException {
+      if (isArray) {
+        writer.write('[');
+      }
+      for (int i = 0; i < xy.length; i += 2) {
+        if (i > 0) {
+          writer.write(',');
+        }
+        writer.write('[');
+        writeNumber(writer, xy[i]);
+        writer.write(',');
+        writeNumber(writer, xy[i + 1]);
+        writer.write(']');
+        if (!isArray) {
+          break;
+        }
+      }
+      if (isArray) {
+        writer.write(']');
+      }
+    }
+
+    @Override
+    public void close() throws IOException {
+      writer.write("\n]}\n");
+      writer.close();
+    }
+  }
+
+  /**
+   * Writes a CSV file with a header row, where the geometry is written as WKT in the last column.
+   *
+   * @since 200.1.0
+   */
+  private static final class CsvWriter extends UtilityNetworkTraceResultWriter {
+
+    private final Writer writer;
+
+    private CsvWriter(FileChannel channel, List<Column> columns) throws IOException {
+      super(columns);
+      writer = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8), BUFFER_SIZE);
+      for (Column column : columns) {
+        writeValue(column.name);
+        writer.write(',');
+      }
+      writer.write("wkt\r\n");
+    }
+
+    @Override
+    void write(ExportGeometry geometry, Object[] values) throws IOException {
+      for (int i = 0; i < columns.size(); i++) {
+        var value = values[i];
+        if (value instanceof Number) {
+          if (isIntegral((Number) value) || Double.isFinite(((Number) value).doubleValue())) {
+            writeNumber(writer, (Number) value);
+          }
+        } else if (value != null) {
+          writeValue(value.toString());
+        }
+        writer.write(',');
+      }
+      if (geometry != null) {
+        // WKT always contains commas between coordinates, so is always quoted
+        writer.write('"');
+        writeWkt(geometry);
+        writer.write('"');
+      }
+      writer.write("\r\n");
+    }
+
+    /**
+     * Writes a value, quoting it if it contains a separator, quote or line break.
+     *
+     * @param value the value
+     * @throws IOException if the value cannot be written
+     * @since 200.1.0
+     */
+    private void writeValue(String value) throws IOException {
+      if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 ||
+        value.indexOf('\r') >= 0) {
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+      } else {
+        writer.write(value);
+      }
+    }
+
+    /**
+     * Writes the WKT representation of a geometry.
+     *
+     * @param geometry the geometry
+     * @throws IOException if the geometry cannot be written
+     * @since 200.1.0
+     */
+    private void writeWkt(ExportGeometry geometry) throws IOException {
+      var groups = geometry.groups;
+      switch (geometry.type) {
+        case POINT:
+          writer.write("POINT ");
+          writeCoordinates(groups.get(0).get(0), 1);
+          break;
+        case MULTI_POINT:
+          writer.write("MULTIPOINT (");
+          var points = groups.get(0).get(0);
+          for (int i = 0; i < points.length; i += 2) {
+            if (i > 0) {
+              writer.write(", ");
+            }
+            writeCoordinates(new double[] {points[i], points[i + 1]}, 1);
+          }
+          writer.write(')');
+          break;
+        case LINE_STRING:
+          writer.write("LINESTRING ");
+          writeCoordinates(groups.get(0).get(0), Integer.MAX_VALUE);
+          break;
+        case MULTI_LINE_STRING:
+          writer.write("MULTILINESTRING ");
+          writeParts(groups.get(0));
+          break;
+        case POLYGON:
+          writer.write("POLYGON ");
+          writeParts(groups.get(0));
+          break;
+        case MULTI_POLYGON:
+          writer.write("MULTIPOLYGON (");
+          for (int i = 0; i < groups.size(); i++) {
+            if (i > 0) {
+              writer.write(", ");
+            }
+            writeParts(groups.get(i));
+          }
+          writer.write(')');
+          break;
+        default:
+          break;
+      }
+    }
+
+    /**
+     * Writes a parenthesized list of parts.
+     *
+     * @param parts the parts
+     * @throws IOException if the parts cannot be written
+     * @since 200.1.0
+     */
+    private void writeParts(List<double[]> parts) throws IOException {
+      writer.write('(');
+      for (int i = 0; i < parts.size(); i++) {
+        if (i > 0) {
+          writer.write(", ");
+        }
+        writeCoordinates(parts.get(i), Integer.MAX_VALUE);
+      }
+      writer.write(')');
+    }
+
+    /**
+     * Writes a parenthesized list of coordinates.
+     *
+     * @param xy the x and y values
+     * @param maxCoordinates the maximum number of coordinates to write
+     * @throws IOException if the coordinates cannot be written
+     * @since 200.1.0
+     */
+    private void writeCoordinates(double[] xy, int maxCoordinates) throws IOException {
+      writer.write('(');
+      for (int i = 0; i < xy.length && i / 2 < maxCoordinates; i += 2) {
+        if (i > 0) {
+          writer.write(", ");
+        }
+        writeNumber(writer, xy[i]);
+        writer.write(' ');
+        writeNumber(writer, xy[i + 1]);
+      }
+      writer.write(')');
+    }
+
+    @Override
+    public void close() throws IOException {
+      writer.close();
+    }
+  }
+
+  /**
+   * Writes a FlatGeobuf file without a spatial index, encoding the header and each feature as a size prefixed
+   * FlatBuffer as defined by the FlatGeobuf schema. The geometry type is declared per feature, as rows can have
+   * different geometry types, and the coordinate reference system is EPSG:4326.
+   *
+   * @since 200.1.0
+   */
+  private static final class FlatGeobufWriter extends UtilityNetworkTraceResultWriter {
+
+    private static final byte[] MAGIC_BYTES = {0x66, 0x67, 0x62, 0x03, 0x66, 0x67, 0x62, 0x00};
+    // FlatGeobuf column type codes
+    private static final int COLUMN_TYPE_LONG = 7;
+    private static final int COLUMN_TYPE_DOUBLE = 10;
+    private static final int COLUMN_TYPE_STRING = 11;
+    private static final int COLUMN_TYPE_JSON = 12;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    private final FlatBufferBuilder builder = new FlatBufferBuilder();
+    private final PropertiesBuffer properties = new PropertiesBuffer();
+
+    private FlatGeobufWriter(FileChannel channel, List<Column> columns, String name, long rowCount)
+      throws IOException {
+      super(columns);
+      this.channel = channel;
+      put(MAGIC_BYTES);
+      put(createHeader(name, rowCount));
+    }
+
+    /**
+     * Creates the size prefixed header FlatBuffer.
+     *
+     * @param name the name of the dataset
+     * @param rowCount the number of features
+     * @return the header
+     * @since 200.1.0
+     */
+    private byte[] createHeader(String name, long rowCount) {
+      builder.clear();
+      var columnOffsets = new int[columns.size()];
+      for (int i = 0; i < columns.size(); i++) {
+        var column = columns.get(i);
+        var columnNameOffset = builder.createString(column.name);
+        builder.startTable(2);
+        builder.addOffset(0, columnNameOffset);
+        builder.addByte(1, (byte) getColumnTypeCode(column.type), true);
+        columnOffsets[i] = builder.endTable();
+      }
+      var columnsOffset = builder.createOffsetVector(columnOffsets);
+      var orgOffset = builder.createString("EPSG");
+      builder.startTable(2);
+      builder.addOffset(0, orgOffset);
+      builder.addInt(1, 4326);
+      var crsOffset = builder.endTable();
+      var nameOffset = builder.createString(name);
+
+      builder.startTable(11);
+      builder.addOffset(0, nameOffset);
+      builder.addOffset(7, columnsOffset);
+      builder.addLong(8, rowCount);
+      // an index node size of 0 declares that there is no spatial index
+      builder.addShort(9, (short) 0, true);
+      builder.addOffset(10, crsOffset);
+      return builder.finishSizePrefixed(builder.endTable());
+    }
+
+    @Override
+    void write(ExportGeometry geometry, Object[] values) throws IOException {
+      builder.clear();
+      var geometryOffset = geometry != null ? createGeometry(geometry) : 0;
+
+      properties.clear();
+      for (int i = 0; i < columns.size(); i++) {
+        var value = values[i];
+        if (value == null) {
+          continue;
+        }
+        properties.putShort((short) i);
+        switch (columns.get(i).type) {
+          case LONG:
+            properties.putLong(((Number) value).longValue());
+            break;
+          case DOUBLE:
+            properties.putDouble(((Number) value).doubleValue());
+            break;
+          default:
+            properties.putString(value.toString());
+            break;
+        }
+      }
+      var propertiesOffset = properties.size() > 0 ? builder.createByteVector(properties.array(), properties.size()) : 0;
+
+      builder.startTable(2);
+      if (geometryOffset != 0) {
+        builder.addOffset(0, geometryOffset);
+      }
+      if (propertiesOffset != 0) {
+        builder.addOffset(1, propertiesOffset);
+      }
+      put(builder.finishSizePrefixed(builder.endTable()));
+    }
+
+    /**
+     * Creates a geometry table. Multi polygons are written as a geometry with a part for each polygon, and all other
+     * types as a single geometry with the end of each part.
+     *
+     * @param geometry the geometry
+     * @return the offset of the geometry table
+     * @since 200.1.0
+     */
+    private int createGeometry(ExportGeometry geometry) {
+      if (geometry.type == ExportGeometry.Type.MULTI_POLYGON) {
+        var partOffsets = new int[geometry.groups.size()];
+        for (int i = 0; i < partOffsets.length; i++) {
+          partOffsets[i] = createSimpleGeometry(geometry.groups.get(i), ExportGeometry.Type.POLYGON);
+        }
+        var partsOffset = builder.createOffsetVector(partOffsets);
+        builder.startTable(8);
+        builder.addOffset(7, partsOffset);
+        builder.addByte(6, (byte) geometry.type.code, true);
+        return builder.endTable();
+      }
+      return createSimpleGeometry(geometry.groups.get(0), geometry.type);
+    }
+
+    /**
+     * Creates a geometry table for a geometry without sub geometries.
+     *
+     * @param parts the parts of the geometry
+     * @param type the geometry type
+     * @return the offset of the geometry table
+     * @since 200.1.0
+     */
+    private int createSimpleGeometry(List<double[]> parts, ExportGeometry.Type type) {
+      var coordinateCount = 0;
+      for (double[] part : parts) {
+        coordinateCount += part.length;
+      }
+      var xy = new double[coordinateCount];
+      var ends = new int[parts.size()];
+      var index = 0;
+      for (int i = 0; i < parts.size(); i++) {
+        var part = parts.get(i);
+        System.arraycopy(part, 0, xy, index, part.length);
+        index += part.length;
+        ends[i] = index / 2;
+      }
+      var xyOffset = builder.createDoubleVector(xy);
+      // ends are only required when there is more than one part
+      var endsOffset = ends.length > 1 ? builder.createIntVector(ends) : 0;
+      builder.startTable(7);
+      if (endsOffset != 0) {
+        builder.addOffset(0, endsOffset);
+      }
+      builder.addOffset(1, xyOffset);
+      builder.addByte(6, (byte) type.code, true);
+      return builder.endTable();
+    }
+
+    /**
+     * Returns the FlatGeobuf column type code of a column type.
+     *
+     * @param type the column type
+     * @return the code
+     * @since 200.1.0
+     */
+    private static int getColumnTypeCode(ColumnType type) {
+      switch (type) {
+        case LONG:
+          return COLUMN_TYPE_LONG;
+        case DOUBLE:
+          return COLUMN_TYPE_DOUBLE;
+        case JSON:
+          return COLUMN_TYPE_JSON;
+        default:
+          return COLUMN_TYPE_STRING;
+      }
+    }
+
+    /**
+     * Writes bytes to the channel through the buffer.
+     *
+     * @param bytes the bytes
+     * @throws IOException if the bytes cannot be written
+     * @since 200.1.0
+     */
+    private void put(byte[] bytes) throws IOException {
+      var offset = 0;
+      while (offset < bytes.length) {
+        if (!buffer.hasRemaining()) {
+          flush();
+        }
+        var length = Math.min(buffer.remaining(), bytes.length - offset);
+        buffer.put(bytes, offset, length);
+        offset += length;
+      }
+    }
+
+    /**
+     * Writes the contents of the buffer to the channel.
+     *
+     * @throws IOException if the buffer cannot be written
+     * @since 200.1.0
+     */
+    private void flush() throws IOException {
+      buffer.flip();
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+      flush();
+      channel.close();
+    }
+  }
+
+  /**
+   * A growable little endian buffer for the encoded properties of a FlatGeobuf feature.
+   *
+   * @since 200.1.0
+   */
+  private static final class PropertiesBuffer {
+
+    private ByteBuffer buffer = ByteBuffer.allocate(256).order(ByteOrder.LITTLE_ENDIAN);
+
+    void clear() {
+      buffer.clear();
+    }
+
+    int size() {
+      return buffer.position();
+    }
+
+    byte[] array() {
+      return buffer.array();
+    }
+
+    void putShort(short value) {
+      ensureRemaining(Short.BYTES);
+      buffer.putShort(value);
+    }
+
+    void putLong(long value) {
+      ensureRemaining(Long.BYTES);
+      buffer.putLong(value);
+    }
+
+    void putDouble(double value) {
+      ensureRemaining(Double.BYTES);
+      buffer.putDouble(value);
+    }
+
+    void putString(String value) {
+      var bytes = value.getBytes(StandardCharsets.UTF_8);
+      ensureRemaining(Integer.BYTES + bytes.length);
+      buffer.putInt(bytes.length);
+      buffer.put(bytes);
+    }
+
+    private void ensureRemaining(int length) {
+      if (buffer.remaining() < length) {
+        var newBuffer = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + length))
+          .order(ByteOrder.LITTLE_ENDIAN);
+        buffer.flip();
+        newBuffer.put(buffer);
+        buffer = newBuffer;
+      }
+    }
+  }
+
+  /**
+   * A minimal FlatBuffers builder supporting the subset of the format used by FlatGeobuf. As with the reference
+   * implementation, the buffer is built from the end towards the start, so that objects are written before the
+   * objects that refer to them.
+   *
+   * @since 200.1.0
+   */
+  private static final class FlatBufferBuilder {
+
+    private ByteBuffer buffer = ByteBuffer.allocate(1024).order(ByteOrder.LITTLE_ENDIAN);
+    // the number of unused bytes at the start of the buffer
+    private int space = buffer.capacity();
+    private int minAlign = 1;
+    private int[] vtable = new int[16];
+    private int vtableInUse = 0;
+    private int objectStart = 0;
+
+    /**
+     * Resets the builder so that it can be reused for a new buffer.
+     *
+     * @since 200.1.0
+     */
+    void clear() {
+      space = buffer.capacity();
+      minAlign = 1;
+      vtableInUse = 0;
+    }
+
+    /**
+     * Returns the offset of the last written data from the end of the buffer.
+     *
+     * @return the offset
+     * @since 200.1.0
+     */
+    private int offset() {
+      return buffer.capacity() - space;
+    }
+
+    /**
+     * Prepares to write an element of the provided size after writing additional bytes, adding padding so that the
+     * element is aligned, and growing the buffer if needed.
+     *
+     * @param size the size of the element, which is also its alignment
+     * @param additionalBytes the number of bytes that will be written before the element
+     * @since 200.1.0
+     */
+    private void prep(int size, int additionalBytes) {
+      minAlign = Math.max(minAlign, size);
+      var alignSize = (~(offset() + additionalBytes) + 1) & (size - 1);
+      while (space < alignSize + size + additionalBytes) {
+        grow();
+      }
+      for (int i = 0; i < alignSize; i++) {
+        buffer.put(--space, (byte) 0);
+      }
+    }
+
+    /**
+     * Doubles the size of the buffer, keeping the written data at the end.
+     *
+     * @since 200.1.0
+     */
+    private void grow() {
+      var oldCapacity = buffer.capacity();
+      var newBuffer = ByteBuffer.allocate(oldCapacity * 2).order(ByteOrder.LITTLE_ENDIAN);
+      System.arraycopy(buffer.array(), 0, newBuffer.array(), oldCapacity, oldCapacity);
+      buffer = newBuffer;
+      space += oldCapacity;
+    }
+
+    private void putByte(byte value) {
+      buffer.put(--space, value);
+    }
+
+    private void putShort(short value) {
+      space -= Short.BYTES;
+      buffer.putShort(space, value);
+    }
+
+    private void putInt(int value) {
+      space -= Integer.BYTES;
+      buffer.putInt(space, value);
+    }
+
+    private void putLong(long value) {
+      space -= Long.BYTES;
+      buffer.putLong(space, value);
+    }
+
+    private void putDouble(double value) {
+      space -= Double.BYTES;
+      buffer.putDouble(space, value);
+    }
+
+    /**
+     * Writes an offset to previously written data, relative to where the offset is written.
+     *
+     * @param offset the offset of the data from the end of the buffer
+     * @since 200.1.0
+     */
+    private void putOffset(int offset) {
+      prep(Integer.BYTES, 0);
+      putInt(offset() - offset + Integer.BYTES);
+    }
+
+    /**
+     * Creates a null terminated string.
+     *
+     * @param value the string
+     * @return the offset of the string
+     * @since 200.1.0
+     */
+    int createString(String value) {
+      var bytes = value.getBytes(StandardCharsets.UTF_8);
+      prep(Integer.BYTES, bytes.length + 1);
+      putByte((byte) 0);
+      space -= bytes.length;
+      System.arraycopy(bytes, 0, buffer.array(), space, bytes.length);
+      putInt(bytes.length);
+      return offset();
+    }
+
+    /**
+     * Creates a vector of bytes.
+     *
+     * @param bytes the array containing the bytes
+     * @param length the number of bytes to use from the array
+     * @return the offset of the vector
+     * @since 200.1.0
+     */
+    int createByteVector(byte[] bytes, int length) {
+      prep(Integer.BYTES, length);
+      space -= length;
+      System.arraycopy(bytes, 0, buffer.array(), space, length);
+      putInt(length);
+      return offset();
+    }
+
+    /**
+     * Creates a vector of unsigned integers.
+     *
+     * @param values the values
+     * @return the offset of the vector
+     * @since 200.1.0
+     */
+    int createIntVector(int[] values) {
+      prep(Integer.BYTES, values.length * Integer.BYTES);
+      for (int i = values.length - 1; i >= 0; i--) {
+        putInt(values[i]);
+      }
+      putInt(values.length);
+      return offset();
+    }
+
+    /**
+     * Creates a vector of doubles.
+     *
+     * @param values the values
+     * @return the offset of the vector
+     * @since 200.1.0
+     */
+    int createDoubleVector(double[] values) {
+      prep(Integer.BYTES, values.length * Double.BYTES);
+      prep(Double.BYTES, values.length * Double.BYTES);
+      for (int i = values.length - 1; i >= 0; i--) {
+        putDouble(values[i]);
+      }
+      putInt(values.length);
+      return offset();
+    }
+
+    /**
+     * Creates a vector of offsets to tables.
+     *
+     * @param offsets the offsets of the tables
+     * @return the offset of the vector
+     * @since 200.1.0
+     */
+    int createOffsetVector(int[] offsets) {
+      prep(Integer.BYTES, offsets.length * Integer.BYTES);
+      for (int i = offsets.length - 1; i >= 0; i--) {
+        putOffset(offsets[i]);
+      }
+      putInt(offsets.length);
+      return offset();
+    }
+
+    /**
+     * Starts a table. Its fields are added with the add methods, and it is completed with {@link #endTable()}.
+     *
+     * @param fieldCount the number of fields in the table's schema that may be added
+     * @since 200.1.0
+     */
+    void startTable(int fieldCount) {
+      if (vtable.length < fieldCount) {
+        vtable = new int[fieldCount];
+      }
+      Arrays.fill(vtable, 0, fieldCount, 0);
+      vtableInUse = fieldCount;
+      objectStart = offset();
+    }
+
+    void addByte(int field, byte value, boolean force) {
+      if (force || value != 0) {
+        prep(Byte.BYTES, 0);
+        putByte(value);
+        vtable[field] = offset();
+      }
+    }
+
+    void addShort(int field, short value, boolean force) {
+      if (force || value != 0) {
+        prep(Short.BYTES, 0);
+        putShort(value);
+        vtable[field] = offset();
+      }
+    }
+
+    void addInt(int field, int value) {
+      prep(Integer.BYTES, 0);
+      putInt(value);
+      vtable[field] = offset();
+    }
+
+    void addLong(int field, long value) {
+      prep(Long.BYTES, 0);
+      putLong(value);
+      vtable[field] = offset();
+    }
+
+    void addOffset(int field, int offset) {
+      putOffset(offset);
+      vtable[field] = offset();
+    }
+
+    /**
+     * Completes the current table by writing its vtable.
+     *
+     * @return the offset of the table
+     * @since 200.1.0
+     */
+    int endTable() {
+      // placeholder for the offset to the vtable
+      prep(Integer.BYTES, 0);
+      putInt(0);
+      var objectOffset = offset();
+      var fieldCount = vtableInUse;
+      while (fieldCount > 0 && vtable[fieldCount - 1] == 0) {
+        fieldCount--;
+      }
+      for (int i = fieldCount - 1; i >= 0; i--) {
+        putShortAligned((short) (vtable[i] != 0 ? objectOffset - vtable[i] : 0));
+      }
+      putShortAligned((short) (objectOffset - objectStart));
+      putShortAligned((short) ((fieldCount + 2) * Short.BYTES));
+      var vtableOffset = offset();
+      // the table refers to its vtable with a signed offset from the table to the vtable
+      buffer.putInt(buffer.capacity() - objectOffset, vtableOffset - objectOffset);
+      vtableInUse = 0;
+      return objectOffset;
+    }
+
+    private void putShortAligned(short value) {
+      prep(Short.BYTES, 0);
+      putShort(value);
+    }
+
+    /**
+     * Completes the buffer with the provided root table, prefixed with the size of the buffer.
+     *
+     * @param rootTable the offset of the root table
+     * @return the bytes of the size prefixed buffer
+     * @since 200.1.0
+     */
+    byte[] finishSizePrefixed(int rootTable) {
+      prep(minAlign, Integer.BYTES * 2);
+      putOffset(rootTable);
+      putInt(offset());
+      var bytes = new byte[offset()];
+      System.arraycopy(buffer.array(), space, bytes, 0, bytes.length);
+      return bytes;
+    }
+  }
+}
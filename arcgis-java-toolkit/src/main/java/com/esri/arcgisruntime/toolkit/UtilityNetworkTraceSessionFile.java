@@ -0,0 +1,691 @@
+/*
+ * Copyright 2022 Esri
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.esri.arcgisruntime.toolkit;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import com.esri.arcgisruntime.geometry.Envelope;
+import com.esri.arcgisruntime.geometry.Geometry;
+import com.esri.arcgisruntime.utilitynetworks.UtilityAssetType;
+import com.esri.arcgisruntime.utilitynetworks.UtilityElement;
+import com.esri.arcgisruntime.utilitynetworks.UtilityNamedTraceConfiguration;
+import com.esri.arcgisruntime.utilitynetworks.UtilityNetwork;
+import com.esri.arcgisruntime.utilitynetworks.UtilityNetworkSource;
+import com.esri.arcgisruntime.utilitynetworks.UtilityTerminal;
+import com.esri.arcgisruntime.utilitynetworks.UtilityTraceFunctionType;
+import com.esri.arcgisruntime.utilitynetworks.UtilityTraceParameters;
+import com.esri.arcgisruntime.utilitynetworks.UtilityTraceType;
+import javafx.scene.paint.Color;
+
+/**
+ * Saves the trace results of a {@link UtilityNetworkTraceTool} to a compact binary file, and restores them.
+ *
+ * <p>
+ * A saved result holds its name, visualization color, selection state, the utility network and trace configuration
+ * used, the starting points, warnings, any error message, the element results, the function results, the geometry
+ * results and the extent. Elements are saved as an index into a table of the distinct asset types of the result,
+ * followed by the global ID, object ID, terminal ID and fraction along edge, so features are not saved. Results are
+ * captured as plain data before they are written, and reading a file only produces plain data, so both writing and
+ * reading can be done on a background thread. Restoring a result recreates its utility elements locally, along with
+ * their object IDs, and leaves the features to be fetched when the result is first viewed.
+ *
+ * @since 200.1.0
+ */
+final class UtilityNetworkTraceSessionFile {
+
+  // "UNTS" in ASCII
+  private static final int MAGIC = 0x554E5453;
+  private static final int VERSION = 1;
+  private static final int NO_TERMINAL = -1;
+  // the capacity of lists is limited when they are created, so that a corrupt count fails when the data runs out
+  // rather than by allocating a list of that size
+  private static final int MAX_INITIAL_CAPACITY = 1024;
+  // strings longer than this are read in chunks of this size, for the same reason
+  private static final int STRING_CHUNK_SIZE = 64 * 1024;
+  private static final byte VALUE_NULL = 0;
+  private static final byte VALUE_DOUBLE = 1;
+  private static final byte VALUE_STRING = 2;
+
+  private UtilityNetworkTraceSessionFile() {
+  }
+
+  /**
+   * Writes the provided results to a file, replacing the file if it already exists. The file is written to a
+   * temporary file first, so an existing file is not lost if writing fails.
+   *
+   * @param file the file to write to
+   * @param results the results to write, captured with {@link #capture(UtilityNetworkTraceOperationResult)}
+   * @throws IOException if the file cannot be written
+   * @since 200.1.0
+   */
+  static void write(Path file, List<SavedResult> results) throws IOException {
+    var absoluteFile = file.toAbsolutePath();
+    var tempFile = Files.createTempFile(absoluteFile.getParent(), absoluteFile.getFileName().toString(), ".tmp");
+    try {
+      try (var output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+        output.writeInt(MAGIC);
+        output.writeInt(VERSION);
+        output.writeInt(results.size());
+        for (SavedResult result : results) {
+          writeResult(output, result);
+        }
+      }
+      Files.move(tempFile, absoluteFile, StandardCopyOption.REPLACE_EXISTING);
+    } finally {
+      Files.deleteIfExists(tempFile);
+    }
+  }
+
+  /**
+   * Reads the results saved in a file. No ArcGIS objects other than function types are created, so this can be
+   * called from any thread.
+   *
+   * @param file the file to read
+   * @return the saved results
+   * @throws IOException if the file cannot be read or is not a saved trace session
+   * @since 200.1.0
+   */
+  static List<SavedResult> read(Path file) throws IOException {
+    try (var input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+      if (input.readInt() != MAGIC) {
+        throw new IOException("The file is not a saved utility network trace session");
+      }
+      var version = input.readInt();
+      if (version != VERSION) {
+        throw new IOException("Unsupported utility network trace session version: " + version);
+      }
+      var resultCount = readCount(input);
+      List<SavedResult> savedResults = new ArrayList<>(Math.min(resultCount, MAX_INITIAL_CAPACITY));
+      for (int i = 0; i < resultCount; i++) {
+        savedResults.add(readResult(input));
+      }
+      return savedResults;
+    }
+  }
+
+  /**
+   * Restores a saved result. The utility elements are recreated from the definition of the provided utility network,
+   * and elements that no longer exist in the definition are skipped with a warning. The features of the element
+   * results are marked as pending, so they are only fetched when required.
+   *
+   * @param savedResult the saved result
+   * @param utilityNetwork the loaded utility network the result was traced on
+   * @param traceConfigurations the named trace configurations of the utility network if they have been queried, used
+   * to restore the trace parameters. Can be null
+   * @return the restored result
+   * @since 200.1.0
+   */
+  static UtilityNetworkTraceOperationResult restore(
+    SavedResult savedResult, UtilityNetwork utilityNetwork, List<UtilityNamedTraceConfiguration> traceConfigurations) {
+    var assetTypes = resolveAssetTypes(savedResult.assetTypes, utilityNetwork);
+    List<String> restoreWarnings = new ArrayList<>();
+    var startingPoints = createElements(savedResult.startingPoints, assetTypes, utilityNetwork, null);
+
+    // prefer the named trace configuration, which restores the full trace configuration, to the trace type
+    UtilityNamedTraceConfiguration namedTraceConfiguration = null;
+    if (traceConfigurations != null && savedResult.traceConfigurationGlobalId != null) {
+      namedTraceConfiguration = traceConfigurations.stream()
+        .filter(traceConfiguration -> savedResult.traceConfigurationGlobalId.equals(traceConfiguration.getGlobalId()))
+        .findFirst().orElse(null);
+    }
+    UtilityTraceParameters traceParameters = null;
+    try {
+      if (namedTraceConfiguration != null) {
+        traceParameters = new UtilityTraceParameters(namedTraceConfiguration, startingPoints);
+      } else if (savedResult.traceType != null) {
+        traceParameters = new UtilityTraceParameters(UtilityTraceType.valueOf(savedResult.traceType), startingPoints);
+      }
+    } catch (Exception e) {
+      // the result is still restored, without the parameters
+      traceParameters = null;
+    }
+
+    var result = new UtilityNetworkTraceOperationResult(traceParameters);
+    var elements = createElements(savedResult.elements, assetTypes, utilityNetwork, result);
+    var skippedCount = savedResult.startingPoints.size() + savedResult.elements.size() -
+      startingPoints.size() - elements.size();
+    if (skippedCount > 0) {
+      restoreWarnings.add(
+        skippedCount + " saved elements are no longer in the utility network definition and were not restored.");
+    }
+    result.setName(savedResult.name);
+    result.setUtilityNetwork(utilityNetwork);
+    result.setNamedTraceConfiguration(namedTraceConfiguration);
+    result.setVisualizationColor(savedResult.visualizationColor);
+    if (savedResult.exceptionMessage != null) {
+      result.setException(new Exception(savedResult.exceptionMessage));
+    }
+    result.getWarnings().addAll(savedResult.warnings);
+    result.getWarnings().addAll(restoreWarnings);
+    result.getElementResults().addAll(elements);
+    result.getFunctionResultValues().addAll(savedResult.functionResults);
+    for (String geometryJson : savedResult.geometries) {
+      var geometry = Geometry.fromJson(geometryJson);
+      if (geometry != null) {
+        result.addGeometryResult(geometry);
+      }
+    }
+    if (!elements.isEmpty()) {
+      var extent = savedResult.extent != null ? Geometry.fromJson(savedResult.extent) : null;
+      result.setFeaturesPending(true, extent instanceof Envelope ? (Envelope) extent : null);
+    }
+    result.setIsSelectedProperty(savedResult.isSelected);
+    return result;
+  }
+
+  /**
+   * Captures the data of a result to save. This must be called on the JavaFX application thread, and the captured
+   * data can then be written with {@link #write(Path, List)} on any thread.
+   *
+   * @param result the result
+   * @return the captured data
+   * @throws IOException if the geometry results of a result evicted from the trace history cannot be read
+   * @since 200.1.0
+   */
+  static SavedResult capture(UtilityNetworkTraceOperationResult result) throws IOException {
+    var savedResult = new SavedResult();
+    savedResult.name = result.getName();
+    savedResult.visualizationColor = result.getVisualizationColor();
+    savedResult.isSelected = result.isSelected();
+    savedResult.utilityNetworkName = result.getUtilityNetwork() != null ? result.getUtilityNetwork().getName() : null;
+    var namedTraceConfiguration = result.getNamedTraceConfiguration();
+    savedResult.traceConfigurationGlobalId =
+      namedTraceConfiguration != null ? namedTraceConfiguration.getGlobalId() : null;
+    var traceParameters = result.getTraceParameters();
+    savedResult.traceType = traceParameters != null ? traceParameters.getTraceType().name() : null;
+    var exception = result.getException();
+    savedResult.exceptionMessage = exception != null ?
+      (exception.getMessage() != null ? exception.getMessage() : exception.toString()) : null;
+    savedResult.warnings.addAll(result.getWarnings());
+
+    // build the table of the distinct asset types of the starting points and element results
+    List<UtilityElement> startingPoints =
+      traceParameters != null ? traceParameters.getStartingLocations() : List.of();
+    Map<String, Integer> assetTypeIndexes = new HashMap<>();
+    for (List<UtilityElement> elements : List.of(startingPoints, result.getElementResults())) {
+      for (UtilityElement element : elements) {
+        if (assetTypeIndexes.putIfAbsent(createAssetTypeKey(element), assetTypeIndexes.size()) == null) {
+          savedResult.assetTypes.add(new String[]{element.getNetworkSource().getName(),
+            element.getAssetGroup().getName(), element.getAssetType().getName()});
+        }
+      }
+    }
+    savedResult.startingPoints = captureElements(startingPoints, assetTypeIndexes, null);
+    savedResult.elements = captureElements(result.getElementResults(), assetTypeIndexes, result);
+    savedResult.functionResults.addAll(result.getFunctionResultValues());
+    // the geometries of a result evicted from the trace history are read from the file they are spilled to
+    savedResult.geometries.addAll(result.getGeometryResultsJson());
+    var extent = result.getExtent();
+    savedResult.extent = extent != null ? extent.toJson() : null;
+    return savedResult;
+  }
+
+  /**
+   * Writes a result.
+   *
+   * @param output the stream to write to
+   * @param result the captured result
+   * @throws IOException if the result cannot be written
+   * @since 200.1.0
+   */
+  private static void writeResult(DataOutputStream output, SavedResult result) throws IOException {
+    writeString(output, result.name);
+    var color = result.visualizationColor;
+    output.writeDouble(color.getRed());
+    output.writeDouble(color.getGreen());
+    output.writeDouble(color.getBlue());
+    output.writeDouble(color.getOpacity());
+    output.writeBoolean(result.isSelected);
+    writeString(output, result.utilityNetworkName);
+    writeUuid(output, result.traceConfigurationGlobalId);
+    writeString(output, result.traceType);
+    writeString(output, result.exceptionMessage);
+    output.writeInt(result.warnings.size());
+    for (String warning : result.warnings) {
+      writeString(output, warning);
+    }
+
+    output.writeInt(result.assetTypes.size());
+    for (String[] names : result.assetTypes) {
+      writeString(output, names[0]);
+      writeString(output, names[1]);
+      writeString(output, names[2]);
+    }
+    writeElements(output, result.startingPoints);
+    writeElements(output, result.elements);
+
+    output.writeInt(result.functionResults.size());
+    for (UtilityNetworkTraceFunctionResult functionResult : result.functionResults) {
+      writeString(output, functionResult.getNetworkAttributeName());
+      writeString(output, functionResult.getFunctionType() != null ? functionResult.getFunctionType().name() : null);
+      var value = functionResult.getResult();
+      if (value == null) {
+        output.writeByte(VALUE_NULL);
+      } else if (value instanceof Number) {
+        output.writeByte(VALUE_DOUBLE);
+        output.writeDouble(((Number) value).doubleValue());
+      } else {
+        output.writeByte(VALUE_STRING);
+        writeString(output, value.toString());
+      }
+    }
+
+    output.writeInt(result.geometries.size());
+    for (String geometry : result.geometries) {
+      writeString(output, geometry);
+    }
+    writeString(output, result.extent);
+  }
+
+  /**
+   * Reads a result.
+   *
+   * @param input the stream to read from
+   * @return the result
+   * @throws IOException if the result cannot be read
+   * @since 200.1.0
+   */
+  private static SavedResult readResult(DataInputStream input) throws IOException {
+    var savedResult = new SavedResult();
+    savedResult.name = readString(input);
+    savedResult.visualizationColor =
+      new Color(input.readDouble(), input.readDouble(), input.readDouble(), input.readDouble());
+    savedResult.isSelected = input.readBoolean();
+    savedResult.utilityNetworkName = readString(input);
+    savedResult.traceConfigurationGlobalId = readUuid(input);
+    savedResult.traceType = readString(input);
+    savedResult.exceptionMessage = readString(input);
+    var warningCount = readCount(input);
+    for (int i = 0; i < warningCount; i++) {
+      savedResult.warnings.add(readString(input));
+    }
+
+    var assetTypeCount = readCount(input);
+    for (int i = 0; i < assetTypeCount; i++) {
+      savedResult.assetTypes.add(new String[]{readString(input), readString(input), readString(input)});
+    }
+    savedResult.startingPoints = readElements(input);
+    savedResult.elements = readElements(input);
+
+    var functionResultCount = readCount(input);
+    for (int i = 0; i < functionResultCount; i++) {
+      var networkAttributeName = readString(input);
+      var functionTypeName = readString(input);
+      Object value;
+      var valueType = input.readByte();
+      if (valueType == VALUE_DOUBLE) {
+        value = input.readDouble();
+      } else if (valueType == VALUE_STRING) {
+        value = readString(input);
+      } else {
+        value = null;
+      }
+      UtilityTraceFunctionType functionType = null;
+      if (functionTypeName != null) {
+        try {
+          functionType = UtilityTraceFunctionType.valueOf(functionTypeName);
+        } catch (IllegalArgumentException e) {
+          // function types unknown to this version are kept without a type
+          functionType = null;
+        }
+      }
+      savedResult.functionResults.add(new UtilityNetworkTraceFunctionResult(networkAttributeName, functionType, value));
+    }
+
+    var geometryCount = readCount(input);
+    for (int i = 0; i < geometryCount; i++) {
+      var geometry = readString(input);
+      if (geometry != null) {
+        savedResult.geometries.add(geometry);
+      }
+    }
+    savedResult.extent = readString(input);
+    return savedResult;
+  }
+
+  /**
+   * Captures utility elements as an asset type index, global ID, object ID, terminal ID and fraction along edge.
+   *
+   * @param elements the elements
+   * @param assetTypeIndexes the index of each asset type in the asset type table
+   * @param result the result whose element results are captured, which knows the object IDs of restored elements.
+   * Null for starting points
+   * @return the captured elements
+   * @since 200.1.0
+   */
+  private static List<SavedElement> captureElements(
+    List<UtilityElement> elements, Map<String, Integer> assetTypeIndexes, UtilityNetworkTraceOperationResult result) {
+    List<SavedElement> savedElements = new ArrayList<>(elements.size());
+    for (UtilityElement element : elements) {
+      savedElements.add(new SavedElement(assetTypeIndexes.get(createAssetTypeKey(element)), element.getGlobalId(),
+        result != null ? result.getElementObjectId(element) : element.getObjectId(),
+        element.getTerminal() != null ? element.getTerminal().getTerminalId() : NO_TERMINAL,
+        element.getFractionAlongEdge()));
+    }
+    return savedElements;
+  }
+
+  /**
+   * Writes captured utility elements.
+   *
+   * @param output the stream to write to
+   * @param elements the elements
+   * @throws IOException if the elements cannot be written
+   * @since 200.1.0
+   */
+  private static void writeElements(DataOutputStream output, List<SavedElement> elements) throws IOException {
+    output.writeInt(elements.size());
+    for (SavedElement element : elements) {
+      output.writeInt(element.assetTypeIndex);
+      output.writeLong(element.globalId.getMostSignificantBits());
+      output.writeLong(element.globalId.getLeastSignificantBits());
+      output.writeLong(element.objectId);
+      output.writeInt(element.terminalId);
+      output.writeDouble(element.fractionAlongEdge);
+    }
+  }
+
+  /**
+   * Reads utility elements.
+   *
+   * @param input the stream to read from
+   * @return the elements
+   * @throws IOException if the elements cannot be read
+   * @since 200.1.0
+   */
+  private static List<SavedElement> readElements(DataInputStream input) throws IOException {
+    var elementCount = readCount(input);
+    List<SavedElement> elements = new ArrayList<>(Math.min(elementCount, MAX_INITIAL_CAPACITY));
+    for (int i = 0; i < elementCount; i++) {
+      var assetTypeIndex = input.readInt();
+      var globalId = new UUID(input.readLong(), input.readLong());
+      elements.add(new SavedElement(assetTypeIndex, globalId, input.readLong(), input.readInt(), input.readDouble()));
+    }
+    return elements;
+  }
+
+  /**
+   * Reads a count of items.
+   *
+   * @param input the stream to read from
+   * @return the count
+   * @throws IOException if the count cannot be read or is negative
+   * @since 200.1.0
+   */
+  private static int readCount(DataInputStream input) throws IOException {
+    var count = input.readInt();
+    if (count < 0) {
+      throw new IOException("Invalid count in utility network trace session: " + count);
+    }
+    return count;
+  }
+
+  /**
+   * Resolves the asset type table of a saved result against the definition of a utility network.
+   *
+   * @param assetTypeNames the network source, asset group and asset type names of each asset type
+   * @param utilityNetwork the utility network
+   * @return the asset types, where asset types that are not in the definition are null
+   * @since 200.1.0
+   */
+  private static List<UtilityAssetType> resolveAssetTypes(
+    List<String[]> assetTypeNames, UtilityNetwork utilityNetwork) {
+    List<UtilityAssetType> assetTypes = new ArrayList<>(assetTypeNames.size());
+    for (String[] names : assetTypeNames) {
+      UtilityAssetType assetType = null;
+      var networkSource = utilityNetwork.getDefinition().getNetworkSource(names[0]);
+      if (networkSource != null) {
+        var assetGroup = networkSource.getAssetGroup(names[1]);
+        if (assetGroup != null) {
+          assetType = assetGroup.getAssetTypes().stream()
+            .filter(type -> type.getName().equals(names[2]))
+            .findFirst().orElse(null);
+        }
+      }
+      assetTypes.add(assetType);
+    }
+    return assetTypes;
+  }
+
+  /**
+   * Creates utility elements from saved elements. Saved elements whose asset type could not be resolved are skipped.
+   *
+   * @param savedElements the saved elements
+   * @param assetTypes the resolved asset type table
+   * @param utilityNetwork the utility network to create the elements with
+   * @param result the result the elements are element results of, which is given their saved object IDs. Null for
+   * starting points
+   * @return the elements
+   * @since 200.1.0
+   */
+  private static List<UtilityElement> createElements(
+    List<SavedElement> savedElements, List<UtilityAssetType> assetTypes, UtilityNetwork utilityNetwork,
+    UtilityNetworkTraceOperationResult result) {
+    List<UtilityElement> elements = new ArrayList<>(savedElements.size());
+    // terminals are looked up once per asset type
+    Map<UtilityAssetType, Map<Integer, UtilityTerminal>> terminalsByAssetType = new HashMap<>();
+    for (SavedElement savedElement : savedElements) {
+      var assetType = savedElement.assetTypeIndex >= 0 && savedElement.assetTypeIndex < assetTypes.size() ?
+        assetTypes.get(savedElement.assetTypeIndex) : null;
+      if (assetType == null) {
+        continue;
+      }
+      UtilityTerminal terminal = null;
+      if (savedElement.terminalId != NO_TERMINAL) {
+        terminal = terminalsByAssetType.computeIfAbsent(assetType, type -> {
+          Map<Integer, UtilityTerminal> terminals = new HashMap<>();
+          if (type.getTerminalConfiguration() != null) {
+            type.getTerminalConfiguration().getTerminals().forEach(t -> terminals.put(t.getTerminalId(), t));
+          }
+          return terminals;
+        }).get(savedElement.terminalId);
+      }
+      var element = utilityNetwork.createElement(assetType, savedElement.globalId, terminal);
+      if (element.getNetworkSource().getSourceType() == UtilityNetworkSource.Type.EDGE) {
+        element.setFractionAlongEdge(savedElement.fractionAlongEdge);
+      }
+      // elements created from a global ID do not know their object ID, which is used to compare and filter results
+      if (result != null) {
+        result.setElementObjectId(element, savedElement.objectId);
+      }
+      elements.add(element);
+    }
+    return elements;
+  }
+
+  /**
+   * Creates a key identifying the asset type of a utility element by name.
+   *
+   * @param element the utility element
+   * @return the key
+   * @since 200.1.0
+   */
+  private static String createAssetTypeKey(UtilityElement element) {
+    return element.getNetworkSource().getName() + "\u0000" + element.getAssetGroup().getName() + "\u0000" +
+      element.getAssetType().getName();
+  }
+
+  /**
+   * Writes a string as its length in UTF-8 bytes followed by the bytes, so strings are not limited in length. Null is
+   * written as a length of -1.
+   *
+   * @param output the stream to write to
+   * @param value the string. Can be null
+   * @throws IOException if the string cannot be written
+   * @since 200.1.0
+   */
+  static void writeString(DataOutputStream output, String value) throws IOException {
+    if (value == null) {
+      output.writeInt(-1);
+    } else {
+      var bytes = value.getBytes(StandardCharsets.UTF_8);
+      output.writeInt(bytes.length);
+      output.write(bytes);
+    }
+  }
+
+  /**
+   * Reads a string written by {@link #writeString(DataOutputStream, String)}.
+   *
+   * @param input the stream to read from
+   * @return the string. Can be null
+   * @throws IOException if the string cannot be read
+   * @since 200.1.0
+   */
+  static String readString(DataInputStream input) throws IOException {
+    var length = input.readInt();
+    if (length == -1) {
+      return null;
+    } else if (length < 0) {
+      throw new IOException("Invalid string length: " + length);
+    } else if (length <= STRING_CHUNK_SIZE) {
+      var bytes = new byte[length];
+      input.readFully(bytes);
+      return new String(bytes, StandardCharsets.UTF_8);
+    }
+    // a long string is read in chunks, so that a corrupt length fails with an EOFException once the data runs out
+    // rather than allocating an array of that length
+    var bytes = new ByteArrayOutputStream(STRING_CHUNK_SIZE);
+    var chunk = new byte[STRING_CHUNK_SIZE];
+    var remaining = length;
+    while (remaining > 0) {
+      var chunkLength = Math.min(remaining, chunk.length);
+      input.readFully(chunk, 0, chunkLength);
+      bytes.write(chunk, 0, chunkLength);
+      remaining -= chunkLength;
+    }
+    return bytes.toString(StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Writes a UUID that can be null.
+   *
+   * @param output the stream to write to
+   * @param value the UUID. Can be null
+   * @throws IOException if the UUID cannot be written
+   * @since 200.1.0
+   */
+  private static void writeUuid(DataOutputStream output, UUID value) throws IOException {
+    output.writeBoolean(value != null);
+    if (value != null) {
+      output.writeLong(value.getMostSignificantBits());
+      output.writeLong(value.getLeastSignificantBits());
+    }
+  }
+
+  /**
+   * Reads a UUID written by {@link #writeUuid(DataOutputStream, UUID)}.
+   *
+   * @param input the stream to read from
+   * @return the UUID. Can be null
+   * @throws IOException if the UUID cannot be read
+   * @since 200.1.0
+   */
+  private static UUID readUuid(DataInputStream input) throws IOException {
+    return input.readBoolean() ? new UUID(input.readLong(), input.readLong()) : null;
+  }
+
+  /**
+   * The data of a saved result, which does not depend on a loaded utility network. The fields are package-private so
+   * that saved results can be written and read back without a utility network in tests.
+   *
+   * @since 200.1.0
+   */
+  static final class SavedResult {
+
+    String name;
+    Color visualizationColor;
+    boolean isSelected;
+    String utilityNetworkName;
+    UUID traceConfigurationGlobalId;
+    String traceType;
+    String exceptionMessage;
+    final List<String> warnings = new ArrayList<>();
+    final List<String[]> assetTypes = new ArrayList<>();
+    List<SavedElement> startingPoints = List.of();
+    List<SavedElement> elements = List.of();
+    final List<UtilityNetworkTraceFunctionResult> functionResults = new ArrayList<>();
+    final List<String> geometries = new ArrayList<>();
+    String extent;
+
+    /**
+     * Returns the name of the utility network the result was traced on.
+     *
+     * @return the name of the utility network. Null if it is not known
+     * @since 200.1.0
+     */
+    String getUtilityNetworkName() {
+      return utilityNetworkName;
+    }
+
+    /**
+     * Returns the name of the result.
+     *
+     * @return the name
+     * @since 200.1.0
+     */
+    String getName() {
+      return name;
+    }
+  }
+
+  /**
+   * A saved utility element.
+   *
+   * @since 200.1.0
+   */
+  static final class SavedElement {
+
+    final int assetTypeIndex;
+    final UUID globalId;
+    final long objectId;
+    final int terminalId;
+    final double fractionAlongEdge;
+
+    /**
+     * Creates a SavedElement.
+     *
+     * @param assetTypeIndex the index of the asset type of the element in the asset type table of its result
+     * @param globalId the global ID
+     * @param objectId the object ID
+     * @param terminalId the terminal ID. -1 if the element has no terminal
+     * @param fractionAlongEdge the fraction along edge
+     * @since 200.1.0
+     */
+    SavedElement(int assetTypeIndex, UUID globalId, long objectId, int terminalId, double fractionAlongEdge) {
+      this.assetTypeIndex = assetTypeIndex;
+      this.globalId = globalId;
+      this.objectId = objectId;
+      this.terminalId = terminalId;
+      this.fractionAlongEdge = fractionAlongEdge;
+    }
+  }
+}
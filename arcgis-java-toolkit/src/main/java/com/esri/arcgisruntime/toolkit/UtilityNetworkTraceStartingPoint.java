@@ -18,11 +18,14 @@ package com.esri.arcgisruntime.toolkit;
 
 import com.esri.arcgisruntime.geometry.Envelope;
 import com.esri.arcgisruntime.geometry.GeometryEngine;
+import com.esri.arcgisruntime.geometry.Point;
 import com.esri.arcgisruntime.geometry.Polyline;
 import com.esri.arcgisruntime.mapping.view.Graphic;
 import com.esri.arcgisruntime.symbology.Symbol;
 import com.esri.arcgisruntime.utilitynetworks.UtilityElement;
 import com.esri.arcgisruntime.utilitynetworks.UtilityNetworkSource;
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
 import javafx.beans.property.SimpleDoubleProperty;
 
 /**
@@ -40,6 +43,11 @@ public class UtilityNetworkTraceStartingPoint {
   private final Graphic graphic;
   private final Symbol featureSymbol;
   private final UtilityElement utilityElement;
+  // locates points along the edge, if the starting point has a fraction along edge
+  private EdgeLocator edgeLocator = null;
+  // applies changes to the fraction along edge at most once per pulse while the fraction is changed continuously
+  private AnimationTimer fractionAlongEdgeTimer = null;
+  private boolean isFractionAlongEdgeUpdatePending = false;
 
   /**
    * Creates a UtilityNetworkTraceStartingPoint.
@@ -67,16 +75,11 @@ public class UtilityNetworkTraceStartingPoint {
       graphic != null && graphic.getGeometry() instanceof Polyline) {
       hasFractionAlongEdge = true;
       fractionAlongEdgeProperty.set(utilityElement.getFractionAlongEdge());
-      var polyline = (Polyline) graphic.getGeometry();
-      graphic.setGeometry(
-        GeometryEngine.createPointAlong(polyline, GeometryEngine.length(polyline) * fractionAlongEdgeProperty.get()));
+      edgeLocator = new EdgeLocator((Polyline) graphic.getGeometry());
+      graphic.setGeometry(edgeLocator.createPointAlong(fractionAlongEdgeProperty.get()));
       // Add a listener to the fraction along edge property to update the geometry of the graphic to reposition
       // along the line at the new location, and update the fraction along edge value on the utility element.
-      fractionAlongEdgeProperty.addListener((observable, oldValue, newValue) -> {
-        graphic.setGeometry(
-          GeometryEngine.createPointAlong(polyline, GeometryEngine.length(polyline) * newValue.doubleValue()));
-        utilityElement.setFractionAlongEdge(newValue.doubleValue());
-      });
+      fractionAlongEdgeProperty.addListener((observable, oldValue, newValue) -> requestFractionAlongEdgeUpdate());
     }
   }
 
@@ -177,6 +180,148 @@ public class UtilityNetworkTraceStartingPoint {
    * @since 100.15.0
    */
   public UtilityElement getUtilityElement() {
+    if (isFractionAlongEdgeUpdatePending) {
+      // apply a pending change to the fraction along edge, so that the element is up-to-date when it is used
+      fractionAlongEdgeTimer.stop();
+      updateFractionAlongEdge();
+    }
     return utilityElement;
   }
+
+  /**
+   * Requests that the graphic and utility element are updated to the current fraction along edge. On the JavaFX
+   * application thread, the update is applied on the next pulse, so that a fraction that changes many times between
+   * pulses, such as while a slider is dragged, only repositions the graphic once per pulse.
+   *
+   * @since 200.1.0
+   */
+  private void requestFractionAlongEdgeUpdate() {
+    if (!Platform.isFxApplicationThread()) {
+      updateFractionAlongEdge();
+      return;
+    }
+    isFractionAlongEdgeUpdatePending = true;
+    if (fractionAlongEdgeTimer == null) {
+      fractionAlongEdgeTimer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+          stop();
+          if (isFractionAlongEdgeUpdatePending) {
+            updateFractionAlongEdge();
+          }
+        }
+      };
+    }
+    // starting a timer that is already started has no effect
+    fractionAlongEdgeTimer.start();
+  }
+
+  /**
+   * Updates the graphic and the utility element to the current fraction along edge.
+   *
+   * @since 200.1.0
+   */
+  private void updateFractionAlongEdge() {
+    isFractionAlongEdgeUpdatePending = false;
+    var fractionAlongEdge = fractionAlongEdgeProperty.get();
+    graphic.setGeometry(edgeLocator.createPointAlong(fractionAlongEdge));
+    utilityElement.setFractionAlongEdge(fractionAlongEdge);
+  }
+
+  /**
+   * Locates points at fractions of the length of a polyline. The cumulative length of the polyline at each of its
+   * vertices is calculated once, so that a point is located by a binary search of the vertices and an interpolation
+   * along a single segment, rather than by measuring the whole polyline each time. Parts are measured in order, with
+   * the gaps between parts not counted, and lengths are planar in the units of the spatial reference of the polyline,
+   * as with {@link GeometryEngine#createPointAlong(Polyline, double)}.
+   *
+   * @since 200.1.0
+   */
+  private static final class EdgeLocator {
+
+    private final Polyline polyline;
+    // the coordinates of the vertices, and the length of the polyline up to each vertex. Null if the polyline has
+    // curves or fewer than 2 vertices, in which case points are located with the GeometryEngine
+    private final double[] xs;
+    private final double[] ys;
+    private final double[] zs;
+    private final double[] cumulativeLengths;
+
+    /**
+     * Creates an EdgeLocator.
+     *
+     * @param polyline the polyline
+     * @since 200.1.0
+     */
+    private EdgeLocator(Polyline polyline) {
+      this.polyline = polyline;
+      var pointCount = 0;
+      for (var part : polyline.getParts()) {
+        pointCount += part.getPointCount();
+      }
+      if (polyline.hasCurves() || pointCount < 2) {
+        xs = null;
+        ys = null;
+        zs = null;
+        cumulativeLengths = null;
+        return;
+      }
+      xs = new double[pointCount];
+      ys = new double[pointCount];
+      zs = polyline.hasZ() ? new double[pointCount] : null;
+      cumulativeLengths = new double[pointCount];
+      var index = 0;
+      for (var part : polyline.getParts()) {
+        var isPartStart = true;
+        for (var point : part.getPoints()) {
+          xs[index] = point.getX();
+          ys[index] = point.getY();
+          if (zs != null) {
+            zs[index] = point.getZ();
+          }
+          if (index > 0) {
+            // the gap between the end of a part and the start of the next part is not part of the length
+            cumulativeLengths[index] = cumulativeLengths[index - 1] +
+              (isPartStart ? 0 : Math.hypot(xs[index] - xs[index - 1], ys[index] - ys[index - 1]));
+          }
+          isPartStart = false;
+          index++;
+        }
+      }
+    }
+
+    /**
+     * Creates the point at a fraction of the length of the polyline.
+     *
+     * @param fraction the fraction of the length, from 0 to 1. Values outside this range are clamped
+     * @return the point
+     * @since 200.1.0
+     */
+    private Point createPointAlong(double fraction) {
+      var clampedFraction = Math.max(0, Math.min(1, fraction));
+      if (cumulativeLengths == null) {
+        return GeometryEngine.createPointAlong(polyline, GeometryEngine.length(polyline) * clampedFraction);
+      }
+      var distance = cumulativeLengths[cumulativeLengths.length - 1] * clampedFraction;
+      // find the first vertex at or beyond the distance, which ends the segment containing the point
+      var low = 1;
+      var high = cumulativeLengths.length - 1;
+      while (low < high) {
+        var middle = (low + high) >>> 1;
+        if (cumulativeLengths[middle] < distance) {
+          low = middle + 1;
+        } else {
+          high = middle;
+        }
+      }
+      var segmentLength = cumulativeLengths[low] - cumulativeLengths[low - 1];
+      var t = segmentLength > 0 ? (distance - cumulativeLengths[low - 1]) / segmentLength : 1;
+      var x = xs[low - 1] + (xs[low] - xs[low - 1]) * t;
+      var y = ys[low - 1] + (ys[low] - ys[low - 1]) * t;
+      if (zs != null) {
+        return new Point(x, y, zs[low - 1] + (zs[low] - zs[low - 1]) * t, polyline.getSpatialReference());
+      }
+      return new Point(x, y, polyline.getSpatialReference());
+    }
+  }
 }
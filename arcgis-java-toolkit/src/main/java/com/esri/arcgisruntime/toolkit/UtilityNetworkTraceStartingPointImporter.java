@@ -0,0 +1,717 @@
+/*
+ * Copyright 2022 Esri
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.esri.arcgisruntime.toolkit;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Scanner;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.DoubleConsumer;
+import java.util.function.ToIntFunction;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import com.esri.arcgisruntime.concurrent.ListenableFuture;
+import com.esri.arcgisruntime.data.ArcGISFeature;
+import com.esri.arcgisruntime.data.ArcGISFeatureTable;
+import com.esri.arcgisruntime.data.FeatureQueryResult;
+import com.esri.arcgisruntime.data.QueryParameters;
+import com.esri.arcgisruntime.data.ServiceFeatureTable;
+import com.esri.arcgisruntime.loadable.LoadStatus;
+import com.esri.arcgisruntime.utilitynetworks.UtilityAssetGroup;
+import com.esri.arcgisruntime.utilitynetworks.UtilityAssetType;
+import com.esri.arcgisruntime.utilitynetworks.UtilityElement;
+import com.esri.arcgisruntime.utilitynetworks.UtilityNetwork;
+import com.esri.arcgisruntime.utilitynetworks.UtilityNetworkSource;
+
+/**
+ * Imports starting points for a {@link UtilityNetworkTraceTool} from a CSV or GeoJSON file listing the global IDs of
+ * utility network features.
+ *
+ * <p>
+ * The file is streamed in batches. The global IDs of each batch are resolved to features, and the features are passed
+ * to the tool to be added as starting points before the next batch is read. The file is opened and read, and the
+ * global IDs resolved, on the executor returned by {@link ToolkitExecutors#getExecutor()}, and only the starting
+ * points are added and the progress reported on the JavaFX application thread. Where a record provides the network
+ * source, asset group and asset type names, the utility element is created directly, with the asset types cached per
+ * asset group, and the features of all such elements in the batch are fetched in a single request. The remaining
+ * global IDs are resolved by querying the feature tables of the network sources, with one query per table per batch.
+ *
+ * @since 200.1.0
+ */
+final class UtilityNetworkTraceStartingPointImporter {
+
+  private static final Pattern GEOJSON_GLOBAL_ID_PATTERN =
+    Pattern.compile("\"global_?id\"\\s*:\\s*\"([^\"]*)\"", Pattern.CASE_INSENSITIVE);
+
+  private final UtilityNetwork utilityNetwork;
+  private final int batchSize;
+  private final ToIntFunction<List<ArcGISFeature>> addStartingPoints;
+  private final DoubleConsumer onProgress;
+  private final CompletableFuture<Integer> future = new CompletableFuture<>();
+  private final List<ListenableFuture<?>> pendingFutures = new ArrayList<>();
+  // asset groups looked up by network source and asset group name, including names that could not be found
+  private final Map<String, UtilityAssetGroup> assetGroups = new HashMap<>();
+  // asset types of each asset group that has been used, by name
+  private final Map<UtilityAssetGroup, Map<String, UtilityAssetType>> assetTypesByAssetGroup = new HashMap<>();
+  private GlobalIdReader reader;
+  // set when the import has finished, so that a file opened afterwards is closed straight away
+  private boolean isReaderClosed = false;
+  private int startingPointsAdded = 0;
+
+  /**
+   * Creates a UtilityNetworkTraceStartingPointImporter.
+   *
+   * @param utilityNetwork the utility network the global IDs belong to
+   * @param batchSize the maximum number of global IDs to resolve at once
+   * @param addStartingPoints adds starting points for the provided features and returns the number added
+   * @param onProgress called with the fraction of the file that has been imported
+   * @since 200.1.0
+   */
+  UtilityNetworkTraceStartingPointImporter(
+    UtilityNetwork utilityNetwork, int batchSize, ToIntFunction<List<ArcGISFeature>> addStartingPoints,
+    DoubleConsumer onProgress) {
+    this.utilityNetwork = utilityNetwork;
+    this.batchSize = batchSize;
+    this.addStartingPoints = addStartingPoints;
+    this.onProgress = onProgress;
+  }
+
+  /**
+   * Imports the starting points from the provided file. The import is cancelled if the returned future is cancelled.
+   *
+   * @param file the CSV or GeoJSON file to import
+   * @return a completable future that completes with the number of starting points added
+   * @since 200.1.0
+   */
+  CompletableFuture<Integer> importAsync(Path file) {
+    future.whenComplete((count, exception) -> {
+      // stop any requests in progress if the import is cancelled, and release the file
+      List<ListenableFuture<?>> futuresToCancel;
+      synchronized (pendingFutures) {
+        futuresToCancel = new ArrayList<>(pendingFutures);
+        pendingFutures.clear();
+      }
+      futuresToCancel.forEach(pendingFuture -> pendingFuture.cancel(true));
+      closeReader();
+    });
+    CompletableFuture.runAsync(() -> openReader(file), ToolkitExecutors.getExecutor())
+      .whenCompleteAsync((v, exception) -> {
+        if (exception != null) {
+          completeExceptionally(exception);
+        } else {
+          importNextBatch();
+        }
+      }, ToolkitExecutors.getFxExecutor());
+    return future;
+  }
+
+  /**
+   * Reads the next batch of global IDs from the file and resolves them to features in the background, then adds the
+   * starting points and continues with the following batch until the file has been read or the import is cancelled.
+   *
+   * @since 200.1.0
+   */
+  private void importNextBatch() {
+    if (future.isDone()) {
+      return;
+    }
+    CompletableFuture.supplyAsync(() -> {
+      try {
+        return reader.read(batchSize);
+      } catch (IOException e) {
+        throw new CompletionException(e);
+      }
+    }, ToolkitExecutors.getExecutor())
+      // a null list of features marks the end of the file
+      .<List<ArcGISFeature>>thenCompose(records -> records.isEmpty() || future.isDone() ?
+        CompletableFuture.completedFuture(null) : resolveFeaturesAsync(records))
+      .whenCompleteAsync((features, exception) -> {
+        if (future.isDone()) {
+          return;
+        }
+        if (exception != null) {
+          completeExceptionally(exception);
+          return;
+        }
+        if (features == null) {
+          onProgress.accept(1);
+          future.complete(startingPointsAdded);
+          return;
+        }
+        startingPointsAdded += addStartingPoints.applyAsInt(features);
+        onProgress.accept(reader.getProgress());
+        importNextBatch();
+      }, ToolkitExecutors.getFxExecutor());
+  }
+
+  /**
+   * Completes the import with an exception, unwrapping it if it was wrapped by a completable future.
+   *
+   * @param exception the exception
+   * @since 200.1.0
+   */
+  private void completeExceptionally(Throwable exception) {
+    future.completeExceptionally(
+      exception instanceof CompletionException && exception.getCause() != null ? exception.getCause() : exception);
+  }
+
+  /**
+   * Opens the reader for the file, closing it straight away if the import has already finished.
+   *
+   * @param file the CSV or GeoJSON file to import
+   * @throws CompletionException if the file cannot be opened
+   * @since 200.1.0
+   */
+  private void openReader(Path file) {
+    GlobalIdReader openedReader;
+    try {
+      openedReader = GlobalIdReader.open(file);
+    } catch (IOException e) {
+      throw new CompletionException(e);
+    }
+    synchronized (this) {
+      if (!isReaderClosed) {
+        reader = openedReader;
+        return;
+      }
+    }
+    closeQuietly(openedReader);
+  }
+
+  /**
+   * Closes the reader if it has been opened, and prevents it from being opened afterwards.
+   *
+   * @since 200.1.0
+   */
+  private synchronized void closeReader() {
+    isReaderClosed = true;
+    if (reader != null) {
+      closeQuietly(reader);
+    }
+  }
+
+  /**
+   * Closes a reader, ignoring any failure as the import has already finished.
+   *
+   * @param globalIdReader the reader
+   * @since 200.1.0
+   */
+  private static void closeQuietly(GlobalIdReader globalIdReader) {
+    try {
+      globalIdReader.close();
+    } catch (IOException e) {
+      // the import has already finished, so failing to close the file is ignored
+    }
+  }
+
+  /**
+   * Resolves a batch of records to the features they identify.
+   *
+   * @param records the records to resolve
+   * @return a completable future that completes with the features found
+   * @since 200.1.0
+   */
+  private CompletableFuture<List<ArcGISFeature>> resolveFeaturesAsync(List<GlobalIdRecord> records) {
+    List<UtilityElement> elements = new ArrayList<>();
+    Set<UUID> globalIdsToQuery = new LinkedHashSet<>();
+    for (GlobalIdRecord record : records) {
+      var assetType = findAssetType(record);
+      UtilityElement element = null;
+      if (assetType != null) {
+        try {
+          element = utilityNetwork.createElement(assetType, record.globalId);
+        } catch (Exception e) {
+          // fall back to querying for the global ID
+        }
+      }
+      if (element != null) {
+        elements.add(element);
+      } else {
+        globalIdsToQuery.add(record.globalId);
+      }
+    }
+
+    List<ArcGISFeature> features = new ArrayList<>();
+    CompletableFuture<Void> resolveFuture = CompletableFuture.completedFuture(null);
+    if (!elements.isEmpty()) {
+      resolveFuture = toCompletableFuture(utilityNetwork.fetchFeaturesForElementsAsync(elements))
+        .thenAccept(features::addAll);
+    }
+    if (!globalIdsToQuery.isEmpty()) {
+      // query the network sources one after another, only querying for the global IDs that have not yet been found
+      for (ArcGISFeatureTable featureTable : getNetworkSourceFeatureTables()) {
+        resolveFuture = resolveFuture.thenCompose(v -> globalIdsToQuery.isEmpty() ?
+          CompletableFuture.completedFuture(null) :
+          queryFeaturesAsync(featureTable, globalIdsToQuery).thenAccept(features::addAll));
+      }
+    }
+    return resolveFuture.thenApply(v -> features);
+  }
+
+  /**
+   * Finds the asset type named by a record. Asset groups and their asset types are looked up once and cached.
+   *
+   * @param record the record
+   * @return the asset type. Null if the record does not name an asset type or it could not be found
+   * @since 200.1.0
+   */
+  private UtilityAssetType findAssetType(GlobalIdRecord record) {
+    if (record.networkSource == null || record.assetGroup == null || record.assetType == null) {
+      return null;
+    }
+    var assetGroupKey = record.networkSource + "\u0000" + record.assetGroup;
+    if (!assetGroups.containsKey(assetGroupKey)) {
+      UtilityAssetGroup assetGroup = null;
+      try {
+        var networkSource = utilityNetwork.getDefinition().getNetworkSource(record.networkSource);
+        if (networkSource != null) {
+          assetGroup = networkSource.getAssetGroup(record.assetGroup);
+        }
+      } catch (Exception e) {
+        // an unknown network source or asset group is cached as not found
+      }
+      assetGroups.put(assetGroupKey, assetGroup);
+    }
+    var assetGroup = assetGroups.get(assetGroupKey);
+    if (assetGroup == null) {
+      return null;
+    }
+    return assetTypesByAssetGroup.computeIfAbsent(assetGroup, group -> {
+      Map<String, UtilityAssetType> assetTypes = new HashMap<>();
+      group.getAssetTypes().forEach(assetType -> assetTypes.put(assetType.getName(), assetType));
+      return assetTypes;
+    }).get(record.assetType);
+  }
+
+  /**
+   * Returns the distinct feature tables of the utility network's network sources.
+   *
+   * @return the feature tables
+   * @since 200.1.0
+   */
+  private List<ArcGISFeatureTable> getNetworkSourceFeatureTables() {
+    return utilityNetwork.getDefinition().getNetworkSources().stream()
+      .map(UtilityNetworkSource::getFeatureTable)
+      .filter(Objects::nonNull)
+      .distinct()
+      .collect(Collectors.toList());
+  }
+
+  /**
+   * Queries a feature table for the features with the provided global IDs. The global IDs of any features found are
+   * removed from the set.
+   *
+   * @param featureTable the feature table to query
+   * @param globalIds the global IDs to query for
+   * @return a completable future that completes with the features found
+   * @since 200.1.0
+   */
+  private CompletableFuture<List<ArcGISFeature>> queryFeaturesAsync(
+    ArcGISFeatureTable featureTable, Set<UUID> globalIds) {
+    return loadAsync(featureTable).thenCompose(v -> {
+      var globalIdField = featureTable.getGlobalIdField();
+      if (globalIdField == null || globalIdField.isEmpty()) {
+        return CompletableFuture.completedFuture(List.of());
+      }
+      var queryParameters = new QueryParameters();
+      queryParameters.setWhereClause(globalIdField + " IN (" + globalIds.stream()
+        .map(globalId -> "'{" + globalId.toString().toUpperCase(Locale.ROOT) + "}'")
+        .collect(Collectors.joining(",")) + ")");
+      // service feature tables only return a minimal set of attributes by default, which is not enough to create
+      // utility elements from the features
+      ListenableFuture<FeatureQueryResult> queryFuture = featureTable instanceof ServiceFeatureTable ?
+        ((ServiceFeatureTable) featureTable).queryFeaturesAsync(
+          queryParameters, ServiceFeatureTable.QueryFeatureFields.LOAD_ALL) :
+        featureTable.queryFeaturesAsync(queryParameters);
+      return toCompletableFuture(queryFuture).thenApply(queryResult -> {
+        List<ArcGISFeature> features = new ArrayList<>();
+        queryResult.forEach(feature -> {
+          if (feature instanceof ArcGISFeature) {
+            features.add((ArcGISFeature) feature);
+            var globalId = feature.getAttributes().get(globalIdField);
+            if (globalId instanceof UUID) {
+              globalIds.remove(globalId);
+            }
+          }
+        });
+        return features;
+      });
+    });
+  }
+
+  /**
+   * Loads the provided feature table if it is not already loaded.
+   *
+   * @param featureTable the feature table to load
+   * @return a completable future that completes when the feature table has loaded
+   * @since 200.1.0
+   */
+  private CompletableFuture<Void> loadAsync(ArcGISFeatureTable featureTable) {
+    if (featureTable.getLoadStatus() == LoadStatus.LOADED) {
+      return CompletableFuture.completedFuture(null);
+    }
+    CompletableFuture<Void> loadFuture = new CompletableFuture<>();
+    featureTable.addDoneLoadingListener(() -> {
+      if (featureTable.getLoadStatus() == LoadStatus.LOADED) {
+        loadFuture.complete(null);
+      } else {
+        loadFuture.completeExceptionally(featureTable.getLoadError());
+      }
+    });
+    featureTable.loadAsync();
+    return loadFuture;
+  }
+
+  /**
+   * Converts the provided listenable future into a completable future. The listenable future is cancelled if the
+   * import is cancelled.
+   *
+   * @param listenableFuture the listenable future to convert
+   * @param <T> the type of the result
+   * @return a completable future that completes with the result of the listenable future
+   * @since 200.1.0
+   */
+  private <T> CompletableFuture<T> toCompletableFuture(ListenableFuture<T> listenableFuture) {
+    CompletableFuture<T> completableFuture = new CompletableFuture<>();
+    synchronized (pendingFutures) {
+      pendingFutures.add(listenableFuture);
+    }
+    if (future.isDone()) {
+      // the import finished while the request was being made
+      listenableFuture.cancel(true);
+    }
+    listenableFuture.addDoneListener(() -> {
+      synchronized (pendingFutures) {
+        pendingFutures.remove(listenableFuture);
+      }
+      try {
+        completableFuture.complete(listenableFuture.get());
+      } catch (CancellationException e) {
+        completableFuture.completeExceptionally(e);
+      } catch (Exception e) {
+        completableFuture.completeExceptionally(e.getCause() != null ? e.getCause() : e);
+      }
+    });
+    return completableFuture;
+  }
+
+  /**
+   * Parses a global ID, with or without braces.
+   *
+   * @param value the value to parse
+   * @return the global ID. Null if the value is not a valid global ID
+   * @since 200.1.0
+   */
+  private static UUID parseGlobalId(String value) {
+    var trimmed = value.trim();
+    if (trimmed.startsWith("{") && trimmed.endsWith("}")) {
+      trimmed = trimmed.substring(1, trimmed.length() - 1);
+    }
+    try {
+      return UUID.fromString(trimmed);
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  /**
+   * A global ID read from a file, with the optional names of its network source, asset group and asset type.
+   *
+   * @since 200.1.0
+   */
+  private static final class GlobalIdRecord {
+
+    private final UUID globalId;
+    private final String networkSource;
+    private final String assetGroup;
+    private final String assetType;
+
+    private GlobalIdRecord(UUID globalId, String networkSource, String assetGroup, String assetType) {
+      this.globalId = globalId;
+      this.networkSource = networkSource;
+      this.assetGroup = assetGroup;
+      this.assetType = assetType;
+    }
+  }
+
+  /**
+   * Streams global ID records from a file and reports how much of the file has been read.
+   *
+   * @since 200.1.0
+   */
+  private abstract static class GlobalIdReader implements Closeable {
+
+    private final long size;
+    private long bytesRead = 0;
+    final InputStream inputStream;
+
+    private GlobalIdReader(Path file) throws IOException {
+      size = Files.size(file);
+      inputStream = new FilterInputStream(Files.newInputStream(file)) {
+        @Override
+        public int read() throws IOException {
+          var b = super.read();
+          if (b != -1) {
+            bytesRead++;
+          }
+          return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+          var count = super.read(b, off, len);
+          if (count > 0) {
+            bytesRead += count;
+          }
+          return count;
+        }
+      };
+    }
+
+    /**
+     * Opens a reader for the provided file based on its extension.
+     *
+     * @param file the file to read
+     * @return the reader
+     * @throws IOException if the file cannot be opened or is not a CSV or GeoJSON file
+     * @since 200.1.0
+     */
+    static GlobalIdReader open(Path file) throws IOException {
+      var fileName = file.getFileName().toString().toLowerCase(Locale.ROOT);
+      if (fileName.endsWith(".csv")) {
+        return new CsvGlobalIdReader(file);
+      } else if (fileName.endsWith(".geojson") || fileName.endsWith(".json")) {
+        return new GeoJsonGlobalIdReader(file);
+      }
+      throw new IOException("Unsupported file type: " + file.getFileName());
+    }
+
+    /**
+     * Reads up to the provided number of records. Values that are not valid global IDs are skipped.
+     *
+     * @param maxRecords the maximum number of records to read
+     * @return the records read. Empty if the end of the file has been reached
+     * @throws IOException if the file cannot be read
+     * @since 200.1.0
+     */
+    abstract List<GlobalIdRecord> read(int maxRecords) throws IOException;
+
+    /**
+     * Returns the fraction of the file that has been read.
+     *
+     * @return the fraction read, between 0 and 1
+     * @since 200.1.0
+     */
+    double getProgress() {
+      return size > 0 ? Math.min(1, (double) bytesRead / size) : 1;
+    }
+
+    @Override
+    public void close() throws IOException {
+      inputStream.close();
+    }
+  }
+
+  /**
+   * Reads global ID records from a CSV file. The file can have a header row containing a GlobalID column and optional
+   * NetworkSource, AssetGroup and AssetType columns. Without a header row, the first column contains the global IDs.
+   *
+   * @since 200.1.0
+   */
+  private static final class CsvGlobalIdReader extends GlobalIdReader {
+
+    private final BufferedReader bufferedReader;
+    private boolean isHeaderRead = false;
+    private int globalIdColumn = 0;
+    private int networkSourceColumn = -1;
+    private int assetGroupColumn = -1;
+    private int assetTypeColumn = -1;
+
+    private CsvGlobalIdReader(Path file) throws IOException {
+      super(file);
+      bufferedReader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    List<GlobalIdRecord> read(int maxRecords) throws IOException {
+      List<GlobalIdRecord> records = new ArrayList<>();
+      String line;
+      while (records.size() < maxRecords && (line = bufferedReader.readLine()) != null) {
+        if (line.isBlank()) {
+          continue;
+        }
+        var values = splitLine(line);
+        if (!isHeaderRead) {
+          isHeaderRead = true;
+          if (readHeader(values)) {
+            continue;
+          }
+        }
+        if (globalIdColumn >= values.size()) {
+          continue;
+        }
+        var globalId = parseGlobalId(values.get(globalIdColumn));
+        if (globalId != null) {
+          records.add(new GlobalIdRecord(globalId, getValue(values, networkSourceColumn),
+            getValue(values, assetGroupColumn), getValue(values, assetTypeColumn)));
+        }
+      }
+      return records;
+    }
+
+    /**
+     * Reads the column indices from the first row if it is a header row.
+     *
+     * @param values the values of the first row
+     * @return true if the row is a header row, false otherwise
+     * @since 200.1.0
+     */
+    private boolean readHeader(List<String> values) {
+      var isHeader = false;
+      for (int i = 0; i < values.size(); i++) {
+        // match column names regardless of case, spaces and underscores
+        switch (values.get(i).replaceAll("[^A-Za-z]", "").toLowerCase(Locale.ROOT)) {
+          case "globalid":
+            globalIdColumn = i;
+            isHeader = true;
+            break;
+          case "networksource":
+            networkSourceColumn = i;
+            break;
+          case "assetgroup":
+            assetGroupColumn = i;
+            break;
+          case "assettype":
+            assetTypeColumn = i;
+            break;
+          default:
+            break;
+        }
+      }
+      if (!isHeader) {
+        networkSourceColumn = -1;
+        assetGroupColumn = -1;
+        assetTypeColumn = -1;
+      }
+      return isHeader;
+    }
+
+    /**
+     * Returns the value of a column.
+     *
+     * @param values the values of the row
+     * @param column the index of the column
+     * @return the trimmed value. Null if the column is not present or the value is empty
+     * @since 200.1.0
+     */
+    private static String getValue(List<String> values, int column) {
+      if (column < 0 || column >= values.size()) {
+        return null;
+      }
+      var value = values.get(column).trim();
+      return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Splits a CSV line into its values, handling quoted values.
+     *
+     * @param line the line to split
+     * @return the values
+     * @since 200.1.0
+     */
+    private static List<String> splitLine(String line) {
+      List<String> values = new ArrayList<>();
+      var value = new StringBuilder();
+      var isQuoted = false;
+      for (int i = 0; i < line.length(); i++) {
+        var c = line.charAt(i);
+        if (c == '"') {
+          if (isQuoted && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+            // an escaped quote within a quoted value
+            value.append(c);
+            i++;
+          } else {
+            isQuoted = !isQuoted;
+          }
+        } else if (c == ',' && !isQuoted) {
+          values.add(value.toString());
+          value.setLength(0);
+        } else if (c != '\uFEFF') {
+          value.append(c);
+        }
+      }
+      values.add(value.toString());
+      return values;
+    }
+  }
+
+  /**
+   * Reads global IDs from a GeoJSON file. The file is scanned for GlobalID properties rather than being parsed in
+   * full, so large files are not held in memory.
+   *
+   * @since 200.1.0
+   */
+  private static final class GeoJsonGlobalIdReader extends GlobalIdReader {
+
+    private final Scanner scanner;
+
+    private GeoJsonGlobalIdReader(Path file) throws IOException {
+      super(file);
+      scanner = new Scanner(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    List<GlobalIdRecord> read(int maxRecords) throws IOException {
+      List<GlobalIdRecord> records = new ArrayList<>();
+      while (records.size() < maxRecords && scanner.findWithinHorizon(GEOJSON_GLOBAL_ID_PATTERN, 0) != null) {
+        var globalId = parseGlobalId(scanner.match().group(1));
+        if (globalId != null) {
+          records.add(new GlobalIdRecord(globalId, null, null, null));
+        }
+      }
+      if (scanner.ioException() != null) {
+        throw scanner.ioException();
+      }
+      return records;
+    }
+
+    @Override
+    public void close() throws IOException {
+      scanner.close();
+      super.close();
+    }
+  }
+}
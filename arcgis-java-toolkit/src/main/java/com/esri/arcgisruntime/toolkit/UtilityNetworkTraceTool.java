@@ -16,23 +16,40 @@
 
 package com.esri.arcgisruntime.toolkit;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.CompletionException;
+import java.util.function.BiConsumer;
+import java.util.function.DoubleConsumer;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
 import com.esri.arcgisruntime.concurrent.ListenableFuture;
 import com.esri.arcgisruntime.data.ArcGISFeature;
-import com.esri.arcgisruntime.geometry.GeometryEngine;
+import com.esri.arcgisruntime.data.FeatureTable;
+import com.esri.arcgisruntime.geometry.MultipointBuilder;
 import com.esri.arcgisruntime.geometry.Point;
+import com.esri.arcgisruntime.geometry.Polygon;
 import com.esri.arcgisruntime.geometry.Polyline;
 import com.esri.arcgisruntime.layers.FeatureLayer;
-import com.esri.arcgisruntime.layers.LayerContent;
+import com.esri.arcgisruntime.layers.GroupLayer;
+import com.esri.arcgisruntime.layers.Layer;
 import com.esri.arcgisruntime.loadable.LoadStatus;
 import com.esri.arcgisruntime.mapping.ArcGISMap;
 import com.esri.arcgisruntime.mapping.Viewpoint;
@@ -47,29 +64,27 @@ import com.esri.arcgisruntime.symbology.SimpleMarkerSymbol;
 import com.esri.arcgisruntime.symbology.Symbol;
 import com.esri.arcgisruntime.toolkit.skins.UtilityNetworkTraceSkin;
 import com.esri.arcgisruntime.utilitynetworks.UtilityElement;
-import com.esri.arcgisruntime.utilitynetworks.UtilityElementTraceResult;
-import com.esri.arcgisruntime.utilitynetworks.UtilityFunctionTraceResult;
-import com.esri.arcgisruntime.utilitynetworks.UtilityGeometryTraceResult;
 import com.esri.arcgisruntime.utilitynetworks.UtilityMinimumStartingLocations;
 import com.esri.arcgisruntime.utilitynetworks.UtilityNamedTraceConfiguration;
 import com.esri.arcgisruntime.utilitynetworks.UtilityNetwork;
 import com.esri.arcgisruntime.utilitynetworks.UtilityNetworkSource;
-import com.esri.arcgisruntime.utilitynetworks.UtilityTerminal;
-import com.esri.arcgisruntime.utilitynetworks.UtilityTraceParameters;
-import com.esri.arcgisruntime.utilitynetworks.UtilityTraceResult;
 import javafx.application.Platform;
 import javafx.beans.NamedArg;
 import javafx.beans.binding.Bindings;
 import javafx.beans.property.ReadOnlyObjectProperty;
 import javafx.beans.property.ReadOnlyObjectWrapper;
 import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.property.SimpleDoubleProperty;
+import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleListProperty;
+import javafx.beans.property.SimpleLongProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 import javafx.geometry.Point2D;
 import javafx.scene.control.Control;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.Skin;
 import javafx.scene.input.MouseButton;
 import javafx.scene.input.MouseEvent;
@@ -83,6 +98,77 @@ import javafx.scene.paint.Color;
  */
 public class UtilityNetworkTraceTool extends Control {
 
+  /**
+   * The layers that are identified when the MapView is clicked to add starting points. The default is ALL_LAYERS.
+   *
+   * @since 200.1.0
+   */
+  public enum IdentifyMode {
+    /**
+     * Identify all layers in the map in a single request.
+     *
+     * @since 200.1.0
+     */
+    ALL_LAYERS,
+    /**
+     * Identify only the visible feature layers whose feature tables are network sources of the selected utility
+     * network, with one request per layer run in parallel. Basemaps and other operational layers are not identified.
+     *
+     * @since 200.1.0
+     */
+    UTILITY_NETWORK_LAYERS
+  }
+
+  /**
+   * The priority of the traces in a run. Queued interactive traces are always started before queued background
+   * traces.
+   *
+   * @since 200.1.0
+   */
+  public enum TracePriority {
+    /**
+     * Traces that a user is waiting for, such as those started with the Run button. Starting a new run of interactive
+     * traces supersedes the previous interactive run.
+     *
+     * @since 200.1.0
+     */
+    INTERACTIVE,
+    /**
+     * Traces run in the background, which only start once no interactive traces are queued and are not superseded by
+     * other runs.
+     *
+     * @since 200.1.0
+     */
+    BACKGROUND
+  }
+
+  /**
+   * How the element results of a trace are displayed on their feature layers when the result is selected. The default
+   * is SELECT_FEATURES.
+   *
+   * @since 200.1.0
+   */
+  public enum ResultDisplayMode {
+    /**
+     * Fetch the features of the element results and select them on their feature layers. The features are available
+     * from {@link UtilityNetworkTraceOperationResult#getFeatures()}.
+     *
+     * @since 200.1.0
+     */
+    SELECT_FEATURES,
+    /**
+     * Filter the feature layers of the element results to the element results, with a definition expression matching
+     * the object IDs of the elements, without fetching their features. This displays very large results in a fraction
+     * of the time and memory, but hides the other features of the layers while the result is selected, and the extent
+     * of the result only includes its geometry results. The original definition expression of each layer is combined
+     * with the filter, and restored when no selected result filters the layer. If the definition expression of a layer
+     * would be too long, the features of the results on that layer are selected instead and a warning is logged.
+     *
+     * @since 200.1.0
+     */
+    FILTER_LAYERS
+  }
+
   // properties with public accessors
   private final ReadOnlyObjectWrapper<MapView> mapViewProperty = new ReadOnlyObjectWrapper<>() {
     @Override
@@ -123,6 +209,86 @@ public class UtilityNetworkTraceTool extends Control {
       super.set(Objects.requireNonNull(newValue, "Symbol cannot be null"));
     }
   };
+  private final SimpleIntegerProperty maxConcurrentTracesProperty =
+    new SimpleIntegerProperty(DEFAULT_MAX_CONCURRENT_TRACES) {
+    @Override
+    public void set(int newValue) {
+      if (newValue < 1) {
+        throw new IllegalArgumentException("Max concurrent traces must be at least 1");
+      }
+      super.set(newValue);
+    }
+  };
+  private final SimpleLongProperty traceTimeoutProperty = new SimpleLongProperty(DEFAULT_TRACE_TIMEOUT) {
+    @Override
+    public void set(long newValue) {
+      if (newValue < 0) {
+        throw new IllegalArgumentException("Trace timeout cannot be negative");
+      }
+      super.set(newValue);
+    }
+  };
+  private final SimpleObjectProperty<ResultDisplayMode> resultDisplayModeProperty =
+    new SimpleObjectProperty<>(ResultDisplayMode.SELECT_FEATURES) {
+    @Override
+    public void set(ResultDisplayMode newValue) {
+      super.set(Objects.requireNonNull(newValue, "Result display mode cannot be null"));
+    }
+  };
+  private final SimpleIntegerProperty maxCachedTraceResultsProperty =
+    new SimpleIntegerProperty(DEFAULT_MAX_CACHED_TRACE_RESULTS) {
+    @Override
+    public void set(int newValue) {
+      if (newValue < 0) {
+        throw new IllegalArgumentException("Max cached trace results cannot be negative");
+      }
+      super.set(newValue);
+    }
+  };
+  private final SimpleIntegerProperty featureFetchBatchSizeProperty =
+    new SimpleIntegerProperty(DEFAULT_FEATURE_FETCH_BATCH_SIZE) {
+    @Override
+    public void set(int newValue) {
+      if (newValue < 1) {
+        throw new IllegalArgumentException("Feature fetch batch size must be at least 1");
+      }
+      super.set(newValue);
+    }
+  };
+  private final SimpleLongProperty traceHistoryMemoryBudgetProperty = new SimpleLongProperty(0) {
+    @Override
+    public void set(long newValue) {
+      if (newValue < 0) {
+        throw new IllegalArgumentException("Trace history memory budget cannot be negative");
+      }
+      super.set(newValue);
+    }
+  };
+  private final SimpleObjectProperty<IdentifyMode> identifyModeProperty =
+    new SimpleObjectProperty<>(IdentifyMode.ALL_LAYERS) {
+    @Override
+    public void set(IdentifyMode newValue) {
+      super.set(Objects.requireNonNull(newValue, "Identify mode cannot be null"));
+    }
+  };
+  private final SimpleDoubleProperty identifyToleranceProperty = new SimpleDoubleProperty(DEFAULT_IDENTIFY_TOLERANCE) {
+    @Override
+    public void set(double newValue) {
+      if (newValue < 0 || newValue > 100) {
+        throw new IllegalArgumentException("Identify tolerance must be between 0 and 100");
+      }
+      super.set(newValue);
+    }
+  };
+  private final SimpleIntegerProperty identifyMaxResultsProperty = new SimpleIntegerProperty(0) {
+    @Override
+    public void set(int newValue) {
+      if (newValue < 0) {
+        throw new IllegalArgumentException("Identify max results cannot be negative");
+      }
+      super.set(newValue);
+    }
+  };
   // internal properties
   private final SimpleListProperty<UtilityNetwork> utilityNetworksProperty =
     new SimpleListProperty<>(FXCollections.observableArrayList());
@@ -138,17 +304,56 @@ public class UtilityNetworkTraceTool extends Control {
   private final SimpleBooleanProperty aboveMinimumStartingPointsProperty = new SimpleBooleanProperty(false);
   private final SimpleBooleanProperty enableTraceProperty = new SimpleBooleanProperty(false);
   private final SimpleBooleanProperty isTraceInProgressProperty = new SimpleBooleanProperty(false);
+  private final SimpleDoubleProperty traceProgressProperty =
+    new SimpleDoubleProperty(ProgressIndicator.INDETERMINATE_PROGRESS);
   private final SimpleBooleanProperty isIdentifyInProgressProperty = new SimpleBooleanProperty(false);
+  private final SimpleBooleanProperty isTraceConfigurationsLoadingInProgressProperty = new SimpleBooleanProperty(false);
+  private final SimpleObjectProperty<UtilityNetworkTraceOperationResult> selectedTraceResultProperty =
+    new SimpleObjectProperty<>();
 
   private final GraphicsOverlay startingPointsGraphicsOverlay = new GraphicsOverlay();
-  private UtilityNetworkTraceOperationResult traceResultInProgress;
+  // the starting points keyed by network source, global ID and terminal, used to detect duplicates
+  private final Map<String, UtilityNetworkTraceStartingPoint> startingPointsIndex = new HashMap<>();
+  // the time spent identifying features and creating elements for the current starting points, which is added to the
+  // metrics of each trace run from them
+  private long startingPointsIdentifyNanos = 0;
+  private long startingPointsCreateElementNanos = 0;
+  // the interactive run in progress, whose progress is displayed, and any background runs in progress
+  private TraceRun traceRunInProgress;
+  private final List<TraceRun> backgroundTraceRuns = new ArrayList<>();
+  // trace requests waiting to start, ordered by priority and then by the order they were requested
+  private final PriorityQueue<TraceRequest> queuedTraceRequests = new PriorityQueue<>(
+    Comparator.comparing((TraceRequest request) -> request.priority).thenComparingLong(request -> request.order));
+  // queued and started trace requests by the fingerprint of their trace, so that identical requests are coalesced
+  private final Map<TraceRequestKey, TraceRequest> traceRequests = new HashMap<>();
+  private int traceRequestsInProgress = 0;
+  private long traceRequestCount = 0;
+  // true while results that were not traced, such as results restored from a saved session or diffs of results, are
+  // added, which are not reported as completed traces
+  private boolean isAddingUntracedResults = false;
+  // named trace configurations that have already been queried, cached per utility network until refresh is called
+  private final Map<UtilityNetwork, List<UtilityNamedTraceConfiguration>> traceConfigurationsCache = new HashMap<>();
+  // runs the traces and caches the data of recently run traces, so that identical traces can be displayed again
+  // without any requests
+  private final UtilityNetworkTraceEngine traceEngine = new UtilityNetworkTraceEngine();
+  // the trace results ordered by when they were last viewed, kept within the trace history memory budget
+  private final UtilityNetworkTraceHistory traceHistory =
+    new UtilityNetworkTraceHistory(0, traceEngine::discardCachedTrace);
+  // the definition expressions applied to feature layers by the results displayed with the FILTER_LAYERS display mode
+  private final UtilityNetworkTraceLayerFilter layerFilter = new UtilityNetworkTraceLayerFilter();
 
   // listenable futures for asynchronous methods so that they can be cancelled
-  private ListenableFuture<List<IdentifyLayerResult>> identifyLayersFuture;
-  private ListenableFuture<List<UtilityTraceResult>> traceInProgressFuture;
-  private ListenableFuture<List<ArcGISFeature>> fetchFeaturesForElementsFuture;
+  private CompletableFuture<List<IdentifyLayerResult>> identifyInProgressFuture;
+  private final List<ListenableFuture<?>> pendingIdentifyFutures = new ArrayList<>();
+  private ListenableFuture<List<UtilityNamedTraceConfiguration>> queryNamedTraceConfigurationsFuture;
+  private final List<CompletableFuture<?>> pendingRestoredFeatureFutures = new ArrayList<>();
 
   private static final String DEFAULT_STYLE_CLASS = "utility-network-view";
+  private static final int DEFAULT_MAX_CONCURRENT_TRACES = 4;
+  private static final long DEFAULT_TRACE_TIMEOUT = 300_000;
+  private static final int DEFAULT_MAX_CACHED_TRACE_RESULTS = 10;
+  private static final int DEFAULT_FEATURE_FETCH_BATCH_SIZE = 1000;
+  private static final double DEFAULT_IDENTIFY_TOLERANCE = 10;
 
   /**
    * Creates a UtilityNetworkTrace for the provided MapView.
@@ -178,63 +383,101 @@ public class UtilityNetworkTraceTool extends Control {
     selectedUtilityNetworkProperty.addListener(((observable, oldValue, newValue) -> {
       resetNewTraceConfigurationProperties();
       if (newValue != null) {
-        try {
-          // query named trace configurations for the newly selected utility network
-          ObservableList<UtilityNamedTraceConfiguration> traceConfigs = FXCollections.observableArrayList(
-            selectedUtilityNetworkProperty.get().queryNamedTraceConfigurationsAsync(null).get(30 ,TimeUnit.SECONDS));
-          traceConfigurationsProperty.set(traceConfigs);
-          traceConfigurationsProperty.sort(Comparator.comparing(UtilityNamedTraceConfiguration::getName));
-          if (!traceConfigurationsProperty.isEmpty()) {
-            // select the first trace configuration by default
-            selectedTraceConfigurationProperty.set(traceConfigurationsProperty.get(0));
-          }
-        } catch (Exception e) {
-          // if there is any other Exception while setting up the named trace configurations, display a warning and the
-          // exception message
-          displayLoggerWarning("Could not load Utility Named Trace Configurations.\n" + e.getMessage());
-          // ensure data is reset
-          traceConfigurationsProperty.clear();
-          selectedTraceConfigurationProperty.set(null);
-        }
+        // query named trace configurations for the newly selected utility network
+        loadTraceConfigurationsAsync(newValue);
       }
     }));
 
+    // start queued traces if more traces are allowed to run at the same time
+    maxConcurrentTracesProperty.addListener((observable, oldValue, newValue) -> startQueuedTraceRequests());
+
+    // listeners for changes to the properties of the trace engine
+    maxCachedTraceResultsProperty.addListener(
+      (observable, oldValue, newValue) -> traceEngine.setMaxCachedTraceResults(newValue.intValue()));
+    featureFetchBatchSizeProperty.addListener(
+      (observable, oldValue, newValue) -> traceEngine.setFeatureFetchBatchSize(newValue.intValue()));
+
+    // listener for changes to the trace history memory budget property
+    traceHistoryMemoryBudgetProperty.addListener((observable, oldValue, newValue) -> {
+      traceHistory.setMemoryBudget(newValue.longValue());
+      traceHistory.enforceBudget(selectedTraceResultProperty.get());
+    });
+
     // listener for changes to the selected trace configuration property
     selectedTraceConfigurationProperty.addListener(((observable, oldValue, newValue) -> applyStartingPointWarnings()));
 
     // listener for changes to the list of starting points
     startingPointsProperty.addListener((ListChangeListener<UtilityNetworkTraceStartingPoint>) c -> {
       while (c.next()) {
+        // when starting points are removed, remove them from the index and the graphics overlay
+        List<Graphic> removedGraphics = new ArrayList<>();
         for (UtilityNetworkTraceStartingPoint removedStartingPoint : c.getRemoved()) {
-          // when a starting point is removed, remove from the graphics overlay
-          startingPointsGraphicsOverlay.getGraphics().remove(removedStartingPoint.getGraphic());
-          applyStartingPointWarnings();
+          var key = UtilityNetworkTraceEngine.createStartingPointKey(removedStartingPoint.getUtilityElement());
+          if (!startingPointsIndex.remove(key, removedStartingPoint)) {
+            // the terminal of the starting point has changed since it was indexed
+            startingPointsIndex.values().remove(removedStartingPoint);
+          }
+          removedGraphics.add(removedStartingPoint.getGraphic());
         }
+        startingPointsGraphicsOverlay.getGraphics().removeAll(removedGraphics);
+        // when starting points are added, add them to the index and the graphics overlay
+        List<Graphic> addedGraphics = new ArrayList<>();
         for (UtilityNetworkTraceStartingPoint addedStartingPoint : c.getAddedSubList()) {
-          // when a starting point is added, add to the graphics overlay
-          startingPointsGraphicsOverlay.getGraphics().add(addedStartingPoint.getGraphic());
-          applyStartingPointWarnings();
+          startingPointsIndex.put(
+            UtilityNetworkTraceEngine.createStartingPointKey(addedStartingPoint.getUtilityElement()), addedStartingPoint);
+          addedGraphics.add(addedStartingPoint.getGraphic());
         }
+        startingPointsGraphicsOverlay.getGraphics().addAll(addedGraphics);
       }
+      if (startingPointsProperty.isEmpty()) {
+        startingPointsIdentifyNanos = 0;
+        startingPointsCreateElementNanos = 0;
+      }
+      applyStartingPointWarnings();
     });
 
     // listener for changes to the list of trace results
     traceResultsProperty.addListener((ListChangeListener<UtilityNetworkTraceOperationResult>) c -> {
       while (c.next()) {
         for (UtilityNetworkTraceOperationResult addedResult : c.getAddedSubList()) {
+          // a new result is treated as the most recently viewed result
+          traceHistory.add(addedResult);
+          if (isAddingUntracedResults) {
+            continue;
+          }
           // when a result is added, set it to the completed trace property
           completedTraceProperty.set(
             new UtilityNetworkTraceToolCompletedTrace(
               addedResult.getRawResults(),
               addedResult.getException(),
-              addedResult.getTraceParameters()));
+              addedResult.getTraceParameters(),
+              addedResult.getMetrics()));
         }
         for (UtilityNetworkTraceOperationResult removedResult : c.getRemoved()) {
           // when a result is removed, unselect the features and remove graphics from the MapView's graphics overlay
           removedResult.selectResultFeatures(false);
           mapView.getGraphicsOverlays().remove(removedResult.getResultsGraphicsOverlay());
+          traceHistory.remove(removedResult);
         }
       }
+      traceHistory.enforceBudget(selectedTraceResultProperty.get());
+    });
+
+    // listener for changes to the selected trace result
+    selectedTraceResultProperty.addListener((observable, oldValue, newValue) -> {
+      if (newValue != null) {
+        // restore the geometry results of a result evicted from the trace history
+        traceHistory.markViewed(newValue);
+      }
+      if (newValue != null && newValue.areFeaturesPending()) {
+        // the check is deferred, as the tab of each restored result is briefly selected as it is added, and only the
+        // features of the result that is still selected afterwards should be fetched
+        Platform.runLater(() -> {
+          if (selectedTraceResultProperty.get() == newValue) {
+            fetchPendingFeatures(newValue);
+          }
+        });
+      }
     });
 
     // listener for the starting points symbol property
@@ -273,14 +516,29 @@ public class UtilityNetworkTraceTool extends Control {
     skin.aboveMinimumStartingPointsProperty.bind(aboveMinimumStartingPointsProperty);
     skin.enableTraceProperty.bind(enableTraceProperty);
     skin.isTraceInProgressProperty.bind(isTraceInProgressProperty);
+    skin.traceProgressProperty.bind(traceProgressProperty);
     skin.isIdentifyInProgressProperty.bind(isIdentifyInProgressProperty);
+    skin.isTraceConfigurationsLoadingInProgressProperty.bind(isTraceConfigurationsLoadingInProgressProperty);
     skin.isMapAndUtilityNetworkLoadingInProgressProperty.bind(isMapAndUtilityNetworkLoadingInProgressProperty);
+    selectedTraceResultProperty.bind(skin.selectedTraceResultProperty);
     // configure actions requiring internal methods
-    skin.setRunTraceEventHandler(event -> runTraceAsync(
-      Objects.equals(skin.traceNameProperty.get(), "") ? skin.getDefaultTraceName() : skin.traceNameProperty.get()));
+    skin.setRunTraceEventHandler(event -> {
+      if (skin.isRunningMultipleTraceConfigurationsProperty.get()) {
+        runTracesAsync(new ArrayList<>(skin.checkedTraceConfigurationsProperty));
+      } else {
+        runTraceAsync(
+          Objects.equals(skin.traceNameProperty.get(), "") ? skin.getDefaultTraceName() : skin.traceNameProperty.get());
+      }
+    });
     skin.setCancelIdentifyStartingPointsEventHandler(e -> cancelIdentifyLayers());
     skin.setCancelTraceEventHandler(e -> cancelTrace());
     skin.setClearResultsEventHandler(e -> resetTraceResults());
+    skin.setCreateResultViewHandler((result, createResultView) -> {
+      var buildViewEvent =
+        UtilityNetworkTracePhase.beginPhase(UtilityNetworkTraceMetrics.Phase.BUILD_VIEW, result.getName());
+      createResultView.run();
+      result.getMetrics().endPhase(buildViewEvent, result.getElementResults().size(), result.getFeatures().size());
+    });
     return skin;
   }
 
@@ -524,6 +782,316 @@ public class UtilityNetworkTraceTool extends Control {
     resultFillSymbolProperty.set(simpleFillSymbol);
   }
 
+  /**
+   * Property that determines the maximum number of traces that run at the same time when multiple trace
+   * configurations are run via {@link #runTracesAsync(List)}. Defaults to 4.
+   *
+   * @return the maxConcurrentTraces property
+   * @since 200.1.0
+   */
+  public SimpleIntegerProperty maxConcurrentTracesProperty() {
+    return maxConcurrentTracesProperty;
+  }
+
+  /**
+   * Gets the maximum number of traces that run at the same time.
+   *
+   * @return the maximum number of concurrent traces
+   * @since 200.1.0
+   */
+  public int getMaxConcurrentTraces() {
+    return maxConcurrentTracesProperty.get();
+  }
+
+  /**
+   * Sets the maximum number of traces that run at the same time.
+   *
+   * @param maxConcurrentTraces the maximum number of concurrent traces
+   * @throws IllegalArgumentException if maxConcurrentTraces is less than 1
+   * @since 200.1.0
+   */
+  public void setMaxConcurrentTraces(int maxConcurrentTraces) {
+    maxConcurrentTracesProperty.set(maxConcurrentTraces);
+  }
+
+  /**
+   * Property that determines the time in milliseconds that a trace and the fetch of its features must complete within.
+   * A trace that does not complete in time is cancelled, and its result is added with a
+   * {@link java.util.concurrent.TimeoutException} and any features fetched so far. The timeout applies to traces
+   * requested after it is set. Set to 0 for no timeout. Defaults to 300000, which is 5 minutes.
+   *
+   * @return the traceTimeout property
+   * @since 200.1.0
+   */
+  public SimpleLongProperty traceTimeoutProperty() {
+    return traceTimeoutProperty;
+  }
+
+  /**
+   * Gets the time in milliseconds that a trace and the fetch of its features must complete within.
+   *
+   * @return the trace timeout in milliseconds. 0 if there is no timeout
+   * @since 200.1.0
+   */
+  public long getTraceTimeout() {
+    return traceTimeoutProperty.get();
+  }
+
+  /**
+   * Sets the time in milliseconds that a trace and the fetch of its features must complete within.
+   *
+   * @param traceTimeout the trace timeout in milliseconds. 0 for no timeout
+   * @throws IllegalArgumentException if traceTimeout is negative
+   * @since 200.1.0
+   */
+  public void setTraceTimeout(long traceTimeout) {
+    traceTimeoutProperty.set(traceTimeout);
+  }
+
+  /**
+   * Property that determines how the element results of traces are displayed on their feature layers. With
+   * FILTER_LAYERS, the features of the element results are not fetched. The mode applies to traces requested after it
+   * is set, and an identical trace that is already queued or in progress is shared with its display mode. Defaults to
+   * SELECT_FEATURES.
+   *
+   * @return the resultDisplayMode property
+   * @since 200.1.0
+   */
+  public SimpleObjectProperty<ResultDisplayMode> resultDisplayModeProperty() {
+    return resultDisplayModeProperty;
+  }
+
+  /**
+   * Gets how the element results of traces are displayed on their feature layers.
+   *
+   * @return the result display mode
+   * @since 200.1.0
+   */
+  public ResultDisplayMode getResultDisplayMode() {
+    return resultDisplayModeProperty.get();
+  }
+
+  /**
+   * Sets how the element results of traces are displayed on their feature layers.
+   *
+   * @param resultDisplayMode the result display mode
+   * @throws NullPointerException if resultDisplayMode is null
+   * @since 200.1.0
+   */
+  public void setResultDisplayMode(ResultDisplayMode resultDisplayMode) {
+    resultDisplayModeProperty.set(resultDisplayMode);
+  }
+
+  /**
+   * Property that determines the maximum number of traces whose results are cached. When a trace is run with the same
+   * utility network, named trace configuration and starting points as a cached trace, its result is created from the
+   * cached data without running the trace or fetching features again. The least recently used traces are evicted
+   * first. Set to 0 to disable caching. Defaults to 10.
+   *
+   * @return the maxCachedTraceResults property
+   * @since 200.1.0
+   */
+  public SimpleIntegerProperty maxCachedTraceResultsProperty() {
+    return maxCachedTraceResultsProperty;
+  }
+
+  /**
+   * Gets the maximum number of traces whose results are cached.
+   *
+   * @return the maximum number of cached traces
+   * @since 200.1.0
+   */
+  public int getMaxCachedTraceResults() {
+    return maxCachedTraceResultsProperty.get();
+  }
+
+  /**
+   * Sets the maximum number of traces whose results are cached.
+   *
+   * @param maxCachedTraceResults the maximum number of cached traces. 0 disables caching
+   * @throws IllegalArgumentException if maxCachedTraceResults is negative
+   * @since 200.1.0
+   */
+  public void setMaxCachedTraceResults(int maxCachedTraceResults) {
+    maxCachedTraceResultsProperty.set(maxCachedTraceResults);
+  }
+
+  /**
+   * Property that determines the maximum number of utility elements whose features are fetched in a single request
+   * after a trace. The features of large element results are fetched in batches, grouped by network source, and each
+   * batch is selected on the map as soon as it arrives. Defaults to 1000.
+   *
+   * @return the featureFetchBatchSize property
+   * @since 200.1.0
+   */
+  public SimpleIntegerProperty featureFetchBatchSizeProperty() {
+    return featureFetchBatchSizeProperty;
+  }
+
+  /**
+   * Gets the maximum number of utility elements whose features are fetched in a single request.
+   *
+   * @return the feature fetch batch size
+   * @since 200.1.0
+   */
+  public int getFeatureFetchBatchSize() {
+    return featureFetchBatchSizeProperty.get();
+  }
+
+  /**
+   * Sets the maximum number of utility elements whose features are fetched in a single request.
+   *
+   * @param featureFetchBatchSize the feature fetch batch size
+   * @throws IllegalArgumentException if featureFetchBatchSize is less than 1
+   * @since 200.1.0
+   */
+  public void setFeatureFetchBatchSize(int featureFetchBatchSize) {
+    featureFetchBatchSizeProperty.set(featureFetchBatchSize);
+  }
+
+  /**
+   * Property that determines the approximate heap memory, in bytes, that the trace results may use. When the
+   * estimated memory usage of the results is above the budget, the least recently viewed results are evicted: their
+   * features and raw results are released and their geometry results are spilled to a temporary file, leaving their
+   * element results, extent and summary. The result being viewed and the most recent result are never evicted.
+   * Selecting the tab of an evicted result restores its geometry results and fetches its features again. Set to 0 for
+   * no budget. Defaults to 0.
+   *
+   * @return the traceHistoryMemoryBudget property
+   * @since 200.1.0
+   */
+  public SimpleLongProperty traceHistoryMemoryBudgetProperty() {
+    return traceHistoryMemoryBudgetProperty;
+  }
+
+  /**
+   * Gets the approximate heap memory, in bytes, that the trace results may use.
+   *
+   * @return the trace history memory budget. 0 if there is no budget
+   * @since 200.1.0
+   */
+  public long getTraceHistoryMemoryBudget() {
+    return traceHistoryMemoryBudgetProperty.get();
+  }
+
+  /**
+   * Sets the approximate heap memory, in bytes, that the trace results may use.
+   *
+   * @param traceHistoryMemoryBudget the trace history memory budget. 0 for no budget
+   * @throws IllegalArgumentException if traceHistoryMemoryBudget is negative
+   * @since 200.1.0
+   */
+  public void setTraceHistoryMemoryBudget(long traceHistoryMemoryBudget) {
+    traceHistoryMemoryBudgetProperty.set(traceHistoryMemoryBudget);
+  }
+
+  /**
+   * Property that determines which layers are identified when the MapView is clicked to add starting points. Defaults
+   * to {@link IdentifyMode#ALL_LAYERS}.
+   *
+   * @return the identifyMode property
+   * @since 200.1.0
+   */
+  public SimpleObjectProperty<IdentifyMode> identifyModeProperty() {
+    return identifyModeProperty;
+  }
+
+  /**
+   * Gets the mode that determines which layers are identified when adding starting points.
+   *
+   * @return the identify mode
+   * @since 200.1.0
+   */
+  public IdentifyMode getIdentifyMode() {
+    return identifyModeProperty.get();
+  }
+
+  /**
+   * Sets the mode that determines which layers are identified when adding starting points.
+   *
+   * @param identifyMode the identify mode
+   * @throws NullPointerException if identifyMode is null
+   * @since 200.1.0
+   */
+  public void setIdentifyMode(IdentifyMode identifyMode) {
+    identifyModeProperty.set(identifyMode);
+  }
+
+  /**
+   * Property that determines the tolerance, in device-independent pixels, around the clicked point that is identified
+   * when adding starting points. Defaults to 10.
+   *
+   * @return the identifyTolerance property
+   * @since 200.1.0
+   */
+  public SimpleDoubleProperty identifyToleranceProperty() {
+    return identifyToleranceProperty;
+  }
+
+  /**
+   * Gets the tolerance around the clicked point that is identified when adding starting points.
+   *
+   * @return the identify tolerance in device-independent pixels
+   * @since 200.1.0
+   */
+  public double getIdentifyTolerance() {
+    return identifyToleranceProperty.get();
+  }
+
+  /**
+   * Sets the tolerance around the clicked point that is identified when adding starting points.
+   *
+   * @param identifyTolerance the identify tolerance in device-independent pixels
+   * @throws IllegalArgumentException if identifyTolerance is not between 0 and 100
+   * @since 200.1.0
+   */
+  public void setIdentifyTolerance(double identifyTolerance) {
+    identifyToleranceProperty.set(identifyTolerance);
+  }
+
+  /**
+   * Property that determines the maximum number of features identified per layer when adding starting points. Set to 0
+   * for no limit. Defaults to 0.
+   *
+   * @return the identifyMaxResults property
+   * @since 200.1.0
+   */
+  public SimpleIntegerProperty identifyMaxResultsProperty() {
+    return identifyMaxResultsProperty;
+  }
+
+  /**
+   * Gets the maximum number of features identified per layer when adding starting points.
+   *
+   * @return the maximum number of results per layer. 0 if there is no limit
+   * @since 200.1.0
+   */
+  public int getIdentifyMaxResults() {
+    return identifyMaxResultsProperty.get();
+  }
+
+  /**
+   * Sets the maximum number of features identified per layer when adding starting points.
+   *
+   * @param identifyMaxResults the maximum number of results per layer. 0 for no limit
+   * @throws IllegalArgumentException if identifyMaxResults is negative
+   * @since 200.1.0
+   */
+  public void setIdentifyMaxResults(int identifyMaxResults) {
+    identifyMaxResultsProperty.set(identifyMaxResults);
+  }
+
+  /**
+   * Discards the cached results of previous traces, so that the next trace is run against the utility network again.
+   * This should be called after the utility network has been edited, as the cached results may no longer reflect the
+   * data. The cache is also cleared by {@link #refresh()}.
+   *
+   * @since 200.1.0
+   */
+  public void clearTraceResultCache() {
+    traceEngine.clearTraceResultCache();
+  }
+
   /**
    * Gets any UtilityNetworks from the ArcGIS Map attached to the MapView. The ArcGIS Map must be loaded in order to
    * access the Utility Network data. In addition, the Utility Networks are loaded before setting to the relevant
@@ -568,7 +1136,7 @@ public class UtilityNetworkTraceTool extends Control {
               // when all futures complete, set the data to the utility networks property
               utilityNetworksProperty.set(utilityNetworksFromMap);
               isMapAndUtilityNetworkLoadingInProgressProperty.set(false);
-            });
+            }, ToolkitExecutors.getFxExecutor());
           } else {
             displayLoggerWarning("There are no Utility Networks associated with the ArcGIS Map attached " +
               "to the MapView. UtilityNetworkTrace.refresh() can be used to reload.");
@@ -590,13 +1158,80 @@ public class UtilityNetworkTraceTool extends Control {
     }
   }
 
+  /**
+   * Queries the named trace configurations for the provided utility network and sets them to the relevant properties
+   * once the query completes. Configurations that have already been queried for the utility network are reused
+   * from the cache without querying again.
+   *
+   * @param utilityNetwork the utility network to load the named trace configurations for
+   * @since 200.1.0
+   */
+  private void loadTraceConfigurationsAsync(UtilityNetwork utilityNetwork) {
+    var cachedTraceConfigurations = traceConfigurationsCache.get(utilityNetwork);
+    if (cachedTraceConfigurations != null) {
+      // the configurations for this utility network have already been queried
+      setTraceConfigurations(cachedTraceConfigurations);
+      return;
+    }
+
+    isTraceConfigurationsLoadingInProgressProperty.set(true);
+    var future = utilityNetwork.queryNamedTraceConfigurationsAsync(null);
+    queryNamedTraceConfigurationsFuture = future;
+    future.addDoneListener(() -> {
+      try {
+        List<UtilityNamedTraceConfiguration> traceConfigurations = future.get();
+        traceConfigurationsCache.put(utilityNetwork, traceConfigurations);
+        // ignore the result if a different utility network has been selected in the meantime
+        if (selectedUtilityNetworkProperty.get() == utilityNetwork) {
+          setTraceConfigurations(traceConfigurations);
+        }
+      } catch (CancellationException e) {
+        // cancelled queries are ignored
+      } catch (Exception e) {
+        // if there is any other Exception while setting up the named trace configurations, display a warning and the
+        // exception message
+        displayLoggerWarning("Could not load Utility Named Trace Configurations.\n" + e.getMessage());
+        // ensure data is reset
+        traceConfigurationsProperty.clear();
+        selectedTraceConfigurationProperty.set(null);
+      } finally {
+        // only reset the data if a newer query has not been started
+        if (queryNamedTraceConfigurationsFuture == future) {
+          queryNamedTraceConfigurationsFuture = null;
+          isTraceConfigurationsLoadingInProgressProperty.set(false);
+        }
+      }
+    });
+  }
+
+  /**
+   * Sets the provided named trace configurations to the trace configurations property, sorted by name, and selects
+   * the first configuration by default.
+   *
+   * @param traceConfigurations the named trace configurations to set
+   * @since 200.1.0
+   */
+  private void setTraceConfigurations(List<UtilityNamedTraceConfiguration> traceConfigurations) {
+    ObservableList<UtilityNamedTraceConfiguration> traceConfigs =
+      FXCollections.observableArrayList(traceConfigurations);
+    traceConfigs.sort(Comparator.comparing(UtilityNamedTraceConfiguration::getName));
+    traceConfigurationsProperty.set(traceConfigs);
+    if (!traceConfigurationsProperty.isEmpty()) {
+      // select the first trace configuration by default
+      selectedTraceConfigurationProperty.set(traceConfigurationsProperty.get(0));
+    }
+  }
+
   /**
    * Resets the data on the existing UtilityNetworkTrace. For example, if the ArcGISMap attached
-   * to the MapView is updated, the data can be reloaded. Relevant properties will also be reset.
+   * to the MapView is updated, the data can be reloaded. Relevant properties will also be reset. Any cached named
+   * trace configurations and cached trace results are discarded.
    *
    * @since 100.15.0
    */
   public void refresh() {
+    traceConfigurationsCache.clear();
+    traceEngine.clearTraceResultCache();
     selectedUtilityNetworkProperty.set(null);
     utilityNetworksProperty.clear();
     resetNewTraceConfigurationProperties();
@@ -607,11 +1242,14 @@ public class UtilityNetworkTraceTool extends Control {
 
   /**
    * Resets all data relating to trace results. Removes all result graphics overlays from the MapView, clears the last
-   * completed trace property, and clears the list of results.
+   * completed trace property, clears the list of results and deletes the geometry results spilled by the trace history.
    *
    * @since 100.15.0
    */
   private void resetTraceResults() {
+    // copy the list as cancelling a future removes it from the list via its done listener
+    new ArrayList<>(pendingRestoredFeatureFutures).forEach(future -> future.cancel(true));
+    pendingRestoredFeatureFutures.clear();
     var mapViewGraphicsOverlay = getMapView().getGraphicsOverlays();
     traceResultsProperty.forEach(result -> {
       result.selectResultFeatures(false);
@@ -619,6 +1257,8 @@ public class UtilityNetworkTraceTool extends Control {
     });
     completedTraceProperty.set(null);
     traceResultsProperty.clear();
+    // the removed results have deleted their spill files, so the spill directory of the history can be deleted too
+    traceHistory.clear();
   }
 
   /**
@@ -628,29 +1268,21 @@ public class UtilityNetworkTraceTool extends Control {
    * @since 100.15.0
    */
   private void resetNewTraceConfigurationProperties() {
-    if (traceInProgressFuture != null) {
-      traceInProgressFuture.cancel(true);
-    }
-    traceInProgressFuture = null;
-    if (fetchFeaturesForElementsFuture != null) {
-      fetchFeaturesForElementsFuture.cancel(true);
-    }
-    fetchFeaturesForElementsFuture = null;
-
-    isTraceInProgressProperty.set(false);
-    isIdentifyInProgressProperty.set(false);
+    cancelTrace();
+    new ArrayList<>(backgroundTraceRuns).forEach(TraceRun::cancel);
+    cancelIdentifyLayers();
 
-    if (identifyLayersFuture != null) {
-      identifyLayersFuture.cancel(true);
+    if (queryNamedTraceConfigurationsFuture != null) {
+      queryNamedTraceConfigurationsFuture.cancel(true);
     }
-    identifyLayersFuture = null;
+    queryNamedTraceConfigurationsFuture = null;
+    isTraceConfigurationsLoadingInProgressProperty.set(false);
 
     selectedTraceConfigurationProperty.set(null);
     traceConfigurationsProperty.set(FXCollections.observableArrayList());
 
     startingPointsProperty.clear();
     startingPointsGraphicsOverlay.getGraphics().clear();
-    traceResultInProgress = null;
     applyStartingPointWarnings();
   }
 
@@ -699,75 +1331,385 @@ public class UtilityNetworkTraceTool extends Control {
    */
   public void addStartingPoint(ArcGISFeature feature, Point startingPointLocation) {
     Objects.requireNonNull(feature);
-    if (selectedUtilityNetworkProperty != null) {
-      var geometry = feature.getGeometry();
-      UtilityElement utilityElement = null;
+    var startingPoint = createStartingPoint(feature, startingPointLocation, Collections.emptySet());
+    if (startingPoint != null) {
+      startingPointsProperty.add(startingPoint);
+    }
+  }
+
+  /**
+   * Adds starting points to be used for a trace from the provided features.
+   *
+   * <p>
+   * This is equivalent to calling {@link #addStartingPoint(ArcGISFeature)} for each feature, but the starting points
+   * are added to the list in a single change, so the map and UI are only updated once. Use this method when adding
+   * large numbers of starting points, such as the features of a work order.
+   *
+   * <p>
+   * Features that are not part of the selected utility network, or that duplicate an existing starting point or
+   * another feature in the collection, are ignored.
+   *
+   * @param features the features to use as the basis for the starting points
+   * @return the number of starting points added
+   * @throws NullPointerException if features or any of the features is null
+   * @since 200.1.0
+   */
+  public int addStartingPoints(Collection<ArcGISFeature> features) {
+    Objects.requireNonNull(features);
+    List<UtilityNetworkTraceStartingPoint> startingPoints = new ArrayList<>();
+    Set<String> addedKeys = new HashSet<>();
+    for (ArcGISFeature feature : features) {
+      Objects.requireNonNull(feature);
+      var startingPoint = createStartingPoint(feature, null, addedKeys);
+      if (startingPoint != null) {
+        startingPoints.add(startingPoint);
+        addedKeys.add(UtilityNetworkTraceEngine.createStartingPointKey(startingPoint.getUtilityElement()));
+      }
+    }
+    if (!startingPoints.isEmpty()) {
+      startingPointsProperty.addAll(startingPoints);
+    }
+    return startingPoints.size();
+  }
+
+  /**
+   * Imports starting points from a file listing the global IDs of utility network features, such as an isolation work
+   * order.
+   *
+   * <p>
+   * The file is read in batches of {@link #getFeatureFetchBatchSize()} global IDs, and the starting points of each batch
+   * are added to the list in a single change as soon as the batch is resolved. The following formats are supported:
+   * <ul>
+   *   <li>CSV files (.csv), with a header row containing a GlobalID column and optional NetworkSource, AssetGroup and
+   *   AssetType columns, or without a header row where the first column contains the global IDs</li>
+   *   <li>GeoJSON files (.geojson or .json), where each feature has a GlobalID property</li>
+   * </ul>
+   *
+   * <p>
+   * Where the network source, asset group and asset type names are provided, the utility elements are created directly
+   * and only their features are fetched. Otherwise the feature tables of the network sources are queried for the
+   * global IDs. Global IDs that cannot be parsed or resolved, and duplicates of existing starting points, are ignored.
+   *
+   * <p>
+   * The import can be cancelled by cancelling the returned future.
+   *
+   * @param file the file to import
+   * @param onProgress called with the fraction of the file that has been imported, between 0 and 1. Can be null
+   * @return a completable future that completes with the number of starting points added, or completes exceptionally
+   * if no utility network is selected or the file cannot be read
+   * @throws NullPointerException if file is null
+   * @since 200.1.0
+   */
+  public CompletableFuture<Integer> importStartingPointsAsync(Path file, DoubleConsumer onProgress) {
+    Objects.requireNonNull(file, "File cannot be null");
+    var selectedUtilityNetwork = selectedUtilityNetworkProperty.get();
+    if (selectedUtilityNetwork == null) {
+      return CompletableFuture.failedFuture(new IllegalArgumentException("No Utility Network Selected."));
+    }
+    var importer = new UtilityNetworkTraceStartingPointImporter(selectedUtilityNetwork, getFeatureFetchBatchSize(),
+      this::addStartingPoints, onProgress != null ? onProgress : progress -> {});
+    return importer.importAsync(file);
+  }
+
+  /**
+   * Saves the current trace results to a file, replacing the file if it already exists, so that they can be restored
+   * with {@link #loadTraceResultsAsync(Path)}, for example after the application is restarted.
+   *
+   * <p>
+   * The file is a compact binary file that holds each result's name, visualization color, trace parameters, element
+   * identifiers, warnings, function results and geometry results. Features are not saved, and are fetched again when a
+   * restored result is viewed.
+   *
+   * <p>
+   * The data of the results is captured when this is called, and the file is then written on a background thread.
+   *
+   * @param file the file to save to
+   * @return a completable future that completes when the file has been written, or completes exceptionally if the
+   * results cannot be saved
+   * @throws NullPointerException if file is null
+   * @since 200.1.0
+   */
+  public CompletableFuture<Void> saveTraceResultsAsync(Path file) {
+    Objects.requireNonNull(file, "File cannot be null");
+    List<UtilityNetworkTraceSessionFile.SavedResult> savedResults = new ArrayList<>();
+    try {
+      for (UtilityNetworkTraceOperationResult result : traceResultsProperty) {
+        savedResults.add(UtilityNetworkTraceSessionFile.capture(result));
+      }
+    } catch (Exception e) {
+      return CompletableFuture.failedFuture(e);
+    }
+    CompletableFuture<Void> saveFuture = new CompletableFuture<>();
+    CompletableFuture.runAsync(() -> {
+      try {
+        UtilityNetworkTraceSessionFile.write(file, savedResults);
+      } catch (IOException e) {
+        throw new CompletionException(e);
+      }
+    }, ToolkitExecutors.getExecutor()).whenComplete((v, exception) -> {
+      if (exception != null) {
+        // complete with the original exception rather than the completion exception wrapping it
+        saveFuture.completeExceptionally(
+          exception instanceof CompletionException && exception.getCause() != null ? exception.getCause() : exception);
+      } else {
+        saveFuture.complete(null);
+      }
+    });
+    return saveFuture;
+  }
 
+  /**
+   * Restores trace results saved with {@link #saveTraceResultsAsync(Path)} and adds them to the trace results.
+   *
+   * <p>
+   * The file is read on a background thread, and the results are then added with their graphics and element results,
+   * so that their tabs reappear straight away. The features of a restored result are only fetched when its tab is
+   * first selected. Results are restored to the utility network of the same name, which must be loaded, and results
+   * whose utility network is not found are skipped with a warning. The trace parameters of a restored result use its
+   * named trace configuration if the configurations of the utility network have already been queried, and otherwise
+   * only the trace type and starting points.
+   *
+   * @param file the file to restore from
+   * @return a completable future that completes with the restored results, or completes exceptionally if the file
+   * cannot be read
+   * @throws NullPointerException if file is null
+   * @since 200.1.0
+   */
+  public CompletableFuture<List<UtilityNetworkTraceOperationResult>> loadTraceResultsAsync(Path file) {
+    Objects.requireNonNull(file, "File cannot be null");
+    CompletableFuture<List<UtilityNetworkTraceOperationResult>> resultsFuture = new CompletableFuture<>();
+    CompletableFuture.supplyAsync(() -> {
+      try {
+        return UtilityNetworkTraceSessionFile.read(file);
+      } catch (IOException e) {
+        throw new CompletionException(e);
+      }
+    }, ToolkitExecutors.getExecutor()).whenCompleteAsync((savedResults, exception) -> {
+      if (exception != null) {
+        // complete with the original exception rather than the completion exception wrapping it
+        resultsFuture.completeExceptionally(
+          exception instanceof CompletionException && exception.getCause() != null ? exception.getCause() : exception);
+        return;
+      }
       try {
-        utilityElement = selectedUtilityNetworkProperty.get().createElement(feature);
+        resultsFuture.complete(restoreTraceResults(savedResults));
       } catch (Exception e) {
-        // if a feature does not belong to the selected utility network it is ignored
+        resultsFuture.completeExceptionally(e);
       }
+    }, ToolkitExecutors.getFxExecutor());
+    return resultsFuture;
+  }
 
-      if (utilityElement != null) {
-        // check if the starting point already exists
-        var startingPointAlreadyExists = false;
-        var utilityElementId = utilityElement.getObjectId();
-        for (UtilityNetworkTraceStartingPoint startingPoint : startingPointsProperty) {
-          if (startingPoint.getUtilityElement().getObjectId() == utilityElementId) {
-            startingPointAlreadyExists = true;
-          }
+  /**
+   * Adds a trace result that shows the differences between the element results of two trace results, such as the
+   * results of an isolation trace before and after a device is switched.
+   *
+   * <p>
+   * Elements are compared by network source and object ID, and the added and removed elements become the element
+   * results of the new result, which is added to the trace results with its own tab. Its features are the features of
+   * the added and removed elements, which are selected, and its graphics show their geometries. If the features of
+   * either result have not been fetched, such as for a result restored from a saved session, the features are fetched
+   * when the new result is viewed and no graphics are shown. If either result filters its layers with
+   * {@link ResultDisplayMode#FILTER_LAYERS}, the new result filters the layers to the added and removed elements
+   * instead, and no graphics are shown. The counts of added, removed and common elements for
+   * each network source are available from {@link UtilityNetworkTraceOperationResult#getDiff()}.
+   *
+   * @param before the result to compare from
+   * @param after the result to compare to
+   * @return the result showing the differences
+   * @throws NullPointerException if before or after is null
+   * @since 200.1.0
+   */
+  public UtilityNetworkTraceOperationResult diffTraceResults(
+    UtilityNetworkTraceOperationResult before, UtilityNetworkTraceOperationResult after) {
+    var diff = UtilityNetworkTraceResultDiff.compute(before, after);
+    var result = new UtilityNetworkTraceOperationResult(null);
+    result.setName("Diff of " + before.getName() + " and " + after.getName());
+    result.setUtilityNetwork(
+      after.getUtilityNetwork() != null ? after.getUtilityNetwork() : before.getUtilityNetwork());
+    result.setDiff(diff);
+    result.getElementResults().addAll(diff.getAddedElements());
+    result.getElementResults().addAll(diff.getRemovedElements());
+    diff.getAddedElements().forEach(element -> result.setElementObjectId(element, after.getElementObjectId(element)));
+    diff.getRemovedElements().forEach(element ->
+      result.setElementObjectId(element, before.getElementObjectId(element)));
+    result.setResultSymbols(getResultPointSymbol(), getResultLineSymbol(), getResultFillSymbol());
+
+    if (before.getDisplayMode() == ResultDisplayMode.FILTER_LAYERS ||
+      after.getDisplayMode() == ResultDisplayMode.FILTER_LAYERS) {
+      // the features of at least one of the results were not fetched, so the differences filter their layers
+      result.setLayerFilter(layerFilter);
+      result.setDisplayMode(ResultDisplayMode.FILTER_LAYERS);
+    } else if (before.areFeaturesPending() || after.areFeaturesPending()) {
+      result.setFeaturesPending(true, null);
+    } else {
+      // added features are only in the after result and removed features only in the before result
+      List<ArcGISFeature> changedFeatures = new ArrayList<>();
+      after.getFeatures().stream().filter(diff::isChanged).forEach(changedFeatures::add);
+      before.getFeatures().stream().filter(diff::isChanged).forEach(changedFeatures::add);
+      result.addFeatures(changedFeatures);
+      addFeatureGeometryResults(result, changedFeatures);
+    }
+
+    isAddingUntracedResults = true;
+    try {
+      addTraceResult(result);
+    } finally {
+      isAddingUntracedResults = false;
+    }
+    return result;
+  }
+
+  /**
+   * Adds the geometries of features as geometry results. Points are combined into a single multipoint, as the results
+   * graphics overlay symbolizes multipoints rather than points.
+   *
+   * @param result the result to add the geometry results to
+   * @param featuresToAdd the features
+   * @since 200.1.0
+   */
+  private static void addFeatureGeometryResults(
+    UtilityNetworkTraceOperationResult result, List<ArcGISFeature> featuresToAdd) {
+    MultipointBuilder multipointBuilder = null;
+    for (ArcGISFeature feature : featuresToAdd) {
+      var geometry = feature.getGeometry();
+      if (geometry == null || geometry.isEmpty()) {
+        continue;
+      }
+      if (geometry instanceof Point) {
+        if (multipointBuilder == null) {
+          multipointBuilder = new MultipointBuilder(geometry.getSpatialReference());
         }
+        multipointBuilder.getPoints().add((Point) geometry);
+      } else if (geometry instanceof Polyline || geometry instanceof Polygon) {
+        result.addGeometryResult(geometry);
+      }
+    }
+    if (multipointBuilder != null) {
+      result.addGeometryResult(multipointBuilder.toGeometry());
+    }
+  }
 
-        // only continue if the starting point does not already exist
-        if (!startingPointAlreadyExists) {
-          if (utilityElement.getNetworkSource().getSourceType() ==
-            UtilityNetworkSource.Type.EDGE && geometry instanceof Polyline) {
-            // configure edge utility elements
-            Polyline polyline = (Polyline) geometry;
-            if (polyline.hasZ()) {
-              // get the geometry of the identified feature as a polyline, and remove the z component
-              polyline = (Polyline) GeometryEngine.removeZ(polyline);
-            }
-            if (startingPointLocation != null && startingPointLocation.getSpatialReference() != polyline.getSpatialReference()) {
-              polyline = (Polyline) GeometryEngine.project(polyline, startingPointLocation.getSpatialReference());
-            }
-            geometry = polyline;
-
-            // compute how far the location is along the edge feature
-            if (startingPointLocation != null) {
-              double fractionAlongEdge = GeometryEngine.fractionAlong(polyline, startingPointLocation, -1);
-              if (!Double.isNaN(fractionAlongEdge)) {
-                // set the fraction along edge
-                utilityElement.setFractionAlongEdge(fractionAlongEdge);
-              }
-            }
-          } else if (utilityElement.getNetworkSource().getSourceType() ==
-            UtilityNetworkSource.Type.JUNCTION &&
-            utilityElement.getAssetType().getTerminalConfiguration() != null) {
-            // configure junction utility elements
-            var utilityTerminalConfiguration = utilityElement.getAssetType().getTerminalConfiguration();
-            List<UtilityTerminal> terminals = utilityTerminalConfiguration.getTerminals();
-            if (terminals.size() > 1) {
-              utilityElement.setTerminal(utilityElement.getAssetType().getTerminalConfiguration().getTerminals().get(0));
-            }
-          }
-          // create a graphic based on the geometry of the provided feature and set the starting point symbol
-          // this is used to display the starting point on the map
-          var graphic = new Graphic(geometry, startingPointSymbolProperty.get());
-          // get the symbol used for the feature on the feature layer
-          // this is used as an indicator in the UI
-          Symbol symbol = null;
-          if (feature.getFeatureTable().getLayer() instanceof FeatureLayer) {
-            var featureLayer = (FeatureLayer) feature.getFeatureTable().getLayer();
-            symbol = featureLayer.getRenderer().getSymbol(feature);
-          }
-          // add the starting point using the configured properties
-          startingPointsProperty.add(
-            new UtilityNetworkTraceStartingPoint(utilityElement, graphic, symbol, geometry.getExtent()));
+  /**
+   * Restores saved results to the utility networks of the same name and adds them to the trace results and their
+   * graphics overlays to the MapView.
+   *
+   * @param savedResults the saved results
+   * @return the restored results
+   * @since 200.1.0
+   */
+  private List<UtilityNetworkTraceOperationResult> restoreTraceResults(
+    List<UtilityNetworkTraceSessionFile.SavedResult> savedResults) {
+    List<UtilityNetworkTraceOperationResult> restoredResults = new ArrayList<>();
+    for (var savedResult : savedResults) {
+      var utilityNetwork = utilityNetworksProperty.stream()
+        .filter(network -> Objects.equals(network.getName(), savedResult.getUtilityNetworkName()))
+        .findFirst().orElse(null);
+      if (utilityNetwork == null) {
+        displayLoggerWarning("The trace result " + savedResult.getName() + " could not be restored as the utility " +
+          "network " + savedResult.getUtilityNetworkName() + " is not loaded.");
+        continue;
+      }
+      restoredResults.add(UtilityNetworkTraceSessionFile.restore(
+        savedResult, utilityNetwork, traceConfigurationsCache.get(utilityNetwork)));
+    }
+
+    isAddingUntracedResults = true;
+    try {
+      traceResultsProperty.addAll(restoredResults);
+    } finally {
+      isAddingUntracedResults = false;
+    }
+    restoredResults.forEach(result -> getMapView().getGraphicsOverlays().add(result.getResultsGraphicsOverlay()));
+    return restoredResults;
+  }
+
+  /**
+   * Fetches the features of a result whose features are pending, such as a result restored from a saved session.
+   * If the fetch fails or is cancelled, any features already fetched are discarded and the features are fetched again
+   * the next time the result is selected.
+   *
+   * @param result the result to fetch the features of
+   * @since 200.1.0
+   */
+  private void fetchPendingFeatures(UtilityNetworkTraceOperationResult result) {
+    var utilityNetwork = result.getUtilityNetwork();
+    if (!result.areFeaturesPending() || utilityNetwork == null) {
+      return;
+    }
+    // the saved extent is replaced by the extent of the fetched features, and restored if the fetch fails
+    var savedExtent = result.getExtent();
+    result.setFeaturesPending(false, null);
+    var featuresFuture = traceEngine.fetchFeaturesAsync(utilityNetwork, result.getElementResults(),
+      (batchFeatures, fractionFetched) ->
+        ToolkitExecutors.getFxExecutor().execute(() -> result.addFeatures(batchFeatures)));
+    pendingRestoredFeatureFutures.add(featuresFuture);
+    featuresFuture.whenCompleteAsync((features, exception) -> {
+      pendingRestoredFeatureFutures.remove(featuresFuture);
+      if (exception == null) {
+        traceHistory.enforceBudget(selectedTraceResultProperty.get());
+      } else {
+        var isSelected = result.isSelected();
+        result.selectResultFeatures(false);
+        result.getFeatures().clear();
+        result.setIsSelectedProperty(isSelected);
+        result.setFeaturesPending(true, savedExtent);
+        if (!(exception instanceof CancellationException)) {
+          displayLoggerWarning(
+            "Could not fetch the features of the trace result " + result.getName() + ".\n" + exception.getMessage());
         }
       }
+    }, ToolkitExecutors.getFxExecutor());
+  }
+
+  /**
+   * Creates a starting point from the provided feature and point.
+   *
+   * @param feature the feature to use as the basis for the starting point
+   * @param startingPointLocation the location of the starting point. Can be null
+   * @param pendingKeys keys of starting points that are about to be added, which are treated as existing
+   * @return the starting point. Null if no utility network is selected, the feature is not part of the selected utility
+   * network or the starting point already exists
+   * @since 200.1.0
+   */
+  private UtilityNetworkTraceStartingPoint createStartingPoint(
+    ArcGISFeature feature, Point startingPointLocation, Set<String> pendingKeys) {
+    var utilityNetwork = selectedUtilityNetworkProperty.get();
+    if (utilityNetwork == null) {
+      return null;
+    }
+    var createElementEvent =
+      UtilityNetworkTracePhase.beginPhase(UtilityNetworkTraceMetrics.Phase.CREATE_ELEMENT, null);
+    var utilityElement = traceEngine.createStartingPointElement(utilityNetwork, feature, startingPointLocation);
+    startingPointsCreateElementNanos += createElementEvent.endPhase(utilityElement != null ? 1 : 0, 1);
+    if (utilityElement == null) {
+      // if a feature does not belong to the selected utility network it is ignored
+      return null;
+    }
+    var geometry = feature.getGeometry();
+    if (utilityElement.getNetworkSource().getSourceType() ==
+      UtilityNetworkSource.Type.EDGE && geometry instanceof Polyline) {
+      // display edge starting points without z values and in the spatial reference of the location
+      geometry = UtilityNetworkTraceEngine.getEdgePolyline(feature, startingPointLocation);
+    }
+
+    // only continue if the starting point does not already exist
+    var key = UtilityNetworkTraceEngine.createStartingPointKey(utilityElement);
+    if (startingPointsIndex.containsKey(key) || pendingKeys.contains(key)) {
+      return null;
+    }
+
+    // create a graphic based on the geometry of the provided feature and set the starting point symbol
+    // this is used to display the starting point on the map
+    var graphic = new Graphic(geometry, startingPointSymbolProperty.get());
+    // get the symbol used for the feature on the feature layer
+    // this is used as an indicator in the UI
+    Symbol symbol = null;
+    if (feature.getFeatureTable().getLayer() instanceof FeatureLayer) {
+      var featureLayer = (FeatureLayer) feature.getFeatureTable().getLayer();
+      symbol = featureLayer.getRenderer().getSymbol(feature);
     }
+    return new UtilityNetworkTraceStartingPoint(utilityElement, graphic, symbol, geometry.getExtent());
   }
 
   /**
@@ -779,179 +1721,287 @@ public class UtilityNetworkTraceTool extends Control {
    * @since 100.15.0
    */
   private void runTraceAsync(String name) {
-    // cancel any previous traces
-    cancelTrace();
-    // configure completable futures due to requirement of multiple async methods
-    CompletableFuture<Void> traceCompletableFuture = new CompletableFuture<>();
-    CompletableFuture<Void> fetchFeaturesForElementsCompletableFuture = new CompletableFuture<>();
-    CompletableFuture<?>[] futures = new CompletableFuture[]{traceCompletableFuture, fetchFeaturesForElementsCompletableFuture};
-
-    // wait until all async methods have finished before updating data
-    CompletableFuture.allOf(futures).whenCompleteAsync((future, exception) -> {
-      isTraceInProgressProperty.set(false);
-      if (exception == null && traceResultInProgress != null) {
-        // if there were no exceptions from either task and the result is not null, configure the data
-        traceResultInProgress.setName(name);
-        // add the result to the list
-        traceResultsProperty.add(traceResultInProgress);
-        // add the graphics overlay to the MapView
-        getMapView().getGraphicsOverlays().add(traceResultInProgress.getResultsGraphicsOverlay());
-        if (traceResultInProgress.getExtent() != null && autoZoomToResultsProperty.get()) {
-          // update the viewpoint if an extent has been set and autoZoomToResults is true
-          var resultsExtent = traceResultInProgress.getExtent();
-          // update MapView viewpoint on UI thread
-          Platform.runLater(() -> mapViewProperty.get().setViewpoint(new Viewpoint(resultsExtent)));
-        }
-        // reset data
-        traceResultInProgress = null;
-      }
-      // whether successful or not reset the data
-      traceInProgressFuture = null;
-      fetchFeaturesForElementsFuture = null;
-      applyStartingPointWarnings();
-    });
+    var selectedTraceConfiguration = selectedTraceConfigurationProperty.get();
+    if (selectedTraceConfiguration != null) {
+      Map<UtilityNamedTraceConfiguration, String> namedTraceConfigurations = new LinkedHashMap<>();
+      namedTraceConfigurations.put(selectedTraceConfiguration, name);
+      runTracesAsync(namedTraceConfigurations, TracePriority.INTERACTIVE);
+    }
+  }
 
-    isTraceInProgressProperty.set(true);
+  /**
+   * Performs a Utility Network Trace for each of the provided named trace configurations, using the selected utility
+   * network and the defined starting points. Up to {@link #getMaxConcurrentTraces()} traces run at the same time,
+   * with the remaining traces starting as earlier ones complete.
+   *
+   * <p>
+   * Each trace produces its own {@link UtilityNetworkTraceOperationResult}, which is added to the list of trace results
+   * as soon as that trace completes, so results can be viewed and observed via the completed trace property while
+   * the other traces are still running. If a trace completes with an error, the error is set to its result.
+   *
+   * <p>
+   * The traces are run with {@link TracePriority#INTERACTIVE} priority, so any previous interactive run is superseded.
+   * The results are named after the trace configuration that produced them.
+   *
+   * @param traceConfigurations the named trace configurations to run
+   * @return a completable future that completes with the results of all traces in the order they completed, or
+   * completes exceptionally if the traces are cancelled or no utility network is selected
+   * @throws NullPointerException if traceConfigurations is null
+   * @since 200.1.0
+   */
+  public CompletableFuture<List<UtilityNetworkTraceOperationResult>> runTracesAsync(
+    List<UtilityNamedTraceConfiguration> traceConfigurations) {
+    return runTracesAsync(traceConfigurations, TracePriority.INTERACTIVE);
+  }
+
+  /**
+   * Performs a Utility Network Trace for each of the provided named trace configurations with the provided priority,
+   * using the selected utility network and the defined starting points.
+   *
+   * <p>
+   * Traces are queued and started in order of priority, with up to {@link #getMaxConcurrentTraces()} traces running
+   * at the same time. A trace that is identical to one already queued or in progress, with the same utility network,
+   * trace configuration and starting points, shares its result rather than being run again. Starting an interactive
+   * run supersedes the previous interactive run, whose traces are cancelled unless they are shared with the new run or
+   * a background run. Each trace must complete within {@link #getTraceTimeout()}.
+   *
+   * @param traceConfigurations the named trace configurations to run
+   * @param priority the priority of the traces
+   * @return a completable future that completes with the results of all traces in the order they completed, or
+   * completes exceptionally if the run is cancelled or superseded, or no utility network is selected
+   * @throws NullPointerException if traceConfigurations or priority is null
+   * @since 200.1.0
+   */
+  public CompletableFuture<List<UtilityNetworkTraceOperationResult>> runTracesAsync(
+    List<UtilityNamedTraceConfiguration> traceConfigurations, TracePriority priority) {
+    Objects.requireNonNull(traceConfigurations, "Trace configurations cannot be null");
+    Objects.requireNonNull(priority, "Priority cannot be null");
+    Map<UtilityNamedTraceConfiguration, String> namedTraceConfigurations = new LinkedHashMap<>();
+    traceConfigurations.forEach(traceConfiguration -> namedTraceConfigurations.put(traceConfiguration,
+      traceConfiguration.getName() + " " + (traceResultsProperty.size() + namedTraceConfigurations.size() + 1)));
+    return runTracesAsync(namedTraceConfigurations, priority);
+  }
+
+  /**
+   * Starts a new run of traces for the provided trace configurations and result names. The traces are requested
+   * before any previous interactive run is cancelled, so that traces shared with it continue.
+   *
+   * @param namedTraceConfigurations the trace configurations to run, mapped to the name to give each result
+   * @param priority the priority of the traces
+   * @return a completable future that completes with the results once all traces have completed
+   * @since 200.1.0
+   */
+  private CompletableFuture<List<UtilityNetworkTraceOperationResult>> runTracesAsync(
+    Map<UtilityNamedTraceConfiguration, String> namedTraceConfigurations, TracePriority priority) {
     var selectedUtilityNetwork = selectedUtilityNetworkProperty.get();
+    if (selectedUtilityNetwork == null) {
+      return CompletableFuture.failedFuture(new IllegalArgumentException("No Utility Network Selected."));
+    }
 
-    if (selectedUtilityNetwork != null) {
-      var selectedTraceConfiguration = selectedTraceConfigurationProperty.get();
-      List<UtilityElement> utilityElementsForStartingPoints = new ArrayList<>();
-      startingPointsProperty.forEach(sp -> utilityElementsForStartingPoints.add(sp.getUtilityElement()));
+    List<UtilityElement> utilityElementsForStartingPoints = new ArrayList<>();
+    startingPointsProperty.forEach(sp -> utilityElementsForStartingPoints.add(sp.getUtilityElement()));
 
-      try {
-        // create utility trace parameters from the trace configuration and starting points
-        UtilityTraceParameters utilityTraceParameters =
-          new UtilityTraceParameters(selectedTraceConfiguration, utilityElementsForStartingPoints);
-        // instantiate the utility network trace operation result that results data will be added to
-        traceResultInProgress =
-          new UtilityNetworkTraceOperationResult(utilityTraceParameters);
-
-        // run the trace and get the results
-        traceInProgressFuture =
-          selectedUtilityNetwork.traceAsync(utilityTraceParameters);
-        traceInProgressFuture.addDoneListener(() -> {
-          try {
-            List<UtilityTraceResult> utilityTraceResults = traceInProgressFuture.get();
-
-            // set the raw results to the current result
-            traceResultInProgress.getRawResults().addAll(utilityTraceResults);
-
-            var containsUtilityElementResult = false;
-
-            // loop through the results
-            for (var utilityTraceResult : utilityTraceResults) {
-
-              // if there are any warnings, add to the in progress result
-              if (!utilityTraceResult.getWarnings().isEmpty()) {
-                traceResultInProgress.getWarnings().addAll(utilityTraceResult.getWarnings());
-              }
+    var traceRun = new TraceRun(priority, namedTraceConfigurations.size());
+    var supersededTraceRun = priority == TracePriority.INTERACTIVE ? traceRunInProgress : null;
+    if (priority == TracePriority.INTERACTIVE) {
+      traceRunInProgress = traceRun;
+      traceProgressProperty.set(ProgressIndicator.INDETERMINATE_PROGRESS);
+      isTraceInProgressProperty.set(true);
+    } else {
+      backgroundTraceRuns.add(traceRun);
+    }
+    var traceIndex = 0;
+    for (var namedTraceConfiguration : namedTraceConfigurations.entrySet()) {
+      requestTrace(traceRun, traceIndex++, selectedUtilityNetwork, namedTraceConfiguration.getKey(),
+        utilityElementsForStartingPoints, namedTraceConfiguration.getValue());
+    }
+    if (supersededTraceRun != null) {
+      supersededTraceRun.cancel();
+    }
+    traceRun.completeIfDone();
+    startQueuedTraceRequests();
+    return traceRun.future;
+  }
 
-              if (utilityTraceResult instanceof UtilityElementTraceResult) {
-                // handle utility element results
-                containsUtilityElementResult = true;
-
-                UtilityElementTraceResult utilityElementTraceResult =
-                  (UtilityElementTraceResult) utilityTraceResult;
-                // add the element trace results to the current result
-                traceResultInProgress.getElementResults().addAll(
-                  FXCollections.observableArrayList(utilityElementTraceResult.getElements()));
-                // set the element results organised by asset group
-                traceResultInProgress.setElementResultsByAssetGroup(traceResultInProgress.getElementResults().stream()
-                  .collect(Collectors.groupingBy(UtilityElement::getAssetGroup)));
-
-                // fetch the features to be displayed on the map via an async method
-                fetchFeaturesForElementsFuture =
-                  selectedUtilityNetwork.fetchFeaturesForElementsAsync(utilityElementTraceResult.getElements());
-                fetchFeaturesForElementsFuture.addDoneListener(() -> {
-                  try {
-                    var features = fetchFeaturesForElementsFuture.get();
-                    // add the features to the current result and select the results
-                    traceResultInProgress.getFeatures().addAll(FXCollections.observableArrayList(features));
-                    traceResultInProgress.selectResultFeatures(true);
-                    if (autoZoomToResultsProperty.get() && traceResultInProgress.getExtent() != null) {
-                      // if autoZoomToResult is true, update the viewpoint of the MapView
-                      mapViewProperty.get().setViewpoint(new Viewpoint(traceResultInProgress.getExtent()));
-                    }
-                    // if this is successful, complete the future
-                    fetchFeaturesForElementsCompletableFuture.complete(null);
-                  } catch (CancellationException e) {
-                    // if the async fetch method is cancelled, complete the futures
-                    fetchFeaturesForElementsCompletableFuture.completeExceptionally(e);
-                    traceCompletableFuture.complete(null);
-                  } catch (Exception e) {
-                    // if fetch fails due to another reason, set the error to the result and complete
-                    traceResultInProgress.setException(e);
-                    fetchFeaturesForElementsCompletableFuture.complete(null);
-                    traceCompletableFuture.cancel(true);
-                  }
-                });
-              } else if (utilityTraceResult instanceof UtilityGeometryTraceResult) {
-                // handle geometry results and add graphics to the graphics overlay
-                var geometryTraceResult = (UtilityGeometryTraceResult) utilityTraceResult;
-
-                List<Graphic> graphics = new ArrayList<>();
-
-                var multipoint = geometryTraceResult.getMultipoint();
-                if (multipoint != null) {
-                  var graphic = new Graphic(multipoint, new SimpleMarkerSymbol(getResultPointSymbol().getStyle(),
-                    getResultPointSymbol().getColor(), getResultPointSymbol().getSize()));
-                  graphics.add(graphic);
-                }
+  /**
+   * Adds a trace to a run. If an identical trace with the same name, timeout and display mode is already queued or in
+   * progress, the run shares its result, and otherwise a new trace request is queued. A queued background request that
+   * is shared with an interactive run is promoted to interactive priority.
+   *
+   * @param traceRun the run the trace is part of
+   * @param traceIndex the index of the trace in the run
+   * @param utilityNetwork the utility network to trace
+   * @param traceConfiguration the named trace configuration to use
+   * @param startingPoints the utility elements to use as starting points
+   * @param name the name to give the result
+   * @since 200.1.0
+   */
+  private void requestTrace(TraceRun traceRun, int traceIndex, UtilityNetwork utilityNetwork,
+                            UtilityNamedTraceConfiguration traceConfiguration, List<UtilityElement> startingPoints,
+                            String name) {
+    // requests are only shared if they produce the same result tab, so the settings applied to the result are part of
+    // the key
+    var key = new TraceRequestKey(UtilityNetworkTraceResultCache.createKey(utilityNetwork, traceConfiguration,
+      startingPoints), name, getTraceTimeout(), getResultDisplayMode());
+    var traceRequest = traceRequests.get(key);
+    if (traceRequest == null) {
+      traceRequest = new TraceRequest(key, utilityNetwork, traceConfiguration, startingPoints, name,
+        traceRun.priority, traceRequestCount++);
+      traceRequest.timeoutMillis = key.timeoutMillis;
+      traceRequest.displayMode = key.displayMode;
+      traceRequest.identifyNanos = startingPointsIdentifyNanos;
+      traceRequest.createElementNanos = startingPointsCreateElementNanos;
+      traceRequests.put(key, traceRequest);
+      queuedTraceRequests.add(traceRequest);
+    } else if (traceRun.priority.compareTo(traceRequest.priority) < 0 && traceRequest.future == null) {
+      // re-queue the request so that it is ordered by its new priority
+      queuedTraceRequests.remove(traceRequest);
+      traceRequest.priority = traceRun.priority;
+      queuedTraceRequests.add(traceRequest);
+    }
+    traceRequest.traceRuns.put(traceRun, traceIndex);
+  }
 
-                var polyline = geometryTraceResult.getPolyline();
-                if (polyline != null) {
-                  var graphic = new Graphic(polyline, new SimpleLineSymbol(getResultLineSymbol().getStyle(),
-                    getResultLineSymbol().getColor(), getResultLineSymbol().getWidth()));
-                  graphics.add(graphic);
-                }
+  /**
+   * Starts queued trace requests in order of priority until the maximum number of concurrent traces is reached.
+   *
+   * @since 200.1.0
+   */
+  private void startQueuedTraceRequests() {
+    while (traceRequestsInProgress < getMaxConcurrentTraces() && !queuedTraceRequests.isEmpty()) {
+      var traceRequest = queuedTraceRequests.poll();
+      traceRequestsInProgress++;
+      traceRequest.future = traceAsync(traceRequest, fractionFetched ->
+        traceRequest.traceRuns.forEach((traceRun, traceIndex) -> traceRun.updateProgress(traceIndex, fractionFetched)));
+      traceRequest.future.whenCompleteAsync((result, exception) -> {
+        traceRequestsInProgress--;
+        traceRequests.remove(traceRequest.key, traceRequest);
+        // copy the runs, as a run that completes may start another run of the same trace
+        new ArrayList<>(traceRequest.traceRuns.entrySet()).forEach(entry ->
+          entry.getKey().onTraceCompleted(entry.getValue(), result, exception));
+        startQueuedTraceRequests();
+      }, ToolkitExecutors.getFxExecutor());
+    }
+  }
 
-                var polygon = geometryTraceResult.getPolygon();
-                if (polygon != null) {
-                  var graphic = new Graphic(polygon, new SimpleFillSymbol(getResultFillSymbol().getStyle(),
-                    getResultFillSymbol().getColor(), getResultFillSymbol().getOutline()));
-                  graphics.add(graphic);
-                }
+  /**
+   * Removes a run from the trace requests it shares. Requests that are no longer shared with any run are removed from
+   * the queue, or cancelled if they are in progress.
+   *
+   * @param traceRun the run to remove
+   * @since 200.1.0
+   */
+  private void removeTraceRun(TraceRun traceRun) {
+    for (var traceRequest : new ArrayList<>(traceRequests.values())) {
+      if (traceRequest.traceRuns.remove(traceRun) != null && traceRequest.traceRuns.isEmpty()) {
+        traceRequests.remove(traceRequest.key);
+        if (traceRequest.future == null) {
+          queuedTraceRequests.remove(traceRequest);
+        } else {
+          traceRequest.future.cancel(true);
+        }
+      }
+    }
+  }
 
-                traceResultInProgress.getResultsGraphicsOverlay().getGraphics().addAll(graphics);
-              } else if (utilityTraceResult instanceof UtilityFunctionTraceResult) {
-                // handle function results
-                var functionTraceResult = (UtilityFunctionTraceResult) utilityTraceResult;
-                functionTraceResult.getFunctionOutputs().forEach(functionOutput ->
-                  traceResultInProgress.getFunctionResults().add(functionOutput));
-              }
-            }
-            // if there were no utility element results, complete the feature future
-            if (!containsUtilityElementResult) {
-              fetchFeaturesForElementsCompletableFuture.complete(null);
-            }
-            // if the trace is successful, complete the trace future
-            traceCompletableFuture.complete(null);
-          } catch (CancellationException e) {
-            // if the listenable future was cancelled complete both futures
-            traceCompletableFuture.completeExceptionally(e);
-            fetchFeaturesForElementsCompletableFuture.complete(null);
-          } catch (Exception e) {
-            // if trace fails due to another reason, set the error to the result and complete both futures
-            traceResultInProgress.setException(e);
-            traceCompletableFuture.complete(null);
-            fetchFeaturesForElementsCompletableFuture.complete(null);
-          }
-        });
-      } catch (CancellationException e) {
-        // if the listenable future was cancelled complete both futures
-        traceCompletableFuture.completeExceptionally(e);
-        fetchFeaturesForElementsCompletableFuture.complete(null);
-      } catch (Exception ex) {
-        // if trace fails due to another reason, set the error to the result and complete both futures
-        traceResultInProgress.setException(ex);
-        traceCompletableFuture.complete(null);
-        fetchFeaturesForElementsCompletableFuture.complete(null);
+  /**
+   * Runs the trace of a trace request with the trace engine. The features of each batch of element results are
+   * selected as soon as they arrive, and the MapView is zoomed to the result if autoZoomToResults is true. The returned
+   * future completes with the result once the trace and fetch have finished, and the result is then symbolized with
+   * the result symbols, given the display mode of the request, and the time spent identifying and creating the
+   * starting points is added to its metrics. The features are not fetched if the display mode of the request is
+   * {@link ResultDisplayMode#FILTER_LAYERS}. Cancelling the returned future cancels the trace.
+   *
+   * @param traceRequest the trace request
+   * @param onFetchProgress called with the fraction of element features fetched so far, as each batch arrives
+   * @return a completable future that completes with the result of the trace
+   * @since 200.1.0
+   */
+  private CompletableFuture<UtilityNetworkTraceOperationResult> traceAsync(
+    TraceRequest traceRequest, DoubleConsumer onFetchProgress) {
+    BiConsumer<UtilityNetworkTraceOperationResult, Double> onBatchFetched = (result, fractionFetched) ->
+      ToolkitExecutors.getFxExecutor().execute(() -> {
+        if (!result.isSelected()) {
+          // select the features fetched so far, and the features of later batches as they are added
+          result.setIsSelectedProperty(true);
+        }
+        onFetchProgress.accept(fractionFetched);
+        var resultsExtent = result.getExtent();
+        if (resultsExtent != null && autoZoomToResultsProperty.get()) {
+          getMapView().setViewpoint(new Viewpoint(resultsExtent));
+        }
+      });
+    var resultFuture = traceEngine.traceAsync(traceRequest.utilityNetwork, traceRequest.traceConfiguration,
+      traceRequest.startingPoints, traceRequest.name, onBatchFetched,
+      traceRequest.displayMode == ResultDisplayMode.SELECT_FEATURES, traceRequest.timeoutMillis);
+    var symbolizedResultFuture = resultFuture.whenCompleteAsync((result, exception) -> {
+      if (result != null) {
+        if (traceRequest.identifyNanos > 0) {
+          result.getMetrics().addPhaseDuration(UtilityNetworkTraceMetrics.Phase.IDENTIFY, traceRequest.identifyNanos);
+        }
+        if (traceRequest.createElementNanos > 0) {
+          result.getMetrics().addPhaseDuration(
+            UtilityNetworkTraceMetrics.Phase.CREATE_ELEMENT, traceRequest.createElementNanos);
+        }
+        result.setResultSymbols(getResultPointSymbol(), getResultLineSymbol(), getResultFillSymbol());
+        result.setLayerFilter(layerFilter);
+        result.setDisplayMode(traceRequest.displayMode);
       }
-    } else {
-      // if the selected utility network is null, handle the futures
-      traceCompletableFuture.completeExceptionally(new IllegalArgumentException("No Utility Network Selected."));
-      fetchFeaturesForElementsFuture.cancel(true);
+    }, ToolkitExecutors.getFxExecutor());
+    // cancelling the returned future cancels the trace
+    symbolizedResultFuture.whenComplete((result, exception) -> {
+      if (symbolizedResultFuture.isCancelled()) {
+        resultFuture.cancel(true);
+      }
+    });
+    return symbolizedResultFuture;
+  }
+
+  /**
+   * Converts the provided listenable future into a completable future. The listenable future is added to the provided
+   * list of pending futures until it is done, so that it can be cancelled.
+   *
+   * @param listenableFuture the listenable future to convert
+   * @param pendingFutures the list to track the listenable future in
+   * @param <T> the type of the result
+   * @return a completable future that completes with the result of the listenable future
+   * @since 200.1.0
+   */
+  private static <T> CompletableFuture<T> toCompletableFuture(
+    ListenableFuture<T> listenableFuture, List<ListenableFuture<?>> pendingFutures) {
+    CompletableFuture<T> completableFuture = new CompletableFuture<>();
+    pendingFutures.add(listenableFuture);
+    listenableFuture.addDoneListener(() -> {
+      pendingFutures.remove(listenableFuture);
+      try {
+        completableFuture.complete(listenableFuture.get());
+      } catch (Exception e) {
+        completableFuture.completeExceptionally(e);
+      }
+    });
+    return completableFuture;
+  }
+
+  /**
+   * Adds a completed result to the list of trace results, selects its features and displays its graphics on the
+   * MapView. If autoZoomToResults is true, the MapView's viewpoint is updated to the extent of the result.
+   *
+   * @param result the completed result
+   * @since 200.1.0
+   */
+  private void addTraceResult(UtilityNetworkTraceOperationResult result) {
+    if (!result.isSelected()) {
+      // features fetched in batches are already selected
+      result.selectResultFeatures(true);
+    }
+    // add the result to the list
+    traceResultsProperty.add(result);
+    // add the graphics overlay to the MapView
+    getMapView().getGraphicsOverlays().add(result.getResultsGraphicsOverlay());
+    var resultsExtent = result.getExtent();
+    if (resultsExtent != null && autoZoomToResultsProperty.get()) {
+      // update the viewpoint if an extent has been set and autoZoomToResults is true
+      getMapView().setViewpoint(new Viewpoint(resultsExtent));
     }
   }
 
@@ -992,45 +2042,133 @@ public class UtilityNetworkTraceTool extends Control {
     // get the clicked map point
     Point2D screenPoint = new Point2D(e.getX(), e.getY());
     Point mapPoint = getMapView().screenToLocation(screenPoint);
-    // runnable to handle identify
-    Runnable getIdentifyResults = () -> {
-      try {
-        // get the result of the query and find any identified features
-        List<IdentifyLayerResult> identifyLayerResults = identifyLayersFuture.get();
-        identifyLayerResults.forEach(identifyLayerResult -> {
-          LayerContent layerContent = identifyLayerResult.getLayerContent();
-          var resultElements = identifyLayerResult.getElements();
-          if (layerContent instanceof FeatureLayer && !resultElements.isEmpty()) {
-            resultElements.forEach(identifiedFeature -> {
-              if (identifiedFeature instanceof ArcGISFeature) {
-                // add any identified features as starting points
-                addStartingPoint((ArcGISFeature) identifiedFeature, mapPoint);
-              }
-            });
-          }
-        });
-      } catch (Exception ex) {
-        // all exceptions including cancellations are ignored
-      } finally {
-        // reset the data
-        identifyLayersFuture = null;
-        isIdentifyInProgressProperty.set(false);
-      }
-    };
 
     // cancel any previous identify tasks
-    if (identifyLayersFuture != null) {
-      identifyLayersFuture.removeDoneListener(getIdentifyResults);
-    }
     cancelIdentifyLayers();
     // start new identify
     isAddingStartingPointsProperty.set(false);
     isIdentifyInProgressProperty.set(true);
 
     // identify features
-    identifyLayersFuture =
-      getMapView().identifyLayersAsync(screenPoint, 10, false);
-    identifyLayersFuture.addDoneListener(getIdentifyResults);
+    var identifyEvent = UtilityNetworkTracePhase.beginPhase(UtilityNetworkTraceMetrics.Phase.IDENTIFY, null);
+    var identifyFuture = getIdentifyMode() == IdentifyMode.UTILITY_NETWORK_LAYERS ?
+      identifyUtilityNetworkLayersAsync(screenPoint) : identifyAllLayersAsync(screenPoint);
+    identifyInProgressFuture = identifyFuture;
+    identifyFuture.whenCompleteAsync((identifyLayerResults, exception) -> {
+      if (identifyInProgressFuture != identifyFuture) {
+        // the identify has been cancelled or replaced by a newer identify
+        return;
+      }
+      // reset the data
+      identifyInProgressFuture = null;
+      isIdentifyInProgressProperty.set(false);
+      // all exceptions including cancellations are ignored
+      if (exception == null) {
+        // add any identified features as starting points
+        List<ArcGISFeature> identifiedFeatures = new ArrayList<>();
+        identifyLayerResults.forEach(identifyLayerResult ->
+          collectIdentifiedFeatures(identifyLayerResult, identifiedFeatures));
+        startingPointsIdentifyNanos += identifyEvent.endPhase(0, identifiedFeatures.size());
+        identifiedFeatures.forEach(feature -> addStartingPoint(feature, mapPoint));
+      }
+    }, ToolkitExecutors.getFxExecutor());
+  }
+
+  /**
+   * Identifies features in all layers of the map at the provided screen point.
+   *
+   * @param screenPoint the screen point to identify at
+   * @return a completable future that completes with the identify results
+   * @since 200.1.0
+   */
+  private CompletableFuture<List<IdentifyLayerResult>> identifyAllLayersAsync(Point2D screenPoint) {
+    var maxResults = getIdentifyMaxResults();
+    return toCompletableFuture(maxResults > 0 ?
+      getMapView().identifyLayersAsync(screenPoint, getIdentifyTolerance(), false, maxResults) :
+      getMapView().identifyLayersAsync(screenPoint, getIdentifyTolerance(), false), pendingIdentifyFutures);
+  }
+
+  /**
+   * Identifies features at the provided screen point in only the feature layers whose feature tables are network
+   * sources of the selected utility network. Each layer is identified in parallel, and layers whose identify fails
+   * are ignored.
+   *
+   * @param screenPoint the screen point to identify at
+   * @return a completable future that completes with the identify results of all layers
+   * @since 200.1.0
+   */
+  private CompletableFuture<List<IdentifyLayerResult>> identifyUtilityNetworkLayersAsync(Point2D screenPoint) {
+    var utilityNetwork = selectedUtilityNetworkProperty.get();
+    var map = getMapView().getMap();
+    if (utilityNetwork == null || map == null) {
+      return CompletableFuture.completedFuture(List.of());
+    }
+    // find the visible feature layers of the network sources
+    Set<FeatureTable> networkSourceTables = Collections.newSetFromMap(new IdentityHashMap<>());
+    utilityNetwork.getDefinition().getNetworkSources().forEach(networkSource -> {
+      if (networkSource.getFeatureTable() != null) {
+        networkSourceTables.add(networkSource.getFeatureTable());
+      }
+    });
+    List<FeatureLayer> featureLayers = new ArrayList<>();
+    collectFeatureLayers(map.getOperationalLayers(), networkSourceTables, featureLayers);
+
+    var maxResults = getIdentifyMaxResults();
+    List<CompletableFuture<IdentifyLayerResult>> layerFutures = featureLayers.stream()
+      .map(featureLayer -> toCompletableFuture(maxResults > 0 ?
+        getMapView().identifyLayerAsync(featureLayer, screenPoint, getIdentifyTolerance(), false, maxResults) :
+        getMapView().identifyLayerAsync(featureLayer, screenPoint, getIdentifyTolerance(), false),
+        pendingIdentifyFutures)
+        // a failed identify on one layer does not prevent results from other layers being used
+        .exceptionally(ex -> null))
+      .collect(Collectors.toList());
+    return CompletableFuture.allOf(layerFutures.toArray(new CompletableFuture[0]))
+      .thenApply(v -> layerFutures.stream()
+        .map(CompletableFuture::join)
+        .filter(Objects::nonNull)
+        .collect(Collectors.toList()));
+  }
+
+  /**
+   * Adds the visible feature layers in the provided layers, including those nested in group layers, whose feature
+   * tables are in the provided set.
+   *
+   * @param layers the layers to search
+   * @param featureTables the feature tables of the layers to collect
+   * @param featureLayers the list to add the feature layers to
+   * @since 200.1.0
+   */
+  private static void collectFeatureLayers(
+    List<Layer> layers, Set<FeatureTable> featureTables, List<FeatureLayer> featureLayers) {
+    for (Layer layer : layers) {
+      if (!layer.isVisible()) {
+        continue;
+      }
+      if (layer instanceof GroupLayer) {
+        collectFeatureLayers(((GroupLayer) layer).getLayers(), featureTables, featureLayers);
+      } else if (layer instanceof FeatureLayer && featureTables.contains(((FeatureLayer) layer).getFeatureTable())) {
+        featureLayers.add((FeatureLayer) layer);
+      }
+    }
+  }
+
+  /**
+   * Adds the ArcGISFeatures identified in the provided result and its sublayer results, such as those of a subtype
+   * feature layer, to the provided list.
+   *
+   * @param identifyLayerResult the identify result
+   * @param identifiedFeatures the list to add the features to
+   * @since 200.1.0
+   */
+  private static void collectIdentifiedFeatures(
+    IdentifyLayerResult identifyLayerResult, List<ArcGISFeature> identifiedFeatures) {
+    identifyLayerResult.getElements().forEach(element -> {
+      if (element instanceof ArcGISFeature) {
+        identifiedFeatures.add((ArcGISFeature) element);
+      }
+    });
+    identifyLayerResult.getSublayerResults().forEach(sublayerResult ->
+      collectIdentifiedFeatures(sublayerResult, identifiedFeatures));
   }
 
   /**
@@ -1052,17 +2190,17 @@ public class UtilityNetworkTraceTool extends Control {
   }
 
   /**
-   * Cancels the listenable futures associated the traceAsync and fetchFeatureForElementsAsync tasks associated
-   * with running a utility network trace.
+   * Cancels the interactive run of traces in progress, cancelling the listenable futures associated with the
+   * traceAsync and fetchFeatureForElementsAsync tasks of its traces, and any of its traces queued to run. Background
+   * runs are not cancelled.
    *
    * @since 100.15.0
    */
   private void cancelTrace() {
-    if (traceInProgressFuture != null) {
-      traceInProgressFuture.cancel(true);
-    }
-    if (fetchFeaturesForElementsFuture != null) {
-      fetchFeaturesForElementsFuture.cancel(true);
+    if (traceRunInProgress != null) {
+      // stop any queued traces from starting, and cancel traces that are not shared with a background run
+      traceRunInProgress.cancel();
+      traceRunInProgress = null;
     }
     isTraceInProgressProperty.set(false);
   }
@@ -1074,9 +2212,10 @@ public class UtilityNetworkTraceTool extends Control {
    * @since 100.15.0
    */
   private void cancelIdentifyLayers() {
-    if (identifyLayersFuture != null) {
-      identifyLayersFuture.cancel(true);
-    }
+    identifyInProgressFuture = null;
+    // copy the list as cancelling a future removes it from the list via its done listener
+    new ArrayList<>(pendingIdentifyFutures).forEach(future -> future.cancel(true));
+    pendingIdentifyFutures.clear();
     isIdentifyInProgressProperty.set(false);
   }
 
@@ -1090,4 +2229,200 @@ public class UtilityNetworkTraceTool extends Control {
     var logger = Logger.getLogger(UtilityNetworkTraceTool.class.getName());
     logger.warning(message);
   }
+
+  /**
+   * A run of one or more traces that share the same utility network and starting points. The traces of a run are
+   * requested from the trace scheduler of the tool, which may share them with other runs.
+   *
+   * @since 200.1.0
+   */
+  private final class TraceRun {
+
+    private final TracePriority priority;
+    private final List<UtilityNetworkTraceOperationResult> results = new ArrayList<>();
+    private final CompletableFuture<List<UtilityNetworkTraceOperationResult>> future = new CompletableFuture<>();
+    // the progress of each trace in the run, between 0 and 1
+    private final double[] traceProgress;
+    private int tracesRemaining;
+    private boolean isCancelled = false;
+
+    /**
+     * Creates a TraceRun.
+     *
+     * @param priority the priority of the traces in the run
+     * @param traceCount the number of traces in the run
+     * @since 200.1.0
+     */
+    private TraceRun(TracePriority priority, int traceCount) {
+      this.priority = priority;
+      this.traceProgress = new double[traceCount];
+      this.tracesRemaining = traceCount;
+    }
+
+    /**
+     * Adds the result of a completed trace to the trace results, and completes the run if it was the last trace.
+     *
+     * @param traceIndex the index of the trace in the run
+     * @param result the result of the trace. Null if the trace was cancelled
+     * @param exception the exception the trace completed with. Null if the trace completed normally
+     * @since 200.1.0
+     */
+    private void onTraceCompleted(int traceIndex, UtilityNetworkTraceOperationResult result, Throwable exception) {
+      if (isCancelled) {
+        return;
+      }
+      updateProgress(traceIndex, 1);
+      if (exception == null) {
+        // make each result available as soon as its trace completes
+        results.add(result);
+        if (!traceResultsProperty.contains(result)) {
+          // a result shared with another run is only added once
+          addTraceResult(result);
+        }
+      }
+      tracesRemaining--;
+      completeIfDone();
+    }
+
+    /**
+     * Completes the run if all of its traces have completed.
+     *
+     * @since 200.1.0
+     */
+    private void completeIfDone() {
+      if (isCancelled || future.isDone() || tracesRemaining > 0) {
+        return;
+      }
+      if (traceRunInProgress == this) {
+        // all traces have completed, reset the data
+        traceRunInProgress = null;
+        isTraceInProgressProperty.set(false);
+        applyStartingPointWarnings();
+      }
+      backgroundTraceRuns.remove(this);
+      future.complete(results);
+    }
+
+    /**
+     * Updates the progress of a trace in the run. For the interactive run in progress, the overall progress of the run
+     * is set to the trace progress property. The progress is indeterminate until any progress has been made.
+     *
+     * @param traceIndex the index of the trace in the run
+     * @param progress the progress of the trace, between 0 and 1
+     * @since 200.1.0
+     */
+    private void updateProgress(int traceIndex, double progress) {
+      traceProgress[traceIndex] = progress;
+      if (traceRunInProgress == this) {
+        var overallProgress = Arrays.stream(traceProgress).sum() / traceProgress.length;
+        traceProgressProperty.set(overallProgress > 0 ? overallProgress : ProgressIndicator.INDETERMINATE_PROGRESS);
+      }
+    }
+
+    /**
+     * Cancels the run so that its results are discarded. Its traces are cancelled unless they are shared with another
+     * run.
+     *
+     * @since 200.1.0
+     */
+    private void cancel() {
+      if (isCancelled || future.isDone()) {
+        return;
+      }
+      isCancelled = true;
+      backgroundTraceRuns.remove(this);
+      removeTraceRun(this);
+      future.completeExceptionally(new CancellationException("The traces were cancelled."));
+    }
+  }
+
+  /**
+   * A request for a trace, which is queued until it can be started and may be shared by several runs.
+   *
+   * @since 200.1.0
+   */
+  private static final class TraceRequest {
+
+    private final TraceRequestKey key;
+    private final UtilityNetwork utilityNetwork;
+    private final UtilityNamedTraceConfiguration traceConfiguration;
+    private final List<UtilityElement> startingPoints;
+    private final String name;
+    // the order the request was made in, so that requests of the same priority are started in order
+    private final long order;
+    private TracePriority priority;
+    // the timeout and display mode of the trace, and the time spent on its starting points, at the time it was
+    // requested
+    private long timeoutMillis = 0;
+    private ResultDisplayMode displayMode = ResultDisplayMode.SELECT_FEATURES;
+    private long identifyNanos = 0;
+    private long createElementNanos = 0;
+    // the runs sharing the request, mapped to the index of the trace in each run
+    private final Map<TraceRun, Integer> traceRuns = new LinkedHashMap<>();
+    // the future of the trace once the request has started
+    private CompletableFuture<UtilityNetworkTraceOperationResult> future = null;
+
+    /**
+     * Creates a TraceRequest.
+     *
+     * @param key the fingerprint of the request
+     * @param utilityNetwork the utility network to trace
+     * @param traceConfiguration the named trace configuration to use
+     * @param startingPoints the utility elements to use as starting points
+     * @param name the name to give the result
+     * @param priority the priority of the request
+     * @param order the order the request was made in
+     * @since 200.1.0
+     */
+    private TraceRequest(TraceRequestKey key, UtilityNetwork utilityNetwork,
+                         UtilityNamedTraceConfiguration traceConfiguration, List<UtilityElement> startingPoints,
+                         String name, TracePriority priority, long order) {
+      this.key = key;
+      this.utilityNetwork = utilityNetwork;
+      this.traceConfiguration = traceConfiguration;
+      this.startingPoints = startingPoints;
+      this.name = name;
+      this.priority = priority;
+      this.order = order;
+    }
+  }
+
+  /**
+   * The fingerprint of a trace request, which is the fingerprint of the trace and the settings applied to its result.
+   *
+   * @since 200.1.0
+   */
+  private static final class TraceRequestKey {
+
+    private final UtilityNetworkTraceResultCache.Key traceKey;
+    private final String name;
+    private final long timeoutMillis;
+    private final ResultDisplayMode displayMode;
+
+    private TraceRequestKey(UtilityNetworkTraceResultCache.Key traceKey, String name, long timeoutMillis,
+                            ResultDisplayMode displayMode) {
+      this.traceKey = traceKey;
+      this.name = name;
+      this.timeoutMillis = timeoutMillis;
+      this.displayMode = displayMode;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof TraceRequestKey)) {
+        return false;
+      }
+      var key = (TraceRequestKey) o;
+      return traceKey.equals(key.traceKey) && Objects.equals(name, key.name) && timeoutMillis == key.timeoutMillis &&
+        displayMode == key.displayMode;
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(traceKey, name, timeoutMillis, displayMode);
+    }
+  }
 }
@@ -30,6 +30,7 @@ public class UtilityNetworkTraceToolCompletedTrace {
   private final List<UtilityTraceResult> utilityTraceResults;
   private final Exception exception;
   private final UtilityTraceParameters utilityTraceParameters;
+  private final UtilityNetworkTraceMetrics metrics;
 
   /**
    * Creates a UtilityNetworkTraceToolCompletedTrace.
@@ -43,9 +44,27 @@ public class UtilityNetworkTraceToolCompletedTrace {
     List<UtilityTraceResult> utilityTraceResults,
     Exception exception,
     UtilityTraceParameters utilityTraceParameters) {
+    this(utilityTraceResults, exception, utilityTraceParameters, new UtilityNetworkTraceMetrics());
+  }
+
+  /**
+   * Creates a UtilityNetworkTraceToolCompletedTrace with the metrics of the trace.
+   *
+   * @param utilityTraceResults the results associated with the trace
+   * @param exception the exception associated with an unsuccessful result
+   * @param utilityTraceParameters the utility trace parameters used to run the trace
+   * @param metrics the metrics of the trace
+   * @since 200.1.0
+   */
+  protected UtilityNetworkTraceToolCompletedTrace(
+    List<UtilityTraceResult> utilityTraceResults,
+    Exception exception,
+    UtilityTraceParameters utilityTraceParameters,
+    UtilityNetworkTraceMetrics metrics) {
     this.utilityTraceResults = utilityTraceResults;
     this.exception = exception;
     this.utilityTraceParameters = utilityTraceParameters;
+    this.metrics = metrics;
   }
 
   /**
@@ -77,4 +96,15 @@ public class UtilityNetworkTraceToolCompletedTrace {
   public UtilityTraceParameters getUtilityTraceParameters() {
     return utilityTraceParameters;
   }
+
+  /**
+   * Returns the metrics of the trace, which record the time spent in each of its phases. The metrics continue to be
+   * updated after the trace completes, as its features are selected and its view is built.
+   *
+   * @return the metrics
+   * @since 200.1.0
+   */
+  public UtilityNetworkTraceMetrics getMetrics() {
+    return metrics;
+  }
 }
@@ -18,7 +18,7 @@ package com.esri.arcgisruntime.toolkit.skins;
 
 import com.esri.arcgisruntime.toolkit.Compass;
 import javafx.animation.FadeTransition;
-import javafx.application.Platform;
+import javafx.animation.PauseTransition;
 import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleDoubleProperty;
 import javafx.event.ActionEvent;
@@ -37,10 +37,6 @@ import javafx.scene.shape.StrokeType;
 import javafx.scene.shape.VLineTo;
 import javafx.util.Duration;
 
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
-
 /**
  * Implements a skin for the {@link Compass} control.
  *
@@ -62,8 +58,8 @@ public final class CompassSkin extends SkinBase<Compass> {
   // property that will be true when the compass is hidden
   private final SimpleBooleanProperty hiddenProperty = new SimpleBooleanProperty(true);
 
-  // a scheduled service used to perform a delayed fade in/out if auto-hide is enabled
-  private final ScheduledExecutorService scheduledService = Executors.newScheduledThreadPool(0);
+  // a delay before performing a fade in/out if auto-hide is enabled, which runs on the JavaFX application thread
+  private final PauseTransition fadeDelay = new PauseTransition(Duration.millis(TIMER_DURATION));
 
   /**
    * Creates an instance of the skin.
@@ -86,18 +82,19 @@ public final class CompassSkin extends SkinBase<Compass> {
     hiddenProperty.bind(control.autoHideProperty()
       .and(controlHeadingProperty.isEqualTo(0.0, HEADING_TOLERANCE)
       .or(controlHeadingProperty.isEqualTo(360.0, HEADING_TOLERANCE))));
+    fadeDelay.setOnFinished(event -> {
+      FadeTransition fadeTransition = new FadeTransition(Duration.millis(TIMER_DURATION), stackPane);
+      if (hiddenProperty.get()) {
+        fadeTransition.setToValue(0.0);
+      } else {
+        fadeTransition.setToValue(1.0);
+      }
+      fadeTransition.play();
+    });
     hiddenProperty.addListener(observable -> {
       // when the hidden property changes schedule to perform a fade in/out - having a delay prevents the compass from
       // starting to fade if it momentarily passes through north
-      scheduledService.schedule(() -> Platform.runLater(() -> {
-        FadeTransition fadeTransition = new FadeTransition(Duration.millis(TIMER_DURATION), stackPane);
-        if (hiddenProperty.get()) {
-          fadeTransition.setToValue(0.0);
-        } else {
-          fadeTransition.setToValue(1.0);
-        }
-        fadeTransition.play();
-      }), TIMER_DURATION, TimeUnit.MILLISECONDS);
+      fadeDelay.playFromStart();
     });
 
     // initial opacity based on the auto-hide property
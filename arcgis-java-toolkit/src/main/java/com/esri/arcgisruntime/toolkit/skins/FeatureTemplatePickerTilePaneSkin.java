@@ -16,7 +16,6 @@
 
 package com.esri.arcgisruntime.toolkit.skins;
 
-import com.esri.arcgisruntime.concurrent.ListenableFuture;
 import com.esri.arcgisruntime.layers.FeatureLayer;
 import com.esri.arcgisruntime.loadable.LoadStatus;
 import com.esri.arcgisruntime.mapping.view.Graphic;
@@ -24,6 +23,8 @@ import com.esri.arcgisruntime.symbology.Symbol;
 import com.esri.arcgisruntime.toolkit.FeatureTemplateGroup;
 import com.esri.arcgisruntime.toolkit.FeatureTemplateItem;
 import com.esri.arcgisruntime.toolkit.FeatureTemplatePicker;
+import com.esri.arcgisruntime.toolkit.SymbolSwatchCache;
+import com.esri.arcgisruntime.toolkit.ToolkitExecutors;
 import javafx.beans.binding.Bindings;
 import javafx.collections.ListChangeListener;
 import javafx.css.PseudoClass;
@@ -37,7 +38,6 @@ import javafx.scene.control.Toggle;
 import javafx.scene.control.ToggleButton;
 import javafx.scene.control.ToggleGroup;
 import javafx.scene.control.Tooltip;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Pane;
@@ -48,7 +48,6 @@ import javafx.stage.Screen;
 
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
 
 /**
@@ -190,7 +189,8 @@ public final class FeatureTemplatePickerTilePaneSkin extends SkinBase<FeatureTem
           })
           .toArray(CompletableFuture<?>[]::new);
       // wait until all updates finished before updating layout normally
-      CompletableFuture.allOf(futures).whenCompleteAsync((future, exception) -> getSkinnable().requestLayout());
+      CompletableFuture.allOf(futures).whenCompleteAsync((future, exception) -> getSkinnable().requestLayout(),
+          ToolkitExecutors.getFxExecutor());
     } else {
       super.layoutChildren(contentX, contentY, contentWidth, contentHeight);
     }
@@ -345,22 +345,22 @@ public final class FeatureTemplatePickerTilePaneSkin extends SkinBase<FeatureTem
     // get a symbol from the graphic based on the feature template item's feature layer's renderer
     final FeatureLayer featureLayer = featureTemplateItem.getFeatureLayer();
     Symbol symbol = featureLayer.getRenderer().getSymbol(graphic);
-    // create a swatch of the symbol according to the control's symbol size property
-    ListenableFuture<Image> swatch = symbol.createSwatchAsync(this.getSkinnable().getSymbolSize(),
-        this.getSkinnable().getSymbolSize(), (float) Screen.getPrimary().getOutputScaleX(), Color.TRANSPARENT);
-    // update the image view's image with the swatch
-    swatch.addDoneListener(() -> {
-      try {
-        // ensure the image view's width and height match the symbol size property
-        imageView.setFitHeight(getSkinnable().getSymbolSize());
-        imageView.setFitWidth(getSkinnable().getSymbolSize());
-        imageView.setImage(swatch.get());
-        updateFuture.complete(null);
-      } catch (InterruptedException | ExecutionException | IllegalArgumentException e) {
-        imageView.setImage(null);
-        updateFuture.completeExceptionally(e);
-      }
-    });
+    // get a swatch of the symbol according to the control's symbol size property, shared with other controls
+    SymbolSwatchCache.getSwatchAsync(symbol, this.getSkinnable().getSymbolSize(),
+        this.getSkinnable().getSymbolSize(), (float) Screen.getPrimary().getOutputScaleX(), Color.TRANSPARENT)
+      // update the image view's image with the swatch
+      .whenCompleteAsync((swatch, exception) -> {
+        if (exception == null) {
+          // ensure the image view's width and height match the symbol size property
+          imageView.setFitHeight(getSkinnable().getSymbolSize());
+          imageView.setFitWidth(getSkinnable().getSymbolSize());
+          imageView.setImage(swatch);
+          updateFuture.complete(null);
+        } else {
+          imageView.setImage(null);
+          updateFuture.completeExceptionally(exception);
+        }
+      }, ToolkitExecutors.getFxExecutor());
 
     return updateFuture;
   }
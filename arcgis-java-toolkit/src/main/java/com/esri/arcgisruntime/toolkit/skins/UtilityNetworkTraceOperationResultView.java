@@ -16,11 +16,24 @@
 
 package com.esri.arcgisruntime.toolkit.skins;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 import com.esri.arcgisruntime.mapping.Viewpoint;
 import com.esri.arcgisruntime.toolkit.UtilityNetworkTraceOperationResult;
+import com.esri.arcgisruntime.utilitynetworks.UtilityElement;
+import javafx.animation.PauseTransition;
+import javafx.beans.binding.Bindings;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.collections.FXCollections;
+import javafx.collections.transformation.FilteredList;
+import javafx.collections.transformation.SortedList;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.Button;
@@ -28,12 +41,16 @@ import javafx.scene.control.CheckBox;
 import javafx.scene.control.Label;
 import javafx.scene.control.ScrollPane;
 import javafx.scene.control.Tab;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.control.TextField;
 import javafx.scene.control.TitledPane;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Region;
 import javafx.scene.layout.VBox;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Rectangle;
+import javafx.util.Duration;
 
 /**
  * A custom Tab for a UtilityNetworkTraceOperationResult displayed in a {@link UtilityNetworkTraceSkin}.
@@ -46,6 +63,10 @@ import javafx.scene.shape.Rectangle;
  */
 public class UtilityNetworkTraceOperationResultView extends Tab {
 
+  private static final double ELEMENT_TABLE_CELL_HEIGHT = 24.0;
+  // the delay after the last change to the filters of the element table before the elements are filtered again
+  private static final Duration ELEMENT_FILTER_DELAY = Duration.millis(250);
+
   private final UtilityNetworkTraceOperationResult result;
   private final UtilityNetworkTraceSkin skin;
   private final VBox vBox = new VBox(10);
@@ -127,14 +148,20 @@ public class UtilityNetworkTraceOperationResultView extends Tab {
       displayZoomButton();
     }
 
-    if (!result.getFunctionResults().isEmpty()) {
+    if (!result.getFunctionResultValues().isEmpty()) {
       // if there are function results, configure the UI
       displayFunctionResults();
     }
 
+    if (result.getDiff() != null) {
+      // if the result shows the differences between two results, configure the differences UI
+      displayDiff();
+    }
+
     if (!result.getElementResults().isEmpty()) {
-      // if there are element results, configure the feature results UI
+      // if there are element results, configure the feature results and element table UI
       displayElementResults();
+      displayElementTable();
     }
 
     if (!result.getResultsGraphicsOverlay().getGraphics().isEmpty()) {
@@ -174,14 +201,14 @@ public class UtilityNetworkTraceOperationResultView extends Tab {
     functionResultsTitledPane.setText("Function results");
 
     var functionResultsVBox = new VBox(5);
-    result.getFunctionResults().forEach(functionResult -> {
+    result.getFunctionResultValues().forEach(functionResult -> {
       var hBox = new HBox(20);
       var networkAttributeName = new Label();
-      networkAttributeName.setText(functionResult.getFunction().getNetworkAttribute().getName());
+      networkAttributeName.setText(functionResult.getNetworkAttributeName());
       var functionType = new Label();
-      functionType.setText(functionResult.getFunction().getFunctionType().toString());
+      functionType.setText(functionResult.getFunctionType().toString());
       var functionResultValue = new Label();
-      functionResultValue.setText(functionResult.getResult().toString());
+      functionResultValue.setText(String.valueOf(functionResult.getResult()));
       hBox.getChildren().addAll(networkAttributeName, functionType, functionResultValue);
       functionResultsVBox.getChildren().add(hBox);
     });
@@ -190,6 +217,41 @@ public class UtilityNetworkTraceOperationResultView extends Tab {
     vBox.getChildren().add(functionResultsTitledPane);
   }
 
+  /**
+   * Configures and displays the UI for the number of added, removed and common elements of each network source, when
+   * this result shows the differences between two trace results.
+   *
+   * @since 200.1.0
+   */
+  private void displayDiff() {
+    var diffTitledPane = new TitledPane();
+    diffTitledPane.setExpanded(true);
+    diffTitledPane.setText("Differences");
+
+    var diffVBox = new VBox(5);
+    var totalsLabel = new Label();
+    var diff = result.getDiff();
+    totalsLabel.setText(diff.getAddedCount() + " added, " + diff.getRemovedCount() + " removed, " +
+      diff.getCommonCount() + " common");
+    diffVBox.getChildren().add(totalsLabel);
+    diff.getNetworkSourceDiffs().forEach(networkSourceDiff -> {
+      var hBox = new HBox(20);
+      var networkSourceName = new Label();
+      networkSourceName.setText(networkSourceDiff.getNetworkSourceName());
+      var added = new Label();
+      added.setText("+" + networkSourceDiff.getAddedCount());
+      var removed = new Label();
+      removed.setText("-" + networkSourceDiff.getRemovedCount());
+      var common = new Label();
+      common.setText("=" + networkSourceDiff.getCommonCount());
+      hBox.getChildren().addAll(networkSourceName, added, removed, common);
+      diffVBox.getChildren().add(hBox);
+    });
+
+    diffTitledPane.setContent(diffVBox);
+    vBox.getChildren().add(diffTitledPane);
+  }
+
   /**
    * Configures and displays the UI for displaying element results relating to this trace result.
    *
@@ -206,25 +268,211 @@ public class UtilityNetworkTraceOperationResultView extends Tab {
     selectFeaturesCheckbox.setText("Select features on map");
     selectFeaturesCheckbox.selectedProperty().bindBidirectional(result.isSelectedProperty());
 
-    // creates a list of the number of features per asset group
+    // the number of features per network source, asset group and asset type is only displayed once the pane is
+    // first expanded
     var elementResultsVBox = new VBox(5);
-    HashMap<String, Integer> numberOfEachGroup = new HashMap<>();
-    result.getElementResultsByAssetGroup().keySet().forEach(key ->
-      numberOfEachGroup.put(key.getName(), result.getElementResultsByAssetGroup().get(key).size()));
-    numberOfEachGroup.keySet().forEach(key -> {
-      var hBox = new HBox(20);
-      var assetGroup = new Label();
-      assetGroup.setText(key);
-      var count = new Label();
-      count.setText(String.valueOf(numberOfEachGroup.get(key)));
-      hBox.getChildren().addAll(assetGroup, count);
-      elementResultsVBox.getChildren().add(hBox);
+    featureResultsTitledPane.expandedProperty().addListener((observable, oldValue, newValue) -> {
+      if (newValue && elementResultsVBox.getChildren().isEmpty()) {
+        displayElementCounts(elementResultsVBox);
+      }
     });
     featureResultsVBox.getChildren().addAll(selectFeaturesCheckbox, elementResultsVBox);
     featureResultsTitledPane.setContent(featureResultsVBox);
     vBox.getChildren().addAll(featureResultsTitledPane);
   }
 
+  /**
+   * Displays the number of features of each network source, asset group and asset type from the summary of this
+   * trace result.
+   *
+   * @param elementResultsVBox the VBox to add the counts to
+   * @since 200.1.0
+   */
+  private void displayElementCounts(VBox elementResultsVBox) {
+    var summary = result.getSummary();
+    var assetTypeIndex = 0;
+    for (int assetGroupIndex = 0; assetGroupIndex < summary.getAssetGroupCount(); assetGroupIndex++) {
+      var networkSourceIndex = summary.getAssetGroupNetworkSourceIndex(assetGroupIndex);
+      if (assetGroupIndex == 0 || summary.getAssetGroupNetworkSourceIndex(assetGroupIndex - 1) != networkSourceIndex) {
+        // asset groups are ordered by network source, so a network source starts when its first asset group is found
+        elementResultsVBox.getChildren().add(createCountHBox(summary.getNetworkSource(networkSourceIndex).getName(),
+          summary.getNetworkSourceElementCount(networkSourceIndex), 0));
+      }
+      elementResultsVBox.getChildren().add(createCountHBox(summary.getAssetGroup(assetGroupIndex).getName(),
+        summary.getAssetGroupElementCount(assetGroupIndex), 1));
+      // asset types are ordered by asset group
+      while (assetTypeIndex < summary.getAssetTypeCount() &&
+        summary.getAssetTypeAssetGroupIndex(assetTypeIndex) == assetGroupIndex) {
+        elementResultsVBox.getChildren().add(createCountHBox(summary.getAssetType(assetTypeIndex).getName(),
+          summary.getAssetTypeElementCount(assetTypeIndex), 2));
+        assetTypeIndex++;
+      }
+    }
+  }
+
+  /**
+   * Creates a row with a name and a number of features.
+   *
+   * @param name the name
+   * @param count the number of features
+   * @param level the level of indentation of the row
+   * @return the row
+   * @since 200.1.0
+   */
+  private HBox createCountHBox(String name, int count, int level) {
+    var hBox = new HBox(20);
+    hBox.setPadding(new Insets(0, 0, 0, level * 15));
+    var nameLabel = new Label();
+    nameLabel.setText(name);
+    var countLabel = new Label();
+    countLabel.setText(String.valueOf(count));
+    hBox.getChildren().addAll(nameLabel, countLabel);
+    return hBox;
+  }
+
+  /**
+   * Configures and displays the UI for a table of the element results of this trace result, which is only built once
+   * its pane is first expanded.
+   *
+   * @since 200.1.0
+   */
+  private void displayElementTable() {
+    var elementsTitledPane = new TitledPane();
+    elementsTitledPane.setExpanded(false);
+    elementsTitledPane.setText("Elements");
+    var elementsVBox = new VBox(5);
+    elementsTitledPane.expandedProperty().addListener((observable, oldValue, newValue) -> {
+      if (newValue && elementsVBox.getChildren().isEmpty()) {
+        createElementTable(elementsVBox);
+      }
+    });
+    elementsTitledPane.setContent(elementsVBox);
+    vBox.getChildren().add(elementsTitledPane);
+  }
+
+  /**
+   * Creates a table of the element results of this trace result, with a column for the network source, asset group,
+   * asset type, terminal and object ID of each element. Each column can be sorted by clicking its header, and filtered
+   * with the text field above it.
+   *
+   * <p>
+   * The table only creates cells for the visible rows, and the values of the cells are read from the elements as the
+   * rows are displayed, so the memory used by the table does not depend on the number of elements. The elements are
+   * only filtered again once the filter text has not changed for a short delay, and only the columns with filter text
+   * are read from the elements while filtering.
+   *
+   * @param elementsVBox the VBox to add the table to
+   * @since 200.1.0
+   */
+  private void createElementTable(VBox elementsVBox) {
+    // the element results are wrapped rather than copied
+    var elements = FXCollections.observableList(result.getElementResults());
+    var filteredElements = new FilteredList<>(elements);
+    var sortedElements = new SortedList<>(filteredElements);
+
+    var tableView = new TableView<UtilityElement>(sortedElements);
+    sortedElements.comparatorProperty().bind(tableView.comparatorProperty());
+    // a fixed cell size allows the rows to be laid out without measuring each of them
+    tableView.setFixedCellSize(ELEMENT_TABLE_CELL_HEIGHT);
+    tableView.setPrefHeight(ELEMENT_TABLE_CELL_HEIGHT * 12);
+    tableView.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
+    tableView.setPlaceholder(new Label("No elements match the filters."));
+    List<Function<UtilityElement, ?>> valueFunctions = List.of(
+      element -> element.getNetworkSource().getName(),
+      element -> element.getAssetGroup().getName(),
+      element -> element.getAssetType().getName(),
+      element -> element.getTerminal() != null ? element.getTerminal().getName() : null,
+      result::getElementObjectId);
+    List<TableColumn<UtilityElement, ?>> columns = List.of(
+      createElementColumn("Network source", valueFunctions.get(0)),
+      createElementColumn("Asset group", valueFunctions.get(1)),
+      createElementColumn("Asset type", valueFunctions.get(2)),
+      createElementColumn("Terminal", valueFunctions.get(3)),
+      createElementColumn("Object ID", valueFunctions.get(4)));
+    tableView.getColumns().addAll(columns);
+
+    // a text field above each column filters the elements by the text displayed in the column, once typing pauses
+    var filtersHBox = new HBox();
+    var filterTextFields = new ArrayList<TextField>();
+    var filterDelay = new PauseTransition(ELEMENT_FILTER_DELAY);
+    filterDelay.setOnFinished(event ->
+      filteredElements.setPredicate(createElementFilter(valueFunctions, filterTextFields)));
+    for (var column : columns) {
+      var filterTextField = new TextField();
+      filterTextField.setPromptText("Filter");
+      filterTextField.setMinWidth(0);
+      filterTextField.prefWidthProperty().bind(column.widthProperty());
+      filterTextField.textProperty().addListener(observable -> filterDelay.playFromStart());
+      filterTextFields.add(filterTextField);
+      filtersHBox.getChildren().add(filterTextField);
+    }
+
+    var countLabel = new Label();
+    countLabel.textProperty().bind(
+      Bindings.format("%d of %d elements", Bindings.size(filteredElements), elements.size()));
+    elementsVBox.getChildren().addAll(filtersHBox, tableView, countLabel);
+  }
+
+  /**
+   * Creates a column of the element table, with values read from the element of each row as it is displayed.
+   *
+   * @param name the name of the column
+   * @param valueFunction returns the value of the column for an element
+   * @param <T> the type of the values of the column
+   * @return the column
+   * @since 200.1.0
+   */
+  private static <T> TableColumn<UtilityElement, T> createElementColumn(
+    String name, Function<UtilityElement, T> valueFunction) {
+    var column = new TableColumn<UtilityElement, T>(name);
+    column.setCellValueFactory(cellData -> new ReadOnlyObjectWrapper<>(valueFunction.apply(cellData.getValue())));
+    return column;
+  }
+
+  /**
+   * Creates a filter that accepts the elements whose value in each column contains the text of the filter text field
+   * of the column, ignoring case.
+   *
+   * <p>
+   * The values of the filtered columns are read from each element as it is tested. The names in the columns are
+   * shared by many elements, so their lower-cased text is cached for as long as the filter is in use, which keeps the
+   * memory used by the filter proportional to the number of distinct names rather than the number of elements.
+   *
+   * @param valueFunctions return the value of each column for an element
+   * @param filterTextFields the filter text fields of the columns
+   * @return the filter. Null if none of the text fields have text, so that all elements are displayed
+   * @since 200.1.0
+   */
+  private static Predicate<UtilityElement> createElementFilter(
+    List<Function<UtilityElement, ?>> valueFunctions, List<TextField> filterTextFields) {
+    var filterTexts = new String[filterTextFields.size()];
+    var isFiltered = false;
+    for (int i = 0; i < filterTexts.length; i++) {
+      filterTexts[i] = filterTextFields.get(i).getText().trim().toLowerCase(Locale.ROOT);
+      isFiltered |= !filterTexts[i].isEmpty();
+    }
+    if (!isFiltered) {
+      return null;
+    }
+    Map<String, String> lowerCaseTexts = new HashMap<>();
+    return element -> {
+      for (int i = 0; i < filterTexts.length; i++) {
+        if (filterTexts[i].isEmpty()) {
+          continue;
+        }
+        var value = valueFunctions.get(i).apply(element);
+        // object IDs are unique to each element and have no case, so they are not cached
+        var text = value instanceof String ?
+          lowerCaseTexts.computeIfAbsent((String) value, name -> name.toLowerCase(Locale.ROOT)) :
+          Objects.toString(value, "");
+        if (!text.contains(filterTexts[i])) {
+          return false;
+        }
+      }
+      return true;
+    };
+  }
+
   /**
    * Configures and displays the UI for displaying visualization options for graphics relating to this trace result.
    *
@@ -16,6 +16,7 @@
 
 package com.esri.arcgisruntime.toolkit.skins;
 
+import java.util.function.BiConsumer;
 import java.util.logging.Logger;
 
 import com.esri.arcgisruntime.mapping.view.MapView;
@@ -27,6 +28,7 @@ import com.esri.arcgisruntime.utilitynetworks.UtilityNetwork;
 import javafx.application.Platform;
 import javafx.beans.binding.Bindings;
 import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.property.SimpleDoubleProperty;
 import javafx.beans.property.SimpleListProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.property.SimpleStringProperty;
@@ -38,6 +40,7 @@ import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Node;
 import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
 import javafx.scene.control.ListCell;
@@ -48,6 +51,7 @@ import javafx.scene.control.SkinBase;
 import javafx.scene.control.Tab;
 import javafx.scene.control.TabPane;
 import javafx.scene.control.TextField;
+import javafx.scene.control.cell.CheckBoxListCell;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
@@ -105,6 +109,8 @@ public class UtilityNetworkTraceSkin extends SkinBase<UtilityNetworkTraceTool> {
   public final SimpleBooleanProperty enableTraceProperty = new SimpleBooleanProperty();
   public final SimpleBooleanProperty isIdentifyInProgressProperty = new SimpleBooleanProperty(false);
   public final SimpleBooleanProperty isTraceInProgressProperty = new SimpleBooleanProperty(false);
+  public final SimpleDoubleProperty traceProgressProperty = new SimpleDoubleProperty(ProgressIndicator.INDETERMINATE_PROGRESS);
+  public final SimpleBooleanProperty isTraceConfigurationsLoadingInProgressProperty = new SimpleBooleanProperty(false);
   public final SimpleListProperty<UtilityNetwork> utilityNetworksProperty = new SimpleListProperty<>(FXCollections.observableArrayList());
   public final SimpleListProperty<UtilityNamedTraceConfiguration> traceConfigurationsProperty = new SimpleListProperty<>(FXCollections.observableArrayList());
   public final SimpleListProperty<UtilityNetworkTraceStartingPoint> startingPointsProperty = new SimpleListProperty<>(FXCollections.observableArrayList());
@@ -112,6 +118,13 @@ public class UtilityNetworkTraceSkin extends SkinBase<UtilityNetworkTraceTool> {
   public final SimpleObjectProperty<UtilityNetwork> selectedUtilityNetworkProperty = new SimpleObjectProperty<>();
   public final SimpleObjectProperty<UtilityNamedTraceConfiguration> selectedTraceConfigurationProperty = new SimpleObjectProperty<>();
   public final SimpleStringProperty traceNameProperty = new SimpleStringProperty();
+  public final SimpleBooleanProperty isRunningMultipleTraceConfigurationsProperty = new SimpleBooleanProperty(false);
+  public final SimpleListProperty<UtilityNamedTraceConfiguration> checkedTraceConfigurationsProperty = new SimpleListProperty<>(FXCollections.observableArrayList());
+  // the result of the selected result tab
+  public final SimpleObjectProperty<UtilityNetworkTraceOperationResult> selectedTraceResultProperty = new SimpleObjectProperty<>();
+  // called with each added result and the action that creates its view, so that the control can measure it
+  private BiConsumer<UtilityNetworkTraceOperationResult, Runnable> createResultViewHandler =
+    (result, createResultView) -> createResultView.run();
 
   @FXML ProgressIndicator utilityNetworkLoadingProgressIndicator;
   // displays if no utility networks are found
@@ -127,6 +140,7 @@ public class UtilityNetworkTraceSkin extends SkinBase<UtilityNetworkTraceTool> {
   // named trace configuration
   @FXML VBox traceConfigsNotFoundVBox;
   @FXML ComboBox<UtilityNamedTraceConfiguration> traceConfigComboBox;
+  @FXML VBox traceConfigsLoadingVBox;
   @FXML VBox traceConfigVBox;
   // starting points
   @FXML VBox startingPointsVBox;
@@ -138,6 +152,8 @@ public class UtilityNetworkTraceSkin extends SkinBase<UtilityNetworkTraceTool> {
   @FXML VBox addStartingPointProgressVBox;
   @FXML Button cancelIdentifyStartingPointsButton;
   @FXML TextField traceNameTextField;
+  @FXML CheckBox runMultipleTraceConfigurationsCheckBox;
+  @FXML ListView<UtilityNamedTraceConfiguration> multipleTraceConfigurationsListView;
   // warnings
   @FXML HBox aboveMinStartingPointsWarningHBox;
   @FXML HBox insufficientStartingPointsWarningHBox;
@@ -228,6 +244,18 @@ public class UtilityNetworkTraceSkin extends SkinBase<UtilityNetworkTraceTool> {
       clearResultsButton.setOnAction(eventHandler);
     }
   }
+
+  /**
+   * Takes a handler that is called to create the view of each added trace result, with the result and the action that
+   * creates the view. The handler must run the action.
+   *
+   * @param createResultViewHandler the handler for creating result views
+   * @since 200.1.0
+   */
+  public void setCreateResultViewHandler(
+    BiConsumer<UtilityNetworkTraceOperationResult, Runnable> createResultViewHandler) {
+    this.createResultViewHandler = createResultViewHandler;
+  }
   /**
    * Returns the value of the variable used to define the height of the cells used in the starting points ListView.
    *
@@ -249,6 +277,7 @@ public class UtilityNetworkTraceSkin extends SkinBase<UtilityNetworkTraceTool> {
     utilityNetworkLoadingProgressIndicator.visibleProperty().bind(isMapAndUtilityNetworkLoadingInProgressProperty);
     utilityNetworkSelectionSetup();
     traceConfigurationSelectionSetup();
+    multipleTraceConfigurationsSetup();
     startingPointSelectionSetup();
     warningsSetup();
     traceControlsSetup();
@@ -302,9 +331,13 @@ public class UtilityNetworkTraceSkin extends SkinBase<UtilityNetworkTraceTool> {
     // only display the trace configuration settings when there is a utility network selected
     traceConfigVBox.visibleProperty().bind(selectedUtilityNetworkProperty.isNotNull());
 
+    // display progress while the trace configurations for the selected utility network are being queried
+    traceConfigsLoadingVBox.visibleProperty().bind(isTraceConfigurationsLoadingInProgressProperty);
+
     // only display the combobox if there are available trace configurations, otherwise show warning
     traceConfigComboBox.visibleProperty().bind(traceConfigurationsProperty.emptyProperty().not());
-    traceConfigsNotFoundVBox.visibleProperty().bind(traceConfigurationsProperty.emptyProperty());
+    traceConfigsNotFoundVBox.visibleProperty().bind(
+      Bindings.and(traceConfigurationsProperty.emptyProperty(), isTraceConfigurationsLoadingInProgressProperty.not()));
     startingPointsVBox.visibleProperty().bind(traceConfigurationsProperty.emptyProperty().not());
 
     // trace config combobox displays the trace configs
@@ -326,6 +359,37 @@ public class UtilityNetworkTraceSkin extends SkinBase<UtilityNetworkTraceTool> {
     }));
   }
 
+  /**
+   * Configures the UI, listeners and properties relating to running multiple trace configurations at once from the
+   * same starting points.
+   *
+   * @since 200.1.0
+   */
+  private void multipleTraceConfigurationsSetup() {
+    // keep the mode in sync with the checkbox
+    isRunningMultipleTraceConfigurationsProperty.bindBidirectional(runMultipleTraceConfigurationsCheckBox.selectedProperty());
+    // only display the list of trace configurations to run when the mode is enabled
+    multipleTraceConfigurationsListView.visibleProperty().bind(isRunningMultipleTraceConfigurationsProperty);
+
+    // the list displays a checkbox for each available trace configuration
+    multipleTraceConfigurationsListView.itemsProperty().bind(traceConfigurationsProperty);
+    multipleTraceConfigurationsListView.setCellFactory(CheckBoxListCell.forListView(traceConfig -> {
+      var isChecked = new SimpleBooleanProperty(checkedTraceConfigurationsProperty.contains(traceConfig));
+      isChecked.addListener((observable, oldValue, newValue) -> {
+        if (newValue && !checkedTraceConfigurationsProperty.contains(traceConfig)) {
+          checkedTraceConfigurationsProperty.add(traceConfig);
+        } else if (!newValue) {
+          checkedTraceConfigurationsProperty.remove(traceConfig);
+        }
+      });
+      return isChecked;
+    }, new UtilityNamedTraceConfigurationStringConverter()));
+
+    // discard checked trace configurations that are no longer available e.g. if the utility network changes
+    traceConfigurationsProperty.addListener((ListChangeListener<UtilityNamedTraceConfiguration>) c ->
+      checkedTraceConfigurationsProperty.retainAll(traceConfigurationsProperty));
+  }
+
   /**
    * Configures the UI, listeners and properties relating to the selection of starting points.
    *
@@ -381,18 +445,23 @@ public class UtilityNetworkTraceSkin extends SkinBase<UtilityNetworkTraceTool> {
     // bind the trace name to the value in the text field
     traceNameProperty.bind(traceNameTextField.textProperty());
 
-    // only enable the trace button if trace is enabled
-    runTraceButton.disableProperty().bind(enableTraceProperty.not());
+    // only enable the trace button if trace is enabled, and if running multiple trace configurations, at least one
+    // is checked
+    runTraceButton.disableProperty().bind(Bindings.or(enableTraceProperty.not(),
+      Bindings.and(isRunningMultipleTraceConfigurationsProperty, checkedTraceConfigurationsProperty.emptyProperty())));
+
+    // display the progress of the running traces, including progress of fetching features for large results
+    traceInProgressBar.progressProperty().bind(traceProgressProperty);
 
     // configure the UI for when a trace is running
     isTraceInProgressProperty.addListener(((observable, oldValue, newValue) -> {
+      // results are displayed alongside the progress so that results from multiple traces can be viewed as they
+      // complete
       if (newValue) {
         tabPane.getSelectionModel().select(resultsTab);
         newTraceTab.setDisable(true);
-        resultsVBox.setVisible(false);
         traceInProgressVBox.setVisible(true);
       } else {
-        resultsVBox.setVisible(true);
         traceInProgressVBox.setVisible(false);
         newTraceTab.setDisable(false);
       }
@@ -407,6 +476,7 @@ public class UtilityNetworkTraceSkin extends SkinBase<UtilityNetworkTraceTool> {
   private void resultsSetup() {
     // only show the results tab when there are results and/or a result is in progress
     noResultsFoundVBox.visibleProperty().bind(Bindings.and(isTraceInProgressProperty.not(), traceResultsProperty.emptyProperty()));
+    resultsVBox.visibleProperty().bind(noResultsFoundVBox.visibleProperty().not());
 
     // keep trace results in sync with data
     traceResultsProperty.addListener((ListChangeListener<UtilityNetworkTraceOperationResult>) c -> {
@@ -418,16 +488,21 @@ public class UtilityNetworkTraceSkin extends SkinBase<UtilityNetworkTraceTool> {
           resultsTabPane.getTabs().remove(findTabForResult(removedResult));
         }
         for (UtilityNetworkTraceOperationResult addedResult : c.getAddedSubList()) {
-          Platform.runLater(() -> {
+          Platform.runLater(() -> createResultViewHandler.accept(addedResult, () -> {
             // waits for result to finish process via async operation
             var tab = new UtilityNetworkTraceOperationResultView(this, addedResult);
             resultsTabPane.getTabs().add(tab);
             resultsTabPane.getSelectionModel().select(tab);
-          });
+          }));
         }
       }
     });
 
+    // keep the selected trace result in sync with the selected result tab
+    resultsTabPane.getSelectionModel().selectedItemProperty().addListener((observable, oldValue, newValue) ->
+      selectedTraceResultProperty.set(
+        newValue != null ? ((UtilityNetworkTraceOperationResultView) newValue).getResult() : null));
+
     // configure the clear results button and only display when there are trace results
     clearResultsButton.setOnAction(e -> traceResultsProperty.clear());
     clearResultsButton.visibleProperty().bind(Bindings.isNotEmpty(traceResultsProperty));
@@ -543,13 +618,15 @@ public class UtilityNetworkTraceSkin extends SkinBase<UtilityNetworkTraceTool> {
 
   /**
    * Defines a custom ListCell for the starting points ListView, which contains a custom BorderPane defined in
-   * {@link UtilityNetworkTraceStartingPointView}.
+   * {@link UtilityNetworkTraceStartingPointView}. The view is created once for each cell and rebound to the starting
+   * point of the cell as the cell is reused.
    *
    * @since 100.15.0
    */
   private static class StartingPointListCell extends ListCell<UtilityNetworkTraceStartingPoint> {
 
     private final UtilityNetworkTraceSkin skin;
+    private UtilityNetworkTraceStartingPointView startingPointView = null;
 
     public StartingPointListCell(UtilityNetworkTraceSkin skin) {
       this.skin = skin;
@@ -558,11 +635,18 @@ public class UtilityNetworkTraceSkin extends SkinBase<UtilityNetworkTraceTool> {
     @Override
     public void updateItem(UtilityNetworkTraceStartingPoint startingPoint, boolean empty) {
       super.updateItem(startingPoint, empty);
+      setText(null);
       if (startingPoint != null && !empty) {
-        setText(null);
-        setGraphic(new UtilityNetworkTraceStartingPointView(skin, startingPoint));
+        if (startingPointView == null) {
+          startingPointView = new UtilityNetworkTraceStartingPointView(skin);
+        }
+        startingPointView.setStartingPoint(startingPoint);
+        setGraphic(startingPointView);
       } else {
-        setText(null);
+        if (startingPointView != null) {
+          // release the starting point so that the cell does not keep it, or its bindings, once it is removed
+          startingPointView.setStartingPoint(null);
+        }
         setGraphic(null);
       }
     }
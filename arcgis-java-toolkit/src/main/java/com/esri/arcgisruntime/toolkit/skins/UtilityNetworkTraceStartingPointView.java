@@ -15,9 +15,11 @@
  */
 package com.esri.arcgisruntime.toolkit.skins;
 
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.CompletableFuture;
 
 import com.esri.arcgisruntime.mapping.Viewpoint;
+import com.esri.arcgisruntime.toolkit.SymbolSwatchCache;
+import com.esri.arcgisruntime.toolkit.ToolkitExecutors;
 import com.esri.arcgisruntime.toolkit.UtilityNetworkTraceStartingPoint;
 import com.esri.arcgisruntime.utilitynetworks.UtilityTerminal;
 import javafx.beans.binding.Bindings;
@@ -27,6 +29,7 @@ import javafx.scene.control.Button;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
 import javafx.scene.control.Slider;
+import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.HBox;
@@ -40,13 +43,34 @@ import javafx.util.StringConverter;
  * A custom BorderPane for a starting point displayed in a {@link UtilityNetworkTraceSkin}.
  *
  * <p>
- * Has custom style class applied if required for customization:
+ * The view is built once and can be rebound to a different starting point with
+ * {@link #setStartingPoint(UtilityNetworkTraceStartingPoint)}, so that the cells of a list of starting points can reuse
+ * their views as they are recycled. The swatch of the feature symbol is created asynchronously, and a placeholder is
+ * displayed until it is available.
+ *
+ * <p>
+ * Has custom style classes applied if required for customization:
  * utility-network-trace-starting-point-view
+ * utility-network-trace-starting-point-swatch-placeholder
  *
  * @since 100.15.0
  */
 public class UtilityNetworkTraceStartingPointView extends BorderPane {
 
+  private final UtilityNetworkTraceSkin skin;
+  private final ImageView featureSymbolImageView = new ImageView();
+  private final Label networkSourceLabel = new Label();
+  private final Label assetGroupLabel = new Label();
+  private final Button zoomButton = new Button();
+  private final VBox fractionTerminalsVBox = new VBox(5);
+  private final HBox fractionHBox = new HBox(5);
+  private final Slider fractionSlider = new Slider();
+  private final ComboBox<UtilityTerminal> terminalsComboBox = new ComboBox<>();
+
+  private UtilityNetworkTraceStartingPoint startingPoint = null;
+  // the swatch being created for the current starting point, if any
+  private CompletableFuture<Image> swatchFuture = null;
+
   /**
    * Creates a UtilityNetworkTraceStartingPointView.
    *
@@ -56,6 +80,19 @@ public class UtilityNetworkTraceStartingPointView extends BorderPane {
    */
   protected UtilityNetworkTraceStartingPointView(
     UtilityNetworkTraceSkin skin, UtilityNetworkTraceStartingPoint startingPoint) {
+    this(skin);
+    setStartingPoint(startingPoint);
+  }
+
+  /**
+   * Creates a UtilityNetworkTraceStartingPointView that does not display a starting point until one is set with
+   * {@link #setStartingPoint(UtilityNetworkTraceStartingPoint)}.
+   *
+   * @param skin the UtilityNetworkTraceSkin skin where the starting point is displayed
+   * @since 200.1.0
+   */
+  protected UtilityNetworkTraceStartingPointView(UtilityNetworkTraceSkin skin) {
+    this.skin = skin;
     double height = skin.getStartingPointListCellHeight() - 10;
     setPrefHeight(height);
     setMinHeight(height);
@@ -64,25 +101,20 @@ public class UtilityNetworkTraceStartingPointView extends BorderPane {
     getStyleClass().add("utility-network-trace-starting-point-view");
 
     // Left of the borderpane is a thumbnail image of the feature symbol.
-    // Setup and configure the feature symbol image
+    // Setup and configure the feature symbol image, with a placeholder displayed until the swatch is available
     var symbolVBox = new VBox();
     symbolVBox.setAlignment(Pos.CENTER);
     symbolVBox.setMinWidth(40);
-    var featureSymbolImageView = new ImageView();
-    symbolVBox.getChildren().add(featureSymbolImageView);
-    try {
-      featureSymbolImageView.setImage(
-        startingPoint.getFeatureSymbol().createSwatchAsync(Color.TRANSPARENT, 1f).get(5, TimeUnit.SECONDS));
-    } catch (Exception ex) {
-      // if the async swatch method fails, set the image to null
-      featureSymbolImageView.setImage(null);
-    }
+    var swatchPlaceholder = new Region();
+    swatchPlaceholder.getStyleClass().add("utility-network-trace-starting-point-swatch-placeholder");
+    swatchPlaceholder.visibleProperty().bind(featureSymbolImageView.imageProperty().isNull());
+    swatchPlaceholder.managedProperty().bind(swatchPlaceholder.visibleProperty());
+    featureSymbolImageView.managedProperty().bind(swatchPlaceholder.visibleProperty().not());
+    symbolVBox.getChildren().addAll(swatchPlaceholder, featureSymbolImageView);
     setLeft(symbolVBox);
 
     // Center of the borderpane are labels denoting the network source and asset group.
     // Configure the labels
-    var networkSourceLabel = new Label(startingPoint.getUtilityElement().getNetworkSource().getName());
-    var assetGroupLabel = new Label(startingPoint.getUtilityElement().getAssetGroup().getName());
     var labelsVBox = new VBox(5);
     labelsVBox.setAlignment(Pos.CENTER_LEFT);
     labelsVBox.getChildren().addAll(networkSourceLabel, assetGroupLabel);
@@ -92,80 +124,154 @@ public class UtilityNetworkTraceStartingPointView extends BorderPane {
     // Configure the buttons
     var buttonsHBox = new HBox(5);
     buttonsHBox.setAlignment(Pos.CENTER);
-    var zoomButton = new Button();
     Region zoomIcon = new Region();
     zoomIcon.getStyleClass().add("arcgis-toolkit-java-zoom-icon");
     zoomButton.setGraphic(zoomIcon);
-    if (startingPoint.getExtent() != null) {
-      zoomButton.setOnAction(e -> skin.controlMapView.setViewpoint(new Viewpoint(startingPoint.getExtent())));
-    } else {
-      zoomButton.setVisible(false);
-    }
+    zoomButton.setOnAction(e -> {
+      if (startingPoint != null && startingPoint.getExtent() != null) {
+        skin.controlMapView.setViewpoint(new Viewpoint(startingPoint.getExtent()));
+      }
+    });
     var deleteButton = new Button();
     Region trashIcon = new Region();
     trashIcon.getStyleClass().add("arcgis-toolkit-java-trash-icon");
     deleteButton.setGraphic(trashIcon);
     deleteButton.setAlignment(Pos.CENTER_RIGHT);
-    deleteButton.setOnAction(e -> skin.startingPointsProperty.remove(startingPoint));
+    deleteButton.setOnAction(e -> {
+      if (startingPoint != null) {
+        skin.startingPointsProperty.remove(startingPoint);
+      }
+    });
     buttonsHBox.getChildren().addAll(zoomButton, deleteButton);
     setRight(buttonsHBox);
 
     // Bottom of the borderpane is optional depending on whether the starting point has a fraction along edge value
     // and/or multiple terminals.
-    // Display a fraction slider if there is a fraction along edge property on the starting point
+    // Configure a slider that adjusts the fraction along edge property
+    fractionHBox.setMaxWidth(Double.MAX_VALUE);
+    fractionSlider.setMax(1);
+    fractionSlider.setShowTickMarks(true);
+    fractionSlider.setMajorTickUnit(0.1);
+    fractionSlider.setMinorTickCount(0);
+    HBox.setHgrow(fractionSlider, Priority.ALWAYS);
+    fractionSlider.setMaxWidth(Double.MAX_VALUE);
+    // configure a label that displays the fraction along edge value
+    var fractionLabel = new Label();
+    fractionLabel.textProperty().bind(Bindings.format("%.2f", fractionSlider.valueProperty()));
+    fractionHBox.getChildren().addAll(fractionSlider, fractionLabel);
+    fractionHBox.managedProperty().bind(fractionHBox.visibleProperty());
+
+    // configure a combobox that displays the available UtilityTerminal options
+    terminalsComboBox.setMaxWidth(Double.MAX_VALUE);
+    terminalsComboBox.setConverter(new StringConverter<>() {
+      @Override
+      public String toString(UtilityTerminal terminal) {
+        return terminal != null ? terminal.getName() : "";
+      }
+      @Override
+      public UtilityTerminal fromString(String fileName) {
+        return null;
+      }
+    });
+    terminalsComboBox.getSelectionModel().selectedItemProperty().addListener((observable, oldValue, newValue) -> {
+      if (newValue != null && startingPoint != null) {
+        startingPoint.getUtilityElement().setTerminal(newValue);
+      }
+    });
+    terminalsComboBox.managedProperty().bind(terminalsComboBox.visibleProperty());
+    fractionTerminalsVBox.getChildren().addAll(fractionHBox, terminalsComboBox);
+  }
+
+  /**
+   * Sets the starting point displayed by the view, replacing the starting point it displayed previously. The swatch
+   * of the feature symbol of the starting point is created asynchronously.
+   *
+   * @param startingPoint the UtilityNetworkTraceStartingPoint model for the starting point. Null to display nothing
+   * @since 200.1.0
+   */
+  protected void setStartingPoint(UtilityNetworkTraceStartingPoint startingPoint) {
+    if (startingPoint == this.startingPoint) {
+      return;
+    }
+    if (this.startingPoint != null) {
+      fractionSlider.valueProperty().unbindBidirectional(this.startingPoint.fractionAlongEdgeProperty());
+    }
+    // clear the starting point before the terminals are replaced, so that the terminal of the element is not changed
+    this.startingPoint = null;
+    terminalsComboBox.getItems().clear();
+    updateSwatch(startingPoint);
+
+    if (startingPoint == null) {
+      networkSourceLabel.setText(null);
+      assetGroupLabel.setText(null);
+      setBottom(null);
+      return;
+    }
+
+    var utilityElement = startingPoint.getUtilityElement();
+    networkSourceLabel.setText(utilityElement.getNetworkSource().getName());
+    assetGroupLabel.setText(utilityElement.getAssetGroup().getName());
+    zoomButton.setVisible(startingPoint.getExtent() != null);
+
+    // display a fraction slider if there is a fraction along edge property on the starting point
     var fractionSliderVisible = startingPoint.getHasFractionAlongEdge();
+    fractionHBox.setVisible(fractionSliderVisible);
+    if (fractionSliderVisible) {
+      fractionSlider.valueProperty().bindBidirectional(startingPoint.fractionAlongEdgeProperty());
+    }
+
+    // display a terminal picker if there are multiple terminals, selecting the terminal of the element
     var terminalPickerVisible = startingPoint.getHasMultipleTerminals();
+    terminalsComboBox.setVisible(terminalPickerVisible);
+    if (terminalPickerVisible) {
+      var terminals = utilityElement.getAssetType().getTerminalConfiguration().getTerminals();
+      terminalsComboBox.getItems().addAll(terminals);
+      terminalsComboBox.getSelectionModel().select(
+        utilityElement.getTerminal() != null ? utilityElement.getTerminal() : terminals.get(0));
+    }
+    this.startingPoint = startingPoint;
+    if (terminalPickerVisible && utilityElement.getTerminal() == null) {
+      utilityElement.setTerminal(terminalsComboBox.getSelectionModel().getSelectedItem());
+    }
+    setBottom(fractionSliderVisible || terminalPickerVisible ? fractionTerminalsVBox : null);
+  }
 
-    if (fractionSliderVisible || terminalPickerVisible) {
-      var fractionTerminalsVBox = new VBox(5);
-      setBottom(fractionTerminalsVBox);
-
-      if (fractionSliderVisible) {
-        var fractionHBox = new HBox(5);
-        fractionHBox.setMaxWidth(Double.MAX_VALUE);
-        // configure a slider that adjusts the fraction along edge property
-        var fractionSlider = new Slider();
-        fractionSlider.setMax(1);
-        fractionSlider.setShowTickMarks(true);
-        fractionSlider.setMajorTickUnit(0.1);
-        fractionSlider.setMinorTickCount(0);
-        HBox.setHgrow(fractionSlider, Priority.ALWAYS);
-        fractionSlider.setMaxWidth(Double.MAX_VALUE);
-        fractionSlider.valueProperty().bindBidirectional(startingPoint.fractionAlongEdgeProperty());
-        // configure a label that displays the fraction along edge value
-        var fractionLabel = new Label();
-        fractionLabel.textProperty().bind(Bindings.format("%.2f", fractionSlider.valueProperty()));
-        // add to the UI
-        fractionHBox.getChildren().addAll(fractionSlider, fractionLabel);
-        fractionTerminalsVBox.getChildren().add(fractionHBox);
-      }
+  /**
+   * Returns the starting point displayed by the view.
+   *
+   * @return the starting point. Null if the view does not display a starting point
+   * @since 200.1.0
+   */
+  protected UtilityNetworkTraceStartingPoint getStartingPoint() {
+    return startingPoint;
+  }
 
-      if (terminalPickerVisible) {
-        // configure a combobox that displays the available UtilityTerminal options
-        ComboBox<UtilityTerminal> terminalsComboBox = new ComboBox<>();
-        terminalsComboBox.setMaxWidth(Double.MAX_VALUE);
-        terminalsComboBox.setConverter(new StringConverter<>() {
-          @Override
-          public String toString(UtilityTerminal terminal) {
-            return terminal != null ? terminal.getName() : "";
-          }
-          @Override
-          public UtilityTerminal fromString(String fileName) {
-            return null;
-          }
-        });
-        terminalsComboBox.getItems().addAll(
-          startingPoint.getUtilityElement().getAssetType().getTerminalConfiguration().getTerminals());
-        terminalsComboBox.getSelectionModel().select(
-          startingPoint.getUtilityElement().getAssetType().getTerminalConfiguration().getTerminals().get(0));
-        terminalsComboBox.getSelectionModel().selectedItemProperty().addListener((observable, oldValue, newValue) -> {
-          if (newValue != null) {
-            startingPoint.getUtilityElement().setTerminal(newValue);
-          }
-        });
-        fractionTerminalsVBox.getChildren().add(terminalsComboBox);
-      }
+  /**
+   * Displays the placeholder and requests the swatch of the feature symbol of the provided starting point from the
+   * {@link SymbolSwatchCache}, cancelling the request for the swatch of the starting point displayed previously.
+   *
+   * @param startingPoint the starting point. Can be null
+   * @since 200.1.0
+   */
+  private void updateSwatch(UtilityNetworkTraceStartingPoint startingPoint) {
+    if (swatchFuture != null) {
+      swatchFuture.cancel(true);
+      swatchFuture = null;
+    }
+    featureSymbolImageView.setImage(null);
+    if (startingPoint == null || startingPoint.getFeatureSymbol() == null) {
+      return;
     }
+    var swatch = SymbolSwatchCache.getSwatchAsync(startingPoint.getFeatureSymbol(), Color.TRANSPARENT, 1f);
+    swatchFuture = swatch;
+    swatch.whenCompleteAsync((image, exception) -> {
+      // ignore the swatch if the view was rebound to another starting point while it was created
+      if (swatchFuture != swatch) {
+        return;
+      }
+      swatchFuture = null;
+      // if the swatch could not be created, keep displaying the placeholder
+      featureSymbolImageView.setImage(exception == null ? image : null);
+    }, ToolkitExecutors.getFxExecutor());
   }
 }
-
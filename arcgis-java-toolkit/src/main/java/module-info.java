@@ -23,6 +23,8 @@ module com.esri.arcgisruntime.toolkit {
 
   // require other modules required by this module
   requires java.logging;
+  // flight recorder events of trace phases are only recorded when the jdk.jfr module is available
+  requires static jdk.jfr;
 
   exports com.esri.arcgisruntime.toolkit;
   exports com.esri.arcgisruntime.toolkit.skins;
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2022 Esri
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.esri.arcgisruntime.toolkit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Long hash set unit tests.
+ */
+@DisplayName("long hash set unit tests")
+public class LongHashSetUnitTest {
+
+  /**
+   * Tests that zero, which marks empty slots, is stored like any other value.
+   */
+  @Test
+  @DisplayName("zero is a value")
+  void zero() {
+    var set = new LongHashSet(4);
+    assertFalse(set.contains(0));
+    assertTrue(set.add(0));
+    assertTrue(set.contains(0));
+    assertFalse(set.add(0));
+    assertEquals(1, set.size());
+
+    assertTrue(set.add(-1));
+    assertTrue(set.add(Long.MIN_VALUE));
+    assertTrue(set.add(Long.MAX_VALUE));
+    assertTrue(set.contains(0));
+    assertTrue(set.contains(Long.MIN_VALUE));
+    assertEquals(4, set.size());
+  }
+
+  /**
+   * Tests that duplicates are not added and do not change the size.
+   */
+  @Test
+  @DisplayName("duplicates are not added")
+  void duplicates() {
+    var set = new LongHashSet(0);
+    assertTrue(set.add(42));
+    assertFalse(set.add(42));
+    assertTrue(set.add(43));
+    assertFalse(set.add(43));
+    assertFalse(set.add(42));
+    assertEquals(2, set.size());
+    assertFalse(set.contains(44));
+  }
+
+  /**
+   * Tests that the set grows well past its initial capacity and keeps every value, including sequential and scattered
+   * values and values that collide in the low bits.
+   */
+  @Test
+  @DisplayName("values are kept when the set grows")
+  void growth() {
+    var set = new LongHashSet(0);
+    var count = 100_000;
+    for (long i = 0; i < count; i++) {
+      assertTrue(set.add(i));
+      assertTrue(set.add((i + 1) << 32));
+    }
+    assertEquals(count * 2, set.size());
+    for (long i = 0; i < count; i++) {
+      assertTrue(set.contains(i));
+      assertTrue(set.contains((i + 1) << 32));
+      assertFalse(set.add(i));
+    }
+    assertFalse(set.contains(count));
+    assertFalse(set.contains(-1));
+    assertEquals(count * 2, set.size());
+  }
+}
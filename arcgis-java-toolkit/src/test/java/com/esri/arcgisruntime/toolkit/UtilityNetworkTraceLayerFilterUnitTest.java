@@ -0,0 +1,109 @@
+/*
+ * Copyright 2022 Esri
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.esri.arcgisruntime.toolkit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Utility network trace layer filter unit tests for the definition expressions applied to layers.
+ */
+@DisplayName("utility network trace layer filter unit tests")
+public class UtilityNetworkTraceLayerFilterUnitTest {
+
+  /**
+   * Tests that no expression is created without object IDs.
+   */
+  @Test
+  @DisplayName("no expression for empty object IDs")
+  void emptyObjectIds() {
+    assertNull(UtilityNetworkTraceLayerFilter.createObjectIdExpression("OBJECTID", new long[0]));
+  }
+
+  /**
+   * Tests that runs of at least three consecutive object IDs are expressed as ranges and the rest are listed.
+   */
+  @Test
+  @DisplayName("runs of consecutive object IDs are ranges")
+  void runs() {
+    assertEquals("OBJECTID BETWEEN 5 AND 7",
+      UtilityNetworkTraceLayerFilter.createObjectIdExpression("OBJECTID", new long[] {7, 5, 6}));
+    assertEquals("OBJECTID IN (1,2)",
+      UtilityNetworkTraceLayerFilter.createObjectIdExpression("OBJECTID", new long[] {2, 1}));
+    assertEquals("OBJECTID BETWEEN 1 AND 3 OR OBJECTID BETWEEN 30 AND 33 OR OBJECTID IN (10,20,21)",
+      UtilityNetworkTraceLayerFilter.createObjectIdExpression("OBJECTID",
+        new long[] {20, 33, 1, 10, 3, 31, 2, 21, 30, 32}));
+  }
+
+  /**
+   * Tests that duplicate object IDs are listed once and do not lengthen runs.
+   */
+  @Test
+  @DisplayName("duplicate object IDs are ignored")
+  void duplicates() {
+    assertEquals("OBJECTID IN (3,4,9)",
+      UtilityNetworkTraceLayerFilter.createObjectIdExpression("OBJECTID", new long[] {3, 4, 3, 9, 4, 9}));
+    assertEquals("OBJECTID BETWEEN 1 AND 3",
+      UtilityNetworkTraceLayerFilter.createObjectIdExpression("OBJECTID", new long[] {1, 1, 2, 2, 3, 3}));
+    assertEquals("OBJECTID IN (8)",
+      UtilityNetworkTraceLayerFilter.createObjectIdExpression("OBJECTID", new long[] {8, 8, 8}));
+  }
+
+  /**
+   * Tests that listed object IDs are split into IN clauses of at most 1000 object IDs.
+   */
+  @Test
+  @DisplayName("IN clauses have at most 1000 object IDs")
+  void inClauseBoundary() {
+    var thousandObjectIds = LongStream.range(0, 1000).map(i -> i * 2).toArray();
+    assertEquals("OBJECTID IN (" + join(thousandObjectIds) + ")",
+      UtilityNetworkTraceLayerFilter.createObjectIdExpression("OBJECTID", thousandObjectIds));
+
+    var thousandAndOneObjectIds = LongStream.range(0, 1001).map(i -> i * 2).toArray();
+    assertEquals("OBJECTID IN (" + join(thousandObjectIds) + ") OR OBJECTID IN (2000)",
+      UtilityNetworkTraceLayerFilter.createObjectIdExpression("OBJECTID", thousandAndOneObjectIds));
+  }
+
+  /**
+   * Tests that the expressions of several results are combined with the original definition expression of a layer.
+   */
+  @Test
+  @DisplayName("definition expression combines the original expression and filters")
+  void definitionExpression() {
+    assertEquals("(A) OR (B)", UtilityNetworkTraceLayerFilter.createDefinitionExpression(null, List.of("A", "B")));
+    assertEquals("(A)", UtilityNetworkTraceLayerFilter.createDefinitionExpression(" ", List.of("A")));
+    assertEquals("(STATUS = 1) AND ((A) OR (B))",
+      UtilityNetworkTraceLayerFilter.createDefinitionExpression("STATUS = 1", List.of("A", "B")));
+  }
+
+  /**
+   * Joins object IDs into a comma separated list.
+   *
+   * @param objectIds the object IDs
+   * @return the list
+   */
+  private static String join(long[] objectIds) {
+    return LongStream.of(objectIds).mapToObj(Long::toString).collect(Collectors.joining(","));
+  }
+}
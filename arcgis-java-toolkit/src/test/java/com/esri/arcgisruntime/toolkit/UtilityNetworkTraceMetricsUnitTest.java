@@ -0,0 +1,91 @@
+/*
+ * Copyright 2022 Esri
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.esri.arcgisruntime.toolkit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Utility network trace metrics unit tests. The JavaFX toolkit is not started, as when traces are run by the engine
+ * in a batch job or service.
+ */
+@DisplayName("utility network trace metrics unit tests")
+public class UtilityNetworkTraceMetricsUnitTest {
+
+  /**
+   * Tests that metrics can be recorded and read on a thread other than the JavaFX application thread without the
+   * JavaFX toolkit running.
+   */
+  @Test
+  @DisplayName("metrics are recorded without the JavaFX toolkit")
+  void recordWithoutToolkit() throws InterruptedException {
+    var metrics = new UtilityNetworkTraceMetrics();
+    var failure = new AtomicReference<Throwable>();
+    var thread = new Thread(() -> {
+      try {
+        metrics.setStartingPointCount(2);
+        metrics.setElementCount(10);
+        metrics.setFeatureCount(5);
+        metrics.setFeatureCount(8);
+        metrics.addPhaseDuration(UtilityNetworkTraceMetrics.Phase.TRACE, 1_000_000);
+        metrics.addPhaseDuration(UtilityNetworkTraceMetrics.Phase.TRACE, 2_000_000);
+        metrics.addPhaseDuration(UtilityNetworkTraceMetrics.Phase.IDENTIFY, 500_000);
+        var phase = UtilityNetworkTracePhase.beginPhase(UtilityNetworkTraceMetrics.Phase.FETCH_FEATURES, "trace");
+        metrics.endPhase(phase, 10, 8);
+      } catch (Throwable e) {
+        failure.set(e);
+      }
+    });
+    thread.start();
+    thread.join();
+
+    assertNull(failure.get());
+    assertEquals(2, metrics.getStartingPointCount());
+    assertEquals(10, metrics.getElementCount());
+    assertEquals(8, metrics.getFeatureCount());
+    assertEquals(Duration.ofMillis(3), metrics.getPhaseDuration(UtilityNetworkTraceMetrics.Phase.TRACE));
+    assertEquals(Duration.ZERO, metrics.getPhaseDuration(UtilityNetworkTraceMetrics.Phase.BUILD_VIEW));
+    assertTrue(metrics.getTotalDuration().compareTo(Duration.ofNanos(3_500_000)) >= 0);
+  }
+
+  /**
+   * Tests that the recorded phase durations are a snapshot in phase order without the phases that have not run.
+   */
+  @Test
+  @DisplayName("recorded phase durations are a snapshot in phase order")
+  void recordedPhaseDurations() {
+    var metrics = new UtilityNetworkTraceMetrics();
+    metrics.addPhaseDuration(UtilityNetworkTraceMetrics.Phase.SELECT_FEATURES, 3);
+    metrics.addPhaseDuration(UtilityNetworkTraceMetrics.Phase.IDENTIFY, 1);
+
+    var snapshot = metrics.getRecordedPhaseDurations();
+    metrics.addPhaseDuration(UtilityNetworkTraceMetrics.Phase.TRACE, 2);
+
+    assertEquals(List.of(UtilityNetworkTraceMetrics.Phase.IDENTIFY, UtilityNetworkTraceMetrics.Phase.SELECT_FEATURES),
+      List.copyOf(snapshot.keySet()));
+    assertEquals(Duration.ofNanos(3), snapshot.get(UtilityNetworkTraceMetrics.Phase.SELECT_FEATURES));
+    assertEquals(3, metrics.getRecordedPhaseDurations().size());
+  }
+}
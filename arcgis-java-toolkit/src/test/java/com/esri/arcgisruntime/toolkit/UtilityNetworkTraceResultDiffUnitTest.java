@@ -0,0 +1,132 @@
+/*
+ * Copyright 2022 Esri
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.esri.arcgisruntime.toolkit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Utility network trace result diff unit tests. Elements are compared by object ID within each network source, which
+ * is tested with plain elements rather than utility elements.
+ */
+@DisplayName("utility network trace result diff unit tests")
+public class UtilityNetworkTraceResultDiffUnitTest {
+
+  /**
+   * Tests the added, removed and common object IDs of each network source when object IDs overlap across network
+   * sources.
+   */
+  @Test
+  @DisplayName("counts per network source with overlapping object IDs")
+  void overlappingObjectIds() {
+    var before = List.of(
+      new Element(1, 10), new Element(1, 11), new Element(1, 12), new Element(2, 10), new Element(2, 20));
+    var after = List.of(
+      new Element(1, 12), new Element(1, 13), new Element(2, 10), new Element(2, 11), new Element(3, 10));
+
+    var comparison = compare(before, after);
+
+    assertEquals(List.of(1, 2, 3), comparison.getSourceKeys());
+    assertArrayEquals(new long[] {13}, comparison.getAddedObjectIds(1));
+    assertArrayEquals(new long[] {10, 11}, comparison.getRemovedObjectIds(1));
+    assertArrayEquals(new long[] {12}, comparison.getCommonObjectIds(1));
+    assertArrayEquals(new long[] {11}, comparison.getAddedObjectIds(2));
+    assertArrayEquals(new long[] {20}, comparison.getRemovedObjectIds(2));
+    assertArrayEquals(new long[] {10}, comparison.getCommonObjectIds(2));
+    assertArrayEquals(new long[] {10}, comparison.getAddedObjectIds(3));
+    assertArrayEquals(new long[0], comparison.getRemovedObjectIds(3));
+    assertArrayEquals(new long[0], comparison.getCommonObjectIds(3));
+    assertEquals(List.of(after.get(1), after.get(3), after.get(4)), comparison.getAddedElements());
+    assertEquals(List.of(before.get(0), before.get(1), before.get(4)), comparison.getRemovedElements());
+  }
+
+  /**
+   * Tests that elements sharing an object ID, such as the terminals of a device, are counted once, and that the first
+   * of them is listed.
+   */
+  @Test
+  @DisplayName("duplicate object IDs are counted once")
+  void duplicateObjectIds() {
+    var before = List.of(new Element(1, 5), new Element(1, 5), new Element(1, 6), new Element(1, 7), new Element(1, 7));
+    var after = List.of(new Element(1, 8), new Element(1, 6), new Element(1, 8), new Element(1, 6), new Element(1, 0));
+
+    var comparison = compare(before, after);
+
+    assertArrayEquals(new long[] {8, 0}, comparison.getAddedObjectIds(1));
+    assertArrayEquals(new long[] {5, 7}, comparison.getRemovedObjectIds(1));
+    assertArrayEquals(new long[] {6}, comparison.getCommonObjectIds(1));
+    assertEquals(2, comparison.getAddedElements().size());
+    assertSame(after.get(0), comparison.getAddedElements().get(0));
+    assertSame(after.get(4), comparison.getAddedElements().get(1));
+    assertEquals(2, comparison.getRemovedElements().size());
+    assertSame(before.get(0), comparison.getRemovedElements().get(0));
+    assertSame(before.get(3), comparison.getRemovedElements().get(1));
+  }
+
+  /**
+   * Tests that identical results have no differences and that an empty before result adds every object ID.
+   */
+  @Test
+  @DisplayName("identical and empty results")
+  void identicalAndEmpty() {
+    var elements = List.of(new Element(1, 1), new Element(1, 2), new Element(2, 1));
+
+    var identical = compare(elements, elements);
+    assertArrayEquals(new long[] {1, 2}, identical.getCommonObjectIds(1));
+    assertArrayEquals(new long[] {1}, identical.getCommonObjectIds(2));
+    assertEquals(List.of(), identical.getAddedElements());
+    assertEquals(List.of(), identical.getRemovedElements());
+
+    var fromEmpty = compare(List.of(), elements);
+    assertArrayEquals(new long[] {1, 2}, fromEmpty.getAddedObjectIds(1));
+    assertEquals(elements, fromEmpty.getAddedElements());
+    assertEquals(List.of(), fromEmpty.getRemovedElements());
+  }
+
+  /**
+   * Compares elements by object ID within their network source.
+   *
+   * @param before the elements to compare from
+   * @param after the elements to compare to
+   * @return the comparison
+   */
+  private static UtilityNetworkTraceResultDiff.Comparison<Element, Integer> compare(
+    List<Element> before, List<Element> after) {
+    return UtilityNetworkTraceResultDiff.compare(
+      before, element -> element.objectId, after, element -> element.objectId, element -> element.networkSourceId);
+  }
+
+  /**
+   * An element with the ID of its network source and its object ID.
+   */
+  private static final class Element {
+
+    private final int networkSourceId;
+    private final long objectId;
+
+    private Element(int networkSourceId, long objectId) {
+      this.networkSourceId = networkSourceId;
+      this.objectId = objectId;
+    }
+  }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2022 Esri
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.esri.arcgisruntime.toolkit;
+
+import com.esri.arcgisruntime.geometry.Geometry;
+import com.esri.arcgisruntime.geometry.Part;
+import com.esri.arcgisruntime.geometry.PartCollection;
+import com.esri.arcgisruntime.geometry.Point;
+import com.esri.arcgisruntime.geometry.Polygon;
+import com.esri.arcgisruntime.geometry.Polyline;
+import com.esri.arcgisruntime.geometry.SpatialReference;
+import com.esri.arcgisruntime.geometry.SpatialReferences;
+import com.esri.arcgisruntime.toolkit.util.JsonUtils;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Utility network trace result exporter unit tests. Geometries are converted for export and written as GeoJSON.
+ */
+@DisplayName("utility network trace result exporter unit tests")
+public class UtilityNetworkTraceResultExporterUnitTest {
+
+  private static final SpatialReference WGS84 = SpatialReferences.getWgs84();
+
+  @TempDir
+  Path tempDir;
+
+  /**
+   * Tests that the clockwise exterior rings and counterclockwise holes of a polygon are written with the orientation
+   * required by RFC 7946.
+   */
+  @Test
+  @DisplayName("polygon rings follow rfc 7946 orientation")
+  @SuppressWarnings("unchecked")
+  void polygonRingOrientation() throws IOException {
+    var parts = new PartCollection(WGS84);
+    // clockwise exterior and counterclockwise hole, as in an Esri polygon
+    parts.add(createPart(0, 0, 0, 10, 10, 10, 10, 0));
+    parts.add(createPart(2, 2, 4, 2, 4, 4, 2, 4));
+    parts.add(createPart(20, 20, 20, 30, 30, 30));
+
+    var geometry = exportGeometry(new Polygon(parts));
+    assertEquals("MultiPolygon", geometry.get("type"));
+    var polygons = (List<List<List<List<Double>>>>) geometry.get("coordinates");
+    assertEquals(2, polygons.size());
+    assertEquals(2, polygons.get(0).size());
+    assertTrue(getSignedArea(polygons.get(0).get(0)) > 0, "exterior rings should be counterclockwise");
+    assertTrue(getSignedArea(polygons.get(0).get(1)) < 0, "holes should be clockwise");
+    assertEquals(1, polygons.get(1).size());
+    assertTrue(getSignedArea(polygons.get(1).get(0)) > 0, "exterior rings should be counterclockwise");
+    // rings are closed
+    var exterior = polygons.get(0).get(0);
+    assertEquals(5, exterior.size());
+    assertEquals(exterior.get(0), exterior.get(4));
+  }
+
+  /**
+   * Tests that parts without points are skipped.
+   */
+  @Test
+  @DisplayName("empty parts are skipped")
+  @SuppressWarnings("unchecked")
+  void emptyParts() throws IOException {
+    var parts = new PartCollection(WGS84);
+    parts.add(new Part(WGS84));
+    parts.add(createPart(1, 2, 3, 4));
+
+    var geometry = exportGeometry(new Polyline(parts));
+    assertEquals("LineString", geometry.get("type"));
+    assertEquals(List.of(List.of(1.0, 2.0), List.of(3.0, 4.0)), geometry.get("coordinates"));
+
+    var emptyParts = new PartCollection(WGS84);
+    emptyParts.add(new Part(WGS84));
+    assertNull(UtilityNetworkTraceResultExporter.toExportGeometry(new Polyline(emptyParts)));
+  }
+
+  /**
+   * Converts a geometry for export and writes it to a GeoJSON file.
+   *
+   * @param geometry the geometry
+   * @return the parsed GeoJSON geometry
+   * @throws IOException if the file cannot be written or read
+   */
+  @SuppressWarnings("unchecked")
+  private Map<String, Object> exportGeometry(Geometry geometry) throws IOException {
+    var file = tempDir.resolve("geometry.geojson");
+    try (var channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+         var writer = UtilityNetworkTraceResultWriter.createGeoJsonWriter(channel, List.of())) {
+      writer.write(UtilityNetworkTraceResultExporter.toExportGeometry(geometry), new Object[0]);
+    }
+    var collection = (Map<String, Object>) JsonUtils.parse(Files.readString(file));
+    var features = (List<Map<String, Object>>) collection.get("features");
+    assertEquals(1, features.size());
+    return (Map<String, Object>) features.get(0).get("geometry");
+  }
+
+  /**
+   * Creates a part from x and y values.
+   *
+   * @param xy the x and y values
+   * @return the part
+   */
+  private static Part createPart(double... xy) {
+    var part = new Part(WGS84);
+    for (int i = 0; i < xy.length; i += 2) {
+      part.addPoint(new Point(xy[i], xy[i + 1], WGS84));
+    }
+    return part;
+  }
+
+  /**
+   * Returns the signed area of a ring of GeoJSON positions, which is positive if the ring is counterclockwise.
+   *
+   * @param ring the ring
+   * @return the signed area
+   */
+  private static double getSignedArea(List<List<Double>> ring) {
+    var area = 0.0;
+    for (int i = 0; i + 1 < ring.size(); i++) {
+      area += ring.get(i).get(0) * ring.get(i + 1).get(1) - ring.get(i + 1).get(0) * ring.get(i).get(1);
+    }
+    return area / 2;
+  }
+}
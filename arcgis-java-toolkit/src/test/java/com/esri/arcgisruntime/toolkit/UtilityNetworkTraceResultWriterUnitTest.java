@@ -0,0 +1,487 @@
+/*
+ * Copyright 2022 Esri
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.esri.arcgisruntime.toolkit;
+
+import com.esri.arcgisruntime.toolkit.UtilityNetworkTraceResultWriter.Column;
+import com.esri.arcgisruntime.toolkit.UtilityNetworkTraceResultWriter.ColumnType;
+import com.esri.arcgisruntime.toolkit.UtilityNetworkTraceResultWriter.ExportGeometry;
+import com.esri.arcgisruntime.toolkit.util.JsonUtils;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Utility network trace result writer unit tests. Each format is written to a file and read back.
+ */
+@DisplayName("utility network trace result writer unit tests")
+public class UtilityNetworkTraceResultWriterUnitTest {
+
+  private static final List<Column> COLUMNS = List.of(
+    new Column("name", ColumnType.STRING),
+    new Column("count", ColumnType.LONG),
+    new Column("length", ColumnType.DOUBLE),
+    new Column("attributes", ColumnType.JSON));
+
+  private static final double[] POINT = {1.5, 2.5};
+  private static final double[] EXTERIOR = {0, 0, 10, 0, 10, 10, 0, 10, 0, 0};
+  private static final double[] HOLE = {2, 2, 2, 4, 4, 4, 4, 2, 2, 2};
+  private static final double[] OTHER_EXTERIOR = {20, 20, 30, 20, 30, 30, 20, 20};
+
+  private static final byte[] FLATGEOBUF_MAGIC_BYTES = {0x66, 0x67, 0x62, 0x03, 0x66, 0x67, 0x62, 0x00};
+
+  @TempDir
+  Path tempDir;
+
+  /**
+   * Tests that a FlatGeobuf file starts with the magic bytes and declares its name, columns and feature count.
+   */
+  @Test
+  @DisplayName("flatgeobuf header has magic bytes, columns and feature count")
+  void flatGeobufHeader() throws IOException {
+    var buffer = writeFlatGeobuf();
+
+    var magicBytes = new byte[FLATGEOBUF_MAGIC_BYTES.length];
+    buffer.duplicate().get(magicBytes);
+    assertArrayEquals(FLATGEOBUF_MAGIC_BYTES, magicBytes);
+
+    var header = FlatBufferTable.getSizePrefixedRoot(buffer, FLATGEOBUF_MAGIC_BYTES.length);
+    assertEquals("trace", header.getString(0));
+    assertEquals(4, header.getLong(8));
+    assertEquals(0, header.getShort(9));
+    var columns = header.getTables(7);
+    assertEquals(COLUMNS.size(), columns.size());
+    assertEquals("name", columns.get(0).getString(0));
+    assertEquals(11, columns.get(0).getByte(1));
+    assertEquals("count", columns.get(1).getString(0));
+    assertEquals(7, columns.get(1).getByte(1));
+    assertEquals("length", columns.get(2).getString(0));
+    assertEquals(10, columns.get(2).getByte(1));
+    assertEquals("attributes", columns.get(3).getString(0));
+    assertEquals(12, columns.get(3).getByte(1));
+    var crs = header.getTable(10);
+    assertEquals("EPSG", crs.getString(0));
+    assertEquals(4326, crs.getInt(1));
+  }
+
+  /**
+   * Tests that a FlatGeobuf file contains one feature for each written row, with the encoded properties and geometry.
+   */
+  @Test
+  @DisplayName("flatgeobuf features round trip properties and geometry")
+  void flatGeobufFeatures() throws IOException {
+    var features = readFlatGeobufFeatures(writeFlatGeobuf());
+    assertEquals(4, features.size());
+
+    // point with a value for every column
+    var properties = features.get(0).getBytes(1);
+    assertEquals(0, properties.getShort());
+    assertEquals("a, \"b\"", getString(properties));
+    assertEquals(1, properties.getShort());
+    assertEquals(3, properties.getLong());
+    assertEquals(2, properties.getShort());
+    assertEquals(0.25, properties.getDouble());
+    assertEquals(3, properties.getShort());
+    assertEquals("{\"x\":1}", getString(properties));
+    assertTrue(!properties.hasRemaining());
+    var point = features.get(0).getTable(0);
+    assertEquals(1, point.getByte(6));
+    assertArrayEquals(POINT, point.getDoubles(1));
+    assertNull(point.getInts(0));
+
+    // polygon with a hole, where null values are omitted
+    properties = features.get(1).getBytes(1);
+    assertEquals(0, properties.getShort());
+    assertEquals("c", getString(properties));
+    assertEquals(2, properties.getShort());
+    assertEquals(10.0, properties.getDouble());
+    assertTrue(!properties.hasRemaining());
+    var polygon = features.get(1).getTable(0);
+    assertEquals(3, polygon.getByte(6));
+    assertArrayEquals(concat(EXTERIOR, HOLE), polygon.getDoubles(1));
+    assertArrayEquals(new int[] {EXTERIOR.length / 2, (EXTERIOR.length + HOLE.length) / 2}, polygon.getInts(0));
+
+    // multi polygon, where each polygon is a part
+    var multiPolygon = features.get(2).getTable(0);
+    assertEquals(6, multiPolygon.getByte(6));
+    var parts = multiPolygon.getTables(7);
+    assertEquals(2, parts.size());
+    assertEquals(3, parts.get(0).getByte(6));
+    assertArrayEquals(concat(EXTERIOR, HOLE), parts.get(0).getDoubles(1));
+    assertEquals(3, parts.get(1).getByte(6));
+    assertArrayEquals(OTHER_EXTERIOR, parts.get(1).getDoubles(1));
+
+    // no geometry
+    assertNull(features.get(3).getTable(0));
+    properties = features.get(3).getBytes(1);
+    assertEquals(1, properties.getShort());
+    assertEquals(-1, properties.getLong());
+    assertTrue(!properties.hasRemaining());
+  }
+
+  /**
+   * Tests that a GeoJSON file parses as a feature collection with the written properties and geometries.
+   */
+  @Test
+  @DisplayName("geojson output parses and round trips properties and geometry")
+  @SuppressWarnings("unchecked")
+  void geoJson() throws IOException {
+    var file = tempDir.resolve("trace.geojson");
+    try (var writer = UtilityNetworkTraceResultWriter.createGeoJsonWriter(open(file), COLUMNS)) {
+      writeRows(writer);
+    }
+    var collection = (Map<String, Object>) JsonUtils.parse(Files.readString(file));
+    assertEquals("FeatureCollection", collection.get("type"));
+    var features = (List<Map<String, Object>>) collection.get("features");
+    assertEquals(4, features.size());
+
+    var properties = (Map<String, Object>) features.get(0).get("properties");
+    assertEquals("a, \"b\"", properties.get("name"));
+    assertEquals(3.0, properties.get("count"));
+    assertEquals(0.25, properties.get("length"));
+    // JSON columns are embedded as objects
+    assertEquals(Map.of("x", 1.0), properties.get("attributes"));
+    var geometry = (Map<String, Object>) features.get(0).get("geometry");
+    assertEquals("Point", geometry.get("type"));
+    assertEquals(List.of(1.5, 2.5), geometry.get("coordinates"));
+
+    properties = (Map<String, Object>) features.get(1).get("properties");
+    assertEquals("c", properties.get("name"));
+    assertTrue(properties.containsKey("count"));
+    assertNull(properties.get("count"));
+    geometry = (Map<String, Object>) features.get(1).get("geometry");
+    assertEquals("Polygon", geometry.get("type"));
+    assertEquals(List.of(toPositions(EXTERIOR), toPositions(HOLE)), geometry.get("coordinates"));
+
+    geometry = (Map<String, Object>) features.get(2).get("geometry");
+    assertEquals("MultiPolygon", geometry.get("type"));
+    assertEquals(List.of(List.of(toPositions(EXTERIOR), toPositions(HOLE)), List.of(toPositions(OTHER_EXTERIOR))),
+      geometry.get("coordinates"));
+
+    assertTrue(features.get(3).containsKey("geometry"));
+    assertNull(features.get(3).get("geometry"));
+  }
+
+  /**
+   * Tests that a CSV file parses with a header row, quoted values and WKT geometries.
+   */
+  @Test
+  @DisplayName("csv output parses with quoted values and wkt geometry")
+  void csv() throws IOException {
+    var file = tempDir.resolve("trace.csv");
+    try (var writer = UtilityNetworkTraceResultWriter.createCsvWriter(open(file), COLUMNS)) {
+      writeRows(writer);
+    }
+    var rows = parseCsv(Files.readString(file));
+    assertEquals(5, rows.size());
+    assertEquals(List.of("name", "count", "length", "attributes", "wkt"), rows.get(0));
+    assertEquals(List.of("a, \"b\"", "3", "0.25", "{\"x\":1}", "POINT (1.5 2.5)"), rows.get(1));
+    assertEquals(List.of("c", "", "10", "",
+      "POLYGON ((0 0, 10 0, 10 10, 0 10, 0 0), (2 2, 2 4, 4 4, 4 2, 2 2))"), rows.get(2));
+    assertEquals(List.of("", "", "", "", "MULTIPOLYGON (((0 0, 10 0, 10 10, 0 10, 0 0), (2 2, 2 4, 4 4, 4 2, 2 2)), " +
+      "((20 20, 30 20, 30 30, 20 20)))"), rows.get(3));
+    assertEquals(List.of("", "-1", "", "", ""), rows.get(4));
+  }
+
+  /**
+   * Writes the test rows: a point, a polygon with a hole, a multi polygon and a row without a geometry.
+   *
+   * @param writer the writer
+   * @throws IOException if the rows cannot be written
+   */
+  private static void writeRows(UtilityNetworkTraceResultWriter writer) throws IOException {
+    writer.write(new ExportGeometry(ExportGeometry.Type.POINT, List.of(List.of(POINT))),
+      new Object[] {"a, \"b\"", 3L, 0.25, "{\"x\":1}"});
+    writer.write(new ExportGeometry(ExportGeometry.Type.POLYGON, List.of(List.of(EXTERIOR, HOLE))),
+      new Object[] {"c", null, 10.0, null});
+    writer.write(new ExportGeometry(ExportGeometry.Type.MULTI_POLYGON,
+      List.of(List.of(EXTERIOR, HOLE), List.of(OTHER_EXTERIOR))), new Object[COLUMNS.size()]);
+    writer.write(null, new Object[] {null, -1L, null, null});
+  }
+
+  /**
+   * Writes the test rows to a FlatGeobuf file and reads the file.
+   *
+   * @return the contents of the file
+   * @throws IOException if the file cannot be written or read
+   */
+  private ByteBuffer writeFlatGeobuf() throws IOException {
+    var file = tempDir.resolve("trace.fgb");
+    try (var writer = UtilityNetworkTraceResultWriter.createFlatGeobufWriter(open(file), COLUMNS, "trace", 4)) {
+      writeRows(writer);
+    }
+    return ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+  }
+
+  /**
+   * Reads the features of a FlatGeobuf file without a spatial index.
+   *
+   * @param buffer the contents of the file
+   * @return the feature tables
+   */
+  private static List<FlatBufferTable> readFlatGeobufFeatures(ByteBuffer buffer) {
+    List<FlatBufferTable> features = new ArrayList<>();
+    var position = FLATGEOBUF_MAGIC_BYTES.length;
+    position += Integer.BYTES + buffer.getInt(position);
+    while (position < buffer.limit()) {
+      features.add(FlatBufferTable.getSizePrefixedRoot(buffer, position));
+      position += Integer.BYTES + buffer.getInt(position);
+    }
+    assertEquals(buffer.limit(), position);
+    return features;
+  }
+
+  /**
+   * Opens a file for writing.
+   *
+   * @param file the file
+   * @return the channel
+   * @throws IOException if the file cannot be opened
+   */
+  private static FileChannel open(Path file) throws IOException {
+    return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+      StandardOpenOption.TRUNCATE_EXISTING);
+  }
+
+  /**
+   * Reads a length prefixed UTF-8 string from FlatGeobuf properties.
+   *
+   * @param properties the properties
+   * @return the string
+   */
+  private static String getString(ByteBuffer properties) {
+    var bytes = new byte[properties.getInt()];
+    properties.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Converts x and y values to a list of GeoJSON positions.
+   *
+   * @param xy the x and y values
+   * @return the positions
+   */
+  private static List<List<Double>> toPositions(double[] xy) {
+    List<List<Double>> positions = new ArrayList<>();
+    for (int i = 0; i < xy.length; i += 2) {
+      positions.add(List.of(xy[i], xy[i + 1]));
+    }
+    return positions;
+  }
+
+  /**
+   * Concatenates arrays.
+   *
+   * @param first the first array
+   * @param second the second array
+   * @return the concatenated array
+   */
+  private static double[] concat(double[] first, double[] second) {
+    var result = Arrays.copyOf(first, first.length + second.length);
+    System.arraycopy(second, 0, result, first.length, second.length);
+    return result;
+  }
+
+  /**
+   * Parses CSV text with CRLF line breaks and double quoted values.
+   *
+   * @param text the text
+   * @return the rows
+   */
+  private static List<List<String>> parseCsv(String text) {
+    List<List<String>> rows = new ArrayList<>();
+    List<String> row = new ArrayList<>();
+    var value = new StringBuilder();
+    var isQuoted = false;
+    for (int i = 0; i < text.length(); i++) {
+      var c = text.charAt(i);
+      if (isQuoted) {
+        if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+          value.append('"');
+          i++;
+        } else if (c == '"') {
+          isQuoted = false;
+        } else {
+          value.append(c);
+        }
+      } else if (c == '"') {
+        isQuoted = true;
+      } else if (c == ',') {
+        row.add(value.toString());
+        value.setLength(0);
+      } else if (c == '\r' && i + 1 < text.length() && text.charAt(i + 1) == '\n') {
+        row.add(value.toString());
+        value.setLength(0);
+        rows.add(row);
+        row = new ArrayList<>();
+        i++;
+      } else {
+        value.append(c);
+      }
+    }
+    assertTrue(row.isEmpty() && value.length() == 0, "the last row should end with a line break");
+    return rows;
+  }
+
+  /**
+   * A table in a FlatBuffer, read as described by the FlatBuffers binary format.
+   */
+  private static final class FlatBufferTable {
+
+    private final ByteBuffer buffer;
+    private final int position;
+
+    private FlatBufferTable(ByteBuffer buffer, int position) {
+      this.buffer = buffer;
+      this.position = position;
+    }
+
+    /**
+     * Returns the root table of a size prefixed FlatBuffer.
+     *
+     * @param buffer the buffer
+     * @param position the position of the size prefix
+     * @return the root table
+     */
+    static FlatBufferTable getSizePrefixedRoot(ByteBuffer buffer, int position) {
+      var rootPosition = position + Integer.BYTES;
+      return new FlatBufferTable(buffer, rootPosition + buffer.getInt(rootPosition));
+    }
+
+    /**
+     * Returns the position of a field.
+     *
+     * @param field the index of the field
+     * @return the position. 0 if the field is absent
+     */
+    private int getFieldPosition(int field) {
+      var vtable = position - buffer.getInt(position);
+      var vtableSize = buffer.getShort(vtable);
+      var entry = Short.BYTES * (2 + field);
+      if (entry >= vtableSize) {
+        return 0;
+      }
+      var offset = buffer.getShort(vtable + entry);
+      return offset != 0 ? position + offset : 0;
+    }
+
+    private int getReferencePosition(int field) {
+      var fieldPosition = getFieldPosition(field);
+      return fieldPosition != 0 ? fieldPosition + buffer.getInt(fieldPosition) : 0;
+    }
+
+    byte getByte(int field) {
+      var fieldPosition = getFieldPosition(field);
+      return fieldPosition != 0 ? buffer.get(fieldPosition) : 0;
+    }
+
+    short getShort(int field) {
+      var fieldPosition = getFieldPosition(field);
+      return fieldPosition != 0 ? buffer.getShort(fieldPosition) : 0;
+    }
+
+    int getInt(int field) {
+      var fieldPosition = getFieldPosition(field);
+      return fieldPosition != 0 ? buffer.getInt(fieldPosition) : 0;
+    }
+
+    long getLong(int field) {
+      var fieldPosition = getFieldPosition(field);
+      return fieldPosition != 0 ? buffer.getLong(fieldPosition) : 0;
+    }
+
+    String getString(int field) {
+      var vector = getReferencePosition(field);
+      if (vector == 0) {
+        return null;
+      }
+      var value = new byte[buffer.getInt(vector)];
+      buffer.duplicate().position(vector + Integer.BYTES).get(value);
+      assertEquals(0, buffer.get(vector + Integer.BYTES + value.length), "strings should be null terminated");
+      return new String(value, StandardCharsets.UTF_8);
+    }
+
+    ByteBuffer getBytes(int field) {
+      var vector = getReferencePosition(field);
+      if (vector == 0) {
+        return null;
+      }
+      return buffer.duplicate().position(vector + Integer.BYTES).limit(vector + Integer.BYTES + buffer.getInt(vector))
+        .slice().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    int[] getInts(int field) {
+      var vector = getReferencePosition(field);
+      if (vector == 0) {
+        return null;
+      }
+      var values = new int[buffer.getInt(vector)];
+      for (int i = 0; i < values.length; i++) {
+        values[i] = buffer.getInt(vector + Integer.BYTES * (i + 1));
+      }
+      return values;
+    }
+
+    double[] getDoubles(int field) {
+      var vector = getReferencePosition(field);
+      if (vector == 0) {
+        return null;
+      }
+      assertEquals(0, (vector + Integer.BYTES) % Double.BYTES, "doubles should be aligned");
+      var values = new double[buffer.getInt(vector)];
+      for (int i = 0; i < values.length; i++) {
+        values[i] = buffer.getDouble(vector + Integer.BYTES + Double.BYTES * i);
+      }
+      return values;
+    }
+
+    FlatBufferTable getTable(int field) {
+      var table = getReferencePosition(field);
+      return table != 0 ? new FlatBufferTable(buffer, table) : null;
+    }
+
+    List<FlatBufferTable> getTables(int field) {
+      var vector = getReferencePosition(field);
+      List<FlatBufferTable> tables = new ArrayList<>();
+      if (vector == 0) {
+        return tables;
+      }
+      for (int i = 0; i < buffer.getInt(vector); i++) {
+        var element = vector + Integer.BYTES * (i + 1);
+        tables.add(new FlatBufferTable(buffer, element + buffer.getInt(element)));
+      }
+      return tables;
+    }
+  }
+}
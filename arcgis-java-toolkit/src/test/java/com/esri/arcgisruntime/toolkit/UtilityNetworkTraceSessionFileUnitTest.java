@@ -0,0 +1,179 @@
+/*
+ * Copyright 2022 Esri
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.esri.arcgisruntime.toolkit;
+
+import com.esri.arcgisruntime.toolkit.UtilityNetworkTraceSessionFile.SavedElement;
+import com.esri.arcgisruntime.toolkit.UtilityNetworkTraceSessionFile.SavedResult;
+import com.esri.arcgisruntime.utilitynetworks.UtilityTraceFunctionType;
+import javafx.scene.paint.Color;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Utility network trace session file unit tests. Saved results are written to a file and read back, which does not
+ * require a utility network.
+ */
+@DisplayName("utility network trace session file unit tests")
+public class UtilityNetworkTraceSessionFileUnitTest {
+
+  private static final UUID TRACE_CONFIGURATION_GLOBAL_ID = UUID.fromString("0d7a2f2c-6b1e-4f8e-9a51-3c3f0f1e2d4b");
+
+  @TempDir
+  Path tempDir;
+
+  /**
+   * Tests that every field of saved results, including the object IDs of the elements, is read back as written.
+   */
+  @Test
+  @DisplayName("saved results round trip")
+  void roundTrip() throws IOException {
+    var savedResult = new SavedResult();
+    savedResult.name = "Isolation trace";
+    savedResult.visualizationColor = Color.color(0.2, 0.4, 0.6, 0.5);
+    savedResult.isSelected = true;
+    savedResult.utilityNetworkName = "Naperville Electric";
+    savedResult.traceConfigurationGlobalId = TRACE_CONFIGURATION_GLOBAL_ID;
+    savedResult.traceType = "ISOLATION";
+    savedResult.exceptionMessage = null;
+    savedResult.warnings.addAll(List.of("first warning", "second warning"));
+    savedResult.assetTypes.add(new String[]{"Electric Distribution Device", "Circuit Breaker", "Three Phase"});
+    savedResult.assetTypes.add(new String[]{"Electric Distribution Line", "Medium Voltage", "Underground"});
+    var startingPoint = new SavedElement(0, UUID.randomUUID(), 17, 1, 0);
+    var edgeElement = new SavedElement(1, UUID.randomUUID(), 4_000_000_000L, -1, 0.25);
+    savedResult.startingPoints = List.of(startingPoint);
+    savedResult.elements = List.of(startingPoint, edgeElement);
+    savedResult.functionResults.add(
+      new UtilityNetworkTraceFunctionResult("Load", UtilityTraceFunctionType.ADD, 12.5));
+    savedResult.functionResults.add(new UtilityNetworkTraceFunctionResult(null, null, "text"));
+    savedResult.functionResults.add(new UtilityNetworkTraceFunctionResult("Phases", null, null));
+    savedResult.geometries.add("{\"x\":1,\"y\":2}");
+    savedResult.extent = "{\"xmin\":0,\"ymin\":0,\"xmax\":1,\"ymax\":1}";
+
+    var emptyResult = new SavedResult();
+    emptyResult.visualizationColor = Color.BLACK;
+
+    var file = tempDir.resolve("session.unts");
+    UtilityNetworkTraceSessionFile.write(file, List.of(savedResult, emptyResult));
+    var readResults = UtilityNetworkTraceSessionFile.read(file);
+
+    assertEquals(2, readResults.size());
+    var readResult = readResults.get(0);
+    assertEquals("Isolation trace", readResult.getName());
+    assertEquals(savedResult.visualizationColor, readResult.visualizationColor);
+    assertTrue(readResult.isSelected);
+    assertEquals("Naperville Electric", readResult.getUtilityNetworkName());
+    assertEquals(TRACE_CONFIGURATION_GLOBAL_ID, readResult.traceConfigurationGlobalId);
+    assertEquals("ISOLATION", readResult.traceType);
+    assertNull(readResult.exceptionMessage);
+    assertEquals(savedResult.warnings, readResult.warnings);
+    assertEquals(2, readResult.assetTypes.size());
+    assertArrayEquals(savedResult.assetTypes.get(1), readResult.assetTypes.get(1));
+    assertEquals(1, readResult.startingPoints.size());
+    assertElementEquals(startingPoint, readResult.startingPoints.get(0));
+    assertEquals(2, readResult.elements.size());
+    assertElementEquals(startingPoint, readResult.elements.get(0));
+    assertElementEquals(edgeElement, readResult.elements.get(1));
+    assertEquals(3, readResult.functionResults.size());
+    assertEquals("Load", readResult.functionResults.get(0).getNetworkAttributeName());
+    assertEquals(UtilityTraceFunctionType.ADD, readResult.functionResults.get(0).getFunctionType());
+    assertEquals(12.5, readResult.functionResults.get(0).getResult());
+    assertNull(readResult.functionResults.get(1).getNetworkAttributeName());
+    assertNull(readResult.functionResults.get(1).getFunctionType());
+    assertEquals("text", readResult.functionResults.get(1).getResult());
+    assertNull(readResult.functionResults.get(2).getResult());
+    assertEquals(savedResult.geometries, readResult.geometries);
+    assertEquals(savedResult.extent, readResult.extent);
+
+    var readEmptyResult = readResults.get(1);
+    assertNull(readEmptyResult.getName());
+    assertFalse(readEmptyResult.isSelected);
+    assertNull(readEmptyResult.traceConfigurationGlobalId);
+    assertTrue(readEmptyResult.elements.isEmpty());
+    assertTrue(readEmptyResult.functionResults.isEmpty());
+    assertNull(readEmptyResult.extent);
+  }
+
+  /**
+   * Tests that strings longer than the chunk size they are read in are read back as written.
+   */
+  @Test
+  @DisplayName("long strings round trip")
+  void longStrings() throws IOException {
+    var savedResult = new SavedResult();
+    savedResult.visualizationColor = Color.RED;
+    savedResult.name = "\u00e9".repeat(100_000);
+    savedResult.geometries.add("x".repeat(200_000));
+
+    var file = tempDir.resolve("long.unts");
+    UtilityNetworkTraceSessionFile.write(file, List.of(savedResult));
+    var readResult = UtilityNetworkTraceSessionFile.read(file).get(0);
+
+    assertEquals(savedResult.name, readResult.getName());
+    assertEquals(savedResult.geometries, readResult.geometries);
+  }
+
+  /**
+   * Tests that files that are not saved trace sessions, or are truncated, are rejected.
+   */
+  @Test
+  @DisplayName("invalid files are rejected")
+  void invalidFiles() throws IOException {
+    var textFile = tempDir.resolve("text.unts");
+    Files.writeString(textFile, "not a trace session", StandardCharsets.UTF_8);
+    assertThrows(IOException.class, () -> UtilityNetworkTraceSessionFile.read(textFile));
+
+    var savedResult = new SavedResult();
+    savedResult.visualizationColor = Color.RED;
+    savedResult.name = "truncated";
+    var file = tempDir.resolve("truncated.unts");
+    UtilityNetworkTraceSessionFile.write(file, List.of(savedResult));
+    var bytes = Files.readAllBytes(file);
+    var truncatedFile = tempDir.resolve("truncated-copy.unts");
+    Files.write(truncatedFile, Arrays.copyOf(bytes, bytes.length - 4));
+    assertThrows(IOException.class, () -> UtilityNetworkTraceSessionFile.read(truncatedFile));
+  }
+
+  /**
+   * Asserts that a saved element was read back as written.
+   *
+   * @param expected the written element
+   * @param actual the read element
+   */
+  private static void assertElementEquals(SavedElement expected, SavedElement actual) {
+    assertEquals(expected.assetTypeIndex, actual.assetTypeIndex);
+    assertEquals(expected.globalId, actual.globalId);
+    assertEquals(expected.objectId, actual.objectId);
+    assertEquals(expected.terminalId, actual.terminalId);
+    assertEquals(expected.fractionAlongEdge, actual.fractionAlongEdge);
+  }
+}
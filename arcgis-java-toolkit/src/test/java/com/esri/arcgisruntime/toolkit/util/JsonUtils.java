@@ -0,0 +1,212 @@
+/*
+ * Copyright 2022 Esri
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.esri.arcgisruntime.toolkit.util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Utilities for parsing JSON in tests. Objects are parsed to maps, arrays to lists and numbers to doubles.
+ */
+public class JsonUtils {
+
+  private final String json;
+  private int index = 0;
+
+  private JsonUtils(String json) {
+    this.json = json;
+  }
+
+  /**
+   * Parses a JSON value.
+   * @param json the JSON text
+   * @return the parsed value
+   * @throws IllegalArgumentException if the text is not valid JSON
+   */
+  public static Object parse(String json) {
+    var parser = new JsonUtils(json);
+    var value = parser.parseValue();
+    parser.skipWhitespace();
+    if (parser.index != json.length()) {
+      throw parser.error("unexpected trailing characters");
+    }
+    return value;
+  }
+
+  private Object parseValue() {
+    skipWhitespace();
+    if (index >= json.length()) {
+      throw error("unexpected end of input");
+    }
+    var c = json.charAt(index);
+    switch (c) {
+      case '{':
+        return parseObject();
+      case '[':
+        return parseArray();
+      case '"':
+        return parseString();
+      case 't':
+        expect("true");
+        return true;
+      case 'f':
+        expect("false");
+        return false;
+      case 'n':
+        expect("null");
+        return null;
+      default:
+        return parseNumber();
+    }
+  }
+
+  private Map<String, Object> parseObject() {
+    Map<String, Object> object = new LinkedHashMap<>();
+    index++;
+    skipWhitespace();
+    if (peek() == '}') {
+      index++;
+      return object;
+    }
+    while (true) {
+      skipWhitespace();
+      var key = parseString();
+      skipWhitespace();
+      expect(":");
+      object.put(key, parseValue());
+      skipWhitespace();
+      if (peek() == ',') {
+        index++;
+      } else {
+        expect("}");
+        return object;
+      }
+    }
+  }
+
+  private List<Object> parseArray() {
+    List<Object> array = new ArrayList<>();
+    index++;
+    skipWhitespace();
+    if (peek() == ']') {
+      index++;
+      return array;
+    }
+    while (true) {
+      array.add(parseValue());
+      skipWhitespace();
+      if (peek() == ',') {
+        index++;
+      } else {
+        expect("]");
+        return array;
+      }
+    }
+  }
+
+  private String parseString() {
+    expect("\"");
+    var value = new StringBuilder();
+    while (true) {
+      var c = next();
+      if (c == '"') {
+        return value.toString();
+      } else if (c == '\\') {
+        var escaped = next();
+        switch (escaped) {
+          case 'n':
+            value.append('\n');
+            break;
+          case 'r':
+            value.append('\r');
+            break;
+          case 't':
+            value.append('\t');
+            break;
+          case 'b':
+            value.append('\b');
+            break;
+          case 'f':
+            value.append('\f');
+            break;
+          case 'u':
+            if (index + 4 > json.length()) {
+              throw error("invalid unicode escape");
+            }
+            value.append((char) Integer.parseInt(json.substring(index, index + 4), 16));
+            index += 4;
+            break;
+          case '"':
+          case '\\':
+          case '/':
+            value.append(escaped);
+            break;
+          default:
+            throw error("invalid escape");
+        }
+      } else if (c < 0x20) {
+        throw error("unescaped control character");
+      } else {
+        value.append(c);
+      }
+    }
+  }
+
+  private Double parseNumber() {
+    var start = index;
+    while (index < json.length() && "+-0123456789.eE".indexOf(json.charAt(index)) >= 0) {
+      index++;
+    }
+    try {
+      return Double.valueOf(json.substring(start, index));
+    } catch (NumberFormatException e) {
+      throw error("invalid number");
+    }
+  }
+
+  private void expect(String expected) {
+    if (!json.startsWith(expected, index)) {
+      throw error("expected " + expected);
+    }
+    index += expected.length();
+  }
+
+  private char peek() {
+    if (index >= json.length()) {
+      throw error("unexpected end of input");
+    }
+    return json.charAt(index);
+  }
+
+  private char next() {
+    var c = peek();
+    index++;
+    return c;
+  }
+
+  private void skipWhitespace() {
+    while (index < json.length() && Character.isWhitespace(json.charAt(index))) {
+      index++;
+    }
+  }
+
+  private IllegalArgumentException error(String message) {
+    return new IllegalArgumentException(message + " at index " + index);
+  }
+}